@@ -41,12 +41,19 @@ dependencies {
   androidTestImplementation(libs.androidx.espresso.core)
   testImplementation(kotlin("test"))
   testImplementation("org.robolectric:robolectric:4.11.1")
+  testImplementation(libs.kotlinx.coroutines.test)
+  testImplementation(testFixtures(project(":lockctl-core")))
 
   implementation(libs.androidx.core.ktx)
   implementation(libs.androidx.appcompat)
   implementation(libs.material)
   implementation(libs.androidx.activity)
   implementation(libs.androidx.constraintlayout)
+  implementation(libs.androidx.lifecycle.runtime.ktx)
+  implementation(libs.kotlinx.coroutines.android)
+
+  // 协议编解码与防抖调度引擎，不依赖 Android
+  implementation(project(":lockctl-core"))
 
   // 添加Gson支持JSON解析
   implementation("com.google.code.gson:gson:2.10.1")
@@ -18,4 +18,10 @@
 
 # If you keep the line number information, uncomment this to
 # hide the original source file name.
-#-renamesourcefileattribute SourceFile
\ No newline at end of file
+#-renamesourcefileattribute SourceFile
+
+# 开启混淆时移除锁控模块的 VERBOSE/DEBUG 日志调用
+-assumenosideeffects class xyz.junerver.android.lockdemo.lockctl.LockCtlLog {
+    public static void v(...);
+    public static void d(...);
+}
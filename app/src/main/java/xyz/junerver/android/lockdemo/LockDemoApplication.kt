@@ -0,0 +1,17 @@
+package xyz.junerver.android.lockdemo
+
+import android.app.Application
+import android.content.pm.ApplicationInfo
+import xyz.junerver.android.lockdemo.lockctl.AndroidLogSink
+import xyz.junerver.android.lockdemo.lockctl.LockCtlLog
+
+class LockDemoApplication : Application() {
+
+  override fun onCreate() {
+    super.onCreate()
+    // 锁控核心模块不依赖 Android，日志由这里接到 Logcat；发布版本只保留 INFO 及以上
+    LockCtlLog.setSink(AndroidLogSink())
+    val debuggable = applicationInfo.flags and ApplicationInfo.FLAG_DEBUGGABLE != 0
+    LockCtlLog.setLevel(if (debuggable) LockCtlLog.DEBUG else LockCtlLog.INFO)
+  }
+}
@@ -0,0 +1,257 @@
+package xyz.junerver.android.lockdemo.check;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 自检结果的二进制存储
+ * 代替 SharedPreferences 中的 Gson JSON：加载时不经过 XML 解析与反射，映射关系按定长整数对顺序读出
+ * <p>
+ * 文件格式（大端）：魔数 "DCR1" (4) + 版本 (2) + 载荷 + CRC32 (4，覆盖之前全部字节)
+ * 载荷：状态序号 (1，-1 为null)、开始/结束时间 (8+8，-1 为null)、通道数、连接数、已关门数 (4×3)、
+ * 连接通道列表 (数量 4，-1 为null，之后每项 4)、映射关系 (数量 4，-1 为null，之后每对 4+4)、错误信息与当前步骤 (UTF-8，长度 4，-1 为null)
+ * <p>
+ * 写入先写临时文件并同步到存储设备，再重命名覆盖，中途断电时保留旧文件
+ */
+public class CheckResultStore {
+
+    // 默认文件名
+    public static final String FILE_NAME = "last_check_result.bin";
+
+    // 魔数 "DCR1"
+    static final int MAGIC = 0x44435231;
+    // 当前格式版本
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 6;
+    private static final int CRC_SIZE = 4;
+
+    private final File file;
+
+    /**
+     * @param file 存储文件
+     */
+    public CheckResultStore(File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public boolean exists() {
+        return file.isFile();
+    }
+
+    public boolean delete() {
+        return file.delete();
+    }
+
+    /**
+     * 读取检测结果
+     *
+     * @return 检测结果，文件不存在时返回null
+     * @throws IOException 读取失败、校验失败或版本不受支持
+     */
+    public DeviceCheckResult load() throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        long length = file.length();
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("检测结果文件过大: " + length);
+        }
+        byte[] data = new byte[(int) length];
+        try (FileInputStream in = new FileInputStream(file)) {
+            int read = 0;
+            while (read < data.length) {
+                int n = in.read(data, read, data.length - read);
+                if (n < 0) {
+                    throw new IOException("检测结果文件被截断");
+                }
+                read += n;
+            }
+        }
+        return decode(data);
+    }
+
+    /**
+     * 原子写入检测结果
+     *
+     * @param result 检测结果
+     * @throws IOException 写入失败，此时原文件不变
+     */
+    public void save(DeviceCheckResult result) throws IOException {
+        byte[] data = encode(result);
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("无法创建目录: " + parent);
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            out.write(data);
+            out.getFD().sync();
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("替换检测结果文件失败: " + file);
+        }
+    }
+
+    /**
+     * 编码检测结果
+     *
+     * @param result 检测结果
+     * @return 带头部与校验的完整文件内容
+     */
+    static byte[] encode(DeviceCheckResult result) throws IOException {
+        Map<Integer, Integer> mapping = result.getChannelToLockMapping();
+        List<Integer> channels = result.getConnectedChannels();
+        int mappingSize = mapping != null ? mapping.size() : 0;
+        int channelCount = channels != null ? channels.size() : 0;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + (channelCount + mappingSize * 2) * 4);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+
+        out.writeByte(result.getStatus() != null ? result.getStatus().ordinal() : -1);
+        out.writeLong(result.getCheckStartTime() != null ? result.getCheckStartTime().getTime() : -1);
+        out.writeLong(result.getCheckEndTime() != null ? result.getCheckEndTime().getTime() : -1);
+        out.writeInt(result.getTotalChannels());
+        out.writeInt(result.getConnectedLocksCount());
+        out.writeInt(result.getClosedLocksCount());
+
+        out.writeInt(channels != null ? channelCount : -1);
+        for (int i = 0; i < channelCount; i++) {
+            out.writeInt(channels.get(i));
+        }
+        out.writeInt(mapping != null ? mappingSize : -1);
+        if (mapping != null) {
+            for (Map.Entry<Integer, Integer> entry : mapping.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+        }
+        writeString(out, result.getErrorMessage());
+        writeString(out, result.getCurrentStep());
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray(), 0, bytes.size());
+        out.writeInt((int) crc.getValue());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 解码检测结果
+     *
+     * @param data 完整文件内容
+     * @return 检测结果
+     * @throws IOException 校验失败、数据不完整或版本不受支持
+     */
+    static DeviceCheckResult decode(byte[] data) throws IOException {
+        if (data.length < HEADER_SIZE + CRC_SIZE) {
+            throw new IOException("检测结果文件过短: " + data.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("不是检测结果文件");
+        }
+        int version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("不支持的检测结果格式版本: " + version);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - CRC_SIZE);
+        if (buffer.getInt(data.length - CRC_SIZE) != (int) crc.getValue()) {
+            throw new IOException("检测结果文件校验失败");
+        }
+        buffer.limit(data.length - CRC_SIZE);
+
+        try {
+            DeviceCheckResult result = new DeviceCheckResult();
+            int status = buffer.get();
+            DeviceCheckResult.CheckStatus[] statuses = DeviceCheckResult.CheckStatus.values();
+            result.setStatus(status >= 0 && status < statuses.length ? statuses[status] : null);
+            result.setCheckStartTime(readDate(buffer));
+            result.setCheckEndTime(readDate(buffer));
+            result.setTotalChannels(buffer.getInt());
+            result.setConnectedLocksCount(buffer.getInt());
+            result.setClosedLocksCount(buffer.getInt());
+
+            int channelCount = buffer.getInt();
+            if (channelCount >= 0) {
+                checkCount(buffer, channelCount, 4);
+                List<Integer> channels = new ArrayList<>(channelCount);
+                for (int i = 0; i < channelCount; i++) {
+                    channels.add(buffer.getInt());
+                }
+                result.setConnectedChannels(channels);
+            }
+
+            int mappingSize = buffer.getInt();
+            if (mappingSize >= 0) {
+                checkCount(buffer, mappingSize, 8);
+                Map<Integer, Integer> mapping = new HashMap<>(Math.max(16, mappingSize * 4 / 3 + 1));
+                for (int i = 0; i < mappingSize; i++) {
+                    mapping.put(buffer.getInt(), buffer.getInt());
+                }
+                result.setChannelToLockMapping(mapping);
+            } else {
+                result.setChannelToLockMapping(null);
+            }
+
+            result.setErrorMessage(readString(buffer));
+            result.setCurrentStep(readString(buffer));
+            return result;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("检测结果文件不完整", e);
+        }
+    }
+
+    private static void checkCount(ByteBuffer buffer, int count, int itemSize) throws IOException {
+        if (count < 0 || (long) count * itemSize > buffer.remaining()) {
+            throw new IOException("检测结果文件数据长度错误: " + count);
+        }
+    }
+
+    private static Date readDate(ByteBuffer buffer) {
+        long time = buffer.getLong();
+        return time >= 0 ? new Date(time) : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        checkCount(buffer, length, 1);
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
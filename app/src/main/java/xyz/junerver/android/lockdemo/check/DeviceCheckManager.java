@@ -6,12 +6,16 @@ import android.util.Log;
 
 import com.google.gson.Gson;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardResponseModels;
 import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardUtil;
+import xyz.junerver.android.lockdemo.lockctl.ResponseFrame;
 
 /**
  * 设备自检管理器
@@ -28,12 +32,23 @@ public class DeviceCheckManager {
     private final Context context;
     private final LockCtlBoardUtil lockCtl;
     private final SharedPreferences sharedPreferences;
-    private final Gson gson;
+    // 检测结果的二进制存储，上一次的结果在首次读取时才加载
+    private final CheckResultStore checkResultStore;
+    private DeviceCheckResult lastCheckResult;
+    private boolean lastCheckResultLoaded = false;
+    // 写文件需要同步到存储设备，放在单独的线程上，不阻塞帧回调线程
+    private final ExecutorService saveExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "CheckResultStore");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     // 检测状态
     private DeviceCheckResult checkResult;
     private CheckEventListener eventListener;
     private int nextLockNo = 1; // 下一个要分配的门锁序号
+    // 是否正在等待自检发出的0x84响应（其它页面发出的0x84查询不应触发开全部锁）
+    private volatile boolean awaitingAllStatus = false;
 
     /**
      * 检测事件监听器
@@ -60,7 +75,7 @@ public class DeviceCheckManager {
         this.context = context.getApplicationContext();
         this.lockCtl = LockCtlBoardUtil.getInstance();
         this.sharedPreferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        this.gson = new Gson();
+        this.checkResultStore = new CheckResultStore(new File(this.context.getFilesDir(), CheckResultStore.FILE_NAME));
 
         initCheckResult();
         setupSerialListener();
@@ -109,7 +124,9 @@ public class DeviceCheckManager {
         initCheckResult();
 
         // 步骤1: 发送0x84指令查询当前状态（用户应该已关闭所有门锁）
+        awaitingAllStatus = true;
         if (!sendQueryAllStatusCommand()) {
+            awaitingAllStatus = false;
             String error = "发送查询状态指令失败";
             Log.e(TAG, error);
             if (eventListener != null) {
@@ -126,6 +143,7 @@ public class DeviceCheckManager {
      */
     public void stopCheck() {
         if (checkResult.getStatus() == DeviceCheckResult.CheckStatus.IN_PROGRESS) {
+            awaitingAllStatus = false;
             checkResult.setStatus(DeviceCheckResult.CheckStatus.INTERRUPTED);
             checkResult.setCheckEndTime(new Date());
             notifyStatusChanged(DeviceCheckResult.CheckStatus.INTERRUPTED);
@@ -150,17 +168,51 @@ public class DeviceCheckManager {
 
     /**
      * 获取上一次的检测结果
+     * 首次调用时从二进制文件加载；文件不存在时从 SharedPreferences 中的旧 JSON 迁移
      */
-    public DeviceCheckResult getLastCheckResult() {
-        String json = sharedPreferences.getString(KEY_CHECK_RESULT, null);
-        if (json != null) {
-            try {
-                return gson.fromJson(json, DeviceCheckResult.class);
-            } catch (Exception e) {
-                Log.e(TAG, "解析上次检测结果失败", e);
+    public synchronized DeviceCheckResult getLastCheckResult() {
+        if (!lastCheckResultLoaded) {
+            lastCheckResult = loadLastCheckResult();
+            lastCheckResultLoaded = true;
+        }
+        return lastCheckResult;
+    }
+
+    private DeviceCheckResult loadLastCheckResult() {
+        try {
+            DeviceCheckResult result = checkResultStore.load();
+            if (result != null) {
+                return result;
             }
+        } catch (IOException e) {
+            Log.e(TAG, "读取上次检测结果失败", e);
+        }
+        return migrateFromPreferences();
+    }
+
+    /**
+     * 将 SharedPreferences 中旧版的 JSON 检测结果迁移到二进制文件，迁移成功后删除旧数据
+     */
+    private DeviceCheckResult migrateFromPreferences() {
+        String json = sharedPreferences.getString(KEY_CHECK_RESULT, null);
+        if (json == null) {
+            return null;
+        }
+        DeviceCheckResult result;
+        try {
+            result = new Gson().fromJson(json, DeviceCheckResult.class);
+        } catch (Exception e) {
+            Log.e(TAG, "解析上次检测结果失败", e);
+            return null;
         }
-        return null;
+        try {
+            checkResultStore.save(result);
+            sharedPreferences.edit().remove(KEY_CHECK_RESULT).apply();
+            Log.i(TAG, "检测结果已从 SharedPreferences 迁移到 " + checkResultStore.getFile().getName());
+        } catch (IOException e) {
+            Log.e(TAG, "迁移检测结果失败，下次启动重试", e);
+        }
+        return result;
     }
 
     // 私有方法
@@ -172,17 +224,17 @@ public class DeviceCheckManager {
         checkResult = new DeviceCheckResult();
         checkResult.setStatus(DeviceCheckResult.CheckStatus.NOT_STARTED);
         nextLockNo = 1;
+        awaitingAllStatus = false;
     }
 
     /**
      * 设置串口监听器
      */
     private void setupSerialListener() {
-        lockCtl.setOnDataReceived(new LockCtlBoardUtil.OnDataReceived() {
+        lockCtl.addOnFrameReceived(new LockCtlBoardUtil.OnFrameReceived() {
             @Override
-            public void onDataReceived(String json) {
-                Log.d(TAG, "onDataReceived: " + json);
-                handleResponseData(json);
+            public void onFrameReceived(ResponseFrame frame) {
+                handleResponseFrame(frame);
             }
         });
     }
@@ -206,31 +258,24 @@ public class DeviceCheckManager {
     }
 
     /**
-     * 处理响应数据
+     * 处理响应帧
      */
-    private void handleResponseData(String json) {
+    private void handleResponseFrame(ResponseFrame frame) {
         try {
-            Log.d(TAG, "收到响应数据: " + json);
-
-            // 解析指令字
-            int instruction = parseInstructionFromJson(json);
-            if (instruction == -1) {
-                Log.w(TAG, "无法解析指令字");
-                return;
-            }
+            Log.d(TAG, "收到响应帧: " + frame);
 
-            switch (instruction) {
+            switch (frame.getCommandByte()) {
                 case 0x86:
-                    handleOpenAllLocksResponse(json);
+                    handleOpenAllLocksResponse(frame);
                     break;
                 case 0x84:
-                    handleQueryAllStatusResponse(json);
+                    handleQueryAllStatusResponse(frame);
                     break;
                 case 0x85:
-                    handleLockStatusReport(json);
+                    handleLockStatusReport(frame);
                     break;
                 default:
-                    Log.d(TAG, "忽略指令字: 0x" + Integer.toHexString(instruction));
+                    Log.d(TAG, "忽略指令字: 0x" + Integer.toHexString(frame.getCommandByte()));
             }
         } catch (Exception e) {
             Log.e(TAG, "处理响应数据异常", e);
@@ -240,7 +285,12 @@ public class DeviceCheckManager {
     /**
      * 处理开所有锁响应 (0x86) - 第二步：所有锁已打开
      */
-    private void handleOpenAllLocksResponse(String json) {
+    private void handleOpenAllLocksResponse(ResponseFrame frame) {
+        // 只处理自检流程自身发出的0x86
+        if (checkResult.getStatus() != DeviceCheckResult.CheckStatus.IN_PROGRESS) {
+            return;
+        }
+
         updateStep("所有门锁已打开，请按顺序关门（从第1个门开始）");
 
         updateStatus(DeviceCheckResult.CheckStatus.WAITING_USER_ACTION);
@@ -253,12 +303,18 @@ public class DeviceCheckManager {
     /**
      * 处理查询所有状态响应 (0x84) - 第一步：检测已连接的门锁
      */
-    private void handleQueryAllStatusResponse(String json) {
+    private void handleQueryAllStatusResponse(ResponseFrame frame) {
+        // 只处理自检流程自身发出的0x84
+        if (!awaitingAllStatus) {
+            return;
+        }
+        awaitingAllStatus = false;
+
         updateStep("正在分析已连接的门锁状态");
 
         try {
             // 解析0x84响应，提取通道数量和关闭状态（已连接的门锁）
-            parseAllLocksStatusFromJson(json);
+            parseAllLocksStatus(frame);
 
             // 立即通知Activity更新设备信息显示
             if (eventListener != null) {
@@ -295,15 +351,15 @@ public class DeviceCheckManager {
     /**
      * 处理锁状态上报 (0x85)
      */
-    private void handleLockStatusReport(String json) {
+    private void handleLockStatusReport(ResponseFrame frame) {
         if (checkResult.getStatus() != DeviceCheckResult.CheckStatus.WAITING_USER_ACTION) {
             return;
         }
 
         try {
-            // 解析0x85状态上报，提取通道号和锁状态
-            int channelNo = parseChannelFromStatusUpload(json);
-            boolean isOpen = parseLockStatusFromStatusUpload(json);
+            // 0x85状态上报：通道号和锁状态（0x00 = 打开, 0x01 = 关闭）
+            int channelNo = frame.getChannelId();
+            boolean isOpen = frame.getLockStatus() == 0x00;
 
             if (!isOpen) {
                 // 门已关闭，分配门锁序号
@@ -369,17 +425,24 @@ public class DeviceCheckManager {
 
     /**
      * 保存检测结果
+     * 在后台线程写入当前结果的快照，之后对 checkResult 的修改不影响已保存的内容
      */
     private void saveCheckResult() {
-        try {
-            String json = gson.toJson(checkResult);
-            sharedPreferences.edit()
-                    .putString(KEY_CHECK_RESULT, json)
-                    .apply();
-            Log.i(TAG, "检测结果已保存");
-        } catch (Exception e) {
-            Log.e(TAG, "保存检测结果失败", e);
+        final DeviceCheckResult snapshot = checkResult.copy();
+        synchronized (this) {
+            lastCheckResult = snapshot;
+            lastCheckResultLoaded = true;
         }
+        saveExecutor.execute(() -> {
+            try {
+                checkResultStore.save(snapshot);
+                // 旧版数据已被新结果取代
+                sharedPreferences.edit().remove(KEY_CHECK_RESULT).apply();
+                Log.i(TAG, "检测结果已保存");
+            } catch (Exception e) {
+                Log.e(TAG, "保存检测结果失败", e);
+            }
+        });
     }
 
     /**
@@ -421,100 +484,27 @@ public class DeviceCheckManager {
         }
     }
 
-    // JSON解析辅助方法
-
-    /**
-     * 从JSON响应中解析指令字
-     */
-    private int parseInstructionFromJson(String json) {
-        try {
-            com.google.gson.JsonObject jsonObject = gson.fromJson(json, com.google.gson.JsonObject.class);
-            if (jsonObject != null && jsonObject.has("commandType")) {
-                String commandType = jsonObject.get("commandType").getAsString();
-                switch (commandType) {
-                    case "open_all_locks":
-                        return 0x86;
-                    case "get_all_locks_status":
-                        return 0x84;
-                    case "status_upload":
-                        return 0x85;
-                    default:
-                        return -1;
-                }
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "解析指令字失败", e);
-        }
-        return -1;
-    }
+    // 响应帧解析辅助方法
 
     /**
      * 从0x84响应中解析锁状态信息 - 检测已连接的门锁（关闭状态）
      */
-    private void parseAllLocksStatusFromJson(String json) {
-        try {
-            LockCtlBoardResponseModels.AllLocksStatusResponse response =
-                    gson.fromJson(json, LockCtlBoardResponseModels.AllLocksStatusResponse.class);
-
-            if (response != null) {
-                checkResult.setTotalChannels(response.getChannelCount());
-
-                List<Integer> connectedChannels = new ArrayList<>();
-                int connectedLocksCount = 0;
-
-                if (response.getChannelStatusList() != null) {
-                    for (LockCtlBoardResponseModels.ChannelStatus channelStatus : response.getChannelStatusList()) {
-                        // 统计关闭状态的通道（只有已连接的门锁才能显示关闭状态）
-                        if (channelStatus.getLockStatus() == 0x01) { // 0x01 = 关闭
-                            connectedChannels.add(channelStatus.getChannelNo());
-                            connectedLocksCount++;
-                        }
-                    }
-                }
-
-                checkResult.setConnectedLocksCount(connectedLocksCount);
-                checkResult.setConnectedChannels(connectedChannels);
-
-                Log.i(TAG, String.format("检测到 %d 个通道，其中 %d 个门锁已连接（关闭状态）",
-                        response.getChannelCount(), connectedLocksCount));
+    private void parseAllLocksStatus(ResponseFrame frame) {
+        int channelCount = frame.getChannelCount();
+        checkResult.setTotalChannels(channelCount);
+
+        List<Integer> connectedChannels = new ArrayList<>();
+        for (int channelNo = 1; channelNo <= channelCount; channelNo++) {
+            // 统计关闭状态的通道（只有已连接的门锁才能显示关闭状态）
+            if (frame.getChannelLockStatus(channelNo) == 0x01) { // 0x01 = 关闭
+                connectedChannels.add(channelNo);
             }
-        } catch (Exception e) {
-            Log.e(TAG, "解析0x84响应失败", e);
         }
-    }
 
-    /**
-     * 从0x85状态上报中解析通道号
-     */
-    private int parseChannelFromStatusUpload(String json) {
-        try {
-            LockCtlBoardResponseModels.StatusUploadResponse response =
-                    gson.fromJson(json, LockCtlBoardResponseModels.StatusUploadResponse.class);
-
-            if (response != null) {
-                return response.getChannelNo();
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "解析0x85通道号失败", e);
-        }
-        return -1;
-    }
+        checkResult.setConnectedLocksCount(connectedChannels.size());
+        checkResult.setConnectedChannels(connectedChannels);
 
-    /**
-     * 从0x85状态上报中解析锁状态
-     */
-    private boolean parseLockStatusFromStatusUpload(String json) {
-        try {
-            LockCtlBoardResponseModels.StatusUploadResponse response =
-                    gson.fromJson(json, LockCtlBoardResponseModels.StatusUploadResponse.class);
-
-            if (response != null && response.getChannelStatusInfo() != null) {
-                // 0x00 = 打开, 0x01 = 关闭
-                return response.getChannelStatusInfo().getLockStatus() == 0x00;
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "解析0x85锁状态失败", e);
-        }
-        return false;
+        Log.i(TAG, String.format("检测到 %d 个通道，其中 %d 个门锁已连接（关闭状态）",
+                channelCount, connectedChannels.size()));
     }
-}
\ No newline at end of file
+}
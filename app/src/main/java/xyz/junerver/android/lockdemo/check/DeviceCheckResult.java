@@ -1,5 +1,6 @@
 package xyz.junerver.android.lockdemo.check;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -50,6 +51,26 @@ public class DeviceCheckResult {
         this.currentStep = "准备开始检测";
     }
 
+    /**
+     * 复制检测结果，列表、映射与时间均为独立副本
+     *
+     * @return 与当前结果内容相同、互不影响的新对象
+     */
+    public DeviceCheckResult copy() {
+        DeviceCheckResult copy = new DeviceCheckResult();
+        copy.status = status;
+        copy.checkStartTime = checkStartTime != null ? new Date(checkStartTime.getTime()) : null;
+        copy.checkEndTime = checkEndTime != null ? new Date(checkEndTime.getTime()) : null;
+        copy.totalChannels = totalChannels;
+        copy.connectedLocksCount = connectedLocksCount;
+        copy.connectedChannels = connectedChannels != null ? new ArrayList<>(connectedChannels) : null;
+        copy.channelToLockMapping = channelToLockMapping != null ? new HashMap<>(channelToLockMapping) : null;
+        copy.errorMessage = errorMessage;
+        copy.currentStep = currentStep;
+        copy.closedLocksCount = closedLocksCount;
+        return copy;
+    }
+
     // Getter和Setter方法
     public CheckStatus getStatus() {
         return status;
@@ -0,0 +1,18 @@
+package xyz.junerver.android.lockdemo.lockctl;
+
+import android.util.Log;
+
+/**
+ * 将 lockctl-core 的日志转发到 android.util.Log
+ * 两者的级别常量一致，直接作为优先级传递
+ */
+public class AndroidLogSink implements LockCtlLog.Sink {
+
+    @Override
+    public void log(int level, String tag, String message, Throwable tr) {
+        if (tr != null) {
+            message = message + '\n' + Log.getStackTraceString(tr);
+        }
+        Log.println(level, tag, message);
+    }
+}
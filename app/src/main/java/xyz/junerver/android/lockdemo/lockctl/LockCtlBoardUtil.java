@@ -5,11 +5,14 @@ import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 
 import xyz.junerver.android.lockdemo.lockctl.debounce.CommandDebounceManager;
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandMetrics;
 import xyz.junerver.android.lockdemo.lockctl.debounce.CommandSender;
 import xyz.junerver.android.lockdemo.lockctl.debounce.LockCtlBoardSerialSender;
 import xyz.junerver.android.lockdemo.lockctl.debounce.OnResponseListener;
@@ -20,6 +23,9 @@ import xyz.junerver.android.lockdemo.lockctl.debounce.OnResponseListener;
  * 注意：指令构造功能已迁移到 LockCtlBoardCmdHelper 工具类中
  *
  * 改造说明：现在通过 CommandSender 接口发送指令，支持多种通信方式
+ *
+ * 每个操作另有返回 CompletableFuture&lt;CommandResult&gt; 的异步版本（方法名以 Async 结尾），
+ * 由防抖管理器在匹配到响应、超时或失败时完成，便于组合与批量发出
  */
 public class LockCtlBoardUtil {
     private static final String TAG = "LockCtlBoardUtil";
@@ -33,25 +39,42 @@ public class LockCtlBoardUtil {
 
     private OnDataReceived mOnDataReceived;
 
+    // 类型化响应监听器（可注册多个）
+    private final List<OnFrameReceived> frameListeners = new CopyOnWriteArrayList<>();
+
     private CommandDebounceManager commandDebounceManager;
 
+    // 锁控模块共享的定时器（指令超时、开锁合并窗口等），重建防抖管理器时继续沿用
+    private final HashedWheelTimer timer = new HashedWheelTimer("LockCtl-Timer");
+
     // 串口检测器
     private SerialPortDetector serialPortDetector;
 
     private boolean useDebounce = false;
 
-    // 数据缓冲区，用于处理分包数据
-    private final List<Byte> dataBuffer = new ArrayList<>();
+    // 防抖模式下的流水线窗口（同时在途的最大指令数），1 为逐条执行
+    private int pipelineWindow = 1;
+
+    // 防抖模式下的状态查询合并与改写（默认关闭）
+    private boolean queryCoalescing = false;
+    private int queryRewriteThreshold = 0;
+    // 防抖模式下的开锁合并窗口（毫秒），0 为关闭
+    private long openMergeWindowMs = 0;
+    // 防抖模式下是否按板地址分别计算流水线窗口
+    private boolean perBoardPipeline = false;
+    // 自动检测串口时尝试的波特率，null 为只尝试默认波特率
+    private int[] candidateBaudRates;
 
     // 初始化状态标志
     private volatile boolean isInitialized = false;
 
-    // 常量定义
-    private static final int MAX_BUFFER_SIZE = 1024;
-    private static final int BUFFER_CLEANUP_THRESHOLD = 100;
-    private static final byte[] FRAME_HEADER = {0x57, 0x4B, 0x4C, 0x59};
-    private static final int MIN_LOCK_ID = 1;
-    private static final int MAX_LOCK_ID = 12;
+    // 总线上的锁控板（板地址与通道数）
+    private final BoardRegistry boardRegistry = new BoardRegistry();
+
+    // 锁状态影子，由接收路径上的响应更新
+    private final LockStateShadow lockStateShadow = new LockStateShadow();
+    // 门状态事件日志，为null时不记录
+    private volatile DoorEventJournal doorEventJournal = null;
 
     public static final String TYPE_CONNECT_SUCCESSES = "connect_successes";
     public static final String TYPE_CONNECT_FAILED = "connect_failed";
@@ -63,6 +86,23 @@ public class LockCtlBoardUtil {
         void onDataReceived(String json);
     }
 
+    /**
+     * 类型化响应监听器
+     * 直接接收已解码的响应帧，不经过 JSON 序列化/反序列化
+     */
+    public interface OnFrameReceived {
+        void onFrameReceived(ResponseFrame frame);
+
+        /**
+         * 连接状态事件（与 JSON 回调中 type=connection 的通知一致）
+         *
+         * @param event   事件类型，取值为 TYPE_* 常量
+         * @param message 事件描述
+         */
+        default void onConnectionEvent(String event, String message) {
+        }
+    }
+
     public interface OnInitListener {
         void onSuccess(String message);
 
@@ -94,7 +134,31 @@ public class LockCtlBoardUtil {
      * @param context 应用上下文
      */
     public void initSerialPortDetector(Context context) {
-        this.serialPortDetector = new SerialPortDetector(context);
+        this.serialPortDetector = createSerialPortDetector(context);
+    }
+
+    /**
+     * 创建串口检测器并应用候选波特率
+     */
+    private SerialPortDetector createSerialPortDetector(Context context) {
+        SerialPortDetector detector = new SerialPortDetector(context);
+        if (candidateBaudRates != null) {
+            detector.setCandidateBaudRates(candidateBaudRates);
+        }
+        return detector;
+    }
+
+    /**
+     * 设置自动检测串口时尝试的波特率
+     * 检测成功的 (串口, 波特率) 会被保存，之后以锁控板实际配置的波特率通信
+     *
+     * @param baudRates 候选波特率，按尝试顺序排列；为空时只尝试默认的 9600
+     */
+    public void setCandidateBaudRates(int... baudRates) {
+        this.candidateBaudRates = baudRates != null && baudRates.length > 0 ? baudRates.clone() : null;
+        if (serialPortDetector != null) {
+            serialPortDetector.setCandidateBaudRates(baudRates);
+        }
     }
 
     /**
@@ -265,7 +329,16 @@ public class LockCtlBoardUtil {
      * @param message 详细消息
      */
     private void sendStatusNotification(String status, String message) {
-        if (mOnDataReceived != null) {
+        for (OnFrameReceived listener : frameListeners) {
+            try {
+                listener.onConnectionEvent(status, message);
+            } catch (Exception e) {
+                Log.e(TAG, "发送状态通知失败", e);
+            }
+        }
+
+        OnDataReceived dataListener = mOnDataReceived;
+        if (dataListener != null) {
             try {
                 // 构造状态通知的JSON格式，使用英文字段
                 String statusJson = String.format(
@@ -274,7 +347,7 @@ public class LockCtlBoardUtil {
                 );
 
                 // 通过统一的响应回调发送状态通知
-                mOnDataReceived.onDataReceived(statusJson);
+                dataListener.onDataReceived(statusJson);
 
             } catch (Exception e) {
                 Log.e(TAG, "发送状态通知失败", e);
@@ -301,7 +374,7 @@ public class LockCtlBoardUtil {
         Log.i(TAG, "使用指定串口路径初始化: " + portPath);
 
         // 初始化串口检测器（用于保存路径）
-        this.serialPortDetector = new SerialPortDetector(context);
+        this.serialPortDetector = createSerialPortDetector(context);
 
         // 保存指定的串口路径
         this.serialPortDetector.savePortPath(portPath);
@@ -335,16 +408,21 @@ public class LockCtlBoardUtil {
         Log.i(TAG, "开始自动检测串口并初始化");
 
         // 初始化串口检测器
-        this.serialPortDetector = new SerialPortDetector(context);
+        this.serialPortDetector = createSerialPortDetector(context);
 
         // 开始检测
         serialPortDetector.autoDetectPort(new SerialPortDetector.OnDetectionListener() {
             @Override
             public void onPortDetected(String portPath) {
-                Log.i(TAG, "检测到串口设备: " + portPath);
+                onPortDetected(portPath, LockCtlBoardSerialSender.DEFAULT_BAUD_RATE);
+            }
+
+            @Override
+            public void onPortDetected(String portPath, int baudRate) {
+                Log.i(TAG, "检测到串口设备: " + portPath + ", 波特率: " + baudRate);
 
                 // 创建 CommandSender
-                createCommandSenderWithPort(portPath);
+                createCommandSenderWithPort(portPath, baudRate);
 
                 // 标记为已初始化
                 isInitialized = true;
@@ -411,17 +489,21 @@ public class LockCtlBoardUtil {
             sender.setOnResponseListener(new OnResponseListener() {
                 @Override
                 public void onResponseReceived(byte[] response) {
-                    // 将新数据添加到缓冲区
-                    synchronized (dataBuffer) {
-                        for (byte b : response) {
-                            dataBuffer.add(b);
-                        }
-
-                        // 尝试从缓冲区中提取完整的响应帧
-                        extractCompleteFrames();
+                    // 未经解码的原始帧在此解码一次
+                    ResponseFrame frame = ResponseFrame.decode(response);
+                    if (frame != null) {
+                        handleResponseFrame(frame);
+                    } else {
+                        Log.w(TAG, "收到无效响应帧");
                     }
                 }
 
+                @Override
+                public void onFrameReceived(ResponseFrame frame) {
+                    // 发送器已完成分帧与解码，直接处理
+                    handleResponseFrame(frame);
+                }
+
                 @Override
                 public void onError(String error) {
                     Log.e(TAG, "指令发送器错误: " + error);
@@ -437,24 +519,70 @@ public class LockCtlBoardUtil {
      */
     private void initDebounceManager(CommandSender sender) {
         if (sender != null) {
-            commandDebounceManager = new CommandDebounceManager(sender);
+            commandDebounceManager = new CommandDebounceManager(sender, timer);
+            commandDebounceManager.setPipelineWindow(pipelineWindow);
+            commandDebounceManager.setQueryCoalescing(queryCoalescing);
+            commandDebounceManager.setQueryRewriteThreshold(queryRewriteThreshold);
+            commandDebounceManager.setOpenMergeWindow(openMergeWindowMs);
+            commandDebounceManager.setPerBoardPipeline(perBoardPipeline);
         }
     }
 
     /**
-     * 使用指定的串口路径创建 CommandSender
+     * 获取锁控模块共享的定时器
+     *
+     * @return 共享定时器
+     */
+    public HashedWheelTimer getTimer() {
+        return timer;
+    }
+
+    /**
+     * 获取防抖模式下的指令统计（计数器与各阶段延迟直方图）
+     * 快照无锁，可在界面线程上周期性读取
+     *
+     * @return 指令统计，防抖管理器未创建时返回null
+     */
+    public CommandMetrics getCommandMetrics() {
+        CommandDebounceManager manager = commandDebounceManager;
+        return manager != null ? manager.getMetrics() : null;
+    }
+
+    /**
+     * 获取最近收发帧的追踪环，排查通信问题时调用 {@link TraceRing#dump()} 输出十六进制文本
+     *
+     * @return 追踪环，防抖管理器未创建时返回null
+     */
+    public TraceRing getTraceRing() {
+        CommandDebounceManager manager = commandDebounceManager;
+        return manager != null ? manager.getTraceRing() : null;
+    }
+
+    /**
+     * 使用指定的串口路径创建 CommandSender（默认波特率）
      *
      * @param portPath 串口路径
      */
     private void createCommandSenderWithPort(String portPath) {
+        createCommandSenderWithPort(portPath, LockCtlBoardSerialSender.DEFAULT_BAUD_RATE);
+    }
+
+    /**
+     * 使用指定的串口路径与波特率创建 CommandSender
+     *
+     * @param portPath 串口路径
+     * @param baudRate 波特率
+     */
+    private void createCommandSenderWithPort(String portPath, int baudRate) {
         try {
             // 关闭旧的 CommandSender
             if (commandSender != null) {
                 commandSender.disconnect();
             }
 
-            // 创建新的 CommandSender
-            commandSender = new LockCtlBoardSerialSender(portPath);
+            // 创建新的 CommandSender，之前连接上的锁状态不再可信
+            commandSender = new LockCtlBoardSerialSender(portPath, baudRate);
+            lockStateShadow.clear();
 
             // 使用公共方法设置响应监听器
             setupResponseListener(commandSender);
@@ -462,7 +590,7 @@ public class LockCtlBoardUtil {
             // 使用公共方法初始化防抖管理器
             initDebounceManager(commandSender);
 
-            Log.i(TAG, "CommandSender 创建成功，串口路径: " + portPath);
+            Log.i(TAG, "CommandSender 创建成功，串口路径: " + portPath + ", 波特率: " + baudRate);
         } catch (Exception e) {
             Log.e(TAG, "创建 CommandSender 失败", e);
             throw new RuntimeException("创建 CommandSender 失败: " + e.getMessage(), e);
@@ -477,6 +605,128 @@ public class LockCtlBoardUtil {
         return useDebounce;
     }
 
+    /**
+     * 设置防抖模式下的流水线窗口
+     * 大于 1 时，响应可区分的指令（不同板地址或不同通道）可以不等待前一条响应直接发出
+     *
+     * @param window 同时在途的最大指令数，最小为 1
+     */
+    public void setPipelineWindow(int window) {
+        this.pipelineWindow = Math.max(1, window);
+        if (commandDebounceManager != null) {
+            commandDebounceManager.setPipelineWindow(pipelineWindow);
+        }
+    }
+
+    public int getPipelineWindow() {
+        return pipelineWindow;
+    }
+
+    /**
+     * 设置防抖模式下是否合并相同的状态查询
+     * 开启后，与排队或在途查询相同的 getSingleLockStatus/getAllLocksStatus 不再单独收发
+     *
+     * @param enabled 是否开启
+     */
+    public void setQueryCoalescing(boolean enabled) {
+        this.queryCoalescing = enabled;
+        if (commandDebounceManager != null) {
+            commandDebounceManager.setQueryCoalescing(enabled);
+        }
+    }
+
+    public boolean isQueryCoalescing() {
+        return queryCoalescing;
+    }
+
+    /**
+     * 设置防抖模式下的单通道查询改写阈值
+     * 同一板地址排队的单通道查询达到阈值时改写为一条查询所有门状态，结果按通道回调
+     *
+     * @param threshold 阈值，0 为关闭
+     */
+    public void setQueryRewriteThreshold(int threshold) {
+        this.queryRewriteThreshold = Math.max(0, threshold);
+        if (commandDebounceManager != null) {
+            commandDebounceManager.setQueryRewriteThreshold(queryRewriteThreshold);
+        }
+    }
+
+    public int getQueryRewriteThreshold() {
+        return queryRewriteThreshold;
+    }
+
+    /**
+     * 设置防抖模式下的开锁合并窗口
+     * 窗口内同一板地址连续的 openSingleLock 合并为一条逐一开多锁 (0x87) 发出，
+     * 各开锁回调照常触发，响应回调收到的是一条 0x87 响应
+     *
+     * @param windowMs 窗口时长（毫秒），0 为关闭
+     */
+    public void setOpenMergeWindow(long windowMs) {
+        this.openMergeWindowMs = Math.max(0, windowMs);
+        if (commandDebounceManager != null) {
+            commandDebounceManager.setOpenMergeWindow(openMergeWindowMs);
+        }
+    }
+
+    public long getOpenMergeWindow() {
+        return openMergeWindowMs;
+    }
+
+    /**
+     * 设置防抖模式下是否按板地址分别计算流水线窗口
+     * 开启后，一块锁控板上耗时的指令（如逐一开多锁）在途时，总线上其它锁控板的指令照常发出
+     *
+     * @param enabled 是否开启
+     */
+    public void setPerBoardPipeline(boolean enabled) {
+        this.perBoardPipeline = enabled;
+        if (commandDebounceManager != null) {
+            commandDebounceManager.setPerBoardPipeline(enabled);
+        }
+    }
+
+    public boolean isPerBoardPipeline() {
+        return perBoardPipeline;
+    }
+
+    /**
+     * 获取锁控板注册表
+     * 总线上串接多块锁控板时，先注册各板的板地址与通道数，再通过 (板地址, 通道) 重载发送指令；
+     * 默认只注册板地址 0x00、12 个通道
+     *
+     * @return 锁控板注册表
+     */
+    public BoardRegistry getBoardRegistry() {
+        return boardRegistry;
+    }
+
+    /**
+     * 获取锁状态影子
+     * 记录各板各通道最近一次响应或上传的锁状态，可按最大陈旧时间直接读取而不经过串口
+     *
+     * @return 锁状态影子
+     */
+    public LockStateShadow getLockStateShadow() {
+        return lockStateShadow;
+    }
+
+    /**
+     * 设置门状态事件日志
+     * 设置后每条 0x85 门状态上传都在接收路径上追加到日志；启动时可先调用 journal.rebuild(getLockStateShadow())
+     * 从日志恢复锁状态。日志由调用方打开和关闭
+     *
+     * @param journal 门状态事件日志，null 为不记录
+     */
+    public void setDoorEventJournal(DoorEventJournal journal) {
+        this.doorEventJournal = journal;
+    }
+
+    public DoorEventJournal getDoorEventJournal() {
+        return doorEventJournal;
+    }
+
     /**
      * 获取初始化状态
      *
@@ -499,7 +749,9 @@ public class LockCtlBoardUtil {
         if (commandSender instanceof LockCtlBoardSerialSender) {
             LockCtlBoardSerialSender serialSender = (LockCtlBoardSerialSender) commandSender;
             if (!serialSender.isConnected()) {
-                Log.i(TAG, "重新连接串口发送器");
+                Log.i(TAG, "重新连接串口发送器: " + serialSender.getDevicePath() + ", 波特率: "
+                        + serialSender.getBaudRate());
+                // 沿用检测或验证得到的串口与波特率
                 serialSender.reconnect();
             }
         } else {
@@ -514,11 +766,7 @@ public class LockCtlBoardUtil {
         if (commandSender != null) {
             commandSender.disconnect();
         }
-
-        // 清空数据缓冲区
-        synchronized (dataBuffer) {
-            dataBuffer.clear();
-        }
+        lockStateShadow.clear();
 
         Log.i(TAG, "连接已关闭");
 
@@ -531,25 +779,46 @@ public class LockCtlBoardUtil {
         return isInitialized && commandSender != null && commandSender.isConnected();
     }
 
-    // 清空数据缓冲区
+    // 清空数据缓冲区（分帧缓冲区位于串口发送器中）
     public void clearDataBuffer() {
-        synchronized (dataBuffer) {
-            dataBuffer.clear();
+        if (commandSender instanceof LockCtlBoardSerialSender) {
+            ((LockCtlBoardSerialSender) commandSender).clearDataBuffer();
         }
     }
 
     // 获取缓冲区中的数据大小（用于调试）
     public int getBufferSize() {
-        synchronized (dataBuffer) {
-            return dataBuffer.size();
+        if (commandSender instanceof LockCtlBoardSerialSender) {
+            return ((LockCtlBoardSerialSender) commandSender).getBufferSize();
         }
+        return 0;
     }
 
-    // 设置串口数据监听器
+    // 设置串口数据监听器（JSON 格式，仅在设置后才生成 JSON）
     public void setOnDataReceived(OnDataReceived onDataReceived) {
         this.mOnDataReceived = onDataReceived;
     }
 
+    /**
+     * 添加类型化响应监听器
+     *
+     * @param listener 监听器
+     */
+    public void addOnFrameReceived(OnFrameReceived listener) {
+        if (listener != null && !frameListeners.contains(listener)) {
+            frameListeners.add(listener);
+        }
+    }
+
+    /**
+     * 移除类型化响应监听器
+     *
+     * @param listener 监听器
+     */
+    public void removeOnFrameReceived(OnFrameReceived listener) {
+        frameListeners.remove(listener);
+    }
+
     /**
      * 自动检测串口设备
      *
@@ -567,19 +836,15 @@ public class LockCtlBoardUtil {
         serialPortDetector.autoDetectPort(new SerialPortDetector.OnDetectionListener() {
             @Override
             public void onPortDetected(String portPath) {
-                Log.i(TAG, "检测到串口设备: " + portPath);
-
-                // 关闭当前连接
-                if (commandSender != null && commandSender.isConnected()) {
-                    commandSender.disconnect();
-                }
+                onPortDetected(portPath, LockCtlBoardSerialSender.DEFAULT_BAUD_RATE);
+            }
 
-                // 创建新的串口发送器，使用检测到的路径
-                commandSender = new LockCtlBoardSerialSender(portPath);
+            @Override
+            public void onPortDetected(String portPath, int baudRate) {
+                Log.i(TAG, "检测到串口设备: " + portPath + ", 波特率: " + baudRate);
 
-                // 使用公共方法设置响应监听器和防抖管理器
-                setupResponseListener(commandSender);
-                initDebounceManager(commandSender);
+                // 关闭当前连接，使用检测到的路径与波特率创建新的串口发送器
+                createCommandSenderWithPort(portPath, baudRate);
 
                 if (listener != null) {
                     listener.onPortDetected(portPath);
@@ -620,19 +885,15 @@ public class LockCtlBoardUtil {
         serialPortDetector.forceRedetectPort(new SerialPortDetector.OnDetectionListener() {
             @Override
             public void onPortDetected(String portPath) {
-                Log.i(TAG, "重新检测到串口设备: " + portPath);
-
-                // 关闭当前连接
-                if (commandSender != null && commandSender.isConnected()) {
-                    commandSender.disconnect();
-                }
+                onPortDetected(portPath, LockCtlBoardSerialSender.DEFAULT_BAUD_RATE);
+            }
 
-                // 创建新的串口发送器，使用检测到的路径
-                commandSender = new LockCtlBoardSerialSender(portPath);
+            @Override
+            public void onPortDetected(String portPath, int baudRate) {
+                Log.i(TAG, "重新检测到串口设备: " + portPath + ", 波特率: " + baudRate);
 
-                // 使用公共方法设置响应监听器和防抖管理器
-                setupResponseListener(commandSender);
-                initDebounceManager(commandSender);
+                // 关闭当前连接，使用检测到的路径与波特率创建新的串口发送器
+                createCommandSenderWithPort(portPath, baudRate);
 
                 if (listener != null) {
                     listener.onPortDetected(portPath);
@@ -680,11 +941,11 @@ public class LockCtlBoardUtil {
     /**
      * 通过CommandSender发送指令的统一方法
      *
-     * @param command   指令数据
+     * @param command   预编码的指令帧
      * @param operation 操作描述（用于日志）
      * @return 操作是否成功
      */
-    private boolean sendCommandViaSender(byte[] command, String operation) {
+    private boolean sendCommandViaSender(CommandFrame command, String operation) {
         // 详细的参数验证
         if (!isInitialized) {
             Log.e(TAG, "LockCtlBoardUtil 未初始化，操作失败: " + operation);
@@ -696,11 +957,6 @@ public class LockCtlBoardUtil {
             return false;
         }
 
-        if (command.length == 0) {
-            Log.e(TAG, "指令数据为空数组，操作失败: " + operation);
-            return false;
-        }
-
         if (commandSender == null) {
             Log.e(TAG, "指令发送器未初始化，操作失败: " + operation);
             return false;
@@ -721,7 +977,7 @@ public class LockCtlBoardUtil {
                 commandDebounceManager.sendCommand(command, null);
                 Log.d(TAG, "指令已通过防抖管理器发送: " + operation);
             } else {
-                commandSender.sendCommand(command);
+                commandSender.sendFrame(command);
                 Log.d(TAG, "指令已直接发送: " + operation);
             }
             return true;
@@ -744,23 +1000,37 @@ public class LockCtlBoardUtil {
      * @return 操作是否成功
      */
     public boolean openMultipleLocksSimultaneously(int... lockIds) {
-        // 使用新的参数验证方法
-        if (!areValidLockIds(lockIds)) {
-            Log.e(TAG, "门锁ID参数无效");
+        return openMultipleLocksSimultaneously(BoardRegistry.DEFAULT_BOARD_ADDRESS, lockIds);
+    }
+
+    /**
+     * 1. 同时开多锁（指定板地址）
+     *
+     * @param boardAddress 板地址
+     * @param lockIds      门锁ID数组
+     * @return 操作是否成功
+     * @see #openMultipleLocksSimultaneously(int...)
+     */
+    public boolean openMultipleLocksSimultaneously(int boardAddress, int[] lockIds) {
+        // 按注册表验证板地址与门锁ID
+        String error = validateLockIds(boardAddress, lockIds);
+        if (error != null) {
+            Log.e(TAG, error);
             return false;
         }
 
         // 构造指令
-        byte[] command = LockCtlBoardCmdHelper.buildOpenMultipleLocksCommand((byte) 0x00, lockIds);
+        CommandFrame command = LockCtlBoardCmdHelper.openMultipleLocksFrame((byte) boardAddress, lockIds);
         if (command == null) {
             Log.e(TAG, "构造同时开多锁指令失败");
             return false;
         }
 
-        Log.i(TAG, "同时开启锁: " + Arrays.toString(lockIds));
+        String operation = boardLabel(boardAddress) + "同时开启锁: " + Arrays.toString(lockIds);
+        Log.i(TAG, operation);
 
         // 使用统一的发送方法
-        return sendCommandViaSender(command, "同时开启锁: " + Arrays.toString(lockIds));
+        return sendCommandViaSender(command, operation);
     }
 
     /**
@@ -772,23 +1042,20 @@ public class LockCtlBoardUtil {
      * @return 操作是否成功
      */
     public boolean flashLockLed(int channelId) {
-        // 使用新的参数验证方法
-        if (!isValidChannelId(channelId)) {
-            Log.e(TAG, "通道ID参数无效: " + channelId);
-            return false;
-        }
-
-        // 构造指令
-        byte[] command = LockCtlBoardCmdHelper.buildFlashChannelCommand((byte) 0x00, channelId);
-        if (command == null) {
-            Log.e(TAG, "构造通道闪烁指令失败");
-            return false;
-        }
-
-        Log.i(TAG, "LED闪烁: 通道 " + channelId);
+        return flashLockLed(BoardRegistry.DEFAULT_BOARD_ADDRESS, channelId);
+    }
 
-        // 使用统一的发送方法
-        return sendCommandViaSender(command, "LED闪烁: 通道 " + channelId);
+    /**
+     * 2. 锁通道LED闪烁（指定板地址）
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 操作是否成功
+     * @see #flashLockLed(int)
+     */
+    public boolean flashLockLed(int boardAddress, int channelId) {
+        return sendChannelCommand(boardAddress, channelId, LockCtlBoardCmdHelper::flashChannelFrame,
+                "通道闪烁", "LED闪烁: 通道 ");
     }
 
     /**
@@ -798,23 +1065,19 @@ public class LockCtlBoardUtil {
      * @return 操作是否成功
      */
     public boolean openSingleLock(int channelId) {
-        // 使用新的参数验证方法
-        if (!isValidChannelId(channelId)) {
-            Log.e(TAG, "通道ID参数无效: " + channelId);
-            return false;
-        }
-
-        // 构造指令
-        byte[] command = LockCtlBoardCmdHelper.buildOpenSingleLockCommand((byte) 0x00, channelId);
-        if (command == null) {
-            Log.e(TAG, "构造开单锁指令失败");
-            return false;
-        }
-
-        Log.i(TAG, "开启锁: " + channelId);
+        return openSingleLock(BoardRegistry.DEFAULT_BOARD_ADDRESS, channelId);
+    }
 
-        // 使用统一的发送方法
-        return sendCommandViaSender(command, "开启锁: " + channelId);
+    /**
+     * 3. 单独开一把锁（指定板地址）
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 操作是否成功
+     */
+    public boolean openSingleLock(int boardAddress, int channelId) {
+        return sendChannelCommand(boardAddress, channelId, LockCtlBoardCmdHelper::openSingleLockFrame,
+                "开单锁", "开启锁: ");
     }
 
     /**
@@ -824,23 +1087,19 @@ public class LockCtlBoardUtil {
      * @return 门锁状态（0-关闭，1-打开，-1-错误）
      */
     public boolean getSingleLockStatus(int channelId) {
-        // 使用新的参数验证方法
-        if (!isValidChannelId(channelId)) {
-            Log.e(TAG, "通道ID参数无效: " + channelId);
-            return false;
-        }
-
-        // 构造指令
-        byte[] command = LockCtlBoardCmdHelper.buildGetSingleLockStatusCommand((byte) 0x00, channelId);
-        if (command == null) {
-            Log.e(TAG, "构造查询单锁状态指令失败");
-            return false;
-        }
-
-        Log.i(TAG, "查询状态: 锁 " + channelId);
+        return getSingleLockStatus(BoardRegistry.DEFAULT_BOARD_ADDRESS, channelId);
+    }
 
-        // 使用统一的发送方法
-        return sendCommandViaSender(command, "查询状态: 锁 " + channelId);
+    /**
+     * 4. 查询单个门锁状态（指定板地址）
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 操作是否成功
+     */
+    public boolean getSingleLockStatus(int boardAddress, int channelId) {
+        return sendChannelCommand(boardAddress, channelId, LockCtlBoardCmdHelper::getSingleLockStatusFrame,
+                "查询单锁状态", "查询状态: 锁 ");
     }
 
     /**
@@ -849,17 +1108,34 @@ public class LockCtlBoardUtil {
      * @return 所有门锁状态数组
      */
     public boolean getAllLocksStatus() {
-        Log.i(TAG, "查询所有锁状态");
+        return getAllLocksStatus(BoardRegistry.DEFAULT_BOARD_ADDRESS);
+    }
+
+    /**
+     * 5. 查询所有门锁状态（指定板地址）
+     *
+     * @param boardAddress 板地址
+     * @return 操作是否成功
+     */
+    public boolean getAllLocksStatus(int boardAddress) {
+        String error = validateBoard(boardAddress);
+        if (error != null) {
+            Log.e(TAG, error);
+            return false;
+        }
+
+        String operation = boardLabel(boardAddress) + "查询所有锁状态";
+        Log.i(TAG, operation);
 
         // 构造指令
-        byte[] command = LockCtlBoardCmdHelper.buildGetAllLocksStatusCommand((byte) 0x00);
+        CommandFrame command = LockCtlBoardCmdHelper.getAllLocksStatusFrame((byte) boardAddress);
         if (command == null) {
             Log.e(TAG, "构造查询所有锁状态指令失败");
             return false;
         }
 
         // 使用统一的发送方法
-        return sendCommandViaSender(command, "查询所有锁状态");
+        return sendCommandViaSender(command, operation);
     }
 
     /**
@@ -868,17 +1144,34 @@ public class LockCtlBoardUtil {
      * @return 操作是否成功
      */
     public boolean openAllLocksSequentially() {
-        Log.i(TAG, "开启所有锁");
+        return openAllLocksSequentially(BoardRegistry.DEFAULT_BOARD_ADDRESS);
+    }
+
+    /**
+     * 6. 全部开锁（逐一打开，指定板地址）
+     *
+     * @param boardAddress 板地址
+     * @return 操作是否成功
+     */
+    public boolean openAllLocksSequentially(int boardAddress) {
+        String error = validateBoard(boardAddress);
+        if (error != null) {
+            Log.e(TAG, error);
+            return false;
+        }
+
+        String operation = boardLabel(boardAddress) + "开启所有锁";
+        Log.i(TAG, operation);
 
         // 构造指令
-        byte[] command = LockCtlBoardCmdHelper.buildOpenAllLocksCommand((byte) 0x00);
+        CommandFrame command = LockCtlBoardCmdHelper.openAllLocksFrame((byte) boardAddress);
         if (command == null) {
             Log.e(TAG, "构造开全部锁指令失败");
             return false;
         }
 
         // 使用统一的发送方法
-        return sendCommandViaSender(command, "开启所有锁");
+        return sendCommandViaSender(command, operation);
     }
 
     /**
@@ -890,23 +1183,37 @@ public class LockCtlBoardUtil {
      * @return 操作是否成功
      */
     public boolean openMultipleLocksSequentially(int... lockIds) {
-        // 使用新的参数验证方法
-        if (!areValidLockIds(lockIds)) {
-            Log.e(TAG, "门锁ID参数无效");
+        return openMultipleLocksSequentially(BoardRegistry.DEFAULT_BOARD_ADDRESS, lockIds);
+    }
+
+    /**
+     * 7. 开多锁，逐一打开（指定板地址）
+     *
+     * @param boardAddress 板地址
+     * @param lockIds      门锁ID数组
+     * @return 操作是否成功
+     * @see #openMultipleLocksSequentially(int...)
+     */
+    public boolean openMultipleLocksSequentially(int boardAddress, int[] lockIds) {
+        // 按注册表验证板地址与门锁ID
+        String error = validateLockIds(boardAddress, lockIds);
+        if (error != null) {
+            Log.e(TAG, error);
             return false;
         }
 
-        Log.i(TAG, "依次开启锁: " + Arrays.toString(lockIds));
+        String operation = boardLabel(boardAddress) + "依次开启锁: " + Arrays.toString(lockIds);
+        Log.i(TAG, operation);
 
         // 构造指令
-        byte[] command = LockCtlBoardCmdHelper.buildOpenMultipleSequentialCommand((byte) 0x00, lockIds);
+        CommandFrame command = LockCtlBoardCmdHelper.openMultipleSequentialFrame((byte) boardAddress, lockIds);
         if (command == null) {
             Log.e(TAG, "构造逐一开多锁指令失败");
             return false;
         }
 
         // 使用统一的发送方法
-        return sendCommandViaSender(command, "依次开启锁: " + Arrays.toString(lockIds));
+        return sendCommandViaSender(command, operation);
     }
 
     /**
@@ -916,23 +1223,19 @@ public class LockCtlBoardUtil {
      * @return 操作是否成功
      */
     public boolean keepChannelOpen(int channelId) {
-        // 使用新的参数验证方法
-        if (!isValidChannelId(channelId)) {
-            Log.e(TAG, "通道ID参数无效: " + channelId);
-            return false;
-        }
-
-        // 构造指令
-        byte[] command = LockCtlBoardCmdHelper.buildChannelKeepOpenCommand((byte) 0x00, channelId);
-        if (command == null) {
-            Log.e(TAG, "构造通道持续打开指令失败");
-            return false;
-        }
-
-        Log.i(TAG, "持续打开通道: " + channelId);
+        return keepChannelOpen(BoardRegistry.DEFAULT_BOARD_ADDRESS, channelId);
+    }
 
-        // 使用统一的发送方法
-        return sendCommandViaSender(command, "持续打开通道: " + channelId);
+    /**
+     * 8. 通道持续打开（指定板地址）
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 操作是否成功
+     */
+    public boolean keepChannelOpen(int boardAddress, int channelId) {
+        return sendChannelCommand(boardAddress, channelId, LockCtlBoardCmdHelper::channelKeepOpenFrame,
+                "通道持续打开", "持续打开通道: ");
     }
 
     /**
@@ -942,168 +1245,492 @@ public class LockCtlBoardUtil {
      * @return 操作是否成功
      */
     public boolean closeChannel(int channelId) {
-        // 使用新的参数验证方法
-        if (!isValidChannelId(channelId)) {
-            Log.e(TAG, "通道ID参数无效: " + channelId);
+        return closeChannel(BoardRegistry.DEFAULT_BOARD_ADDRESS, channelId);
+    }
+
+    /**
+     * 9. 关闭通道（指定板地址）
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 操作是否成功
+     */
+    public boolean closeChannel(int boardAddress, int channelId) {
+        return sendChannelCommand(boardAddress, channelId, LockCtlBoardCmdHelper::closeChannelFrame,
+                "关闭通道", "关闭通道: ");
+    }
+
+    /**
+     * 单通道指令帧构造方法（LockCtlBoardCmdHelper 中的 xxxFrame(byte, int)）
+     */
+    private interface ChannelFrameBuilder {
+        CommandFrame build(byte boardAddress, int channelId);
+    }
+
+    /**
+     * 校验板地址与通道后构造并发送单通道指令
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @param frameBuilder 指令帧构造方法
+     * @param commandName  指令名称（用于构造失败的日志）
+     * @param operation    操作描述前缀（用于日志），其后拼接通道ID
+     * @return 操作是否成功
+     */
+    private boolean sendChannelCommand(int boardAddress, int channelId, ChannelFrameBuilder frameBuilder,
+                                       String commandName, String operation) {
+        // 按注册表验证板地址与通道
+        String error = validateChannel(boardAddress, channelId);
+        if (error != null) {
+            Log.e(TAG, error);
             return false;
         }
 
         // 构造指令
-        byte[] command = LockCtlBoardCmdHelper.buildCloseChannelCommand((byte) 0x00, channelId);
+        CommandFrame command = frameBuilder.build((byte) boardAddress, channelId);
         if (command == null) {
-            Log.e(TAG, "构造关闭通道指令失败");
+            Log.e(TAG, "构造" + commandName + "指令失败");
             return false;
         }
 
-        Log.i(TAG, "关闭通道: " + channelId);
+        String description = boardLabel(boardAddress) + operation + channelId;
+        Log.i(TAG, description);
 
         // 使用统一的发送方法
-        return sendCommandViaSender(command, "关闭通道: " + channelId);
+        return sendCommandViaSender(command, description);
     }
 
     /**
-     * 从缓冲区中提取完整的响应帧
+     * 通过防抖管理器发送指令并返回执行结果的 Future
+     * 响应只在防抖管理器中与请求关联，因此异步接口不论是否开启防抖模式都经由防抖管理器发送
+     *
+     * @param command   预编码的指令帧
+     * @param operation 操作描述（用于日志）
+     * @return 执行结果，不会异常完成
      */
-    private void extractCompleteFrames() {
-        // 检查缓冲区大小，防止无限增长
-        if (dataBuffer.size() > MAX_BUFFER_SIZE) {
-            Log.w(TAG, "缓冲区溢出，清空数据。当前大小: " + dataBuffer.size());
-            dataBuffer.clear();
-            return;
+    private CompletableFuture<CommandResult> sendCommandAsync(CommandFrame command, String operation) {
+        if (command == null) {
+            Log.e(TAG, "指令数据为null，操作失败: " + operation);
+            return CompletableFuture.completedFuture(
+                    CommandResult.rejected(CommandResult.NONE, CommandResult.NONE, "构造指令失败: " + operation));
         }
 
-        // 查找起始符位置 (57 4B 4C 59)
-        int startIndex = findFrameHeader();
-
-        // 如果没找到起始符，清理部分缓冲区
-        if (startIndex == -1) {
-            if (dataBuffer.size() > BUFFER_CLEANUP_THRESHOLD) {
-                Log.d(TAG, "未找到有效帧头，清理缓冲区");
-                dataBuffer.clear();
-            }
-            return;
+        String error = null;
+        if (!isInitialized) {
+            error = "LockCtlBoardUtil 未初始化";
+        } else if (commandSender == null || commandDebounceManager == null) {
+            error = "指令发送器未初始化";
+        } else if (!commandSender.isConnected()) {
+            error = "指令发送器未连接";
         }
-
-        // 检查是否有足够的数据来读取帧长度字段
-        if (dataBuffer.size() < startIndex + 5) {
-            return; // 数据不足，等待更多数据
+        if (error != null) {
+            Log.e(TAG, error + "，操作失败: " + operation);
+            return CompletableFuture.completedFuture(
+                    CommandResult.rejected(command.getCommandByte(), command.getChannelId(), error));
         }
 
-        // 读取帧长度
-        int frameLength = dataBuffer.get(startIndex + 4) & 0xFF;
+        Log.d(TAG, "指令已通过防抖管理器异步发送: " + operation);
+        return commandDebounceManager.sendCommandAsync(command);
+    }
 
-        // 验证帧长度的合理性
-        if (frameLength < 5 || frameLength > 256) {
-            Log.w(TAG, "无效的帧长度: " + frameLength + "，跳过该帧");
-            dataBuffer.subList(0, Math.min(startIndex + 1, dataBuffer.size())).clear();
-            return;
+    /**
+     * 校验板地址后构造并异步发送整板指令
+     *
+     * @param commandByte  指令字（用于参数无效时的结果）
+     * @param boardAddress 板地址
+     * @param frameBuilder 指令帧构造方法
+     * @param operation    操作描述（用于日志）
+     * @return 执行结果
+     */
+    private CompletableFuture<CommandResult> sendBoardCommandAsync(int commandByte, int boardAddress,
+                                                                   Function<Byte, CommandFrame> frameBuilder,
+                                                                   String operation) {
+        String error = validateBoard(boardAddress);
+        if (error != null) {
+            Log.e(TAG, error);
+            return CompletableFuture.completedFuture(CommandResult.rejected(commandByte, CommandResult.NONE, error));
         }
+        return sendCommandAsync(frameBuilder.apply((byte) boardAddress), boardLabel(boardAddress) + operation);
+    }
 
-        // 检查是否有完整的数据帧
-        if (dataBuffer.size() < startIndex + frameLength) {
-            return; // 数据不完整，等待更多数据
+    /**
+     * 校验板地址与通道后构造并异步发送单通道指令
+     *
+     * @param commandByte  指令字（用于参数无效时的结果）
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @param frameBuilder 指令帧构造方法
+     * @param operation    操作描述（用于日志）
+     * @return 执行结果
+     */
+    private CompletableFuture<CommandResult> sendChannelCommandAsync(int commandByte, int boardAddress, int channelId,
+                                                                     ChannelFrameBuilder frameBuilder,
+                                                                     String operation) {
+        String error = validateChannel(boardAddress, channelId);
+        if (error != null) {
+            Log.e(TAG, error);
+            return CompletableFuture.completedFuture(CommandResult.rejected(commandByte, channelId, error));
         }
-
-        // 提取完整的数据帧
-        byte[] frameData = new byte[frameLength];
-        for (int i = 0; i < frameLength; i++) {
-            frameData[i] = dataBuffer.get(startIndex + i);
+        CommandFrame command = frameBuilder.build((byte) boardAddress, channelId);
+        if (command == null) {
+            return CompletableFuture.completedFuture(
+                    CommandResult.rejected(commandByte, channelId, "构造指令失败: " + operation));
         }
+        return sendCommandAsync(command, boardLabel(boardAddress) + operation);
+    }
 
-        // 从缓冲区中移除已处理的数据
-        for (int i = 0; i < startIndex + frameLength; i++) {
-            dataBuffer.remove(0);
+    /**
+     * 校验板地址与门锁ID后构造并异步发送多锁指令
+     *
+     * @param commandByte  指令字（用于参数无效时的结果）
+     * @param boardAddress 板地址
+     * @param lockIds      门锁ID数组
+     * @param frameBuilder 指令帧构造方法
+     * @param operation    操作描述（用于日志）
+     * @return 执行结果
+     */
+    private CompletableFuture<CommandResult> sendLockListCommandAsync(int commandByte, int boardAddress, int[] lockIds,
+                                                                      Function<int[], CommandFrame> frameBuilder,
+                                                                      String operation) {
+        String error = validateLockIds(boardAddress, lockIds);
+        if (error != null) {
+            Log.e(TAG, error);
+            return CompletableFuture.completedFuture(CommandResult.rejected(commandByte, CommandResult.NONE, error));
         }
+        CommandFrame command = frameBuilder.apply(lockIds);
+        if (command == null) {
+            return CompletableFuture.completedFuture(
+                    CommandResult.rejected(commandByte, CommandResult.NONE, "构造指令失败: " + operation));
+        }
+        return sendCommandAsync(command, boardLabel(boardAddress) + operation);
+    }
+
+    /**
+     * 同时开多锁（异步）
+     *
+     * @param lockIds 门锁ID数组（可变长参数）
+     * @return 执行结果
+     * @see #openMultipleLocksSimultaneously(int...)
+     */
+    public CompletableFuture<CommandResult> openMultipleLocksSimultaneouslyAsync(int... lockIds) {
+        return openMultipleLocksSimultaneouslyAsync(BoardRegistry.DEFAULT_BOARD_ADDRESS, lockIds);
+    }
+
+    /**
+     * 同时开多锁（指定板地址，异步）
+     *
+     * @param boardAddress 板地址
+     * @param lockIds      门锁ID数组
+     * @return 执行结果
+     */
+    public CompletableFuture<CommandResult> openMultipleLocksSimultaneouslyAsync(int boardAddress, int[] lockIds) {
+        return sendLockListCommandAsync(0x80, boardAddress, lockIds,
+                ids -> LockCtlBoardCmdHelper.openMultipleLocksFrame((byte) boardAddress, ids),
+                "同时开启锁: " + Arrays.toString(lockIds));
+    }
+
+    /**
+     * 锁通道LED闪烁（异步）
+     *
+     * @param channelId 通道ID
+     * @return 执行结果
+     * @see #flashLockLed(int)
+     */
+    public CompletableFuture<CommandResult> flashLockLedAsync(int channelId) {
+        return flashLockLedAsync(BoardRegistry.DEFAULT_BOARD_ADDRESS, channelId);
+    }
+
+    /**
+     * 锁通道LED闪烁（指定板地址，异步）
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 执行结果
+     */
+    public CompletableFuture<CommandResult> flashLockLedAsync(int boardAddress, int channelId) {
+        return sendChannelCommandAsync(0x81, boardAddress, channelId,
+                LockCtlBoardCmdHelper::flashChannelFrame, "LED闪烁: 通道 " + channelId);
+    }
+
+    /**
+     * 单独开一把锁（异步）
+     *
+     * @param channelId 通道ID
+     * @return 执行结果，getLockStatus 为开锁后的锁状态
+     * @see #openSingleLock(int)
+     */
+    public CompletableFuture<CommandResult> openSingleLockAsync(int channelId) {
+        return openSingleLockAsync(BoardRegistry.DEFAULT_BOARD_ADDRESS, channelId);
+    }
 
-        // 验证帧的完整性
-        if (LockCtlBoardCmdHelper.validateResponse(frameData)) {
-            // 解析并发送响应数据
-            String json = LockCtlBoardCmdHelper.parseResponseToJson(frameData);
-            if (mOnDataReceived != null) {
-                mOnDataReceived.onDataReceived(json);
+    /**
+     * 单独开一把锁（指定板地址，异步）
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 执行结果，getLockStatus 为开锁后的锁状态
+     */
+    public CompletableFuture<CommandResult> openSingleLockAsync(int boardAddress, int channelId) {
+        return sendChannelCommandAsync(0x82, boardAddress, channelId,
+                LockCtlBoardCmdHelper::openSingleLockFrame, "开启锁: " + channelId);
+    }
+
+    /**
+     * 查询单个门锁状态（异步）
+     *
+     * @param channelId 通道ID
+     * @return 执行结果，getLockStatus 为门锁状态
+     * @see #getSingleLockStatus(int)
+     */
+    public CompletableFuture<CommandResult> getSingleLockStatusAsync(int channelId) {
+        return getSingleLockStatusAsync(BoardRegistry.DEFAULT_BOARD_ADDRESS, channelId);
+    }
+
+    /**
+     * 查询单个门锁状态（指定板地址，异步）
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 执行结果，getLockStatus 为门锁状态
+     */
+    public CompletableFuture<CommandResult> getSingleLockStatusAsync(int boardAddress, int channelId) {
+        return sendChannelCommandAsync(0x83, boardAddress, channelId,
+                LockCtlBoardCmdHelper::getSingleLockStatusFrame, "查询状态: 锁 " + channelId);
+    }
+
+    /**
+     * 查询单个门锁状态（异步，优先读取锁状态影子）
+     * 影子中该通道的状态在 maxStalenessMs 内更新过时直接以其完成，不发出指令；否则向锁控板查询
+     *
+     * @param boardAddress   板地址
+     * @param channelId      通道ID
+     * @param maxStalenessMs 可接受的最大陈旧时间（毫秒）
+     * @return 执行结果，取自影子时 isCached 为 true
+     */
+    public CompletableFuture<CommandResult> getSingleLockStatusAsync(int boardAddress, int channelId, long maxStalenessMs) {
+        if (validateChannel(boardAddress, channelId) == null) {
+            int lockStatus = lockStateShadow.getLockStatus(boardAddress, channelId, maxStalenessMs);
+            if (lockStatus != ResponseFrame.NONE) {
+                Log.d(TAG, boardLabel(boardAddress) + "查询状态: 锁 " + channelId + " 取自锁状态影子");
+                return CompletableFuture.completedFuture(
+                        CommandResult.cached(boardAddress, 0x83, channelId, lockStatus, null));
             }
-        } else {
-            Log.w(TAG, "收到无效响应帧");
         }
+        return getSingleLockStatusAsync(boardAddress, channelId);
+    }
 
-        // 递归处理缓冲区中可能的其他完整帧
-        if (dataBuffer.size() > 0) {
-            extractCompleteFrames();
-        }
+    /**
+     * 查询所有门锁状态（异步）
+     *
+     * @return 执行结果，getChannelLockStatus 为各通道门锁状态
+     * @see #getAllLocksStatus()
+     */
+    public CompletableFuture<CommandResult> getAllLocksStatusAsync() {
+        return getAllLocksStatusAsync(BoardRegistry.DEFAULT_BOARD_ADDRESS);
     }
 
     /**
-     * 查找帧头位置
+     * 查询所有门锁状态（指定板地址，异步）
      *
-     * @return 帧头起始位置，未找到返回-1
+     * @param boardAddress 板地址
+     * @return 执行结果，getChannelLockStatus 为各通道门锁状态
      */
-    private int findFrameHeader() {
-        for (int i = 0; i <= dataBuffer.size() - FRAME_HEADER.length; i++) {
-            boolean match = true;
-            for (int j = 0; j < FRAME_HEADER.length; j++) {
-                if (dataBuffer.get(i + j) != FRAME_HEADER[j]) {
-                    match = false;
-                    break;
-                }
-            }
-            if (match) {
-                return i;
+    public CompletableFuture<CommandResult> getAllLocksStatusAsync(int boardAddress) {
+        return sendBoardCommandAsync(0x84, boardAddress, LockCtlBoardCmdHelper::getAllLocksStatusFrame, "查询所有锁状态");
+    }
+
+    /**
+     * 查询所有门锁状态（异步，优先读取锁状态影子）
+     * 该板全部通道的状态都在 maxStalenessMs 内更新过时直接以其完成，不发出指令；否则向锁控板查询
+     *
+     * @param boardAddress   板地址
+     * @param maxStalenessMs 可接受的最大陈旧时间（毫秒）
+     * @return 执行结果，取自影子时 isCached 为 true
+     */
+    public CompletableFuture<CommandResult> getAllLocksStatusAsync(int boardAddress, long maxStalenessMs) {
+        if (validateBoard(boardAddress) == null) {
+            int[] states = lockStateShadow.getAllLockStatus(boardAddress,
+                    boardRegistry.getChannelCount(boardAddress), maxStalenessMs);
+            if (states != null) {
+                Log.d(TAG, boardLabel(boardAddress) + "查询所有锁状态 取自锁状态影子");
+                return CompletableFuture.completedFuture(
+                        CommandResult.cached(boardAddress, 0x84, CommandResult.NONE, CommandResult.NONE, states));
             }
         }
-        return -1;
+        return getAllLocksStatusAsync(boardAddress);
     }
 
     /**
-     * 验证门锁ID是否有效
+     * 全部开锁（逐一打开，异步）
      *
-     * @param lockId 门锁ID
-     * @return 是否有效
+     * @return 执行结果
+     * @see #openAllLocksSequentially()
      */
-    private boolean isValidLockId(int lockId) {
-        return lockId >= MIN_LOCK_ID && lockId <= MAX_LOCK_ID;
+    public CompletableFuture<CommandResult> openAllLocksSequentiallyAsync() {
+        return openAllLocksSequentiallyAsync(BoardRegistry.DEFAULT_BOARD_ADDRESS);
     }
 
     /**
-     * 验证多个门锁ID是否有效
+     * 全部开锁（逐一打开，指定板地址，异步）
      *
-     * @param lockIds 门锁ID数组
-     * @return 是否全部有效
+     * @param boardAddress 板地址
+     * @return 执行结果
      */
-    private boolean areValidLockIds(int... lockIds) {
-        if (lockIds == null || lockIds.length == 0) {
-            return false;
+    public CompletableFuture<CommandResult> openAllLocksSequentiallyAsync(int boardAddress) {
+        return sendBoardCommandAsync(0x86, boardAddress, LockCtlBoardCmdHelper::openAllLocksFrame, "开启所有锁");
+    }
+
+    /**
+     * 开多锁，逐一打开（异步）
+     *
+     * @param lockIds 门锁ID数组（可变长参数）
+     * @return 执行结果
+     * @see #openMultipleLocksSequentially(int...)
+     */
+    public CompletableFuture<CommandResult> openMultipleLocksSequentiallyAsync(int... lockIds) {
+        return openMultipleLocksSequentiallyAsync(BoardRegistry.DEFAULT_BOARD_ADDRESS, lockIds);
+    }
+
+    /**
+     * 开多锁，逐一打开（指定板地址，异步）
+     *
+     * @param boardAddress 板地址
+     * @param lockIds      门锁ID数组
+     * @return 执行结果
+     */
+    public CompletableFuture<CommandResult> openMultipleLocksSequentiallyAsync(int boardAddress, int[] lockIds) {
+        return sendLockListCommandAsync(0x87, boardAddress, lockIds,
+                ids -> LockCtlBoardCmdHelper.openMultipleSequentialFrame((byte) boardAddress, ids),
+                "依次开启锁: " + Arrays.toString(lockIds));
+    }
+
+    /**
+     * 通道持续打开（异步）
+     *
+     * @param channelId 通道ID
+     * @return 执行结果
+     * @see #keepChannelOpen(int)
+     */
+    public CompletableFuture<CommandResult> keepChannelOpenAsync(int channelId) {
+        return keepChannelOpenAsync(BoardRegistry.DEFAULT_BOARD_ADDRESS, channelId);
+    }
+
+    /**
+     * 通道持续打开（指定板地址，异步）
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 执行结果
+     */
+    public CompletableFuture<CommandResult> keepChannelOpenAsync(int boardAddress, int channelId) {
+        return sendChannelCommandAsync(0x88, boardAddress, channelId,
+                LockCtlBoardCmdHelper::channelKeepOpenFrame, "持续打开通道: " + channelId);
+    }
+
+    /**
+     * 关闭通道（异步）
+     *
+     * @param channelId 通道ID
+     * @return 执行结果
+     * @see #closeChannel(int)
+     */
+    public CompletableFuture<CommandResult> closeChannelAsync(int channelId) {
+        return closeChannelAsync(BoardRegistry.DEFAULT_BOARD_ADDRESS, channelId);
+    }
+
+    /**
+     * 关闭通道（指定板地址，异步）
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 执行结果
+     */
+    public CompletableFuture<CommandResult> closeChannelAsync(int boardAddress, int channelId) {
+        return sendChannelCommandAsync(0x89, boardAddress, channelId,
+                LockCtlBoardCmdHelper::closeChannelFrame, "关闭通道: " + channelId);
+    }
+
+    /**
+     * 处理已解码的响应帧
+     *
+     * @param frame 已解码的响应帧
+     */
+    private void handleResponseFrame(ResponseFrame frame) {
+        lockStateShadow.update(frame);
+        DoorEventJournal journal = doorEventJournal;
+        if (journal != null && frame.getCommandByte() == 0x85
+                && frame.getChannelId() != ResponseFrame.NONE && frame.getLockStatus() != ResponseFrame.NONE) {
+            journal.append(System.currentTimeMillis(), frame.getBoardAddress(), frame.getChannelId(), frame.getLockStatus());
         }
-        for (int lockId : lockIds) {
-            if (!isValidLockId(lockId)) {
-                Log.w(TAG, "无效的门锁ID: " + lockId + "，有效范围: " + MIN_LOCK_ID + "-" + MAX_LOCK_ID);
-                return false;
+
+        for (OnFrameReceived listener : frameListeners) {
+            try {
+                listener.onFrameReceived(frame);
+            } catch (Exception e) {
+                Log.e(TAG, "通知响应帧监听器失败", e);
             }
         }
-        return true;
+
+        OnDataReceived listener = mOnDataReceived;
+        if (listener != null) {
+            // 帧已在接收管道中验证过，直接解析
+            listener.onDataReceived(LockCtlBoardCmdHelper.parseResponseToJson(frame));
+        }
     }
 
     /**
-     * 验证通道ID是否有效（与门锁ID使用相同的范围）
+     * 验证板地址是否已注册
      *
-     * @param channelId 通道ID
-     * @return 是否有效
+     * @param boardAddress 板地址
+     * @return 错误信息，有效时返回null
+     */
+    private String validateBoard(int boardAddress) {
+        return boardRegistry.isRegistered(boardAddress) ? null : "板地址未注册: " + boardAddress;
+    }
+
+    /**
+     * 验证通道ID是否在已注册锁控板的通道范围内
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 错误信息，有效时返回null
      */
-    private boolean isValidChannelId(int channelId) {
-        return isValidLockId(channelId);
+    private String validateChannel(int boardAddress, int channelId) {
+        String error = validateBoard(boardAddress);
+        if (error == null && !boardRegistry.isValidChannel(boardAddress, channelId)) {
+            error = "通道ID参数无效: " + channelId + "，有效范围: 1-" + boardRegistry.getChannelCount(boardAddress);
+        }
+        return error;
     }
 
     /**
-     * 字节数组转十六进制字符串（用于日志输出）
+     * 验证多个门锁ID是否有效
+     *
+     * @param boardAddress 板地址
+     * @param lockIds      门锁ID数组
+     * @return 错误信息，全部有效时返回null
      */
-    private static String bytesToHex(byte[] bytes) {
-        if (bytes == null) {
-            return "null";
+    private String validateLockIds(int boardAddress, int[] lockIds) {
+        String error = validateBoard(boardAddress);
+        if (error != null) {
+            return error;
+        }
+        if (lockIds == null || lockIds.length == 0) {
+            return "门锁ID参数无效: 未指定门锁";
         }
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            sb.append(String.format("%02X ", b));
+        for (int lockId : lockIds) {
+            if (!boardRegistry.isValidChannel(boardAddress, lockId)) {
+                return "门锁ID参数无效: " + lockId + "，有效范围: 1-" + boardRegistry.getChannelCount(boardAddress);
+            }
         }
-        return sb.toString().trim();
+        return null;
+    }
+
+    /**
+     * 日志中的板地址前缀，默认板地址不加前缀
+     */
+    private static String boardLabel(int boardAddress) {
+        return boardAddress == BoardRegistry.DEFAULT_BOARD_ADDRESS ? "" : "板 " + boardAddress + " ";
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,222 @@
+package xyz.junerver.android.lockdemo.lockctl
+
+import kotlinx.coroutines.channels.BufferOverflow
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.SharedFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asSharedFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.future.await
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandDebounceManager
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandPriority
+import java.io.Closeable
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * 锁控事件
+ */
+sealed interface LockCtlEvent {
+
+  /**
+   * 0x85 主动上传的门状态变化
+   *
+   * @param lockStatus 锁状态（0x00 打开，0x01 关闭）
+   */
+  data class DoorStateChanged(val boardAddress: Int, val channelId: Int, val lockStatus: Int) : LockCtlEvent {
+    val isClosed: Boolean get() = lockStatus == 0x01
+  }
+
+  /**
+   * 连接状态事件
+   *
+   * @param event 事件类型，取值为 LockCtlBoardUtil.TYPE_* 常量
+   */
+  data class Connection(val event: String, val message: String) : LockCtlEvent
+}
+
+/**
+ * 锁控协程门面
+ * 在 LockCtlBoardUtil 之上提供挂起函数与 Flow，页面直接收集类型化的结果，不再自行解析 JSON、切换线程
+ *
+ * 1. 每个操作是一个挂起函数，返回匹配到的响应（或超时、失败）生成的 CommandResult；
+ *    协程取消时仍在队列中的指令被撤回，已发出的照常执行
+ * 2. events：0x85 门状态上传与连接事件；frames：全部响应帧。二者为热流，不回放，
+ *    缓冲区大小与溢出策略由构造参数指定
+ * 3. lockStates：通道 → 锁状态表，由 0x82/0x83/0x84 响应与 0x85 上传更新；
+ *    多块锁控板时用 boardLockStates 按板地址区分，各操作也有指定板地址的重载
+ *
+ * 回调线程上只做 tryEmit，溢出策略为 SUSPEND 时放不下的事件被丢弃并计入 droppedEvents。
+ * 创建时注册到 LockCtlBoardUtil，不再使用时需调用 close()
+ */
+class LockCtlClient @JvmOverloads constructor(
+  private val lockCtl: LockCtlBoardUtil = LockCtlBoardUtil.getInstance(),
+  bufferCapacity: Int = DEFAULT_BUFFER_CAPACITY,
+  onBufferOverflow: BufferOverflow = BufferOverflow.DROP_OLDEST,
+) : Closeable {
+
+  init {
+    require(bufferCapacity > 0) { "bufferCapacity must be positive" }
+  }
+
+  private val _events = MutableSharedFlow<LockCtlEvent>(
+    extraBufferCapacity = bufferCapacity,
+    onBufferOverflow = onBufferOverflow,
+  )
+  private val _frames = MutableSharedFlow<ResponseFrame>(
+    extraBufferCapacity = bufferCapacity,
+    onBufferOverflow = onBufferOverflow,
+  )
+  private val _boardLockStates = MutableStateFlow<Map<Int, Map<Int, Int>>>(emptyMap())
+  private val _lockStates = MutableStateFlow<Map<Int, Int>>(emptyMap())
+  private val dropped = AtomicLong()
+
+  /** 0x85 门状态上传与连接事件 */
+  val events: SharedFlow<LockCtlEvent> = _events.asSharedFlow()
+
+  /** 全部响应帧（含防抖管理器按通道派生的 0x83 响应） */
+  val frames: SharedFlow<ResponseFrame> = _frames.asSharedFlow()
+
+  /** 默认板地址 (0x00) 上通道 → 锁状态（0x00 打开，0x01 关闭），只包含收到过状态的通道 */
+  val lockStates: StateFlow<Map<Int, Int>> = _lockStates.asStateFlow()
+
+  /** 板地址 → (通道 → 锁状态)，总线上串接多块锁控板时使用 */
+  val boardLockStates: StateFlow<Map<Int, Map<Int, Int>>> = _boardLockStates.asStateFlow()
+
+  /** 缓冲区放不下而丢弃的事件数 */
+  val droppedEvents: Long get() = dropped.get()
+
+  internal val frameListener = object : LockCtlBoardUtil.OnFrameReceived {
+    override fun onFrameReceived(frame: ResponseFrame) {
+      updateLockStates(frame)
+      emit(_frames, frame)
+      if (frame.commandByte == CMD_STATUS_UPLOAD &&
+        frame.channelId != ResponseFrame.NONE && frame.lockStatus != ResponseFrame.NONE
+      ) {
+        emit(_events, LockCtlEvent.DoorStateChanged(frame.boardAddress, frame.channelId, frame.lockStatus))
+      }
+    }
+
+    override fun onConnectionEvent(event: String?, message: String?) {
+      emit(_events, LockCtlEvent.Connection(event.orEmpty(), message.orEmpty()))
+    }
+  }
+
+  init {
+    lockCtl.addOnFrameReceived(frameListener)
+  }
+
+  suspend fun openMultipleLocksSimultaneously(vararg lockIds: Int): CommandResult =
+    lockCtl.openMultipleLocksSimultaneouslyAsync(*lockIds).await()
+
+  suspend fun openMultipleLocksSimultaneously(boardAddress: Int, lockIds: IntArray): CommandResult =
+    lockCtl.openMultipleLocksSimultaneouslyAsync(boardAddress, lockIds).await()
+
+  suspend fun flashLockLed(channelId: Int): CommandResult =
+    lockCtl.flashLockLedAsync(channelId).await()
+
+  suspend fun flashLockLed(boardAddress: Int, channelId: Int): CommandResult =
+    lockCtl.flashLockLedAsync(boardAddress, channelId).await()
+
+  suspend fun openSingleLock(channelId: Int): CommandResult =
+    lockCtl.openSingleLockAsync(channelId).await()
+
+  suspend fun openSingleLock(boardAddress: Int, channelId: Int): CommandResult =
+    lockCtl.openSingleLockAsync(boardAddress, channelId).await()
+
+  suspend fun getSingleLockStatus(channelId: Int): CommandResult =
+    lockCtl.getSingleLockStatusAsync(channelId).await()
+
+  suspend fun getSingleLockStatus(boardAddress: Int, channelId: Int): CommandResult =
+    lockCtl.getSingleLockStatusAsync(boardAddress, channelId).await()
+
+  /** 影子中的状态在 maxStalenessMs 内更新过时直接返回，不经过串口 */
+  suspend fun getSingleLockStatus(boardAddress: Int, channelId: Int, maxStalenessMs: Long): CommandResult =
+    lockCtl.getSingleLockStatusAsync(boardAddress, channelId, maxStalenessMs).await()
+
+  suspend fun getAllLocksStatus(boardAddress: Int = BoardRegistry.DEFAULT_BOARD_ADDRESS): CommandResult =
+    lockCtl.getAllLocksStatusAsync(boardAddress).await()
+
+  /** 影子中全部通道的状态在 maxStalenessMs 内更新过时直接返回，不经过串口 */
+  suspend fun getAllLocksStatus(boardAddress: Int, maxStalenessMs: Long): CommandResult =
+    lockCtl.getAllLocksStatusAsync(boardAddress, maxStalenessMs).await()
+
+  suspend fun openAllLocksSequentially(boardAddress: Int = BoardRegistry.DEFAULT_BOARD_ADDRESS): CommandResult =
+    lockCtl.openAllLocksSequentiallyAsync(boardAddress).await()
+
+  suspend fun openMultipleLocksSequentially(vararg lockIds: Int): CommandResult =
+    lockCtl.openMultipleLocksSequentiallyAsync(*lockIds).await()
+
+  suspend fun openMultipleLocksSequentially(boardAddress: Int, lockIds: IntArray): CommandResult =
+    lockCtl.openMultipleLocksSequentiallyAsync(boardAddress, lockIds).await()
+
+  suspend fun keepChannelOpen(channelId: Int): CommandResult =
+    lockCtl.keepChannelOpenAsync(channelId).await()
+
+  suspend fun keepChannelOpen(boardAddress: Int, channelId: Int): CommandResult =
+    lockCtl.keepChannelOpenAsync(boardAddress, channelId).await()
+
+  suspend fun closeChannel(channelId: Int): CommandResult =
+    lockCtl.closeChannelAsync(channelId).await()
+
+  suspend fun closeChannel(boardAddress: Int, channelId: Int): CommandResult =
+    lockCtl.closeChannelAsync(boardAddress, channelId).await()
+
+  override fun close() {
+    lockCtl.removeOnFrameReceived(frameListener)
+  }
+
+  private fun updateLockStates(frame: ResponseFrame) {
+    when (frame.commandByte) {
+      CMD_OPEN_SINGLE_LOCK, CMD_SINGLE_LOCK_STATUS, CMD_STATUS_UPLOAD -> {
+        val channelId = frame.channelId
+        val lockStatus = frame.lockStatus
+        // 0x85 不含状态字节，其余响应只取成功的
+        val valid = frame.commandByte == CMD_STATUS_UPLOAD || frame.isSuccess
+        if (valid && channelId != ResponseFrame.NONE && lockStatus != ResponseFrame.NONE) {
+          putLockStates(frame.boardAddress, mapOf(channelId to lockStatus))
+        }
+      }
+
+      CMD_ALL_LOCKS_STATUS -> {
+        val channelCount = frame.channelCount
+        if (frame.isSuccess && channelCount > 0) {
+          putLockStates(frame.boardAddress, (1..channelCount).associateWith { frame.getChannelLockStatus(it) })
+        }
+      }
+    }
+  }
+
+  private fun putLockStates(boardAddress: Int, states: Map<Int, Int>) {
+    _boardLockStates.update { it + (boardAddress to (it[boardAddress].orEmpty() + states)) }
+    if (boardAddress == BoardRegistry.DEFAULT_BOARD_ADDRESS) {
+      _lockStates.update { it + states }
+    }
+  }
+
+  private fun <T> emit(flow: MutableSharedFlow<T>, value: T) {
+    if (!flow.tryEmit(value)) {
+      dropped.incrementAndGet()
+    }
+  }
+
+  companion object {
+    const val DEFAULT_BUFFER_CAPACITY = 64
+
+    private const val CMD_OPEN_SINGLE_LOCK = 0x82
+    private const val CMD_SINGLE_LOCK_STATUS = 0x83
+    private const val CMD_ALL_LOCKS_STATUS = 0x84
+    private const val CMD_STATUS_UPLOAD = 0x85
+  }
+}
+
+/**
+ * 通过防抖管理器发送指令并挂起等待结果，协程取消时仍在队列中的指令被撤回
+ *
+ * @param frame    指令帧
+ * @param priority 排队优先级，null 时按指令字确定
+ * @return 执行结果
+ */
+suspend fun CommandDebounceManager.send(frame: CommandFrame, priority: CommandPriority? = null): CommandResult =
+  sendCommandAsync(frame, priority).await()
@@ -8,15 +8,29 @@ import com.kongqw.serialportlibrary.Device;
 import com.kongqw.serialportlibrary.SerialPortFinder;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandExecutionStrategy;
 import xyz.junerver.android.lockdemo.lockctl.debounce.LockCtlBoardSerialSender;
 import xyz.junerver.android.lockdemo.lockctl.debounce.OnResponseListener;
 
 /**
  * 串口设备检测工具类
  * 用于自动检测正确的门锁控制板串口设备
+ * <p>
+ * 各串口并发检测，单口超时按波特率下查询帧与响应帧的传输时间计算，
+ * 总耗时约为一次查询的往返时间，不再随串口数量线性增长。
+ * 检测成功的 (串口, 波特率) 保存在首选项中，下次启动先验证该记录，验证失败才重新扫描
  */
 public class SerialPortDetector {
     private static final String TAG = "SerialPortDetector";
@@ -24,16 +38,91 @@ public class SerialPortDetector {
     // SP 首选项相关常量
     private static final String PREFS_NAME = "serial_port_prefs";
     private static final String KEY_DETECTED_PORT = "detected_port_path";
+    private static final String KEY_DETECTED_BAUD_RATE = "detected_baud_rate";
 
-    // 检测超时时间（毫秒）
-    private static final int DETECTION_TIMEOUT = 3000;
+    // 并发检测的最大线程数
+    private static final int MAX_PROBE_THREADS = 8;
+    // 每字节在线路上的位数（1 起始位 + 8 数据位 + 1 停止位）
+    private static final int BITS_PER_BYTE = 10;
+    // 查询所有门状态响应的最大长度：帧头与校验 (8) + 状态与通道数 (2) + 每通道 1 字节
+    private static final int MAX_STATUS_RESPONSE_LENGTH = 8 + 2 + BoardRegistry.MAX_CHANNEL_COUNT;
+    // 打开串口、驱动就绪到开始收发之间的余量（毫秒）
+    private static final int PORT_OPEN_SLACK_MS = 100;
 
     private Context context;
     private SerialPortFinder serialPortFinder;
+    private final int baudRate;
+    private volatile PortProbe portProbe = SerialPortDetector::testPortConnection;
+    // 扫描时依次尝试的波特率，默认只尝试 baudRate
+    private volatile int[] candidateBaudRates;
 
     public SerialPortDetector(Context context) {
+        this(context, LockCtlBoardSerialSender.DEFAULT_BAUD_RATE);
+    }
+
+    /**
+     * @param context  上下文
+     * @param baudRate 检测使用的波特率，同时用于计算检测超时
+     */
+    public SerialPortDetector(Context context, int baudRate) {
+        if (baudRate <= 0) {
+            throw new IllegalArgumentException("波特率必须大于0: " + baudRate);
+        }
         this.context = context.getApplicationContext();
         this.serialPortFinder = new SerialPortFinder();
+        this.baudRate = baudRate;
+        this.candidateBaudRates = new int[]{baudRate};
+    }
+
+    /**
+     * 单个串口的检测方式
+     * 默认打开串口发送 0x84 并等待有效响应；检测被取消时线程会被中断，实现需在退出前释放串口
+     */
+    public interface PortProbe {
+        /**
+         * @param portPath  串口路径
+         * @param baudRate  波特率
+         * @param timeoutMs 等待响应的超时（毫秒）
+         * @return true表示该串口连接了门锁控制板
+         */
+        boolean probe(String portPath, int baudRate, long timeoutMs) throws Exception;
+    }
+
+    /**
+     * 替换单个串口的检测方式
+     *
+     * @param portProbe 检测方式
+     */
+    public void setPortProbe(PortProbe portProbe) {
+        this.portProbe = portProbe;
+    }
+
+    public int getBaudRate() {
+        return baudRate;
+    }
+
+    /**
+     * 设置扫描时尝试的波特率
+     * 每个串口按给出的顺序逐一尝试（同一串口不能同时以多个波特率打开），不同串口之间仍并发检测；
+     * 建议把最可能的波特率放在前面。检测成功的 (串口, 波特率) 会一并保存
+     *
+     * @param baudRates 候选波特率，为空时只尝试构造时指定的波特率
+     */
+    public void setCandidateBaudRates(int... baudRates) {
+        if (baudRates == null || baudRates.length == 0) {
+            this.candidateBaudRates = new int[]{baudRate};
+            return;
+        }
+        for (int rate : baudRates) {
+            if (rate <= 0) {
+                throw new IllegalArgumentException("波特率必须大于0: " + rate);
+            }
+        }
+        this.candidateBaudRates = baudRates.clone();
+    }
+
+    public int[] getCandidateBaudRates() {
+        return candidateBaudRates.clone();
     }
 
     /**
@@ -42,6 +131,17 @@ public class SerialPortDetector {
     public interface OnDetectionListener {
         void onPortDetected(String portPath);
 
+        /**
+         * 检测到串口及其实际波特率
+         * 默认实现回退到 onPortDetected(String)，兼容只关心路径的监听器
+         *
+         * @param portPath 串口路径
+         * @param baudRate 锁控板响应的波特率
+         */
+        default void onPortDetected(String portPath, int baudRate) {
+            onPortDetected(portPath);
+        }
+
         void onDetectionFailed(String error);
 
         void onDetectionProgress(String currentPort);
@@ -58,14 +158,38 @@ public class SerialPortDetector {
     }
 
     /**
-     * 保存检测到的串口路径
+     * 获取已保存串口的波特率
+     *
+     * @return 已保存的波特率，如果没有保存则返回构造时指定的波特率
+     */
+    public int getSavedBaudRate() {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        int saved = prefs.getInt(KEY_DETECTED_BAUD_RATE, 0);
+        return saved > 0 ? saved : baudRate;
+    }
+
+    /**
+     * 保存检测到的串口路径（使用构造时指定的波特率）
      *
      * @param portPath 串口路径
      */
     public void savePortPath(String portPath) {
+        savePort(portPath, baudRate);
+    }
+
+    /**
+     * 保存检测到的串口路径与波特率
+     *
+     * @param portPath 串口路径
+     * @param baudRate 波特率
+     */
+    public void savePort(String portPath, int baudRate) {
         SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        prefs.edit().putString(KEY_DETECTED_PORT, portPath).apply();
-        Log.i(TAG, "串口路径已保存: " + portPath);
+        prefs.edit()
+                .putString(KEY_DETECTED_PORT, portPath)
+                .putInt(KEY_DETECTED_BAUD_RATE, baudRate)
+                .apply();
+        Log.i(TAG, "串口路径已保存: " + portPath + ", 波特率: " + baudRate);
     }
 
     /**
@@ -73,83 +197,263 @@ public class SerialPortDetector {
      */
     public void clearSavedPortPath() {
         SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        prefs.edit().remove(KEY_DETECTED_PORT).apply();
+        prefs.edit().remove(KEY_DETECTED_PORT).remove(KEY_DETECTED_BAUD_RATE).apply();
         Log.i(TAG, "已清除保存的串口路径");
     }
 
     /**
      * 自动检测门锁控制板串口设备
+     * 有已保存的 (串口, 波特率) 时先向它发一次查询验证，验证通过直接使用；
+     * 未通过（串口已变化或锁控板未响应）时清除保存的记录并回退到全量扫描。
+     * 扫描时各串口在有界线程池上并发检测，第一个收到有效响应的串口胜出，其余检测随即取消
      *
      * @param listener 检测结果监听器
      */
     public void autoDetectPort(OnDetectionListener listener) {
-        // 首先检查是否有已保存的串口路径
-        String savedPort = getSavedPortPath();
-        if (savedPort != null) {
-            Log.i(TAG, "使用已保存的串口路径: " + savedPort);
-            listener.onPortDetected(savedPort);
-            return;
-        }
+        final String savedPort = getSavedPortPath();
+        final int savedBaudRate = getSavedBaudRate();
+
+        new Thread(() -> {
+            if (savedPort != null) {
+                Log.i(TAG, "验证已保存的串口: " + savedPort + ", 波特率: " + savedBaudRate);
+                if (listener != null) {
+                    listener.onDetectionProgress(savedPort);
+                }
+                if (verifySavedPort(savedPort, savedBaudRate)) {
+                    Log.i(TAG, "使用已保存的串口路径: " + savedPort);
+                    if (listener != null) {
+                        listener.onPortDetected(savedPort, savedBaudRate);
+                    }
+                    return;
+                }
+                Log.w(TAG, "已保存的串口未通过验证，重新扫描: " + savedPort);
+                clearSavedPortPath();
+            }
 
-        // 获取所有串口设备
-        ArrayList<Device> devices = serialPortFinder.getDevices();
-        if (devices == null || devices.isEmpty()) {
+            // 获取所有串口设备
+            List<String> portPaths = listPortPaths();
+            if (portPaths.isEmpty()) {
+                String error = "未找到任何串口设备";
+                Log.e(TAG, error);
+                if (listener != null) {
+                    listener.onDetectionFailed(error);
+                }
+                return;
+            }
+
+            runDetection(portPaths, listener);
+        }, "SerialPortDetector").start();
+    }
+
+    /**
+     * 在给定的串口中并发检测门锁控制板
+     * 检测在后台线程中进行，结果从后台线程回调；onDetectionProgress 在各检测线程上串行回调
+     *
+     * @param portPaths 候选串口路径
+     * @param listener  检测结果监听器
+     */
+    public void detectAmong(List<String> portPaths, OnDetectionListener listener) {
+        if (portPaths == null || portPaths.isEmpty()) {
             String error = "未找到任何串口设备";
             Log.e(TAG, error);
-            listener.onDetectionFailed(error);
+            if (listener != null) {
+                listener.onDetectionFailed(error);
+            }
             return;
         }
+        final List<String> candidates = new ArrayList<>(portPaths);
+        new Thread(() -> runDetection(candidates, listener), "SerialPortDetector").start();
+    }
 
-        // 在新线程中执行检测
-        new Thread(() -> {
+    /**
+     * 向已保存的串口发一次查询，验证锁控板仍在该串口上
+     */
+    private boolean verifySavedPort(String portPath, int baudRate) {
+        long startTime = System.nanoTime();
+        try {
+            boolean ok = portProbe.probe(portPath, baudRate, getProbeTimeoutMs(baudRate));
+            Log.d(TAG, "验证已保存的串口" + (ok ? "通过" : "未通过") + "，耗时 "
+                    + (System.nanoTime() - startTime) / 1_000_000 + "ms");
+            return ok;
+        } catch (Exception e) {
+            Log.e(TAG, "验证已保存的串口时发生异常", e);
+            return false;
+        }
+    }
+
+    private List<String> listPortPaths() {
+        List<String> portPaths = new ArrayList<>();
+        ArrayList<Device> devices;
+        try {
+            devices = serialPortFinder.getDevices();
+        } catch (Exception e) {
+            Log.e(TAG, "枚举串口设备失败", e);
+            return portPaths;
+        }
+        if (devices != null) {
             for (Device device : devices) {
                 if (device != null && device.getFile() != null) {
-                    String portPath = device.getFile().getAbsolutePath();
-                    Log.d(TAG, "正在检测串口: " + portPath);
+                    portPaths.add(device.getFile().getAbsolutePath());
+                }
+            }
+        }
+        return portPaths;
+    }
 
-                    // 在主线程中更新进度
-                    if (listener != null) {
-                        listener.onDetectionProgress(portPath);
-                    }
+    /**
+     * 在当前线程中扫描给定的串口并回调结果
+     */
+    private void runDetection(List<String> portPaths, OnDetectionListener listener) {
+        long startTime = System.nanoTime();
+        Detection detection = probeConcurrently(portPaths, listener);
+        long elapsedMs = (System.nanoTime() - startTime) / 1_000_000;
+
+        if (detection != null) {
+            Log.i(TAG, "检测到正确的串口设备: " + detection.portPath + ", 波特率: " + detection.baudRate
+                    + "，耗时 " + elapsedMs + "ms");
+
+            // 保存检测到的串口路径与波特率
+            savePort(detection.portPath, detection.baudRate);
+
+            if (listener != null) {
+                listener.onPortDetected(detection.portPath, detection.baudRate);
+            }
+            return;
+        }
+
+        // 所有串口都检测完成，没有找到合适的设备
+        String error = "未检测到门锁控制板设备";
+        Log.e(TAG, error + "，耗时 " + elapsedMs + "ms");
+        if (listener != null) {
+            listener.onDetectionFailed(error);
+        }
+    }
+
+    /**
+     * 检测结果：串口与锁控板响应的波特率
+     */
+    private static final class Detection {
+        final String portPath;
+        final int baudRate;
 
-                    // 检测当前串口
-                    if (testPortConnection(portPath)) {
-                        Log.i(TAG, "检测到正确的串口设备: " + portPath);
+        Detection(String portPath, int baudRate) {
+            this.portPath = portPath;
+            this.baudRate = baudRate;
+        }
+    }
 
-                        // 保存检测到的串口路径
-                        savePortPath(portPath);
+    /**
+     * 并发检测各串口，返回第一个检测成功的串口
+     *
+     * @param portPaths 候选串口路径
+     * @param listener  检测结果监听器，用于回调进度
+     * @return 检测结果，没有找到返回null
+     */
+    private Detection probeConcurrently(List<String> portPaths, OnDetectionListener listener) {
+        final int[] baudRates = candidateBaudRates;
+        final PortProbe probe = portProbe;
+        final AtomicBoolean found = new AtomicBoolean(false);
+        final Object progressLock = new Object();
+
+        int threadCount = Math.min(portPaths.size(), MAX_PROBE_THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CompletionService<Detection> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Detection>> futures = new ArrayList<>(portPaths.size());
+
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+            Log.d(TAG, String.format("并发检测 %d 个串口: 线程数=%d, 波特率=%s",
+                    portPaths.size(), threadCount, Arrays.toString(baudRates)));
+        }
 
-                        // 在主线程中返回结果
-                        if (listener != null) {
-                            listener.onPortDetected(portPath);
+        try {
+            for (String portPath : portPaths) {
+                futures.add(completionService.submit(() -> {
+                    // 已有串口胜出时，排队中的检测直接放弃，不再打开串口
+                    if (found.get()) {
+                        return null;
+                    }
+                    Log.d(TAG, "正在检测串口: " + portPath);
+                    if (listener != null) {
+                        synchronized (progressLock) {
+                            listener.onDetectionProgress(portPath);
                         }
-                        return;
                     }
-                }
+                    for (int rate : baudRates) {
+                        if (found.get()) {
+                            break;
+                        }
+                        if (probe.probe(portPath, rate, getProbeTimeoutMs(rate))) {
+                            return new Detection(portPath, rate);
+                        }
+                    }
+                    return null;
+                }));
             }
 
-            // 所有串口都检测完成，没有找到合适的设备
-            String error = "未检测到门锁控制板设备";
-            Log.e(TAG, error);
-            if (listener != null) {
-                listener.onDetectionFailed(error);
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    Detection detection = completionService.take().get();
+                    if (detection != null && found.compareAndSet(false, true)) {
+                        return detection;
+                    }
+                } catch (ExecutionException e) {
+                    Log.e(TAG, "检测串口时发生异常", e.getCause());
+                }
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            found.set(true);
+            // 中断仍在等待响应的检测，各检测在退出时自行断开串口
+            for (Future<Detection> future : futures) {
+                future.cancel(true);
             }
-        }).start();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 根据波特率计算单个串口的检测超时
+     * 查询指令与最长响应帧在线路上的传输时间，加上 CommandExecutionStrategy 对查询所有门状态给出的超时
+     * （含安全系数），再加上打开串口的余量
+     *
+     * @param baudRate 波特率
+     * @return 超时时间（毫秒）
+     */
+    public static long getProbeTimeoutMs(int baudRate) {
+        CommandFrame probeFrame = LockCtlBoardCmdHelper.getAllLocksStatusFrame((byte) 0x00);
+        return wireTimeMs(probeFrame.length(), baudRate) + wireTimeMs(MAX_STATUS_RESPONSE_LENGTH, baudRate)
+                + CommandExecutionStrategy.calculateTimeout(probeFrame.getSharedBytes())
+                + PORT_OPEN_SLACK_MS;
+    }
+
+    /**
+     * 计算帧在线路上的传输时间（8N1，每字节10位），向上取整
+     */
+    private static long wireTimeMs(int frameBytes, int baudRate) {
+        long bits = (long) frameBytes * BITS_PER_BYTE;
+        return (bits * 1000 + baudRate - 1) / baudRate;
     }
 
     /**
      * 测试指定串口是否连接了门锁控制板
+     * 等待期间被中断时视为检测取消，同样断开串口
      *
-     * @param portPath 串口路径
+     * @param portPath  串口路径
+     * @param baudRate  波特率
+     * @param timeoutMs 等待响应的超时（毫秒）
      * @return true表示检测到正确的设备，false表示不是目标设备
      */
-    private boolean testPortConnection(String portPath) {
+    private static boolean testPortConnection(String portPath, int baudRate, long timeoutMs) {
         final boolean[] isConnected = {false};
         final CountDownLatch latch = new CountDownLatch(1);
+        LockCtlBoardSerialSender testSender = null;
 
         try {
             // 创建一个临时的串口发送器用于测试
-            LockCtlBoardSerialSender testSender = new LockCtlBoardSerialSender(portPath);
+            testSender = new LockCtlBoardSerialSender(portPath, baudRate);
 
             // 设置响应监听器
             testSender.setOnResponseListener(new OnResponseListener() {
@@ -157,7 +461,7 @@ public class SerialPortDetector {
                 public void onResponseReceived(byte[] response) {
                     // 验证响应是否有效
                     if (LockCtlBoardCmdHelper.validateResponse(response)) {
-                        Log.d(TAG, "收到有效响应: " + bytesToHex(response));
+                        Log.d(TAG, "收到有效响应: " + Hex.toHex(response));
                         isConnected[0] = true;
                     }
                     latch.countDown();
@@ -173,36 +477,35 @@ public class SerialPortDetector {
             // 尝试连接串口
             if (!testSender.isConnected()) {
                 Log.d(TAG, "无法连接到串口: " + portPath);
-                latch.countDown();
                 return false;
             }
 
             // 发送查询所有锁状态指令 (0x84)
-            byte[] command = LockCtlBoardCmdHelper.buildGetAllLocksStatusCommand((byte) 0x00);
-            if (command == null) {
-                Log.e(TAG, "构造查询指令失败");
-                latch.countDown();
-                return false;
-            }
+            CommandFrame command = LockCtlBoardCmdHelper.getAllLocksStatusFrame((byte) 0x00);
 
             Log.d(TAG, "向串口 " + portPath + " 发送查询指令");
-            testSender.sendCommand(command);
+            testSender.sendFrame(command);
 
-            // 等待响应，最多等待3秒
-            boolean result = latch.await(DETECTION_TIMEOUT, TimeUnit.MILLISECONDS);
+            // 等待响应
+            boolean result = latch.await(timeoutMs, TimeUnit.MILLISECONDS);
             if (!result) {
-                Log.w(TAG, "串口 " + portPath + " 响应超时");
+                Log.w(TAG, "串口 " + portPath + " 响应超时（" + timeoutMs + "ms）");
             }
 
-            // 断开测试连接
-            testSender.disconnect();
-
             return isConnected[0];
 
+        } catch (InterruptedException e) {
+            Log.d(TAG, "串口 " + portPath + " 的检测已取消");
+            Thread.currentThread().interrupt();
+            return false;
         } catch (Exception e) {
             Log.e(TAG, "测试串口 " + portPath + " 时发生异常", e);
-            latch.countDown();
             return false;
+        } finally {
+            // 断开测试连接
+            if (testSender != null) {
+                testSender.disconnect();
+            }
         }
     }
 
@@ -218,18 +521,4 @@ public class SerialPortDetector {
         // 重新开始检测
         autoDetectPort(listener);
     }
-
-    /**
-     * 字节数组转十六进制字符串（用于日志输出）
-     */
-    private static String bytesToHex(byte[] bytes) {
-        if (bytes == null) {
-            return "null";
-        }
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            sb.append(String.format("%02X ", b));
-        }
-        return sb.toString().trim();
-    }
 }
\ No newline at end of file
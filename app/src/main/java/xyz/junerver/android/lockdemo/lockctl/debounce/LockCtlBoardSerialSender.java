@@ -1,7 +1,5 @@
 package xyz.junerver.android.lockdemo.lockctl.debounce;
 
-import android.util.Log;
-
 import com.kongqw.serialportlibrary.SerialPortManager;
 import com.kongqw.serialportlibrary.listener.OnOpenSerialPortListener;
 import com.kongqw.serialportlibrary.listener.OnSerialPortDataListener;
@@ -10,6 +8,12 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
+import xyz.junerver.android.lockdemo.lockctl.CommandFrame;
+import xyz.junerver.android.lockdemo.lockctl.FrameDecoder;
+import xyz.junerver.android.lockdemo.lockctl.Hex;
+import xyz.junerver.android.lockdemo.lockctl.LockCtlLog;
+import xyz.junerver.android.lockdemo.lockctl.ResponseFrame;
+
 /**
  * 锁控板串口发送器
  * 实现CommandSender接口，封装真实的串口通信功能
@@ -20,18 +24,22 @@ public class LockCtlBoardSerialSender implements CommandSender {
 
     // 串口配置
     private static final String DEFAULT_DEVICE_PATH = "/dev/ttyS4";
-    private static final int DEFAULT_BAUD_RATE = 9600;
+    public static final int DEFAULT_BAUD_RATE = 9600;
 
     // 组件
     private SerialPortManager serialPortManager;
     private OnResponseListener responseListener;
 
+    // 当前使用的串口配置，重连时沿用
+    private volatile String devicePath = DEFAULT_DEVICE_PATH;
+    private volatile int baudRate = DEFAULT_BAUD_RATE;
+
     // 状态管理
     private volatile boolean isConnected = false;
     private final List<byte[]> sentCommands = new ArrayList<>();
 
-    // 数据缓冲区，用于处理分包数据
-    private final List<Byte> dataBuffer = new ArrayList<>();
+    // 帧解码器，用于处理分包数据
+    private final FrameDecoder frameDecoder = new FrameDecoder(this::onFrameDecoded);
 
     /**
      * 构造函数（使用默认配置）
@@ -56,7 +64,7 @@ public class LockCtlBoardSerialSender implements CommandSender {
      * @param baudRate   波特率
      */
     public LockCtlBoardSerialSender(String devicePath, int baudRate) {
-        Log.i(TAG, String.format("初始化锁控板串口发送器: 设备=%s, 波特率=%d", devicePath, baudRate));
+        LockCtlLog.i(TAG, "初始化锁控板串口发送器: 设备=%s, 波特率=%d", devicePath, baudRate);
         initializeSerialPort(devicePath, baudRate);
     }
 
@@ -67,6 +75,8 @@ public class LockCtlBoardSerialSender implements CommandSender {
      * @param baudRate   波特率
      */
     private void initializeSerialPort(String devicePath, int baudRate) {
+        this.devicePath = devicePath;
+        this.baudRate = baudRate;
         try {
             serialPortManager = new SerialPortManager();
 
@@ -74,18 +84,18 @@ public class LockCtlBoardSerialSender implements CommandSender {
                 @Override
                 public void onSuccess(File device) {
                     isConnected = true;
-                    Log.i(TAG, "串口连接成功: " + device.getAbsolutePath());
+                    LockCtlLog.i(TAG, "串口连接成功: " + device.getAbsolutePath());
 
                     // 清空数据缓冲区
-                    synchronized (dataBuffer) {
-                        dataBuffer.clear();
+                    synchronized (frameDecoder) {
+                        frameDecoder.clear();
                     }
                 }
 
                 @Override
                 public void onFail(File device, Status status) {
                     isConnected = false;
-                    Log.e(TAG, "串口连接失败: " + device.getAbsolutePath() + ", 状态: " + status);
+                    LockCtlLog.e(TAG, "串口连接失败: " + device.getAbsolutePath() + ", 状态: " + status);
 
                     // 通知监听器连接失败
                     if (responseListener != null) {
@@ -107,8 +117,9 @@ public class LockCtlBoardSerialSender implements CommandSender {
                         sentCommands.add(bytes.clone());
                     }
 
-                    Log.d(TAG, String.format("串口数据已发送: 长度=%d, 数据=%s",
-                            bytes.length, bytesToHex(bytes)));
+                    if (LockCtlLog.isLoggable(LockCtlLog.DEBUG)) {
+                        LockCtlLog.d(TAG, "串口数据已发送: 长度=" + bytes.length + ", 数据=" + Hex.toHex(bytes));
+                    }
                 }
             });
 
@@ -116,7 +127,7 @@ public class LockCtlBoardSerialSender implements CommandSender {
             serialPortManager.openSerialPort(new File(devicePath), baudRate);
 
         } catch (Exception e) {
-            Log.e(TAG, "初始化串口失败", e);
+            LockCtlLog.e(TAG, "初始化串口失败", e);
             isConnected = false;
 
             if (responseListener != null) {
@@ -135,92 +146,55 @@ public class LockCtlBoardSerialSender implements CommandSender {
             return;
         }
 
-        Log.d(TAG, String.format("收到串口数据: 长度=%d, 数据=%s",
-                bytes.length, bytesToHex(bytes)));
-
-        // 将新数据添加到缓冲区
-        synchronized (dataBuffer) {
-            for (byte b : bytes) {
-                dataBuffer.add(b);
-            }
+        if (LockCtlLog.isLoggable(LockCtlLog.DEBUG)) {
+            LockCtlLog.d(TAG, "收到串口数据: 长度=" + bytes.length + ", 数据=" + Hex.toHex(bytes));
+        }
 
-            // 尝试从缓冲区中提取完整的响应帧
-            extractCompleteFrames();
+        // 将新数据交给帧解码器，提取出的完整帧通过 onFrameDecoded 回调
+        synchronized (frameDecoder) {
+            frameDecoder.feed(bytes);
         }
     }
 
     /**
-     * 从缓冲区中提取完整的响应帧
+     * 处理帧解码器提取出的完整响应帧
+     * 在此完成唯一一次验证与解码，之后以 ResponseFrame 的形式向下游传递
+     *
+     * @param frameData 完整帧数据
      */
-    private void extractCompleteFrames() {
-        // 查找起始符位置 (57 4B 4C 59)
-        int startIndex = -1;
-        for (int i = 0; i <= dataBuffer.size() - 4; i++) {
-            if (dataBuffer.get(i) == 0x57 &&
-                    dataBuffer.get(i + 1) == 0x4B &&
-                    dataBuffer.get(i + 2) == 0x4C &&
-                    dataBuffer.get(i + 3) == 0x59) {
-                startIndex = i;
-                break;
-            }
-        }
-
-        // 如果没找到起始符，清空缓冲区（防止错误数据堆积）
-        if (startIndex == -1) {
-            if (dataBuffer.size() > 100) { // 防止缓冲区无限增长
-                dataBuffer.clear();
-                Log.w(TAG, "清空无效数据缓冲区");
-            }
+    private void onFrameDecoded(byte[] frameData) {
+        ResponseFrame frame = ResponseFrame.decode(frameData);
+        if (frame == null) {
+            LockCtlLog.w(TAG, "收到无效响应帧: " + Hex.toHex(frameData));
             return;
         }
 
-        // 检查是否有足够的数据来读取帧长度字段
-        if (dataBuffer.size() < startIndex + 5) {
-            return; // 数据不足，等待更多数据
-        }
-
-        // 读取帧长度
-        int frameLength = dataBuffer.get(startIndex + 4) & 0xFF;
-
-        // 检查是否有完整的数据帧
-        if (dataBuffer.size() < startIndex + frameLength) {
-            return; // 数据不完整，等待更多数据
-        }
+        LockCtlLog.d(TAG, "提取完整响应帧: 指令字=0x%02X, 长度=%d",
+                frame.getCommandByte(), frame.getLength());
 
-        // 提取完整的数据帧
-        byte[] frameData = new byte[frameLength];
-        for (int i = 0; i < frameLength; i++) {
-            frameData[i] = dataBuffer.get(startIndex + i);
-        }
-
-        // 从缓冲区中移除已处理的数据
-        for (int i = 0; i < startIndex + frameLength; i++) {
-            dataBuffer.remove(0);
-        }
-
-        // 验证帧的完整性
-        if (ResponseMatcher.isValidResponseFormat(frameData)) {
-            Log.d(TAG, String.format("提取完整响应帧: 指令字=0x%02X, 长度=%d",
-                    frameData.length > 6 ? frameData[6] & 0xFF : 0, frameData.length));
-
-            // 发送响应数据
-            if (responseListener != null) {
-                responseListener.onResponseReceived(frameData);
-            }
-        } else {
-            Log.w(TAG, "收到无效响应帧: " + bytesToHex(frameData));
-        }
-
-        // 递归处理缓冲区中可能的其他完整帧
-        if (dataBuffer.size() > 0) {
-            extractCompleteFrames();
+        // 发送响应数据
+        OnResponseListener listener = responseListener;
+        if (listener != null) {
+            listener.onFrameReceived(frame);
         }
     }
 
     @Override
     public void sendCommand(byte[] command) {
+        send(command);
+    }
+
+    /**
+     * 直接写出预编码帧的共享数组，不拷贝
+     */
+    @Override
+    public void sendFrame(CommandFrame frame) {
+        send(frame != null ? frame.getSharedBytes() : null);
+    }
+
+    private void send(byte[] command) {
         if (!isConnected) {
-            Log.e(TAG, "串口未连接，拒绝发送指令");
+            LockCtlLog.e(TAG, "串口未连接，拒绝发送指令");
             if (responseListener != null) {
                 responseListener.onError("串口未连接");
             }
@@ -228,7 +202,7 @@ public class LockCtlBoardSerialSender implements CommandSender {
         }
 
         if (serialPortManager == null) {
-            Log.e(TAG, "串口管理器为null");
+            LockCtlLog.e(TAG, "串口管理器为null");
             if (responseListener != null) {
                 responseListener.onError("串口管理器未初始化");
             }
@@ -236,7 +210,7 @@ public class LockCtlBoardSerialSender implements CommandSender {
         }
 
         if (command == null || command.length == 0) {
-            Log.e(TAG, "指令数据为空");
+            LockCtlLog.e(TAG, "指令数据为空");
             if (responseListener != null) {
                 responseListener.onError("指令数据为空");
             }
@@ -244,13 +218,13 @@ public class LockCtlBoardSerialSender implements CommandSender {
         }
 
         try {
-            Log.d(TAG, String.format("发送指令: 指令字=0x%02X, 长度=%d",
-                    command.length > 6 ? command[6] & 0xFF : 0, command.length));
+            LockCtlLog.d(TAG, "发送指令: 指令字=0x%02X, 长度=%d",
+                    command.length > 6 ? command[6] & 0xFF : 0, command.length);
 
             serialPortManager.sendBytes(command);
 
         } catch (Exception e) {
-            Log.e(TAG, "发送指令失败", e);
+            LockCtlLog.e(TAG, "发送指令失败", e);
             if (responseListener != null) {
                 responseListener.onError("发送指令失败: " + e.getMessage());
             }
@@ -260,7 +234,7 @@ public class LockCtlBoardSerialSender implements CommandSender {
     @Override
     public void setOnResponseListener(OnResponseListener listener) {
         this.responseListener = listener;
-        Log.d(TAG, "响应监听器已" + (listener != null ? "设置" : "清除"));
+        LockCtlLog.d(TAG, "响应监听器已" + (listener != null ? "设置" : "清除"));
     }
 
     @Override
@@ -278,9 +252,9 @@ public class LockCtlBoardSerialSender implements CommandSender {
         if (serialPortManager != null) {
             try {
                 serialPortManager.closeSerialPort();
-                Log.i(TAG, "串口连接已关闭");
+                LockCtlLog.i(TAG, "串口连接已关闭");
             } catch (Exception e) {
-                Log.e(TAG, "关闭串口连接失败", e);
+                LockCtlLog.e(TAG, "关闭串口连接失败", e);
             } finally {
                 serialPortManager = null;
                 isConnected = false;
@@ -288,19 +262,21 @@ public class LockCtlBoardSerialSender implements CommandSender {
         }
 
         // 清空数据缓冲区
-        synchronized (dataBuffer) {
-            dataBuffer.clear();
+        synchronized (frameDecoder) {
+            frameDecoder.clear();
         }
 
-        Log.i(TAG, "锁控板串口发送器已断开连接");
+        LockCtlLog.i(TAG, "锁控板串口发送器已断开连接");
     }
 
     /**
-     * 重新连接串口
+     * 以当前的设备路径和波特率重新连接串口
      */
     public void reconnect() {
+        String path = devicePath;
+        int rate = baudRate;
         disconnect();
-        initializeSerialPort(DEFAULT_DEVICE_PATH, DEFAULT_BAUD_RATE);
+        initializeSerialPort(path, rate);
     }
 
     /**
@@ -314,13 +290,31 @@ public class LockCtlBoardSerialSender implements CommandSender {
         initializeSerialPort(devicePath, baudRate);
     }
 
+    /**
+     * 获取当前使用的设备路径
+     *
+     * @return 设备路径
+     */
+    public String getDevicePath() {
+        return devicePath;
+    }
+
+    /**
+     * 获取当前使用的波特率
+     *
+     * @return 波特率
+     */
+    public int getBaudRate() {
+        return baudRate;
+    }
+
     /**
      * 清空数据缓冲区
      */
     public void clearDataBuffer() {
-        synchronized (dataBuffer) {
-            dataBuffer.clear();
-            Log.d(TAG, "数据缓冲区已清空");
+        synchronized (frameDecoder) {
+            frameDecoder.clear();
+            LockCtlLog.d(TAG, "数据缓冲区已清空");
         }
     }
 
@@ -330,8 +324,8 @@ public class LockCtlBoardSerialSender implements CommandSender {
      * @return 缓冲区大小
      */
     public int getBufferSize() {
-        synchronized (dataBuffer) {
-            return dataBuffer.size();
+        synchronized (frameDecoder) {
+            return frameDecoder.size();
         }
     }
 
@@ -356,26 +350,8 @@ public class LockCtlBoardSerialSender implements CommandSender {
     public void clearSentCommands() {
         synchronized (sentCommands) {
             sentCommands.clear();
-            Log.d(TAG, "发送记录已清空");
-        }
-    }
-
-    /**
-     * 字节数组转十六进制字符串（用于日志输出）
-     *
-     * @param bytes 字节数组
-     * @return 十六进制字符串
-     */
-    private String bytesToHex(byte[] bytes) {
-        if (bytes == null) {
-            return "null";
-        }
-
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            sb.append(String.format("%02X ", b));
+            LockCtlLog.d(TAG, "发送记录已清空");
         }
-        return sb.toString().trim();
     }
 
     /**
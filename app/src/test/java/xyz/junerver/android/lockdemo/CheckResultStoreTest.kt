@@ -0,0 +1,153 @@
+package xyz.junerver.android.lockdemo
+
+import android.content.Context
+import com.google.gson.Gson
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import xyz.junerver.android.lockdemo.check.CheckResultStore
+import xyz.junerver.android.lockdemo.check.DeviceCheckManager
+import xyz.junerver.android.lockdemo.check.DeviceCheckResult
+import java.io.File
+import java.io.IOException
+import java.io.RandomAccessFile
+import java.util.Date
+
+/**
+ * CheckResultStore 测试类
+ * 测试二进制格式的读写、损坏文件的处理、从 SharedPreferences JSON 的迁移，
+ * 以及大规模多板映射下二进制格式与 Gson JSON 加载结果一致
+ * 两者的加载耗时对比见 benchmark 模块的 CheckResultLoadBenchmark
+ */
+@RunWith(RobolectricTestRunner::class)
+class CheckResultStoreTest {
+
+  @get:Rule
+  val folder = TemporaryFolder()
+
+  /**
+   * 构造检测结果：boards 块板，每块 channels 个通道，映射键为 板地址 × 100 + 通道
+   */
+  private fun createResult(boards: Int, channels: Int): DeviceCheckResult {
+    val result = DeviceCheckResult()
+    result.status = DeviceCheckResult.CheckStatus.COMPLETED
+    result.checkStartTime = Date(1_700_000_000_000L)
+    result.checkEndTime = Date(1_700_000_060_000L)
+    result.totalChannels = boards * channels
+    result.connectedLocksCount = boards * channels
+    result.closedLocksCount = boards * channels
+    val connected = mutableListOf<Int>()
+    var lockNo = 1
+    for (board in 0 until boards) {
+      for (channel in 1..channels) {
+        connected.add(board * 100 + channel)
+        result.addChannelMapping(board * 100 + channel, lockNo++)
+      }
+    }
+    result.connectedChannels = connected
+    result.currentStep = "检测完成！所有门锁映射关系已建立"
+    return result
+  }
+
+  private fun assertSameResult(expected: DeviceCheckResult, actual: DeviceCheckResult) {
+    assertEquals(expected.status, actual.status)
+    assertEquals(expected.checkStartTime, actual.checkStartTime)
+    assertEquals(expected.checkEndTime, actual.checkEndTime)
+    assertEquals(expected.totalChannels, actual.totalChannels)
+    assertEquals(expected.connectedLocksCount, actual.connectedLocksCount)
+    assertEquals(expected.closedLocksCount, actual.closedLocksCount)
+    assertEquals(expected.connectedChannels, actual.connectedChannels)
+    assertEquals(expected.channelToLockMapping, actual.channelToLockMapping)
+    assertEquals(expected.errorMessage, actual.errorMessage)
+    assertEquals(expected.currentStep, actual.currentStep)
+  }
+
+  @Test
+  fun testSaveAndLoad() {
+    val store = CheckResultStore(File(folder.root, "result.bin"))
+    assertNull("文件不存在时返回null", store.load())
+
+    val result = createResult(2, 12)
+    result.errorMessage = "通道 3 未响应"
+    store.save(result)
+    assertTrue(store.exists())
+    assertFalse("临时文件应已重命名", File(folder.root, "result.bin.tmp").exists())
+
+    val loaded = store.load()!!
+    println("加载结果: $loaded")
+    assertSameResult(result, loaded)
+    assertEquals("板1通道1应映射到第13把锁", 13, loaded.getLockNoByChannel(101))
+
+    // 空字段
+    val empty = DeviceCheckResult()
+    store.save(empty)
+    val loadedEmpty = store.load()!!
+    assertNull(loadedEmpty.checkStartTime)
+    assertNull(loadedEmpty.connectedChannels)
+    assertTrue(loadedEmpty.channelToLockMapping.isEmpty())
+
+    // null 映射读回仍为null
+    empty.channelToLockMapping = null
+    store.save(empty)
+    assertNull(store.load()!!.channelToLockMapping)
+  }
+
+  @Test
+  fun testCorruptedFileRejected() {
+    val file = File(folder.root, "result.bin")
+    val store = CheckResultStore(file)
+    store.save(createResult(1, 12))
+
+    RandomAccessFile(file, "rw").use {
+      it.seek(20)
+      it.write(it.read() xor 0xFF)
+    }
+    try {
+      store.load()
+      fail("校验失败的文件应抛出异常")
+    } catch (e: IOException) {
+      println("损坏文件: ${e.message}")
+    }
+  }
+
+  @Test
+  fun testMigrateFromSharedPreferences() {
+    val context: Context = RuntimeEnvironment.getApplication()
+    val prefs = context.getSharedPreferences("device_check_prefs", Context.MODE_PRIVATE)
+    val result = createResult(1, 12)
+    prefs.edit().putString("last_check_result", Gson().toJson(result)).commit()
+
+    val migrated = DeviceCheckManager.getInstance(context).lastCheckResult
+    assertNotNull(migrated)
+    assertSameResult(result, migrated!!)
+
+    val store = CheckResultStore(File(context.filesDir, CheckResultStore.FILE_NAME))
+    assertTrue("迁移后应写入二进制文件", store.exists())
+    assertSameResult(result, store.load()!!)
+    assertFalse("迁移后应删除旧的 JSON", prefs.contains("last_check_result"))
+  }
+
+  @Test
+  fun binaryLoadMatchesJson() {
+    // 32 块板 × 24 通道
+    val result = createResult(32, 24)
+    val json = Gson().toJson(result)
+    val store = CheckResultStore(File(folder.root, "result.bin"))
+    store.save(result)
+    println("JSON: ${json.length} 字符, 二进制: ${store.file.length()} 字节")
+    assertTrue("二进制文件应小于 JSON", store.file.length() < json.toByteArray().size)
+
+    val fromJson = Gson().fromJson(json, DeviceCheckResult::class.java)
+    assertSameResult(fromJson, store.load()!!)
+    assertSameResult(result, fromJson)
+  }
+}
@@ -0,0 +1,131 @@
+package xyz.junerver.android.lockdemo
+
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.channels.BufferOverflow
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.future.await
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardUtil
+import xyz.junerver.android.lockdemo.lockctl.LockCtlClient
+import xyz.junerver.android.lockdemo.lockctl.LockCtlEvent
+import xyz.junerver.android.lockdemo.lockctl.ResponseFrame
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandDebounceManager
+import xyz.junerver.android.lockdemo.lockctl.send
+
+/**
+ * LockCtlClient 测试类
+ * 测试锁状态表的更新、事件流的缓冲与溢出，以及协程取消时撤回排队中的指令
+ */
+@OptIn(ExperimentalCoroutinesApi::class)
+class LockCtlClientTest {
+
+  private var client: LockCtlClient? = null
+
+  @After
+  fun tearDown() {
+    client?.close()
+    client = null
+  }
+
+  private fun responseFrame(command: Int, vararg data: Int): ResponseFrame {
+    val bytes = LockCtlBoardCmdHelper.buildCommand(0x00, command.toByte(), ByteArray(data.size) { data[it].toByte() })
+    return ResponseFrame.decode(bytes)!!
+  }
+
+  @Test
+  fun testLockStatesUpdatedFromResponses() {
+    val client = LockCtlClient(LockCtlBoardUtil.getInstance()).also { this.client = it }
+    val listener = client.frameListener
+
+    // 0x84：状态 + 通道数 + 各通道锁状态
+    listener.onFrameReceived(responseFrame(0x84, 0x00, 4, 0x01, 0x01, 0x00, 0x01))
+    assertEquals(mapOf(1 to 1, 2 to 1, 3 to 0, 4 to 1), client.lockStates.value)
+
+    // 0x83 成功响应与 0x85 上传覆盖对应通道
+    listener.onFrameReceived(responseFrame(0x83, 0x00, 2, 0x00))
+    listener.onFrameReceived(responseFrame(0x85, 4, 0x00))
+    // 失败的响应不更新
+    listener.onFrameReceived(responseFrame(0x83, 0xFF, 1, 0x00))
+
+    println("锁状态表: ${client.lockStates.value}")
+    assertEquals(mapOf(1 to 1, 2 to 0, 3 to 0, 4 to 0), client.lockStates.value)
+  }
+
+  @Test
+  fun testEventsFlow() = runTest {
+    val client = LockCtlClient(LockCtlBoardUtil.getInstance()).also { this.client = it }
+    val received = mutableListOf<LockCtlEvent>()
+    backgroundScope.launch(UnconfinedTestDispatcher(testScheduler)) {
+      client.events.toList(received)
+    }
+
+    client.frameListener.onFrameReceived(responseFrame(0x85, 3, 0x01))
+    client.frameListener.onFrameReceived(responseFrame(0x83, 0x00, 3, 0x01))
+    client.frameListener.onConnectionEvent(LockCtlBoardUtil.TYPE_CONNECT_CLOSED, "串口已关闭")
+
+    println("收到事件: $received")
+    assertEquals(
+      listOf(
+        LockCtlEvent.DoorStateChanged(0x00, 3, 0x01),
+        LockCtlEvent.Connection(LockCtlBoardUtil.TYPE_CONNECT_CLOSED, "串口已关闭"),
+      ),
+      received
+    )
+    assertTrue((received[0] as LockCtlEvent.DoorStateChanged).isClosed)
+  }
+
+  @Test
+  fun testBufferOverflowDropsOldest() = runTest {
+    val client = LockCtlClient(LockCtlBoardUtil.getInstance(), 2, BufferOverflow.DROP_OLDEST).also { this.client = it }
+    val collected = mutableListOf<LockCtlEvent>()
+    val collector = launch {
+      // 在事件全部发出后才开始消费，只能拿到缓冲区中最新的2个
+      client.events.collect { collected.add(it) }
+    }
+    testScheduler.runCurrent()
+
+    for (channel in 1..5) {
+      client.frameListener.onFrameReceived(responseFrame(0x85, channel, 0x00))
+    }
+    testScheduler.runCurrent()
+    collector.cancel()
+
+    println("溢出后收到: $collected")
+    assertEquals(listOf(4, 5), collected.map { (it as LockCtlEvent.DoorStateChanged).channelId })
+  }
+
+  @Test
+  fun testCancelledCommandWithdrawnFromQueue() = runBlocking {
+    val mockSender = MockCommandSender()
+    mockSender.setDefaultResponseDelay(300)
+    val debounceManager = CommandDebounceManager(mockSender)
+    try {
+      // 第一条在途，第二条排队
+      val first = debounceManager.sendCommandAsync(LockCtlBoardCmdHelper.openSingleLockFrame(0x00, 1))
+      val second = async { debounceManager.send(LockCtlBoardCmdHelper.openSingleLockFrame(0x00, 2)) }
+      delay(50)
+      second.cancel()
+
+      assertTrue(first.await().isSuccess)
+      delay(500)
+
+      val status = debounceManager.status
+      println("取消后状态: $status, 已发送: ${mockSender.getSentCommands().size}")
+      assertEquals("被取消的排队指令不应发出", 1, mockSender.getSentCommands().size)
+      assertEquals(status.totalCommandsSent, status.totalCommandsCompleted)
+    } finally {
+      debounceManager.shutdown()
+      mockSender.shutdown()
+    }
+  }
+}
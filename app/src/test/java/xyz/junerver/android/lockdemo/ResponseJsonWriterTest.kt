@@ -0,0 +1,136 @@
+package xyz.junerver.android.lockdemo
+
+import com.google.gson.Gson
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import xyz.junerver.android.lockdemo.ResponseFrames.response
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardResponseModels.AllLocksStatusResponse
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardResponseModels.BaseResponse
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardResponseModels.ChannelResponse
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardResponseModels.ChannelStatus
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardResponseModels.LockStatusResponse
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardResponseModels.StatusUploadResponse
+
+/**
+ * 响应JSON流式编码器测试
+ * 验证流式编码输出与 Gson 序列化响应模型的结果逐字节一致（紧凑格式）
+ * 与原有路径（Gson 美化输出 + String.format）的性能对比见 benchmark 模块的 ResponseJsonBenchmark
+ */
+class ResponseJsonWriterTest {
+
+  private val compactGson = Gson()
+
+  private fun result(status: Int) = if (status == 0) "成功" else "失败"
+
+  private fun lockText(lockStatus: Int) = when (lockStatus) {
+    0x00 -> "打开"
+    0x01 -> "关闭"
+    else -> "错误"
+  }
+
+  /**
+   * 原有实现：构造响应模型 + String.format 拼接消息 + Gson 序列化
+   */
+  private fun legacyJson(gson: Gson, frame: ByteArray): String {
+    val command = frame[6].toInt() and 0xFF
+    val status = frame[7].toInt() and 0xFF
+    return when (command) {
+      0x80 -> gson.toJson(BaseResponse("open_multiple_locks", status, String.format("同时开多锁操作%s", result(status))))
+      0x81 -> {
+        val channel = frame[8].toInt() and 0xFF
+        gson.toJson(ChannelResponse("flash_channel", status, channel, String.format("通道%d闪烁操作%s", channel, result(status))))
+      }
+
+      0x82, 0x83 -> {
+        val channel = frame[8].toInt() and 0xFF
+        val lockStatus = frame[9].toInt() and 0xFF
+        if (command == 0x82) {
+          gson.toJson(LockStatusResponse("open_single_lock", status, channel, lockStatus,
+            String.format("通道%d开锁%s，锁状态：%s", channel, result(status), lockText(lockStatus))))
+        } else {
+          gson.toJson(LockStatusResponse("get_single_lock_status", status, channel, lockStatus,
+            String.format("查询通道%d状态%s，锁状态：%s", channel, result(status), lockText(lockStatus))))
+        }
+      }
+
+      0x84 -> {
+        val channelCount = frame[8].toInt() and 0xFF
+        val list = (0 until channelCount).map { ChannelStatus(it + 1, frame[9 + it].toInt() and 0xFF) }
+        gson.toJson(AllLocksStatusResponse(status, channelCount, list))
+      }
+
+      0x85 -> gson.toJson(StatusUploadResponse(frame[7].toInt() and 0xFF, frame[8].toInt() and 0xFF))
+      0x86 -> gson.toJson(BaseResponse("open_all_locks", status, String.format("开全部锁操作%s", result(status))))
+      0x87 -> gson.toJson(BaseResponse("open_multiple_sequential", status, String.format("逐一开多锁操作%s", result(status))))
+      0x88 -> {
+        val channel = frame[8].toInt() and 0xFF
+        gson.toJson(ChannelResponse("channel_keep_open", status, channel, String.format("通道%d持续打开操作%s", channel, result(status))))
+      }
+
+      0x89 -> {
+        val channel = frame[8].toInt() and 0xFF
+        gson.toJson(ChannelResponse("close_channel", status, channel, String.format("通道%d关闭操作%s", channel, result(status))))
+      }
+
+      else -> gson.toJson(BaseResponse("unknown_command", -1, "未知指令字: 0x" + String.format("%02X", command)))
+    }
+  }
+
+  /**
+   * 覆盖十种响应类型、成功/失败状态与各种锁状态的帧
+   */
+  private fun createAllFrames(): List<ByteArray> {
+    val frames = mutableListOf<ByteArray>()
+    for (status in listOf(0x00, 0xFF)) {
+      frames.add(response(0x00, 0x80, status))
+      frames.add(response(0x00, 0x86, status))
+      frames.add(response(0x00, 0x87, status))
+      for (channel in 1..24) {
+        frames.add(response(0x00, 0x81, status, channel))
+        frames.add(response(0x00, 0x88, status, channel))
+        frames.add(response(0x00, 0x89, status, channel))
+        for (lockStatus in listOf(0x00, 0x01, 0xFF)) {
+          frames.add(response(0x00, 0x82, status, channel, lockStatus))
+          frames.add(response(0x00, 0x83, status, channel, lockStatus))
+        }
+      }
+      frames.add(response(0x00, 0x84, status, 24, *IntArray(24) { it % 3 }))
+      frames.add(response(0x00, 0x84, status, 12, *IntArray(12) { 0x01 }))
+      frames.add(response(0x00, 0x84, status, 0))
+    }
+    for (channel in 1..24) {
+      for (lockStatus in listOf(0x00, 0x01, 0xFF, 0x05)) {
+        frames.add(response(0x00, 0x85, channel, lockStatus))
+      }
+    }
+    frames.add(response(0x00, 0x8A, 0x00))
+    return frames
+  }
+
+  @Test
+  fun testOutputMatchesGsonCompact() {
+    val frames = createAllFrames()
+    for (frame in frames) {
+      val expected = legacyJson(compactGson, frame)
+      val actual = LockCtlBoardCmdHelper.parseResponseToJson(frame)
+      assertEquals("输出应与Gson紧凑格式一致: ${LockCtlBoardCmdHelper.bytesToHex(frame)}", expected, actual)
+    }
+    println("已验证 ${frames.size} 种响应帧的JSON输出一致")
+  }
+
+  @Test
+  fun testErrorResponses() {
+    val invalid = byteArrayOf(0x57, 0x4B, 0x4C, 0x59, 0x05, 0x00, 0x80.toByte())
+    assertEquals(
+      compactGson.toJson(BaseResponse("error", -1, "响应数据格式错误")),
+      LockCtlBoardCmdHelper.parseResponseToJson(invalid)
+    )
+
+    // 数据域不足的帧
+    assertEquals(
+      compactGson.toJson(BaseResponse("error", -1, "响应数据长度不足")),
+      LockCtlBoardCmdHelper.parseResponseToJson(response(0x00, 0x82, 0x00))
+    )
+  }
+}
@@ -0,0 +1,240 @@
+package xyz.junerver.android.lockdemo
+
+import android.content.Context
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import xyz.junerver.android.lockdemo.lockctl.SerialPortDetector
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * SerialPortDetector 测试类
+ * 用模拟的检测方式测试并发检测：第一个有效响应胜出、其余检测被取消并释放串口、超时按波特率计算；
+ * 以及已保存串口的快速验证、验证失败后回退扫描、候选波特率的探测
+ */
+@RunWith(RobolectricTestRunner::class)
+class SerialPortDetectorTest {
+
+  private val context: Context = RuntimeEnvironment.getApplication()
+
+  private class Outcome {
+    val latch = CountDownLatch(1)
+    @Volatile
+    var detected: String? = null
+    @Volatile
+    var baudRate = 0
+    @Volatile
+    var error: String? = null
+    val progress: MutableList<String> = Collections.synchronizedList(mutableListOf())
+  }
+
+  private fun listenerOf(outcome: Outcome) = object : SerialPortDetector.OnDetectionListener {
+    override fun onPortDetected(portPath: String) {
+      onPortDetected(portPath, 0)
+    }
+
+    override fun onPortDetected(portPath: String, baudRate: Int) {
+      outcome.detected = portPath
+      outcome.baudRate = baudRate
+      outcome.latch.countDown()
+    }
+
+    override fun onDetectionFailed(error: String) {
+      outcome.error = error
+      outcome.latch.countDown()
+    }
+
+    override fun onDetectionProgress(currentPort: String) {
+      outcome.progress.add(currentPort)
+    }
+  }
+
+  private fun detect(detector: SerialPortDetector, ports: List<String>): Outcome {
+    val outcome = Outcome()
+    detector.detectAmong(ports, listenerOf(outcome))
+    assertTrue("检测应在限定时间内结束", outcome.latch.await(10, TimeUnit.SECONDS))
+    return outcome
+  }
+
+  private fun autoDetect(detector: SerialPortDetector): Outcome {
+    val outcome = Outcome()
+    detector.autoDetectPort(listenerOf(outcome))
+    assertTrue("检测应在限定时间内结束", outcome.latch.await(10, TimeUnit.SECONDS))
+    return outcome
+  }
+
+  @Test
+  fun testProbeTimeoutFromBaudRate() {
+    val slow = SerialPortDetector.getProbeTimeoutMs(9600)
+    val fast = SerialPortDetector.getProbeTimeoutMs(115200)
+    println("单口检测超时: 9600=${slow}ms, 115200=${fast}ms")
+    assertTrue("低波特率下传输时间更长", slow > fast)
+    // 查询所有门状态的基础执行时间 200ms 乘以安全系数
+    assertTrue("超时应包含处理时间的安全余量", fast >= 400)
+    assertTrue("超时远小于原先固定的3秒", slow < 1000)
+  }
+
+  @Test
+  fun testFirstValidResponseWins() {
+    val detector = SerialPortDetector(context)
+    detector.clearSavedPortPath()
+    val ports = (0 until 10).map { "/dev/ttyS$it" }
+    val released = Collections.synchronizedSet(mutableSetOf<String>())
+    val cancelled = Collections.synchronizedSet(mutableSetOf<String>())
+    val active = AtomicInteger()
+    val maxActive = AtomicInteger()
+    val neverResponds = CountDownLatch(1)
+    // 线程池同时运行的 8 个检测都已开始后，目标串口才响应
+    val firstWaveStarted = CountDownLatch(8)
+    detector.setPortProbe { portPath, _, _ ->
+      maxActive.accumulateAndGet(active.incrementAndGet()) { a, b -> maxOf(a, b) }
+      firstWaveStarted.countDown()
+      try {
+        if (portPath == "/dev/ttyS7") {
+          firstWaveStarted.await(5, TimeUnit.SECONDS)
+          true
+        } else {
+          // 非目标串口不会响应，只能被取消
+          try {
+            neverResponds.await()
+          } catch (e: InterruptedException) {
+            cancelled.add(portPath)
+          }
+          false
+        }
+      } finally {
+        active.decrementAndGet()
+        released.add(portPath)
+      }
+    }
+
+    val outcome = detect(detector, ports)
+
+    assertEquals("/dev/ttyS7", outcome.detected)
+    assertEquals("检测到的串口应被保存", "/dev/ttyS7", detector.savedPortPath)
+    assertEquals("并发数应受线程池限制", 8, maxActive.get())
+
+    // 被取消的检测应全部退出
+    val deadline = System.currentTimeMillis() + 5000
+    while (active.get() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10)
+    }
+    assertEquals("被取消的检测应释放串口", 0, active.get())
+    assertEquals(outcome.progress.size, released.size)
+    assertEquals("未响应的检测都应被取消而不是等到超时", released - "/dev/ttyS7", cancelled.toSet())
+    detector.clearSavedPortPath()
+  }
+
+  @Test
+  fun testNoBoardFound() {
+    val detector = SerialPortDetector(context, 115200)
+    detector.clearSavedPortPath()
+    val portCount = 8
+    val allStarted = CountDownLatch(portCount)
+    val concurrent = AtomicInteger()
+    detector.setPortProbe { _, baudRate, _ ->
+      assertEquals(115200, baudRate)
+      allStarted.countDown()
+      // 8 个串口并发检测时，每个检测都能等到其余检测同时启动
+      if (allStarted.await(5, TimeUnit.SECONDS)) {
+        concurrent.incrementAndGet()
+      }
+      false
+    }
+
+    val outcome = detect(detector, (0 until portCount).map { "/dev/ttyUSB$it" })
+
+    assertNull(outcome.detected)
+    assertEquals("未检测到门锁控制板设备", outcome.error)
+    assertEquals(portCount, outcome.progress.size)
+    assertEquals("各串口应同时检测", portCount, concurrent.get())
+    assertNull(detector.savedPortPath)
+  }
+
+  @Test
+  fun testEmptyCandidateListFails() {
+    val detector = SerialPortDetector(context)
+    detector.clearSavedPortPath()
+    detector.setPortProbe { _, _, _ -> throw AssertionError("没有候选串口时不应检测") }
+
+    val outcome = detect(detector, emptyList())
+
+    assertNull(outcome.detected)
+    assertEquals("未找到任何串口设备", outcome.error)
+  }
+
+  @Test
+  fun testSavedPortVerifiedWithSingleProbe() {
+    val detector = SerialPortDetector(context)
+    detector.savePort("/dev/ttyS4", 115200)
+    val probes = Collections.synchronizedList(mutableListOf<String>())
+    detector.setPortProbe { portPath, baudRate, _ ->
+      probes.add("$portPath@$baudRate")
+      portPath == "/dev/ttyS4" && baudRate == 115200
+    }
+
+    val outcome = autoDetect(detector)
+    println("已保存串口验证: ${outcome.detected}@${outcome.baudRate}, 检测次数 ${probes.size}")
+    assertEquals("/dev/ttyS4", outcome.detected)
+    assertEquals("以保存的波特率通信", 115200, outcome.baudRate)
+    assertEquals("只发一次验证查询", listOf("/dev/ttyS4@115200"), probes)
+    detector.clearSavedPortPath()
+  }
+
+  @Test
+  fun testStaleSavedPortFallsBackToScan() {
+    val detector = SerialPortDetector(context)
+    detector.savePort("/dev/ttyGone", 9600)
+    val probes = Collections.synchronizedList(mutableListOf<String>())
+    // 已保存的串口与本机的其它串口都没有锁控板
+    detector.setPortProbe { portPath, _, _ ->
+      probes.add(portPath)
+      false
+    }
+
+    val outcome = autoDetect(detector)
+    println("验证失败后回退扫描: ${outcome.error}, 检测过 $probes")
+    assertNull(outcome.detected)
+    assertEquals("/dev/ttyGone", probes.first())
+    assertNull("验证失败后应清除保存的串口", detector.savedPortPath)
+  }
+
+  @Test
+  fun testBaudRateDiscovery() {
+    val detector = SerialPortDetector(context)
+    detector.clearSavedPortPath()
+    detector.setCandidateBaudRates(115200, 57600, 9600)
+    val probes = Collections.synchronizedList(mutableListOf<String>())
+    // 锁控板在 ttyS3 上，配置为 57600
+    detector.setPortProbe { portPath, baudRate, timeoutMs ->
+      probes.add("$portPath@$baudRate")
+      if (portPath == "/dev/ttyS3" && baudRate == 57600) {
+        true
+      } else {
+        Thread.sleep(timeoutMs)
+        false
+      }
+    }
+
+    val outcome = detect(detector, (0 until 4).map { "/dev/ttyS$it" })
+    println("波特率探测: ${outcome.detected}@${outcome.baudRate}, 检测过 $probes")
+    assertEquals("/dev/ttyS3", outcome.detected)
+    assertEquals(57600, outcome.baudRate)
+    assertEquals("(串口, 波特率) 一并保存", 57600, detector.savedBaudRate)
+    assertTrue("先尝试排在前面的波特率", probes.indexOf("/dev/ttyS3@115200") < probes.indexOf("/dev/ttyS3@57600"))
+    assertTrue("胜出后不再尝试更低的波特率", "/dev/ttyS3@9600" !in probes)
+
+    // 下次启动直接以保存的波特率验证
+    val verified = autoDetect(detector)
+    assertEquals(57600, verified.baudRate)
+    detector.clearSavedPortPath()
+    assertEquals("清除后回到默认波特率", 9600, detector.savedBaudRate)
+  }
+}
@@ -0,0 +1,47 @@
+plugins {
+  java
+  alias(libs.plugins.jmh)
+}
+
+java {
+  sourceCompatibility = JavaVersion.VERSION_11
+  targetCompatibility = JavaVersion.VERSION_11
+}
+
+sourceSets {
+  named("jmh") {
+    java {
+      // 对照组用到的 app 模块类只依赖 JDK 与 Gson，直接编译进基准，不引入 Android 插件
+      srcDir("../app/src/main/java")
+      include("xyz/junerver/android/lockdemo/benchmark/**")
+      include("xyz/junerver/android/lockdemo/lockctl/LockCtlBoardResponseModels.java")
+      include("xyz/junerver/android/lockdemo/check/CheckResultStore.java")
+      include("xyz/junerver/android/lockdemo/check/DeviceCheckResult.java")
+    }
+  }
+}
+
+dependencies {
+  // 被测的协议编解码源码来自 lockctl-core 模块，在 JVM 上运行，不依赖 Android 运行时
+  jmh(project(":lockctl-core"))
+  // 响应帧构造与单元测试共用
+  jmh(testFixtures(project(":lockctl-core")))
+  // 改造前的 JSON 编码路径（Gson 美化输出）与检测结果的 JSON 存储作为对照
+  jmh("com.google.code.gson:gson:2.10.1")
+}
+
+jmh {
+  jmhVersion.set(libs.versions.jmh)
+  benchmarkMode.set(listOf("thrpt"))
+  timeUnit.set("s")
+  fork.set(1)
+  warmupIterations.set(3)
+  warmup.set("1s")
+  iterations.set(5)
+  timeOnIteration.set("1s")
+  // gc.alloc.rate.norm 即每次操作分配的字节数
+  profilers.add("gc")
+  resultFormat.set("JSON")
+  // 只运行部分基准：./gradlew :benchmark:jmh -PjmhIncludes=FrameDecoder
+  providers.gradleProperty("jmhIncludes").orNull?.let { includes.set(listOf(it)) }
+}
@@ -0,0 +1,87 @@
+package xyz.junerver.android.lockdemo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.google.gson.Gson;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import xyz.junerver.android.lockdemo.check.CheckResultStore;
+import xyz.junerver.android.lockdemo.check.DeviceCheckResult;
+
+/**
+ * 检测结果加载基准
+ * 对比改造前 SharedPreferences 中的 Gson JSON 反序列化（不含 XML 解析）与 CheckResultStore 读取二进制文件
+ */
+@State(Scope.Thread)
+public class CheckResultLoadBenchmark {
+
+    // 单板与 32 块板，每块 24 个通道
+    @Param({"1", "32"})
+    public int boards;
+
+    private final Gson gson = new Gson();
+
+    private String json;
+    private CheckResultStore store;
+
+    @Setup
+    public void setup() throws IOException {
+        DeviceCheckResult result = createResult(boards, 24);
+        json = gson.toJson(result);
+        File file = File.createTempFile("check-result", ".bin");
+        store = new CheckResultStore(file);
+        store.save(result);
+    }
+
+    @TearDown
+    public void tearDown() {
+        store.delete();
+    }
+
+    @Benchmark
+    public DeviceCheckResult gsonFromJson() {
+        return gson.fromJson(json, DeviceCheckResult.class);
+    }
+
+    /**
+     * 含读取文件
+     */
+    @Benchmark
+    public DeviceCheckResult binaryLoad() throws IOException {
+        return store.load();
+    }
+
+    /**
+     * 映射键为 板地址 × 100 + 通道
+     */
+    private static DeviceCheckResult createResult(int boards, int channels) {
+        DeviceCheckResult result = new DeviceCheckResult();
+        result.setStatus(DeviceCheckResult.CheckStatus.COMPLETED);
+        result.setCheckStartTime(new Date(1_700_000_000_000L));
+        result.setCheckEndTime(new Date(1_700_000_060_000L));
+        result.setTotalChannels(boards * channels);
+        result.setConnectedLocksCount(boards * channels);
+        result.setClosedLocksCount(boards * channels);
+        List<Integer> connected = new ArrayList<>();
+        int lockNo = 1;
+        for (int board = 0; board < boards; board++) {
+            for (int channel = 1; channel <= channels; channel++) {
+                connected.add(board * 100 + channel);
+                result.addChannelMapping(board * 100 + channel, lockNo++);
+            }
+        }
+        result.setConnectedChannels(connected);
+        result.setCurrentStep("检测完成！所有门锁映射关系已建立");
+        return result;
+    }
+}
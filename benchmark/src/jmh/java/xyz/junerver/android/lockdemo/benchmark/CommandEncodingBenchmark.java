@@ -0,0 +1,69 @@
+package xyz.junerver.android.lockdemo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+
+import xyz.junerver.android.lockdemo.lockctl.CommandFrame;
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper;
+
+/**
+ * 指令编码基准
+ * 对比每次构造字节数组（buildCommand）与取预编码帧再写入发送缓冲区两条路径
+ */
+@State(Scope.Thread)
+public class CommandEncodingBenchmark {
+
+    private final byte[] channelData = {0x03};
+    private final int[] sequentialLocks = {1, 2, 3, 4, 5, 6, 7, 8};
+    private ByteBuffer sendBuffer;
+    private int channel;
+
+    @Setup
+    public void setup() {
+        sendBuffer = ByteBuffer.allocate(256);
+    }
+
+    private int nextChannel() {
+        channel = channel % 24 + 1;
+        return channel;
+    }
+
+    @Benchmark
+    public byte[] buildCommandSingleChannel() {
+        return LockCtlBoardCmdHelper.buildCommand((byte) 0x00, (byte) 0x82, channelData);
+    }
+
+    @Benchmark
+    public byte[] buildCommandNoData() {
+        return LockCtlBoardCmdHelper.buildCommand((byte) 0x00, (byte) 0x84, null);
+    }
+
+    @Benchmark
+    public byte[] buildOpenMultipleSequential() {
+        return LockCtlBoardCmdHelper.buildOpenMultipleSequentialCommand((byte) 0x00, sequentialLocks);
+    }
+
+    /**
+     * 与 buildCommandSingleChannel 同为开单锁指令 (0x82)
+     */
+    @Benchmark
+    public CommandFrame cachedOpenSingleLockFrame() {
+        return LockCtlBoardCmdHelper.openSingleLockFrame((byte) 0x00, nextChannel());
+    }
+
+    @Benchmark
+    public CommandFrame cachedSingleLockStatusFrame() {
+        return LockCtlBoardCmdHelper.getSingleLockStatusFrame((byte) 0x00, nextChannel());
+    }
+
+    @Benchmark
+    public int cachedFrameWriteToBuffer() {
+        sendBuffer.clear();
+        LockCtlBoardCmdHelper.openSingleLockFrame((byte) 0x00, nextChannel()).writeTo(sendBuffer);
+        return sendBuffer.position();
+    }
+}
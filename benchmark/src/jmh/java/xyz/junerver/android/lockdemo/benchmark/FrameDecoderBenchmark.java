@@ -0,0 +1,54 @@
+package xyz.junerver.android.lockdemo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import xyz.junerver.android.lockdemo.lockctl.FrameDecoder;
+
+/**
+ * 帧解码器基准
+ * 一次操作为解码一次突发中的全部字节：锁控板连续送出 framesPerBurst 帧，
+ * 串口每次读到 chunkSize 字节（1 为逐字节到达，大于帧长时为多帧拼接在一次读取中）
+ */
+@State(Scope.Thread)
+public class FrameDecoderBenchmark {
+
+    // 单条响应、一轮逐一开锁 (12 把) 的上传与查询、多板巡检
+    @Param({"1", "12", "48"})
+    public int framesPerBurst;
+
+    // 9600 波特下串口驱动每次读取的典型字节数
+    @Param({"1", "8", "32", "512"})
+    public int chunkSize;
+
+    private byte[] stream;
+    private FrameDecoder decoder;
+    private Blackhole blackhole;
+    private int frameCount;
+
+    @Setup
+    public void setup() {
+        stream = Frames.burst(framesPerBurst);
+        decoder = new FrameDecoder(frame -> {
+            frameCount++;
+            blackhole.consume(frame);
+        });
+    }
+
+    @Benchmark
+    public int decodeBurst(Blackhole bh) {
+        blackhole = bh;
+        frameCount = 0;
+        for (int offset = 0; offset < stream.length; offset += chunkSize) {
+            decoder.feed(stream, offset, Math.min(chunkSize, stream.length - offset));
+        }
+        if (frameCount != framesPerBurst) {
+            throw new IllegalStateException("解码帧数不符: " + frameCount);
+        }
+        return frameCount;
+    }
+}
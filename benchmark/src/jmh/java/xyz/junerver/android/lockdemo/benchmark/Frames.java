@@ -0,0 +1,88 @@
+package xyz.junerver.android.lockdemo.benchmark;
+
+import java.io.ByteArrayOutputStream;
+
+import static xyz.junerver.android.lockdemo.ResponseFrames.response;
+
+/**
+ * 构造基准测试使用的响应帧，单帧的编码来自 lockctl-core 的测试夹具 ResponseFrames
+ */
+final class Frames {
+
+    private Frames() {
+    }
+
+    /**
+     * 查询所有门状态响应 (0x84)
+     *
+     * @param boardAddress 板地址
+     * @param channelCount 通道数
+     * @return 响应帧
+     */
+    static byte[] allLocksStatus(int boardAddress, int channelCount) {
+        int[] data = new int[2 + channelCount];
+        data[0] = 0x00;
+        data[1] = channelCount;
+        for (int i = 0; i < channelCount; i++) {
+            data[2 + i] = i % 3 == 0 ? 0x00 : 0x01;
+        }
+        return response(boardAddress, 0x84, data);
+    }
+
+    /**
+     * 各指令字的典型成功响应
+     *
+     * @param command 指令字
+     * @return 响应帧
+     */
+    static byte[] typicalResponse(int command) {
+        switch (command) {
+            case 0x80: // 同时开多锁
+            case 0x86: // 开全部锁
+            case 0x87: // 逐一开多锁
+                return response(0x00, command, 0x00);
+            case 0x81: // 通道闪烁
+            case 0x88: // 通道常开
+            case 0x89: // 通道关闭
+                return response(0x00, command, 0x00, 0x03);
+            case 0x82: // 开单个锁
+            case 0x83: // 查询单个门状态
+                return response(0x00, command, 0x00, 0x03, 0x01);
+            case 0x84: // 查询所有门状态
+                return allLocksStatus(0x00, 24);
+            case 0x85: // 状态上传
+                return response(0x00, command, 0x03, 0x00);
+            default:
+                throw new IllegalArgumentException("未知指令字: " + command);
+        }
+    }
+
+    /**
+     * 一次突发中锁控板连续送出的响应：逐锁开门后的状态上传与查询响应交替出现
+     *
+     * @param frameCount 帧数
+     * @return 拼接后的字节流
+     */
+    static byte[] burst(int frameCount) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < frameCount; i++) {
+            byte[] frame;
+            switch (i % 4) {
+                case 0:
+                    frame = response(i % 4, 0x85, i % 24 + 1, i % 2);
+                    break;
+                case 1:
+                    frame = response(0x00, 0x83, 0x00, i % 24 + 1, 0x01);
+                    break;
+                case 2:
+                    frame = response(0x00, 0x82, 0x00, i % 24 + 1, 0x00);
+                    break;
+                default:
+                    frame = allLocksStatus(0x00, 24);
+                    break;
+            }
+            out.write(frame, 0, frame.length);
+        }
+        return out.toByteArray();
+    }
+}
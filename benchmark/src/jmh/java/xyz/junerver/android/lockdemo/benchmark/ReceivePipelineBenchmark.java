@@ -0,0 +1,157 @@
+package xyz.junerver.android.lockdemo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import xyz.junerver.android.lockdemo.lockctl.FrameDecoder;
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper;
+import xyz.junerver.android.lockdemo.lockctl.ResponseFrame;
+import xyz.junerver.android.lockdemo.lockctl.debounce.ResponseMatcher;
+
+/**
+ * 接收管道基准
+ * 一次操作为处理一次突发中的全部字节，对比两条接收路径（JSON 生成在两条路径中相同，不计入）：
+ * <ul>
+ *     <li>doublePass：改造前的路径。发送器用 ArrayList&lt;Byte&gt; 缓冲分帧并校验格式，
+ *     防抖管理器按字节数组匹配并解析字段，LockCtlBoardUtil 再用 ArrayList&lt;Byte&gt; 缓冲分帧并校验</li>
+ *     <li>singlePass：改造后的路径。FrameDecoder 分帧一次，解码为 ResponseFrame，下游直接读取字段</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+public class ReceivePipelineBenchmark {
+
+    // 单条响应、一轮逐一开锁 (12 把) 的上传与查询、多板巡检
+    @Param({"1", "12", "48"})
+    public int framesPerBurst;
+
+    // 9600 波特下串口驱动每次读取的典型字节数
+    @Param({"8", "32"})
+    public int chunkSize;
+
+    private final byte[] queryCommand = LockCtlBoardCmdHelper.buildGetSingleLockStatusCommand((byte) 0x00, 1);
+
+    private byte[] stream;
+    private FrameDecoder decoder;
+    private LegacyFramer senderFramer;
+    private LegacyFramer utilFramer;
+    private Blackhole blackhole;
+    private int frameCount;
+
+    @Setup
+    public void setup() {
+        stream = Frames.burst(framesPerBurst);
+        decoder = new FrameDecoder(bytes -> {
+            ResponseFrame frame = ResponseFrame.decode(bytes);
+            if (frame != null) {
+                if (frame.matches(queryCommand)) {
+                    blackhole.consume(frame.getChannelId() + frame.getLockStatus());
+                }
+                frameCount++;
+                blackhole.consume(frame);
+            }
+        });
+        utilFramer = new LegacyFramer(frame -> {
+            if (LockCtlBoardCmdHelper.validateResponse(frame)) {
+                frameCount++;
+                blackhole.consume(frame);
+            }
+        });
+        senderFramer = new LegacyFramer(frame -> {
+            if (ResponseMatcher.isValidResponseFormat(frame)) {
+                // 防抖管理器：匹配并解析
+                if (ResponseMatcher.isResponseForCommand(frame, queryCommand)) {
+                    blackhole.consume(ResponseMatcher.getChannelId(frame) + ResponseMatcher.getLockStatus(frame));
+                }
+                // LockCtlBoardUtil：再次分帧与校验
+                utilFramer.feed(frame, 0, frame.length);
+            }
+        });
+    }
+
+    @Benchmark
+    public int doublePass(Blackhole bh) {
+        blackhole = bh;
+        frameCount = 0;
+        for (int offset = 0; offset < stream.length; offset += chunkSize) {
+            senderFramer.feed(stream, offset, Math.min(chunkSize, stream.length - offset));
+        }
+        return checkFrameCount();
+    }
+
+    @Benchmark
+    public int singlePass(Blackhole bh) {
+        blackhole = bh;
+        frameCount = 0;
+        for (int offset = 0; offset < stream.length; offset += chunkSize) {
+            decoder.feed(stream, offset, Math.min(chunkSize, stream.length - offset));
+        }
+        return checkFrameCount();
+    }
+
+    private int checkFrameCount() {
+        if (frameCount != framesPerBurst) {
+            throw new IllegalStateException("交付帧数不符: " + frameCount);
+        }
+        return frameCount;
+    }
+
+    /**
+     * 改造前发送器与 LockCtlBoardUtil 中的分帧方式：装箱字节列表缓冲，逐帧拷贝后从列表头部逐个移除
+     */
+    private static final class LegacyFramer {
+        private final List<Byte> dataBuffer = new ArrayList<>();
+        private final FrameDecoder.FrameListener listener;
+
+        LegacyFramer(FrameDecoder.FrameListener listener) {
+            this.listener = listener;
+        }
+
+        void feed(byte[] data, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                dataBuffer.add(data[i]);
+            }
+            extractCompleteFrames();
+        }
+
+        private void extractCompleteFrames() {
+            while (true) {
+                int startIndex = -1;
+                for (int i = 0; i <= dataBuffer.size() - 4; i++) {
+                    if (dataBuffer.get(i) == 0x57 && dataBuffer.get(i + 1) == 0x4B
+                            && dataBuffer.get(i + 2) == 0x4C && dataBuffer.get(i + 3) == 0x59) {
+                        startIndex = i;
+                        break;
+                    }
+                }
+                if (startIndex == -1) {
+                    if (dataBuffer.size() > 100) {
+                        dataBuffer.clear();
+                    }
+                    return;
+                }
+                if (dataBuffer.size() < startIndex + 5) {
+                    return;
+                }
+                int frameLength = dataBuffer.get(startIndex + 4) & 0xFF;
+                if (dataBuffer.size() < startIndex + frameLength) {
+                    return;
+                }
+                byte[] frameData = new byte[frameLength];
+                for (int i = 0; i < frameLength; i++) {
+                    frameData[i] = dataBuffer.get(startIndex + i);
+                }
+                for (int i = 0; i < startIndex + frameLength; i++) {
+                    dataBuffer.remove(0);
+                }
+                listener.onFrame(frameData);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package xyz.junerver.android.lockdemo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper;
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardResponseModels.AllLocksStatusResponse;
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardResponseModels.BaseResponse;
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardResponseModels.ChannelResponse;
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardResponseModels.ChannelStatus;
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardResponseModels.LockStatusResponse;
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardResponseModels.StatusUploadResponse;
+import xyz.junerver.android.lockdemo.lockctl.ResponseFrame;
+
+/**
+ * 响应 JSON 编码基准，按指令字分别测量
+ * 流式编码与改造前的路径（构造响应模型 + String.format 拼接消息 + Gson 美化输出）对比
+ */
+@State(Scope.Thread)
+public class ResponseJsonBenchmark {
+
+    @Param({"0x80", "0x81", "0x82", "0x83", "0x84", "0x85", "0x86", "0x87", "0x88", "0x89"})
+    public String command;
+
+    private final Gson prettyGson = new GsonBuilder().setPrettyPrinting().create();
+
+    private byte[] response;
+    private ResponseFrame frame;
+
+    @Setup
+    public void setup() {
+        response = Frames.typicalResponse(Integer.decode(command));
+        frame = ResponseFrame.decode(response);
+    }
+
+    /**
+     * 接收管道中的路径：帧已解码，只生成 JSON
+     */
+    @Benchmark
+    public String encodeDecodedFrame() {
+        return LockCtlBoardCmdHelper.parseResponseToJson(frame);
+    }
+
+    /**
+     * 从原始字节开始：校验、解码并生成 JSON
+     */
+    @Benchmark
+    public String encodeRawBytes() {
+        return LockCtlBoardCmdHelper.parseResponseToJson(response);
+    }
+
+    /**
+     * 改造前的路径：帧已解码，构造响应模型并用 Gson 美化输出
+     */
+    @Benchmark
+    public String prettyGsonDecodedFrame() {
+        return legacyJson(frame);
+    }
+
+    private String legacyJson(ResponseFrame frame) {
+        int command = frame.getCommandByte();
+        int status = frame.getStatus();
+        String result = status == ResponseFrame.STATUS_SUCCESS ? "成功" : "失败";
+        switch (command) {
+            case 0x80:
+                return prettyGson.toJson(new BaseResponse("open_multiple_locks", status,
+                        String.format("同时开多锁操作%s", result)));
+            case 0x81:
+                return prettyGson.toJson(new ChannelResponse("flash_channel", status, frame.getChannelId(),
+                        String.format("通道%d闪烁操作%s", frame.getChannelId(), result)));
+            case 0x82:
+                return prettyGson.toJson(new LockStatusResponse("open_single_lock", status,
+                        frame.getChannelId(), frame.getLockStatus(),
+                        String.format("通道%d开锁%s，锁状态：%s", frame.getChannelId(), result,
+                                lockText(frame.getLockStatus()))));
+            case 0x83:
+                return prettyGson.toJson(new LockStatusResponse("get_single_lock_status", status,
+                        frame.getChannelId(), frame.getLockStatus(),
+                        String.format("查询通道%d状态%s，锁状态：%s", frame.getChannelId(), result,
+                                lockText(frame.getLockStatus()))));
+            case 0x84: {
+                int channelCount = frame.getChannelCount();
+                List<ChannelStatus> list = new ArrayList<>();
+                for (int i = 1; i <= channelCount; i++) {
+                    list.add(new ChannelStatus(i, frame.getChannelLockStatus(i)));
+                }
+                return prettyGson.toJson(new AllLocksStatusResponse(status, channelCount, list));
+            }
+            case 0x85:
+                return prettyGson.toJson(new StatusUploadResponse(frame.getDataByte(0), frame.getDataByte(1)));
+            case 0x86:
+                return prettyGson.toJson(new BaseResponse("open_all_locks", status,
+                        String.format("开全部锁操作%s", result)));
+            case 0x87:
+                return prettyGson.toJson(new BaseResponse("open_multiple_sequential", status,
+                        String.format("逐一开多锁操作%s", result)));
+            case 0x88:
+                return prettyGson.toJson(new ChannelResponse("channel_keep_open", status, frame.getChannelId(),
+                        String.format("通道%d持续打开操作%s", frame.getChannelId(), result)));
+            case 0x89:
+                return prettyGson.toJson(new ChannelResponse("close_channel", status, frame.getChannelId(),
+                        String.format("通道%d关闭操作%s", frame.getChannelId(), result)));
+            default:
+                return prettyGson.toJson(new BaseResponse("unknown_command", -1,
+                        "未知指令字: 0x" + String.format("%02X", command)));
+        }
+    }
+
+    private static String lockText(int lockStatus) {
+        return lockStatus == 0x00 ? "打开" : lockStatus == 0x01 ? "关闭" : "错误";
+    }
+}
@@ -0,0 +1,57 @@
+package xyz.junerver.android.lockdemo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import xyz.junerver.android.lockdemo.lockctl.CommandFrame;
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper;
+import xyz.junerver.android.lockdemo.lockctl.ResponseFrame;
+import xyz.junerver.android.lockdemo.lockctl.debounce.ResponseMatcher;
+
+/**
+ * 响应校验与匹配基准
+ * 单通道响应 (0x83) 与 24 通道的全部门状态响应 (0x84)
+ */
+@State(Scope.Thread)
+public class ResponseValidationBenchmark {
+
+    @Param({"0x83", "0x84"})
+    public String command;
+
+    private byte[] response;
+    private CommandFrame request;
+    private ResponseFrame decoded;
+
+    @Setup
+    public void setup() {
+        int commandByte = Integer.decode(command);
+        response = Frames.typicalResponse(commandByte);
+        request = commandByte == 0x84
+                ? LockCtlBoardCmdHelper.getAllLocksStatusFrame((byte) 0x00)
+                : LockCtlBoardCmdHelper.getSingleLockStatusFrame((byte) 0x00, 3);
+        decoded = ResponseFrame.decode(response);
+    }
+
+    @Benchmark
+    public boolean validateResponse() {
+        return LockCtlBoardCmdHelper.validateResponse(response);
+    }
+
+    @Benchmark
+    public ResponseFrame decodeFrame() {
+        return ResponseFrame.decode(response);
+    }
+
+    @Benchmark
+    public boolean matchDecodedFrame() {
+        return decoded.matches(request);
+    }
+
+    @Benchmark
+    public boolean matchRawBytes() {
+        return ResponseMatcher.isResponseForCommand(response, request.getSharedBytes());
+    }
+}
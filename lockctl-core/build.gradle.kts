@@ -0,0 +1,24 @@
+import org.jetbrains.kotlin.gradle.dsl.JvmTarget
+
+// 锁控协议与防抖调度引擎，纯 Java 库，不依赖 Android，可在网关等普通 JVM 上运行
+plugins {
+  `java-library`
+  `java-test-fixtures`
+  alias(libs.plugins.kotlin.jvm)
+}
+
+java {
+  sourceCompatibility = JavaVersion.VERSION_11
+  targetCompatibility = JavaVersion.VERSION_11
+}
+
+kotlin {
+  compilerOptions {
+    jvmTarget.set(JvmTarget.JVM_11)
+  }
+}
+
+dependencies {
+  testImplementation(libs.junit)
+  testImplementation(kotlin("test"))
+}
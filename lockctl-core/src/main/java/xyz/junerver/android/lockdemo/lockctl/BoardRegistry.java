@@ -0,0 +1,105 @@
+package xyz.junerver.android.lockdemo.lockctl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 锁控板注册表
+ * 同一条 RS-485 总线上可串接多块锁控板，各板以板地址区分，通道数可不同；
+ * LockCtlBoardUtil 按注册表校验 (板地址, 通道) 参数，未注册的板地址拒绝发送
+ * <p>
+ * 默认只注册板地址 0x00、12 个通道，与单板时的行为一致
+ */
+public class BoardRegistry {
+
+    // 默认板地址
+    public static final int DEFAULT_BOARD_ADDRESS = 0x00;
+    // 板地址范围 (0-31)
+    public static final int MAX_BOARD_ADDRESS = 31;
+    // 单板最大通道数
+    public static final int MAX_CHANNEL_COUNT = 24;
+    // 默认通道数
+    public static final int DEFAULT_CHANNEL_COUNT = 12;
+
+    // 板地址 -> 通道数，按板地址排序
+    private final Map<Integer, Integer> boards = new ConcurrentSkipListMap<>();
+
+    public BoardRegistry() {
+        boards.put(DEFAULT_BOARD_ADDRESS, DEFAULT_CHANNEL_COUNT);
+    }
+
+    /**
+     * 注册锁控板，已注册时更新通道数
+     *
+     * @param boardAddress 板地址 (0-31)
+     * @param channelCount 通道数 (1-24)
+     */
+    public void register(int boardAddress, int channelCount) {
+        if (boardAddress < 0 || boardAddress > MAX_BOARD_ADDRESS) {
+            throw new IllegalArgumentException("板地址超出范围: " + boardAddress);
+        }
+        if (channelCount < 1 || channelCount > MAX_CHANNEL_COUNT) {
+            throw new IllegalArgumentException("通道数超出范围: " + channelCount);
+        }
+        boards.put(boardAddress, channelCount);
+    }
+
+    /**
+     * 注销锁控板
+     *
+     * @param boardAddress 板地址
+     * @return 是否曾注册
+     */
+    public boolean unregister(int boardAddress) {
+        return boards.remove(boardAddress) != null;
+    }
+
+    public boolean isRegistered(int boardAddress) {
+        return boards.containsKey(boardAddress);
+    }
+
+    /**
+     * 获取锁控板的通道数
+     *
+     * @param boardAddress 板地址
+     * @return 通道数，未注册返回0
+     */
+    public int getChannelCount(int boardAddress) {
+        Integer channelCount = boards.get(boardAddress);
+        return channelCount != null ? channelCount : 0;
+    }
+
+    /**
+     * 获取已注册的板地址
+     *
+     * @return 板地址数组，从小到大
+     */
+    public int[] getBoardAddresses() {
+        Integer[] addresses = boards.keySet().toArray(new Integer[0]);
+        int[] result = new int[addresses.length];
+        for (int i = 0; i < addresses.length; i++) {
+            result[i] = addresses[i];
+        }
+        return result;
+    }
+
+    public int size() {
+        return boards.size();
+    }
+
+    /**
+     * 判断通道是否存在于已注册的锁控板上
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道号，从1开始
+     * @return 是否有效
+     */
+    public boolean isValidChannel(int boardAddress, int channelId) {
+        return channelId >= 1 && channelId <= getChannelCount(boardAddress);
+    }
+
+    @Override
+    public String toString() {
+        return "BoardRegistry" + boards;
+    }
+}
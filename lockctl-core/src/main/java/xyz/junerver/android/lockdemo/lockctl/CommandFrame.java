@@ -0,0 +1,186 @@
+package xyz.junerver.android.lockdemo.lockctl;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 已编码的指令帧（不可变）
+ * 由 LockCtlBoardCmdHelper 预先编码并缓存，可在多个队列指令和发送器之间共享，
+ * 发送时直接写出，不再重复分配数组和计算校验字节
+ */
+public final class CommandFrame {
+
+    // 字段偏移
+    private static final int OFFSET_BOARD_ADDRESS = 5;
+    private static final int OFFSET_COMMAND = 6;
+    private static final int OFFSET_DATA = 7;
+    private static final int MIN_COMMAND_LENGTH = 7; // 与 QueuedCommand 的校验一致
+
+    private final byte[] bytes;
+
+    /**
+     * @param bytes 已编码的完整帧，由调用方转交所有权，之后不得再修改
+     */
+    CommandFrame(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * 由外部传入的指令数据创建指令帧（拷贝一份，防止外部修改）
+     *
+     * @param command 完整指令数据
+     * @return 指令帧
+     */
+    public static CommandFrame copyOf(byte[] command) {
+        if (command == null || command.length < MIN_COMMAND_LENGTH) {
+            throw new IllegalArgumentException("指令数据格式错误");
+        }
+        return new CommandFrame(command.clone());
+    }
+
+    /**
+     * 将帧写入缓冲区
+     *
+     * @param buffer 目标缓冲区，剩余空间须不小于 length()
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.put(bytes);
+    }
+
+    /**
+     * 将帧写入数组
+     *
+     * @param dest   目标数组
+     * @param offset 写入起始下标
+     * @return 写入的字节数
+     */
+    public int writeTo(byte[] dest, int offset) {
+        System.arraycopy(bytes, 0, dest, offset, bytes.length);
+        return bytes.length;
+    }
+
+    /**
+     * 获取帧内部数组（不拷贝）
+     * 仅供发送器直接写出使用，调用方不得修改
+     *
+     * @return 帧内部数组
+     */
+    public byte[] getSharedBytes() {
+        return bytes;
+    }
+
+    /**
+     * 获取帧数据的副本
+     *
+     * @return 帧数据副本
+     */
+    public byte[] toByteArray() {
+        return bytes.clone();
+    }
+
+    public int length() {
+        return bytes.length;
+    }
+
+    public byte getBoardAddress() {
+        return bytes[OFFSET_BOARD_ADDRESS];
+    }
+
+    public byte getCommandByte() {
+        return bytes[OFFSET_COMMAND];
+    }
+
+    /**
+     * 获取数据域长度（不含校验字节）
+     *
+     * @return 数据域长度
+     */
+    public int getDataLength() {
+        return Math.max(0, bytes.length - OFFSET_DATA - 1);
+    }
+
+    /**
+     * 获取数据域字节
+     *
+     * @param index 数据域内的下标
+     * @return 无符号字节值，越界返回-1
+     */
+    public int getDataByte(int index) {
+        return index >= 0 && index < getDataLength() ? bytes[OFFSET_DATA + index] & 0xFF : -1;
+    }
+
+    /**
+     * 获取指令携带的通道号
+     * 仅单通道指令 (0x81/0x82/0x83/0x88/0x89) 携带通道，用于与响应帧中的通道做关联
+     *
+     * @return 通道号，不含通道的指令返回-1
+     */
+    public int getChannelId() {
+        return channelIdOf(bytes);
+    }
+
+    /**
+     * 获取指令数据携带的通道号
+     *
+     * @param command 指令数据
+     * @return 通道号，不含通道的指令或数据不足返回-1
+     */
+    public static int channelIdOf(byte[] command) {
+        if (command == null || command.length <= OFFSET_DATA + 1) {
+            return -1;
+        }
+        switch (command[OFFSET_COMMAND]) {
+            case (byte) 0x81: // 通道闪烁
+            case (byte) 0x82: // 开单个锁
+            case (byte) 0x83: // 查询单个门状态
+            case (byte) 0x88: // 通道持续打开
+            case (byte) 0x89: // 通道关闭
+                return command[OFFSET_DATA] & 0xFF;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * 判断两条指令的响应是否无法区分（板地址、指令字、通道均相同）
+     * 这样的两条指令不能同时在途，否则无法确定响应属于哪一条
+     *
+     * @param other 另一条指令
+     * @return 是否使用相同的关联键
+     */
+    public boolean sameCorrelationKey(CommandFrame other) {
+        return other != null
+                && getBoardAddress() == other.getBoardAddress()
+                && getCommandByte() == other.getCommandByte()
+                && getChannelId() == other.getChannelId();
+    }
+
+    /**
+     * 判断帧内容是否与指定数据一致
+     *
+     * @param command 指令数据
+     * @return 是否一致
+     */
+    public boolean contentEquals(byte[] command) {
+        return Arrays.equals(bytes, command);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof CommandFrame && Arrays.equals(bytes, ((CommandFrame) o).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CommandFrame{cmd=0x%02X, addr=0x%02X, length=%d}",
+                getCommandByte() & 0xFF, getBoardAddress() & 0xFF, bytes.length);
+    }
+}
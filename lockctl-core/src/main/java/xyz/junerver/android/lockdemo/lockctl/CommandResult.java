@@ -0,0 +1,207 @@
+package xyz.junerver.android.lockdemo.lockctl;
+
+import java.util.Arrays;
+
+/**
+ * 类型化的指令执行结果
+ * 由防抖管理器在指令匹配到响应、超时或失败时生成，作为异步接口 CompletableFuture 的结果
+ * <p>
+ * 板地址、指令字与通道取自请求指令；状态、锁状态与各通道状态取自匹配到的响应帧，
+ * 构造时即从响应帧中取出，不持有响应帧本身。超时、通信错误等没有响应时对应字段为 {@link #NONE}
+ */
+public final class CommandResult {
+
+    // 不存在的字段
+    public static final int NONE = ResponseFrame.NONE;
+
+    private static final int[] NO_CHANNELS = new int[0];
+
+    private final boolean success;
+    private final String message;
+    private final boolean responded;
+    private final int boardAddress;
+    private final int commandByte;
+    private final int status;
+    private final int channelId;
+    private final int lockStatus;
+    private final int[] channelStatus;
+    private final boolean cached;
+
+    private CommandResult(boolean success, String message, boolean responded, int boardAddress,
+                          int commandByte, int status, int channelId, int lockStatus, int[] channelStatus) {
+        this(success, message, responded, boardAddress, commandByte, status, channelId, lockStatus, channelStatus, false);
+    }
+
+    private CommandResult(boolean success, String message, boolean responded, int boardAddress,
+                          int commandByte, int status, int channelId, int lockStatus, int[] channelStatus,
+                          boolean cached) {
+        this.success = success;
+        this.message = message;
+        this.responded = responded;
+        this.boardAddress = boardAddress;
+        this.commandByte = commandByte;
+        this.status = status;
+        this.channelId = channelId;
+        this.lockStatus = lockStatus;
+        this.channelStatus = channelStatus;
+        this.cached = cached;
+    }
+
+    /**
+     * 根据请求指令与匹配到的响应帧生成结果
+     * 响应帧与请求指令字不同时（如被合并进 0x87 的开锁）只取响应状态
+     *
+     * @param request 请求指令
+     * @param success 是否成功
+     * @param message 结果消息
+     * @param frame   响应帧，超时或错误时为null
+     * @return 执行结果
+     */
+    public static CommandResult of(CommandFrame request, boolean success, String message, ResponseFrame frame) {
+        int boardAddress = request.getBoardAddress() & 0xFF;
+        int commandByte = request.getCommandByte() & 0xFF;
+        int channelId = request.getChannelId() >= 0 ? request.getChannelId() : NONE;
+        if (frame == null) {
+            return new CommandResult(success, message, false, boardAddress, commandByte,
+                    NONE, channelId, NONE, NO_CHANNELS);
+        }
+
+        int lockStatus = NONE;
+        int[] channelStatus = NO_CHANNELS;
+        if (frame.getCommandByte() == commandByte) {
+            if (frame.getChannelId() != NONE) {
+                channelId = frame.getChannelId();
+            }
+            lockStatus = frame.getLockStatus();
+            int channelCount = frame.getChannelCount();
+            if (channelCount > 0) {
+                channelStatus = new int[channelCount];
+                for (int i = 0; i < channelCount; i++) {
+                    channelStatus[i] = frame.getChannelLockStatus(i + 1);
+                }
+            }
+        }
+        return new CommandResult(success, message, true, boardAddress, commandByte,
+                frame.getStatus(), channelId, lockStatus, channelStatus);
+    }
+
+    /**
+     * 生成未发出指令的失败结果（参数无效、未初始化等）
+     *
+     * @param commandByte 指令字，未知时为 NONE
+     * @param channelId   通道号，不含通道时为 NONE
+     * @param message     失败原因
+     * @return 执行结果
+     */
+    public static CommandResult rejected(int commandByte, int channelId, String message) {
+        return new CommandResult(false, message, false, NONE, commandByte == NONE ? NONE : commandByte & 0xFF,
+                NONE, channelId, NONE, NO_CHANNELS);
+    }
+
+    /**
+     * 生成取自锁状态影子的查询结果（不经过串口）
+     *
+     * @param boardAddress  板地址
+     * @param commandByte   查询指令字（0x83 或 0x84）
+     * @param channelId     通道号，0x84 为 NONE
+     * @param lockStatus    锁状态，0x84 为 NONE
+     * @param channelStatus 各通道锁状态，0x83 为null
+     * @return 执行结果
+     */
+    public static CommandResult cached(int boardAddress, int commandByte, int channelId, int lockStatus,
+                                       int[] channelStatus) {
+        return new CommandResult(true, "状态未过期，取自锁状态影子", true, boardAddress, commandByte & 0xFF,
+                ResponseFrame.STATUS_SUCCESS, channelId, lockStatus,
+                channelStatus != null ? channelStatus.clone() : NO_CHANNELS, true);
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * 是否收到了控制板的响应
+     *
+     * @return 超时、通信错误或未发出时返回 false
+     */
+    public boolean hasResponse() {
+        return responded;
+    }
+
+    /**
+     * 是否取自锁状态影子（未向锁控板查询）
+     *
+     * @return 取自影子时返回 true，此时 hasResponse 指之前收到过的响应
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    public int getBoardAddress() {
+        return boardAddress;
+    }
+
+    public int getCommandByte() {
+        return commandByte;
+    }
+
+    /**
+     * 获取响应状态字节
+     *
+     * @return 状态（0x00 成功，0xFF 失败），无响应或响应不含状态时返回 NONE
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    public int getChannelId() {
+        return channelId;
+    }
+
+    /**
+     * 获取锁状态（0x82 开单个锁、0x83 查询单个门状态）
+     *
+     * @return 锁状态（0x00 打开，0x01 关闭），不含锁状态时返回 NONE
+     */
+    public int getLockStatus() {
+        return lockStatus;
+    }
+
+    /**
+     * 获取通道数量（0x84 查询所有门状态）
+     *
+     * @return 通道数量，其它指令返回0
+     */
+    public int getChannelCount() {
+        return channelStatus.length;
+    }
+
+    /**
+     * 获取指定通道的锁状态（0x84 查询所有门状态）
+     *
+     * @param channelNo 通道号，从1开始
+     * @return 锁状态，通道不存在时返回 NONE
+     */
+    public int getChannelLockStatus(int channelNo) {
+        return channelNo >= 1 && channelNo <= channelStatus.length ? channelStatus[channelNo - 1] : NONE;
+    }
+
+    @Override
+    public String toString() {
+        return "CommandResult{" +
+                "success=" + success +
+                ", message='" + message + '\'' +
+                ", command=0x" + String.format("%02X", commandByte) +
+                ", board=" + boardAddress +
+                ", status=" + status +
+                ", channel=" + channelId +
+                ", lockStatus=" + lockStatus +
+                (channelStatus.length > 0 ? ", channelStatus=" + Arrays.toString(channelStatus) : "") +
+                (cached ? ", cached" : "") +
+                '}';
+    }
+}
@@ -0,0 +1,360 @@
+package xyz.junerver.android.lockdemo.lockctl;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+/**
+ * 门状态事件日志
+ * 以追加方式记录 0x85 上传的每一次开门/关门，供审计、统计使用，并可在启动时回放以恢复锁状态
+ * <p>
+ * 1. 日志由若干段文件组成，每段预先按固定大小映射到内存 (MappedByteBuffer)，
+ *    追加只是一次内存写入，不在串口线程上做文件 I/O（换段时除外）；写满后换到下一段，超出保留段数时删除最旧的段
+ * 2. 记录定长 16 字节：时间戳 (8) + 板地址 (1) + 通道 (1) + 锁状态 (1) + 标记 0xA5 (1) + CRC32 (4)，
+ *    CRC 覆盖前 12 字节
+ * 3. 打开时从最后一段开头逐条校验，第一条标记或 CRC 不符的位置即为写入位置，
+ *    进程崩溃时写到一半的记录被丢弃并在之后覆盖
+ * <p>
+ * 映射页由系统回写，进程崩溃不会丢失已追加的记录；需要防止掉电丢失时调用 {@link #flush()}
+ */
+public class DoorEventJournal implements Closeable {
+
+    private static final String TAG = "DoorEventJournal";
+
+    // 记录长度
+    public static final int RECORD_SIZE = 16;
+    // 默认每段记录数（1MB）
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 64 * 1024;
+    // 默认保留段数
+    public static final int DEFAULT_MAX_SEGMENTS = 16;
+
+    private static final byte RECORD_MARKER = (byte) 0xA5;
+    private static final int OFFSET_MARKER = 11;
+    private static final int OFFSET_CRC = 12;
+    private static final String SEGMENT_PREFIX = "door-events-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    // 回放时每次读取的记录数
+    private static final int REPLAY_BATCH_RECORDS = 4096;
+
+    /**
+     * 回放回调，按追加顺序逐条调用
+     */
+    public interface Visitor {
+        /**
+         * @param timestampMs  事件时间（System.currentTimeMillis）
+         * @param boardAddress 板地址
+         * @param channelId    通道号
+         * @param lockStatus   锁状态（0x00 打开，0x01 关闭）
+         */
+        void onEvent(long timestampMs, int boardAddress, int channelId, int lockStatus);
+    }
+
+    private final File directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+
+    // 以下仅在持有 this 锁时读写
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final byte[] scratch = new byte[RECORD_SIZE];
+    private final ByteBuffer scratchView = ByteBuffer.wrap(scratch);
+    private final CRC32 crc = new CRC32();
+    private MappedByteBuffer active;
+    private int writePosition;
+    private long appendedCount = 0;
+    private boolean closed = false;
+
+    private static final class Segment {
+        final long sequence;
+        final File file;
+
+        Segment(long sequence, File file) {
+            this.sequence = sequence;
+            this.file = file;
+        }
+    }
+
+    /**
+     * 打开或创建日志，使用默认段大小与保留段数
+     *
+     * @param directory 日志目录
+     * @throws IOException 目录无法创建或段文件无法映射
+     */
+    public DoorEventJournal(File directory) throws IOException {
+        this(directory, DEFAULT_RECORDS_PER_SEGMENT, DEFAULT_MAX_SEGMENTS);
+    }
+
+    /**
+     * 打开或创建日志
+     *
+     * @param directory         日志目录
+     * @param recordsPerSegment 每段记录数
+     * @param maxSegments       保留段数，最小为 1
+     * @throws IOException 目录无法创建或段文件无法映射
+     */
+    public DoorEventJournal(File directory, int recordsPerSegment, int maxSegments) throws IOException {
+        if (recordsPerSegment < 1) {
+            throw new IllegalArgumentException("每段记录数必须大于0: " + recordsPerSegment);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("无法创建日志目录: " + directory);
+        }
+        this.directory = directory;
+        this.segmentBytes = recordsPerSegment * RECORD_SIZE;
+        this.maxSegments = Math.max(1, maxSegments);
+
+        segments.addAll(listSegments(directory));
+        if (segments.isEmpty()) {
+            openSegment(0);
+        } else {
+            recoverTail();
+        }
+        LockCtlLog.i(TAG, "门状态日志已打开: " + directory + ", 段数: " + segments.size() +
+                ", 当前段写入位置: " + writePosition / RECORD_SIZE);
+    }
+
+    /**
+     * 追加一条门状态事件
+     * 只写入映射内存，不抛出异常，可以在串口接收线程上调用
+     *
+     * @param timestampMs  事件时间
+     * @param boardAddress 板地址
+     * @param channelId    通道号
+     * @param lockStatus   锁状态
+     * @return 是否已记录
+     */
+    public synchronized boolean append(long timestampMs, int boardAddress, int channelId, int lockStatus) {
+        if (closed) {
+            return false;
+        }
+        try {
+            if (writePosition + RECORD_SIZE > segmentBytes) {
+                rollover();
+            }
+            encode(timestampMs, boardAddress, channelId, lockStatus);
+            active.position(writePosition);
+            active.put(scratch);
+            writePosition += RECORD_SIZE;
+            appendedCount++;
+            return true;
+        } catch (IOException e) {
+            LockCtlLog.e(TAG, "换段失败，事件未记录", e);
+            return false;
+        }
+    }
+
+    /**
+     * 按追加顺序回放全部记录
+     *
+     * @param visitor 回放回调
+     * @return 回放的记录数
+     * @throws IOException 读取段文件失败
+     */
+    public long replay(Visitor visitor) throws IOException {
+        List<Segment> snapshot;
+        long activeSequence;
+        int activeLimit;
+        synchronized (this) {
+            snapshot = new ArrayList<>(segments);
+            activeSequence = segments.getLast().sequence;
+            activeLimit = writePosition;
+        }
+
+        long count = 0;
+        byte[] record = new byte[RECORD_SIZE];
+        CRC32 checksum = new CRC32();
+        ByteBuffer batch = ByteBuffer.allocate(REPLAY_BATCH_RECORDS * RECORD_SIZE);
+        for (Segment segment : snapshot) {
+            int limit = segment.sequence == activeSequence ? activeLimit : segmentBytes;
+            try (RandomAccessFile file = new RandomAccessFile(segment.file, "r")) {
+                FileChannel channel = file.getChannel();
+                long position = 0;
+                boolean end = false;
+                while (!end && position < limit) {
+                    batch.clear();
+                    batch.limit((int) Math.min(batch.capacity(), limit - position));
+                    int read = channel.read(batch, position);
+                    if (read < RECORD_SIZE) {
+                        break;
+                    }
+                    batch.flip();
+                    while (batch.remaining() >= RECORD_SIZE) {
+                        batch.get(record);
+                        if (!isValid(record, checksum)) {
+                            // 已关闭的段在第一条无效记录处结束
+                            end = true;
+                            break;
+                        }
+                        visitor.onEvent(readLong(record), record[8] & 0xFF, record[9] & 0xFF, record[10] & 0xFF);
+                        count++;
+                    }
+                    position += read - batch.remaining();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 回放日志恢复锁状态影子，代替启动时逐板查询
+     *
+     * @param shadow 锁状态影子
+     * @return 回放的记录数
+     * @throws IOException 读取段文件失败
+     */
+    public long rebuild(LockStateShadow shadow) throws IOException {
+        return replay((timestampMs, boardAddress, channelId, lockStatus) ->
+                shadow.restore(boardAddress, channelId, lockStatus, timestampMs));
+    }
+
+    /**
+     * 将当前段写回存储设备
+     */
+    public synchronized void flush() {
+        if (!closed) {
+            active.force();
+        }
+    }
+
+    /**
+     * 获取本次打开以来追加的记录数
+     *
+     * @return 记录数
+     */
+    public synchronized long getAppendedCount() {
+        return appendedCount;
+    }
+
+    /**
+     * 获取现有段数
+     *
+     * @return 段数
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        active.force();
+        active = null;
+        LockCtlLog.i(TAG, "门状态日志已关闭，本次追加: " + appendedCount);
+    }
+
+    private void encode(long timestampMs, int boardAddress, int channelId, int lockStatus) {
+        scratchView.putLong(0, timestampMs);
+        scratch[8] = (byte) boardAddress;
+        scratch[9] = (byte) channelId;
+        scratch[10] = (byte) lockStatus;
+        scratch[OFFSET_MARKER] = RECORD_MARKER;
+        crc.reset();
+        crc.update(scratch, 0, OFFSET_CRC);
+        scratchView.putInt(OFFSET_CRC, (int) crc.getValue());
+    }
+
+    private static long readLong(byte[] record) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = value << 8 | (record[i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static boolean isValid(byte[] record, CRC32 checksum) {
+        if (record[OFFSET_MARKER] != RECORD_MARKER) {
+            return false;
+        }
+        checksum.reset();
+        checksum.update(record, 0, OFFSET_CRC);
+        int stored = (record[OFFSET_CRC] & 0xFF) << 24 | (record[OFFSET_CRC + 1] & 0xFF) << 16
+                | (record[OFFSET_CRC + 2] & 0xFF) << 8 | (record[OFFSET_CRC + 3] & 0xFF);
+        return stored == (int) checksum.getValue();
+    }
+
+    /**
+     * 映射最后一段并找到写入位置（构造时调用）
+     */
+    private void recoverTail() throws IOException {
+        Segment last = segments.getLast();
+        active = map(last.file);
+        byte[] record = new byte[RECORD_SIZE];
+        CRC32 checksum = new CRC32();
+        int position = 0;
+        while (position + RECORD_SIZE <= segmentBytes) {
+            active.position(position);
+            active.get(record);
+            if (!isValid(record, checksum)) {
+                break;
+            }
+            position += RECORD_SIZE;
+        }
+        writePosition = position;
+        if (position + RECORD_SIZE <= segmentBytes) {
+            // 清除写到一半的记录，避免回放时读到
+            active.position(position);
+            active.put(new byte[RECORD_SIZE]);
+        }
+    }
+
+    private void rollover() throws IOException {
+        active.force();
+        openSegment(segments.getLast().sequence + 1);
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.removeFirst();
+            if (!oldest.file.delete()) {
+                LockCtlLog.w(TAG, "删除旧段失败: " + oldest.file);
+            }
+        }
+    }
+
+    private void openSegment(long sequence) throws IOException {
+        File file = new File(directory, String.format(Locale.ROOT, "%s%016d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        active = map(file);
+        writePosition = 0;
+        segments.addLast(new Segment(sequence, file));
+        LockCtlLog.i(TAG, "新建日志段: " + file.getName());
+    }
+
+    private MappedByteBuffer map(File file) throws IOException {
+        // 映射后通道可以关闭，映射在缓冲区被回收前一直有效
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+
+    private static List<Segment> listSegments(File directory) {
+        List<Segment> result = new ArrayList<>();
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return result;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                try {
+                    long sequence = Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length()));
+                    result.add(new Segment(sequence, file));
+                } catch (NumberFormatException e) {
+                    LockCtlLog.w(TAG, "忽略无法识别的文件: " + name);
+                }
+            }
+        }
+        Collections.sort(result, (a, b) -> Long.compare(a.sequence, b.sequence));
+        return result;
+    }
+}
@@ -0,0 +1,248 @@
+package xyz.junerver.android.lockdemo.lockctl;
+
+/**
+ * WKLY 协议帧解码器
+ * 基于原始字节环形缓冲区实现分包/粘包数据的重组，供串口发送器与 LockCtlBoardUtil 共用
+ *
+ * 帧格式：起始符(57 4B 4C 59) + 帧长度(1) + 板地址(1) + 指令字(1) + 数据域(n) + 校验(1)
+ * 其中帧长度为整帧字节数
+ *
+ * 特点：
+ * 1. 使用 byte[] 环形缓冲区，不装箱、消费数据为 O(1)
+ * 2. 迭代提取完整帧，不递归
+ * 3. 逐字节处理过程中不分配内存，仅在交付完整帧时分配帧数组
+ *
+ * 注意：本类不是线程安全的，调用方需要自行同步
+ */
+public class FrameDecoder {
+    private static final String TAG = "FrameDecoder";
+
+    // 默认缓冲区容量（必须为 2 的幂）
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    // 协议常量
+    private static final byte HEADER_0 = 0x57;
+    private static final byte HEADER_1 = 0x4B;
+    private static final byte HEADER_2 = 0x4C;
+    private static final byte HEADER_3 = 0x59;
+    private static final int HEADER_LENGTH = 4;
+    private static final int LENGTH_OFFSET = 4;
+    // 最短帧：起始符 + 帧长度 + 板地址 + 指令字 + 校验
+    public static final int MIN_FRAME_LENGTH = 8;
+
+    /**
+     * 完整帧回调
+     */
+    public interface FrameListener {
+        /**
+         * 提取到一帧完整数据
+         *
+         * @param frame 帧数据，长度恰好等于帧长度字段，调用方可直接持有
+         */
+        void onFrame(byte[] frame);
+    }
+
+    private final byte[] buffer;
+    private final int mask;
+    private final FrameListener listener;
+
+    // 可读数据起始位置与数据量
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * 构造函数（使用默认容量）
+     *
+     * @param listener 完整帧回调
+     */
+    public FrameDecoder(FrameListener listener) {
+        this(DEFAULT_CAPACITY, listener);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param capacity 缓冲区容量，必须为 2 的幂且不小于 256
+     * @param listener 完整帧回调
+     */
+    public FrameDecoder(int capacity, FrameListener listener) {
+        if (capacity < 256 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("缓冲区容量必须为不小于256的2的幂: " + capacity);
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("帧回调不能为null");
+        }
+        this.buffer = new byte[capacity];
+        this.mask = capacity - 1;
+        this.listener = listener;
+    }
+
+    /**
+     * 追加接收到的数据并提取其中的完整帧
+     *
+     * @param data 接收到的字节数据
+     * @return 本次提取出的完整帧数量
+     */
+    public int feed(byte[] data) {
+        if (data == null) {
+            return 0;
+        }
+        return feed(data, 0, data.length);
+    }
+
+    /**
+     * 追加接收到的数据并提取其中的完整帧
+     *
+     * @param data   字节数据
+     * @param offset 起始位置
+     * @param length 数据长度
+     * @return 本次提取出的完整帧数量
+     */
+    public int feed(byte[] data, int offset, int length) {
+        if (data == null || length <= 0) {
+            return 0;
+        }
+        if (offset < 0 || offset + length > data.length) {
+            throw new IndexOutOfBoundsException("offset=" + offset + ", length=" + length
+                    + ", data.length=" + data.length);
+        }
+
+        int frames = 0;
+        while (length > 0) {
+            if (size == buffer.length) {
+                // 缓冲区已满且无法提取出完整帧，只能丢弃
+                LockCtlLog.w(TAG, "缓冲区溢出，清空数据。当前大小: " + size);
+                clear();
+            }
+
+            int n = Math.min(length, buffer.length - size);
+            write(data, offset, n);
+            offset += n;
+            length -= n;
+
+            frames += extractFrames();
+        }
+        return frames;
+    }
+
+    /**
+     * 清空缓冲区
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * 获取缓冲区中尚未处理的数据大小
+     *
+     * @return 数据大小
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 获取缓冲区容量
+     *
+     * @return 容量
+     */
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * 将数据写入环形缓冲区尾部（调用方保证空间足够）
+     */
+    private void write(byte[] data, int offset, int length) {
+        int tail = (head + size) & mask;
+        int first = Math.min(length, buffer.length - tail);
+        System.arraycopy(data, offset, buffer, tail, first);
+        if (first < length) {
+            System.arraycopy(data, offset + first, buffer, 0, length - first);
+        }
+        size += length;
+    }
+
+    /**
+     * 迭代提取缓冲区中的全部完整帧
+     *
+     * @return 提取出的帧数量
+     */
+    private int extractFrames() {
+        int frames = 0;
+        while (size >= HEADER_LENGTH) {
+            int start = findHeader();
+            if (start < 0) {
+                // 保留末尾可能属于下一个起始符的字节
+                skip(size - (HEADER_LENGTH - 1));
+                break;
+            }
+            if (start > 0) {
+                skip(start);
+            }
+
+            // 数据不足，等待帧长度字段
+            if (size <= LENGTH_OFFSET) {
+                break;
+            }
+
+            int frameLength = get(LENGTH_OFFSET) & 0xFF;
+            if (frameLength < MIN_FRAME_LENGTH) {
+                // 帧长度非法，跳过该起始符重新同步
+                LockCtlLog.w(TAG, "无效的帧长度: " + frameLength + "，跳过该帧");
+                skip(1);
+                continue;
+            }
+
+            // 数据不完整，等待更多数据
+            if (size < frameLength) {
+                break;
+            }
+
+            byte[] frame = new byte[frameLength];
+            int first = Math.min(frameLength, buffer.length - head);
+            System.arraycopy(buffer, head, frame, 0, first);
+            if (first < frameLength) {
+                System.arraycopy(buffer, 0, frame, first, frameLength - first);
+            }
+            skip(frameLength);
+
+            frames++;
+            listener.onFrame(frame);
+        }
+        return frames;
+    }
+
+    /**
+     * 查找起始符位置（相对 head 的偏移）
+     *
+     * @return 起始符位置，未找到返回-1
+     */
+    private int findHeader() {
+        for (int i = 0; i <= size - HEADER_LENGTH; i++) {
+            if (get(i) == HEADER_0
+                    && get(i + 1) == HEADER_1
+                    && get(i + 2) == HEADER_2
+                    && get(i + 3) == HEADER_3) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private byte get(int index) {
+        return buffer[(head + index) & mask];
+    }
+
+    private void skip(int count) {
+        if (count <= 0) {
+            return;
+        }
+        head = (head + count) & mask;
+        size -= count;
+        if (size == 0) {
+            head = 0;
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package xyz.junerver.android.lockdemo.lockctl;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 哈希时间轮定时器
+ * 锁控模块的共享定时器，用于指令超时、开锁合并窗口等短延时任务
+ * <p>
+ * 时间轮按固定刻度 (tick) 转动，每个槽位是一个双向链表：
+ * 1. 调度：任务先放入无锁队列，由工作线程在下一刻度挂到对应槽位，O(1)
+ * 2. 取消：标记取消后放入取消队列，由工作线程在下一刻度从槽位摘除，O(1)，不再有到期后才发现已完成的空转任务
+ * 3. 到期：每个刻度只遍历当前槽位，剩余圈数为0的任务在工作线程上执行
+ * <p>
+ * 精度为一个刻度（默认10ms），任务应尽快返回，耗时操作应转交其他线程执行
+ */
+public class HashedWheelTimer {
+    private static final String TAG = "HashedWheelTimer";
+
+    public static final long DEFAULT_TICK_MS = 10;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final int STATE_INIT = 0;
+    private static final int STATE_STARTED = 1;
+    private static final int STATE_STOPPED = 2;
+
+    private final String name;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+    private final Object startLock = new Object();
+    private volatile long startTime = 0;
+    private Thread workerThread;
+    private long tick = 0;
+
+    // 统计信息
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final AtomicLong totalScheduled = new AtomicLong();
+    private final AtomicLong totalCancelled = new AtomicLong();
+    private final AtomicLong totalExpired = new AtomicLong();
+
+    /**
+     * 构造函数，使用默认刻度和槽位数
+     *
+     * @param name 工作线程名称
+     */
+    public HashedWheelTimer(String name) {
+        this(name, DEFAULT_TICK_MS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param name      工作线程名称
+     * @param tickMs    刻度（毫秒）
+     * @param wheelSize 槽位数，向上取整为2的幂
+     */
+    public HashedWheelTimer(String name, long tickMs, int wheelSize) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("刻度必须大于0: " + tickMs);
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("槽位数超出范围: " + wheelSize);
+        }
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.name = name;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 调度一个延时任务
+     *
+     * @param task  任务
+     * @param delay 延迟
+     * @param unit  延迟单位
+     * @return 任务句柄，可用于取消
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (task == null) {
+            throw new IllegalArgumentException("任务不能为null");
+        }
+        start();
+        if (state.get() == STATE_STOPPED) {
+            throw new IllegalStateException("定时器已关闭");
+        }
+        long deadline = System.nanoTime() + unit.toNanos(Math.max(0, delay)) - startTime;
+        Timeout timeout = new Timeout(this, task, deadline);
+        pendingCount.incrementAndGet();
+        totalScheduled.incrementAndGet();
+        pendingTimeouts.add(timeout);
+        if (state.get() == STATE_STOPPED) {
+            // 与 stop() 并发：关闭时可能已清点过队列，自行丢弃
+            timeout.drop();
+        }
+        return timeout;
+    }
+
+    /**
+     * 启动工作线程（首次调度时自动启动）
+     */
+    public void start() {
+        if (state.get() != STATE_INIT) {
+            return;
+        }
+        synchronized (startLock) {
+            if (state.get() == STATE_INIT) {
+                // 先确定起始时间再发布状态，其他线程看到已启动时必然能读到起始时间
+                startTime = System.nanoTime();
+                state.set(STATE_STARTED);
+                workerThread = new Thread(this::runWorker, name);
+                // 漏掉 stop() 时不阻止进程退出
+                workerThread.setDaemon(true);
+                workerThread.start();
+                LockCtlLog.d(TAG, "%s 已启动, 刻度: %dms, 槽位: %d",
+                        name, TimeUnit.NANOSECONDS.toMillis(tickNanos), wheel.length);
+            }
+        }
+    }
+
+    /**
+     * 关闭定时器，未到期的任务全部丢弃
+     * 每个任务以状态 CAS 丢弃，与并发的取消之间只有一方成功，待执行数不会重复扣减
+     *
+     * @return 丢弃的任务数
+     */
+    public long stop() {
+        int previous = state.getAndSet(STATE_STOPPED);
+        if (previous == STATE_STARTED && Thread.currentThread() != workerThread) {
+            workerThread.interrupt();
+            try {
+                workerThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        long dropped = 0;
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.drop()) {
+                dropped++;
+            }
+        }
+        // 工作线程已退出或就是当前线程；等待超时时工作线程停在任务中，遍历只读链表、不做修改
+        for (Bucket bucket : wheel) {
+            for (timeout = bucket.head; timeout != null; timeout = timeout.next) {
+                if (timeout.drop()) {
+                    dropped++;
+                }
+            }
+        }
+        cancelledTimeouts.clear();
+        if (previous != STATE_STOPPED) {
+            LockCtlLog.d(TAG, "%s 已关闭, 丢弃未到期任务: %d", name, dropped);
+        }
+        return dropped;
+    }
+
+    /**
+     * 是否已关闭
+     *
+     * @return 是否已关闭
+     */
+    public boolean isStopped() {
+        return state.get() == STATE_STOPPED;
+    }
+
+    /**
+     * 获取未到期且未取消的任务数
+     *
+     * @return 待执行任务数
+     */
+    public long getPendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    public Stats getStats() {
+        return new Stats(pendingCount.get(), totalScheduled.get(), totalCancelled.get(), totalExpired.get());
+    }
+
+    private void runWorker() {
+        while (state.get() == STATE_STARTED) {
+            long currentTime = waitForNextTick();
+            if (currentTime < 0) {
+                break;
+            }
+            Bucket bucket = wheel[(int) (tick & mask)];
+            removeCancelled();
+            transferPending();
+            bucket.expire(currentTime);
+            tick++;
+        }
+    }
+
+    /**
+     * 等待到下一个刻度
+     *
+     * @return 相对启动时间的当前时间（纳秒），已关闭返回-1
+     */
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long currentTime = System.nanoTime() - startTime;
+            long sleepMs = (deadline - currentTime + 999_999) / 1_000_000;
+            if (sleepMs <= 0) {
+                return currentTime;
+            }
+            try {
+                Thread.sleep(sleepMs);
+            } catch (InterruptedException e) {
+                if (state.get() == STATE_STOPPED) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    private void transferPending() {
+        // 每个刻度最多挂入固定数量，避免调度风暴拖慢到期处理
+        for (int i = 0; i < 100_000; i++) {
+            Timeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() != Timeout.ST_INIT) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // 已过期的任务挂到当前槽位，本刻度执行
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * 槽位：双向链表，只由工作线程访问
+     */
+    private final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire(long currentTime) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    if (timeout.deadline <= currentTime) {
+                        timeout.expire();
+                    } else {
+                        // 不应发生：挂入槽位时已按刻度计算
+                        LockCtlLog.w(TAG, "任务挂错槽位，重新调度");
+                        pendingTimeouts.add(timeout);
+                    }
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = timeout.next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    /**
+     * 任务句柄
+     */
+    public static final class Timeout {
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+        private static final int ST_DROPPED = 3;
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+
+        // 以下字段只由工作线程访问
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(HashedWheelTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * 取消任务
+         *
+         * @return 是否取消成功，已到期、已取消或已随定时器关闭丢弃返回false
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            timer.pendingCount.decrementAndGet();
+            timer.totalCancelled.incrementAndGet();
+            if (!timer.isStopped()) {
+                timer.cancelledTimeouts.add(this);
+            }
+            return true;
+        }
+
+        /**
+         * 定时器关闭时丢弃任务
+         *
+         * @return 是否由本次调用丢弃
+         */
+        private boolean drop() {
+            if (!state.compareAndSet(ST_INIT, ST_DROPPED)) {
+                return false;
+            }
+            timer.pendingCount.decrementAndGet();
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            timer.pendingCount.decrementAndGet();
+            timer.totalExpired.incrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable t) {
+                LockCtlLog.e(TAG, "定时任务执行异常", t);
+            }
+        }
+    }
+
+    /**
+     * 定时器统计信息
+     */
+    public static class Stats {
+        public final long pendingCount;
+        public final long totalScheduled;
+        public final long totalCancelled;
+        public final long totalExpired;
+
+        public Stats(long pendingCount, long totalScheduled, long totalCancelled, long totalExpired) {
+            this.pendingCount = pendingCount;
+            this.totalScheduled = totalScheduled;
+            this.totalCancelled = totalCancelled;
+            this.totalExpired = totalExpired;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("TimerStats{pending=%d, scheduled=%d, cancelled=%d, expired=%d}",
+                    pendingCount, totalScheduled, totalCancelled, totalExpired);
+        }
+    }
+}
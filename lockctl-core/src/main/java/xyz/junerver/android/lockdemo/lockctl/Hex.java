@@ -0,0 +1,80 @@
+package xyz.junerver.android.lockdemo.lockctl;
+
+/**
+ * 十六进制工具
+ * 查表转换，每个字节两位大写十六进制、以空格分隔，如 "57 4B 4C 59"；
+ * 不经过 String.format，只在确实需要输出时调用
+ */
+public final class Hex {
+
+    private static final char[] DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private Hex() {
+    }
+
+    /**
+     * 字节数组转十六进制字符串
+     *
+     * @param bytes 字节数组
+     * @return 十六进制字符串，bytes为null时返回"null"
+     */
+    public static String toHex(byte[] bytes) {
+        return bytes == null ? "null" : toHex(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 字节数组的一段转十六进制字符串
+     *
+     * @param bytes  字节数组
+     * @param offset 起始下标
+     * @param length 字节数
+     * @return 十六进制字符串
+     */
+    public static String toHex(byte[] bytes, int offset, int length) {
+        if (length <= 0) {
+            return "";
+        }
+        char[] chars = new char[length * 3 - 1];
+        int pos = 0;
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                chars[pos++] = ' ';
+            }
+            int value = bytes[offset + i] & 0xFF;
+            chars[pos++] = DIGITS[value >>> 4];
+            chars[pos++] = DIGITS[value & 0x0F];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 单字节转两位大写十六进制
+     *
+     * @param value 字节
+     * @return 如 "0A"
+     */
+    public static String toHex(byte value) {
+        int v = value & 0xFF;
+        return new String(new char[]{DIGITS[v >>> 4], DIGITS[v & 0x0F]});
+    }
+
+    /**
+     * 将字节数组的一段以十六进制追加到 StringBuilder，不产生中间字符串
+     *
+     * @param sb     目标
+     * @param bytes  字节数组
+     * @param offset 起始下标
+     * @param length 字节数
+     * @return sb
+     */
+    public static StringBuilder appendHex(StringBuilder sb, byte[] bytes, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            int value = bytes[offset + i] & 0xFF;
+            sb.append(DIGITS[value >>> 4]).append(DIGITS[value & 0x0F]);
+        }
+        return sb;
+    }
+}
@@ -0,0 +1,592 @@
+package xyz.junerver.android.lockdemo.lockctl;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 门锁控制板指令构造辅助工具类
+ * 提供静态方法用于构造各种门锁控制指令，符合串口通讯协议规范
+ */
+public class LockCtlBoardCmdHelper {
+    private static final String TAG = "LockCtlBoardCmdHelper";
+
+    // 通讯协议常量
+    private static final byte[] START_BYTES = {0x57, 0x4B, 0x4C, 0x59}; // 起始符: "W K L Y"
+
+    // 指令字常量
+    private static final byte CMD_OPEN_MULTIPLE_LOCKS = (byte) 0x80; // 同时开多个锁
+    private static final byte CMD_FLASH_CHANNEL = (byte) 0x81;       // 通道闪烁
+    private static final byte CMD_OPEN_SINGLE_LOCK = (byte) 0x82;    // 开单个锁
+    private static final byte CMD_GET_SINGLE_STATUS = (byte) 0x83;   // 查询单个门状态
+    private static final byte CMD_GET_ALL_STATUS = (byte) 0x84;      // 查询所有门状态
+    private static final byte CMD_STATUS_UPLOAD = (byte) 0x85;       // 主动上传门状态变化
+    private static final byte CMD_OPEN_ALL_LOCKS = (byte) 0x86;      // 开全部锁
+    private static final byte CMD_OPEN_MULTIPLE_SEQUENTIAL = (byte) 0x87; // 开多个锁
+    private static final byte CMD_CHANNEL_KEEP_OPEN = (byte) 0x88;   // 通道持续打开
+    private static final byte CMD_CLOSE_CHANNEL = (byte) 0x89;       // 通道关闭
+
+    // 状态字常量
+    private static final byte STATUS_SUCCESS = 0x00;          // 执行成功
+    private static final byte STATUS_FAILED = (byte) 0xFF;    // 执行失败
+
+    // 锁状态常量
+    private static final byte LOCK_STATUS_OPEN = 0x00;        // 门打开
+    private static final byte LOCK_STATUS_CLOSED = 0x01;      // 门关闭
+    private static final byte LOCK_STATUS_ERROR = (byte) 0xFF; // 执行失败
+
+    // 默认门锁总数
+    private static final int DEFAULT_CHANNEL_COUNT = 24;
+
+    /**
+     * 构造串口通讯指令（通用方法）
+     *
+     * @param boardAddress 板地址 (0-31)
+     * @param command      指令字
+     * @param data         数据域内容 (可为空)
+     * @return 完整的指令字节数组
+     */
+    public static byte[] buildCommand(byte boardAddress, byte command, byte[] data) {
+        // 计算数据长度
+        int dataLength = (data != null) ? data.length : 0;
+
+        // 帧长度 = 起始符(4) + 帧长度(1) + 板地址(1) + 指令字(1) + 数据域(n) + 校验字节(1)
+        int frameLength = 4 + 1 + 1 + 1 + dataLength + 1;
+
+        byte[] commandBytes = new byte[frameLength];
+
+        // 1. 起始符
+        System.arraycopy(START_BYTES, 0, commandBytes, 0, START_BYTES.length);
+
+        // 2. 帧长度
+        commandBytes[4] = (byte) (frameLength & 0xFF);
+
+        // 3. 板地址
+        commandBytes[5] = boardAddress;
+
+        // 4. 指令字
+        commandBytes[6] = command;
+
+        // 5. 数据域
+        if (data != null && data.length > 0) {
+            System.arraycopy(data, 0, commandBytes, 7, data.length);
+        }
+
+        // 6. 校验字节 (对整个帧进行XOR校验)
+        byte checksum = calculateChecksum(commandBytes, 0, frameLength - 1);
+        commandBytes[frameLength - 1] = checksum;
+
+
+        return commandBytes;
+    }
+
+    // ==================== 预编码指令帧 ====================
+
+    /**
+     * 单块板的预编码帧表
+     * 单通道指令 (0x81/0x82/0x83/0x88/0x89) 按 [指令][通道] 存放，0x84/0x86 各一帧
+     */
+    private static final class BoardFrames {
+        final CommandFrame[][] channelFrames = new CommandFrame[CHANNEL_COMMANDS.length][DEFAULT_CHANNEL_COUNT + 1];
+        final CommandFrame getAllStatusFrame;
+        final CommandFrame openAllLocksFrame;
+
+        BoardFrames(byte boardAddress) {
+            for (int i = 0; i < CHANNEL_COMMANDS.length; i++) {
+                for (int channel = 0; channel <= DEFAULT_CHANNEL_COUNT; channel++) {
+                    channelFrames[i][channel] = new CommandFrame(
+                            buildCommand(boardAddress, CHANNEL_COMMANDS[i], new byte[]{(byte) channel}));
+                }
+            }
+            getAllStatusFrame = new CommandFrame(buildCommand(boardAddress, CMD_GET_ALL_STATUS, null));
+            openAllLocksFrame = new CommandFrame(buildCommand(boardAddress, CMD_OPEN_ALL_LOCKS, null));
+        }
+    }
+
+    // 可预编码的单通道指令，下标即帧表中的行号
+    private static final byte[] CHANNEL_COMMANDS = {
+            CMD_FLASH_CHANNEL, CMD_OPEN_SINGLE_LOCK, CMD_GET_SINGLE_STATUS, CMD_CHANNEL_KEEP_OPEN, CMD_CLOSE_CHANNEL
+    };
+
+    // 按板地址懒加载的帧表，某块板首次发送指令时才编码该板的全部单通道帧
+    private static final AtomicReferenceArray<BoardFrames> FRAME_TABLE = new AtomicReferenceArray<>(256);
+
+    private static BoardFrames boardFrames(byte boardAddress) {
+        int index = boardAddress & 0xFF;
+        BoardFrames frames = FRAME_TABLE.get(index);
+        if (frames == null) {
+            // 并发首次访问时可能重复构建，内容相同，保留先写入的一份
+            FRAME_TABLE.compareAndSet(index, null, new BoardFrames(boardAddress));
+            frames = FRAME_TABLE.get(index);
+        }
+        return frames;
+    }
+
+    private static int channelCommandIndex(byte command) {
+        for (int i = 0; i < CHANNEL_COMMANDS.length; i++) {
+            if (CHANNEL_COMMANDS[i] == command) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 获取单通道指令帧，通道在缓存范围内时直接返回预编码帧
+     */
+    private static CommandFrame channelFrame(byte boardAddress, byte command, int channelId) {
+        if (channelId >= 0 && channelId <= DEFAULT_CHANNEL_COUNT) {
+            return boardFrames(boardAddress).channelFrames[channelCommandIndex(command)][channelId];
+        }
+        return new CommandFrame(buildCommand(boardAddress, command, new byte[]{(byte) channelId}));
+    }
+
+    /**
+     * 一次编码锁列表类变长指令 (0x80, 0x87)
+     * 帧长度可预先确定，直接写入最终数组并在写入过程中累计校验字节，不再分配中间数据域数组
+     */
+    private static CommandFrame lockListFrame(byte boardAddress, byte command, int[] lockIds) {
+        int frameLength = 4 + 1 + 1 + 1 + 1 + lockIds.length + 1;
+        byte[] frame = new byte[frameLength];
+        System.arraycopy(START_BYTES, 0, frame, 0, START_BYTES.length);
+        frame[4] = (byte) frameLength;
+        frame[5] = boardAddress;
+        frame[6] = command;
+        frame[7] = (byte) lockIds.length;
+
+        byte checksum = calculateChecksum(frame, 0, 8);
+        for (int i = 0; i < lockIds.length; i++) {
+            byte lockId = (byte) lockIds[i];
+            frame[8 + i] = lockId;
+            checksum ^= lockId;
+        }
+        frame[frameLength - 1] = checksum;
+        return new CommandFrame(frame);
+    }
+
+    private static boolean isValidChannel(int channelId) {
+        if (channelId < 0 || channelId > DEFAULT_CHANNEL_COUNT) {
+            LockCtlLog.e(TAG, "通道ID范围错误");
+            return false;
+        }
+        return true;
+    }
+
+    private static byte[] toByteArray(CommandFrame frame) {
+        return frame != null ? frame.toByteArray() : null;
+    }
+
+    /**
+     * 同时开多锁指令帧 (0x80)
+     *
+     * @param boardAddress 板地址
+     * @param lockIds      门锁ID数组
+     * @return 指令帧，参数错误返回null
+     */
+    public static CommandFrame openMultipleLocksFrame(byte boardAddress, int... lockIds) {
+        if (lockIds == null || lockIds.length == 0) {
+            LockCtlLog.e(TAG, "门锁ID不能为空");
+            return null;
+        }
+        return lockListFrame(boardAddress, CMD_OPEN_MULTIPLE_LOCKS, lockIds);
+    }
+
+    /**
+     * 通道闪烁指令帧 (0x81)
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 预编码的指令帧，通道超出范围返回null
+     */
+    public static CommandFrame flashChannelFrame(byte boardAddress, int channelId) {
+        return isValidChannel(channelId) ? channelFrame(boardAddress, CMD_FLASH_CHANNEL, channelId) : null;
+    }
+
+    /**
+     * 开单个锁指令帧 (0x82)
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 预编码的指令帧，通道超出范围返回null
+     */
+    public static CommandFrame openSingleLockFrame(byte boardAddress, int channelId) {
+        return isValidChannel(channelId) ? channelFrame(boardAddress, CMD_OPEN_SINGLE_LOCK, channelId) : null;
+    }
+
+    /**
+     * 查询单个门锁状态指令帧 (0x83)
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 预编码的指令帧，通道超出范围返回null
+     */
+    public static CommandFrame getSingleLockStatusFrame(byte boardAddress, int channelId) {
+        return isValidChannel(channelId) ? channelFrame(boardAddress, CMD_GET_SINGLE_STATUS, channelId) : null;
+    }
+
+    /**
+     * 查询所有门锁状态指令帧 (0x84)
+     *
+     * @param boardAddress 板地址
+     * @return 预编码的指令帧
+     */
+    public static CommandFrame getAllLocksStatusFrame(byte boardAddress) {
+        return boardFrames(boardAddress).getAllStatusFrame;
+    }
+
+    /**
+     * 开全部锁指令帧 (0x86)
+     *
+     * @param boardAddress 板地址
+     * @return 预编码的指令帧
+     */
+    public static CommandFrame openAllLocksFrame(byte boardAddress) {
+        return boardFrames(boardAddress).openAllLocksFrame;
+    }
+
+    /**
+     * 逐一开多锁指令帧 (0x87)
+     *
+     * @param boardAddress 板地址
+     * @param lockIds      门锁ID数组
+     * @return 指令帧，参数错误返回null
+     */
+    public static CommandFrame openMultipleSequentialFrame(byte boardAddress, int... lockIds) {
+        if (lockIds == null || lockIds.length == 0) {
+            LockCtlLog.e(TAG, "门锁ID不能为空");
+            return null;
+        }
+        return lockListFrame(boardAddress, CMD_OPEN_MULTIPLE_SEQUENTIAL, lockIds);
+    }
+
+    /**
+     * 通道持续打开指令帧 (0x88)
+     * 通道在缓存范围外时按原样编码，不做范围校验
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 指令帧
+     */
+    public static CommandFrame channelKeepOpenFrame(byte boardAddress, int channelId) {
+        return channelFrame(boardAddress, CMD_CHANNEL_KEEP_OPEN, channelId);
+    }
+
+    /**
+     * 停止通道持续打开指令帧 (0x89)
+     * 通道在缓存范围外时按原样编码，不做范围校验
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 指令帧
+     */
+    public static CommandFrame closeChannelFrame(byte boardAddress, int channelId) {
+        return channelFrame(boardAddress, CMD_CLOSE_CHANNEL, channelId);
+    }
+
+    // ==================== 字节数组形式的指令构造 ====================
+    // 以下方法返回预编码帧的副本，调用方可自由修改
+
+    /**
+     * 1. 同时开多锁指令
+     *
+     * @param boardAddress 板地址
+     * @param lockIds      门锁ID数组
+     * @return 指令字节数组
+     */
+    public static byte[] buildOpenMultipleLocksCommand(byte boardAddress, int... lockIds) {
+        return toByteArray(openMultipleLocksFrame(boardAddress, lockIds));
+    }
+
+    /**
+     * 2. 通道闪烁指令
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 指令字节数组
+     */
+    public static byte[] buildFlashChannelCommand(byte boardAddress, int channelId) {
+        return toByteArray(flashChannelFrame(boardAddress, channelId));
+    }
+
+    /**
+     * 3. 开单个锁指令
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 指令字节数组
+     */
+    public static byte[] buildOpenSingleLockCommand(byte boardAddress, int channelId) {
+        return toByteArray(openSingleLockFrame(boardAddress, channelId));
+    }
+
+    /**
+     * 4. 查询单个门锁状态指令
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 指令字节数组
+     */
+    public static byte[] buildGetSingleLockStatusCommand(byte boardAddress, int channelId) {
+        return toByteArray(getSingleLockStatusFrame(boardAddress, channelId));
+    }
+
+    /**
+     * 5. 查询所有门锁状态指令
+     *
+     * @param boardAddress 板地址
+     * @return 指令字节数组
+     */
+    public static byte[] buildGetAllLocksStatusCommand(byte boardAddress) {
+        return toByteArray(getAllLocksStatusFrame(boardAddress));
+    }
+
+    /**
+     * 6. 开全部锁指令
+     *
+     * @param boardAddress 板地址
+     * @return 指令字节数组
+     */
+    public static byte[] buildOpenAllLocksCommand(byte boardAddress) {
+        return toByteArray(openAllLocksFrame(boardAddress));
+    }
+
+    /**
+     * 7. 逐一开多锁指令
+     *
+     * @param boardAddress 板地址
+     * @param lockIds      门锁ID数组
+     * @return 指令字节数组
+     */
+    public static byte[] buildOpenMultipleSequentialCommand(byte boardAddress, int... lockIds) {
+        return toByteArray(openMultipleSequentialFrame(boardAddress, lockIds));
+    }
+
+    /**
+     * 8. 通道持续打开指令 (0x88)
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 指令字节数组
+     */
+    public static byte[] buildChannelKeepOpenCommand(byte boardAddress, int channelId) {
+        return toByteArray(channelKeepOpenFrame(boardAddress, channelId));
+    }
+
+    /**
+     * 9. 停止通道持续打开指令 (0x89)
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道ID
+     * @return 指令字节数组
+     */
+    public static byte[] buildCloseChannelCommand(byte boardAddress, int channelId) {
+        return toByteArray(closeChannelFrame(boardAddress, channelId));
+    }
+
+    // ==================== JSON响应解析方法 ====================
+
+    /**
+     * 解析响应为JSON格式（统一入口）
+     *
+     * @param response 响应数据
+     * @return JSON格式的字符串
+     */
+    public static String parseResponseToJson(byte[] response) {
+        ResponseFrame frame = ResponseFrame.decode(response);
+        if (frame == null) {
+            return ResponseJsonWriter.baseResponse("error", -1, "响应数据格式错误");
+        }
+        return parseResponseToJson(frame);
+    }
+
+    /**
+     * 将已解码的响应帧解析为JSON格式
+     * 帧在接收管道中已完成验证，这里不再重复校验
+     *
+     * @param frame 已解码的响应帧
+     * @return JSON格式的解析结果
+     */
+    public static String parseResponseToJson(ResponseFrame frame) {
+        try {
+            byte command = (byte) frame.getCommandByte();
+
+            switch (command) {
+                case CMD_OPEN_MULTIPLE_LOCKS:
+                    return parseOpenMultipleLocksJsonResponse(frame);
+                case CMD_FLASH_CHANNEL:
+                    return parseFlashChannelJsonResponse(frame);
+                case CMD_OPEN_SINGLE_LOCK:
+                    return parseOpenSingleLockJsonResponse(frame);
+                case CMD_GET_SINGLE_STATUS:
+                    return parseGetSingleLockStatusJsonResponse(frame);
+                case CMD_GET_ALL_STATUS:
+                    return parseGetAllLocksStatusJsonResponse(frame);
+                case CMD_STATUS_UPLOAD:
+                    return parseStatusUploadJsonResponse(frame);
+                case CMD_OPEN_ALL_LOCKS:
+                    return parseOpenAllLocksJsonResponse(frame);
+                case CMD_OPEN_MULTIPLE_SEQUENTIAL:
+                    return parseOpenMultipleSequentialJsonResponse(frame);
+                case CMD_CHANNEL_KEEP_OPEN:
+                    return parseChannelKeepOpenJsonResponse(frame);
+                case CMD_CLOSE_CHANNEL:
+                    return parseCloseChannelJsonResponse(frame);
+                default:
+                    return ResponseJsonWriter.baseResponse("unknown_command", -1, "未知指令字: 0x" +
+                            Hex.toHex(command));
+            }
+        } catch (Exception e) {
+            LockCtlLog.e(TAG, "JSON解析响应失败", e);
+            return ResponseJsonWriter.baseResponse("parse_error", -1, "解析失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 验证响应数据的完整性
+     *
+     * @param response 响应数据
+     * @return 验证是否通过
+     */
+    public static boolean validateResponse(byte[] response) {
+        if (response == null || response.length < 6) {
+            return false;
+        }
+
+        // 起始符、帧长度与校验字节均在原数组上比较，不拷贝
+        return ResponseFrame.hasValidHeader(response, 0, response.length)
+                && ResponseFrame.hasValidChecksum(response, 0, response.length);
+    }
+
+    /**
+     * 解析同时开多锁响应为JSON (0x80)
+     */
+    private static String parseOpenMultipleLocksJsonResponse(ResponseFrame frame) {
+        if (frame.getDataLength() < 1) {
+            return ResponseJsonWriter.baseResponse("error", -1, "响应数据长度不足");
+        }
+        return ResponseJsonWriter.operationResponse("open_multiple_locks", frame.getStatus(), "同时开多锁操作");
+    }
+
+    /**
+     * 解析通道闪烁响应为JSON (0x81)
+     */
+    private static String parseFlashChannelJsonResponse(ResponseFrame frame) {
+        if (frame.getDataLength() < 2) {
+            return ResponseJsonWriter.baseResponse("error", -1, "响应数据长度不足");
+        }
+        return ResponseJsonWriter.channelResponse("flash_channel", frame.getStatus(), frame.getChannelId(), "闪烁操作");
+    }
+
+    /**
+     * 解析开单锁响应为JSON (0x82)
+     */
+    private static String parseOpenSingleLockJsonResponse(ResponseFrame frame) {
+        if (frame.getDataLength() < 3) {
+            return ResponseJsonWriter.baseResponse("error", -1, "响应数据长度不足");
+        }
+        return ResponseJsonWriter.lockStatusResponse("open_single_lock", frame.getStatus(),
+                frame.getChannelId(), frame.getLockStatus(), "", "开锁");
+    }
+
+    /**
+     * 解析查询单个门锁状态响应为JSON (0x83)
+     */
+    private static String parseGetSingleLockStatusJsonResponse(ResponseFrame frame) {
+        if (frame.getDataLength() < 3) {
+            return ResponseJsonWriter.baseResponse("error", -1, "响应数据长度不足");
+        }
+        return ResponseJsonWriter.lockStatusResponse("get_single_lock_status", frame.getStatus(),
+                frame.getChannelId(), frame.getLockStatus(), "查询", "状态");
+    }
+
+    /**
+     * 解析查询所有门锁状态响应为JSON (0x84)
+     */
+    private static String parseGetAllLocksStatusJsonResponse(ResponseFrame frame) {
+        if (frame.getDataLength() < 2) {
+            return ResponseJsonWriter.baseResponse("error", -1, "响应数据长度不足");
+        }
+        byte channelCount = (byte) frame.getDataByte(1);
+
+        // 解析每个通道的状态（通道数按有符号字节比较，与原实现保持一致）
+        int count = Math.max(0, Math.min(channelCount, frame.getDataLength() - 1));
+
+        // 直接从帧所在的底层数组读取各通道状态，不拷贝
+        return ResponseJsonWriter.allLocksStatusResponse(frame.getStatus(), channelCount & 0xFF,
+                frame.getBuffer(), frame.getDataOffset() + 2, count);
+    }
+
+    /**
+     * 解析状态上传响应为JSON (0x85)
+     */
+    private static String parseStatusUploadJsonResponse(ResponseFrame frame) {
+        if (frame.getDataLength() < 2) {
+            return ResponseJsonWriter.baseResponse("error", -1, "响应数据长度不足");
+        }
+        return ResponseJsonWriter.statusUploadResponse(frame.getChannelId(), frame.getLockStatus());
+    }
+
+    /**
+     * 解析开全部锁响应为JSON (0x86)
+     */
+    private static String parseOpenAllLocksJsonResponse(ResponseFrame frame) {
+        if (frame.getDataLength() < 1) {
+            return ResponseJsonWriter.baseResponse("error", -1, "响应数据长度不足");
+        }
+        return ResponseJsonWriter.operationResponse("open_all_locks", frame.getStatus(), "开全部锁操作");
+    }
+
+    /**
+     * 解析逐一开多锁响应为JSON (0x87)
+     */
+    private static String parseOpenMultipleSequentialJsonResponse(ResponseFrame frame) {
+        if (frame.getDataLength() < 1) {
+            return ResponseJsonWriter.baseResponse("error", -1, "响应数据长度不足");
+        }
+        return ResponseJsonWriter.operationResponse("open_multiple_sequential", frame.getStatus(), "逐一开多锁操作");
+    }
+
+    /**
+     * 解析通道持续打开响应为JSON (0x88)
+     */
+    private static String parseChannelKeepOpenJsonResponse(ResponseFrame frame) {
+        if (frame.getDataLength() < 2) {
+            return ResponseJsonWriter.baseResponse("error", -1, "响应数据长度不足");
+        }
+        return ResponseJsonWriter.channelResponse("channel_keep_open", frame.getStatus(), frame.getChannelId(), "持续打开操作");
+    }
+
+    /**
+     * 解析通道关闭响应为JSON (0x89)
+     */
+    private static String parseCloseChannelJsonResponse(ResponseFrame frame) {
+        if (frame.getDataLength() < 2) {
+            return ResponseJsonWriter.baseResponse("error", -1, "响应数据长度不足");
+        }
+        return ResponseJsonWriter.channelResponse("close_channel", frame.getStatus(), frame.getChannelId(), "关闭操作");
+    }
+
+    /**
+     * 计算校验字节 (XOR校验)
+     *
+     * @param data   数据
+     * @param offset 起始位置
+     * @param length 结束位置(不包含)
+     * @return 校验字节
+     */
+    private static byte calculateChecksum(byte[] data, int offset, int length) {
+        byte checksum = 0;
+        for (int i = offset; i < length; i++) {
+            checksum ^= data[i];
+        }
+        return checksum;
+    }
+
+    /**
+     * 字节数组转十六进制字符串 (用于日志输出)
+     *
+     * @param bytes 字节数组
+     * @return 十六进制字符串
+     */
+    public static String bytesToHex(byte[] bytes) {
+        return Hex.toHex(bytes);
+    }
+}
\ No newline at end of file
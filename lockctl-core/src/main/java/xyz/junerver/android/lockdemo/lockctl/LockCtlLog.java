@@ -0,0 +1,192 @@
+package xyz.junerver.android.lockdemo.lockctl;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * 锁控模块的日志门面
+ * 核心模块不依赖 Android 运行时，日志统一经由此类输出到可替换的 {@link Sink}：
+ * <p>
+ * 1. 在 Android 上由应用安装转发到 android.util.Log 的输出端
+ * 2. 在普通 JVM（网关、测试、基准）上可安装 {@link #CONSOLE}，或保持默认的 {@link #NONE} 不输出
+ * <p>
+ * 级别常量与 android.util.Log 的优先级一致；低于当前级别的日志在门面内直接丢弃，不会调用输出端。
+ * 热路径上应使用带格式参数的重载，级别不够时不做任何格式化；
+ * 参数本身需要计算（如十六进制转换）时，先用 {@link #isLoggable(int)} 判断：
+ * <pre>
+ * LockCtlLog.d(TAG, "指令入队: %s, 队列大小: %d", description, size);
+ * if (LockCtlLog.isLoggable(LockCtlLog.DEBUG)) {
+ *     LockCtlLog.d(TAG, "发送: " + Hex.toHex(frame));
+ * }
+ * </pre>
+ */
+public final class LockCtlLog {
+
+    public static final int VERBOSE = 2;
+    public static final int DEBUG = 3;
+    public static final int INFO = 4;
+    public static final int WARN = 5;
+    public static final int ERROR = 6;
+    /**
+     * 关闭全部日志
+     */
+    public static final int OFF = Integer.MAX_VALUE;
+
+    /**
+     * 日志输出端
+     */
+    public interface Sink {
+        /**
+         * 输出一条日志，只会收到不低于当前级别的日志
+         *
+         * @param level   级别
+         * @param tag     标签
+         * @param message 内容
+         * @param tr      异常，可为null
+         */
+        void log(int level, String tag, String message, Throwable tr);
+    }
+
+    /**
+     * 不输出任何内容
+     */
+    public static final Sink NONE = (level, tag, message, tr) -> {
+    };
+
+    /**
+     * 输出到标准输出，警告及以上输出到标准错误
+     */
+    public static final Sink CONSOLE = (level, tag, message, tr) -> {
+        PrintStream out = level >= WARN ? System.err : System.out;
+        out.println(levelChar(level) + "/" + tag + ": " + message);
+        if (tr != null) {
+            tr.printStackTrace(out);
+        }
+    };
+
+    private static volatile Sink sink = NONE;
+    private static volatile int level = DEBUG;
+
+    private LockCtlLog() {
+    }
+
+    /**
+     * 设置日志输出端
+     *
+     * @param newSink 输出端，null 等同于 {@link #NONE}
+     */
+    public static void setSink(Sink newSink) {
+        sink = newSink != null ? newSink : NONE;
+    }
+
+    public static Sink getSink() {
+        return sink;
+    }
+
+    /**
+     * 设置最低输出级别
+     *
+     * @param newLevel {@link #VERBOSE} ~ {@link #ERROR}，或 {@link #OFF}
+     */
+    public static void setLevel(int newLevel) {
+        level = newLevel;
+    }
+
+    public static int getLevel() {
+        return level;
+    }
+
+    /**
+     * 该级别的日志是否会输出
+     *
+     * @param logLevel 级别
+     * @return 不低于当前级别且已安装输出端时返回true
+     */
+    public static boolean isLoggable(int logLevel) {
+        return logLevel >= level && sink != NONE;
+    }
+
+    public static void v(String tag, String message) {
+        log(VERBOSE, tag, message, null);
+    }
+
+    public static void d(String tag, String message) {
+        log(DEBUG, tag, message, null);
+    }
+
+    public static void i(String tag, String message) {
+        log(INFO, tag, message, null);
+    }
+
+    public static void w(String tag, String message) {
+        log(WARN, tag, message, null);
+    }
+
+    public static void w(String tag, String message, Throwable tr) {
+        log(WARN, tag, message, tr);
+    }
+
+    public static void e(String tag, String message) {
+        log(ERROR, tag, message, null);
+    }
+
+    public static void e(String tag, String message, Throwable tr) {
+        log(ERROR, tag, message, tr);
+    }
+
+    public static void v(String tag, String format, Object... args) {
+        logFormat(VERBOSE, tag, format, args);
+    }
+
+    public static void d(String tag, String format, Object... args) {
+        logFormat(DEBUG, tag, format, args);
+    }
+
+    public static void i(String tag, String format, Object... args) {
+        logFormat(INFO, tag, format, args);
+    }
+
+    public static void w(String tag, String format, Object... args) {
+        logFormat(WARN, tag, format, args);
+    }
+
+    public static void e(String tag, String format, Object... args) {
+        logFormat(ERROR, tag, format, args);
+    }
+
+    /**
+     * 先判断级别，需要输出时才格式化
+     */
+    private static void logFormat(int logLevel, String tag, String format, Object... args) {
+        if (!isLoggable(logLevel)) {
+            return;
+        }
+        log(logLevel, tag, String.format(Locale.ROOT, format, args), null);
+    }
+
+    private static void log(int logLevel, String tag, String message, Throwable tr) {
+        if (logLevel < level) {
+            return;
+        }
+        try {
+            sink.log(logLevel, tag, message, tr);
+        } catch (RuntimeException ignored) {
+            // 输出端的异常不影响调用方
+        }
+    }
+
+    private static char levelChar(int logLevel) {
+        switch (logLevel) {
+            case VERBOSE:
+                return 'V';
+            case DEBUG:
+                return 'D';
+            case INFO:
+                return 'I';
+            case WARN:
+                return 'W';
+            default:
+                return 'E';
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package xyz.junerver.android.lockdemo.lockctl;
+
+/**
+ * 锁状态影子
+ * 在接收路径上由 0x82/0x83/0x84 响应与 0x85 上传更新，记住各板各通道最近一次上报的锁状态与时间，
+ * 读取时由调用方给出可接受的最大陈旧时间，只有影子中没有足够新的状态时才需要向锁控板查询
+ * <p>
+ * 每块板的状态为两个位图（已知 / 关闭）加各通道的更新时间，按板加锁，读写不分配对象。
+ * 开锁类指令（0x80/0x86/0x87）的响应不含锁状态，收到时作废对应板的影子，0x88/0x89 作废对应通道。
+ * 时间取自 System.nanoTime()，不受系统时间调整影响
+ */
+public class LockStateShadow {
+
+    // 锁状态
+    public static final int STATUS_OPEN = 0x00;
+    public static final int STATUS_CLOSED = 0x01;
+
+    private static final int CMD_OPEN_MULTIPLE_LOCKS = 0x80;
+    private static final int CMD_OPEN_SINGLE_LOCK = 0x82;
+    private static final int CMD_GET_SINGLE_STATUS = 0x83;
+    private static final int CMD_GET_ALL_STATUS = 0x84;
+    private static final int CMD_STATUS_UPLOAD = 0x85;
+    private static final int CMD_OPEN_ALL_LOCKS = 0x86;
+    private static final int CMD_OPEN_MULTIPLE_SEQUENTIAL = 0x87;
+    private static final int CMD_CHANNEL_KEEP_OPEN = 0x88;
+    private static final int CMD_CLOSE_CHANNEL = 0x89;
+
+    private final BoardState[] boards = new BoardState[BoardRegistry.MAX_BOARD_ADDRESS + 1];
+
+    public LockStateShadow() {
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = new BoardState();
+        }
+    }
+
+    /**
+     * 单块板的影子状态
+     * 第 n 个通道对应位图的第 n 位（通道从1开始）
+     */
+    private static final class BoardState {
+        int knownBits;
+        int closedBits;
+        final long[] updatedAtMs = new long[BoardRegistry.MAX_CHANNEL_COUNT + 1];
+
+        synchronized void set(int channelId, int lockStatus, long now) {
+            int bit = 1 << channelId;
+            knownBits |= bit;
+            if (lockStatus == STATUS_CLOSED) {
+                closedBits |= bit;
+            } else {
+                closedBits &= ~bit;
+            }
+            updatedAtMs[channelId] = now;
+        }
+
+        synchronized void setIfNewer(int channelId, int lockStatus, long updatedAt) {
+            if ((knownBits & (1 << channelId)) == 0 || updatedAtMs[channelId] <= updatedAt) {
+                set(channelId, lockStatus, updatedAt);
+            }
+        }
+
+        synchronized void invalidate(int channelId) {
+            knownBits &= ~(1 << channelId);
+        }
+
+        synchronized void invalidateAll() {
+            knownBits = 0;
+        }
+
+        synchronized int get(int channelId, long now, long maxStalenessMs) {
+            int bit = 1 << channelId;
+            if ((knownBits & bit) == 0 || now - updatedAtMs[channelId] > maxStalenessMs) {
+                return ResponseFrame.NONE;
+            }
+            return (closedBits & bit) != 0 ? STATUS_CLOSED : STATUS_OPEN;
+        }
+
+        synchronized boolean getAll(int[] out, long now, long maxStalenessMs) {
+            for (int channelId = 1; channelId <= out.length; channelId++) {
+                int bit = 1 << channelId;
+                if ((knownBits & bit) == 0 || now - updatedAtMs[channelId] > maxStalenessMs) {
+                    return false;
+                }
+                out[channelId - 1] = (closedBits & bit) != 0 ? STATUS_CLOSED : STATUS_OPEN;
+            }
+            return true;
+        }
+
+        synchronized long age(int channelId, long now) {
+            return (knownBits & (1 << channelId)) != 0 ? now - updatedAtMs[channelId] : -1;
+        }
+    }
+
+    /**
+     * 按响应帧更新影子（在接收路径上调用）
+     *
+     * @param frame 已解码的响应帧
+     */
+    public void update(ResponseFrame frame) {
+        int boardAddress = frame.getBoardAddress();
+        if (!isValidBoard(boardAddress)) {
+            return;
+        }
+        BoardState board = boards[boardAddress];
+        long now = now();
+        switch (frame.getCommandByte()) {
+            case CMD_OPEN_SINGLE_LOCK:
+            case CMD_GET_SINGLE_STATUS:
+                if (frame.isSuccess()) {
+                    setIfValid(board, frame.getChannelId(), frame.getLockStatus(), now);
+                }
+                break;
+
+            case CMD_STATUS_UPLOAD:
+                // 0x85 不含状态字节
+                setIfValid(board, frame.getChannelId(), frame.getLockStatus(), now);
+                break;
+
+            case CMD_GET_ALL_STATUS:
+                if (frame.isSuccess()) {
+                    int channelCount = Math.min(frame.getChannelCount(), BoardRegistry.MAX_CHANNEL_COUNT);
+                    for (int channelId = 1; channelId <= channelCount; channelId++) {
+                        setIfValid(board, channelId, frame.getChannelLockStatus(channelId), now);
+                    }
+                }
+                break;
+
+            case CMD_OPEN_MULTIPLE_LOCKS:
+            case CMD_OPEN_ALL_LOCKS:
+            case CMD_OPEN_MULTIPLE_SEQUENTIAL:
+                // 响应不含各通道的锁状态，已知状态不再可信
+                board.invalidateAll();
+                break;
+
+            case CMD_CHANNEL_KEEP_OPEN:
+            case CMD_CLOSE_CHANNEL:
+                if (isValidChannel(frame.getChannelId())) {
+                    board.invalidate(frame.getChannelId());
+                } else {
+                    board.invalidateAll();
+                }
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    private static void setIfValid(BoardState board, int channelId, int lockStatus, long now) {
+        if (isValidChannel(channelId) && (lockStatus == STATUS_OPEN || lockStatus == STATUS_CLOSED)) {
+            board.set(channelId, lockStatus, now);
+        }
+    }
+
+    /**
+     * 恢复一条历史状态（如回放门状态日志）
+     * 按事件时间换算更新时间，已有更新的状态不被覆盖
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道号
+     * @param lockStatus   锁状态
+     * @param timestampMs  事件时间（System.currentTimeMillis）
+     */
+    public void restore(int boardAddress, int channelId, int lockStatus, long timestampMs) {
+        if (!isValidBoard(boardAddress) || !isValidChannel(channelId)
+                || (lockStatus != STATUS_OPEN && lockStatus != STATUS_CLOSED)) {
+            return;
+        }
+        long ageMs = Math.max(0, System.currentTimeMillis() - timestampMs);
+        boards[boardAddress].setIfNewer(channelId, lockStatus, now() - ageMs);
+    }
+
+    /**
+     * 读取通道的锁状态
+     *
+     * @param boardAddress   板地址
+     * @param channelId      通道号，从1开始
+     * @param maxStalenessMs 可接受的最大陈旧时间（毫秒）
+     * @return 锁状态（0x00 打开，0x01 关闭），未知或已过期返回 ResponseFrame.NONE
+     */
+    public int getLockStatus(int boardAddress, int channelId, long maxStalenessMs) {
+        if (!isValidBoard(boardAddress) || !isValidChannel(channelId)) {
+            return ResponseFrame.NONE;
+        }
+        return boards[boardAddress].get(channelId, now(), maxStalenessMs);
+    }
+
+    /**
+     * 读取一块板上通道 1..channelCount 的锁状态
+     *
+     * @param boardAddress   板地址
+     * @param channelCount   通道数
+     * @param maxStalenessMs 可接受的最大陈旧时间（毫秒）
+     * @return 各通道锁状态，任一通道未知或已过期返回null
+     */
+    public int[] getAllLockStatus(int boardAddress, int channelCount, long maxStalenessMs) {
+        if (!isValidBoard(boardAddress) || channelCount < 1 || channelCount > BoardRegistry.MAX_CHANNEL_COUNT) {
+            return null;
+        }
+        int[] states = new int[channelCount];
+        return boards[boardAddress].getAll(states, now(), maxStalenessMs) ? states : null;
+    }
+
+    /**
+     * 获取通道状态距上次更新的时间
+     *
+     * @param boardAddress 板地址
+     * @param channelId    通道号
+     * @return 距上次更新的毫秒数，未知（或已作废）返回 -1
+     */
+    public long getAgeMs(int boardAddress, int channelId) {
+        if (!isValidBoard(boardAddress) || !isValidChannel(channelId)) {
+            return -1;
+        }
+        return boards[boardAddress].age(channelId, now());
+    }
+
+    /**
+     * 作废一块板的影子
+     *
+     * @param boardAddress 板地址
+     */
+    public void invalidate(int boardAddress) {
+        if (isValidBoard(boardAddress)) {
+            boards[boardAddress].invalidateAll();
+        }
+    }
+
+    /**
+     * 作废全部影子（如串口关闭或重连后）
+     */
+    public void clear() {
+        for (BoardState board : boards) {
+            board.invalidateAll();
+        }
+    }
+
+    private static boolean isValidBoard(int boardAddress) {
+        return boardAddress >= 0 && boardAddress <= BoardRegistry.MAX_BOARD_ADDRESS;
+    }
+
+    private static boolean isValidChannel(int channelId) {
+        return channelId >= 1 && channelId <= BoardRegistry.MAX_CHANNEL_COUNT;
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1_000_000L;
+    }
+}
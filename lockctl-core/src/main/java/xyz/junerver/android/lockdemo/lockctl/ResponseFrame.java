@@ -0,0 +1,374 @@
+package xyz.junerver.android.lockdemo.lockctl;
+
+import java.util.Arrays;
+
+/**
+ * 已解码的响应帧
+ * 由接收管道在帧边界确定后解码一次，之后以类型化对象的形式流经防抖管理器与应用层监听器，
+ * 各层直接读取已解析好的字段，不再重复查找帧头、校验和解析
+ *
+ * 响应帧是 (byte[], offset, length) 切片上的只读视图，解码时不拷贝数据：
+ * 起始符、帧长度与校验字节只验证一次，指令字、板地址、状态、通道与锁状态在构造时按指令布局表预先取出
+ *
+ * 注意：视图与底层数组共享数据，持有期间调用方不得修改底层数组
+ */
+public final class ResponseFrame {
+
+    // 协议常量
+    private static final byte[] START_BYTES = {0x57, 0x4B, 0x4C, 0x59}; // 起始符: "W K L Y"
+    private static final int MIN_FRAME_LENGTH = 8;
+
+    // 字段偏移（相对帧起始）
+    private static final int OFFSET_LENGTH = 4;
+    private static final int OFFSET_BOARD_ADDRESS = 5;
+    private static final int OFFSET_COMMAND = 6;
+    private static final int OFFSET_DATA = 7;
+
+    // 状态字节
+    public static final int STATUS_SUCCESS = 0x00;
+    public static final int STATUS_FAILED = 0xFF;
+
+    // 不存在的字段
+    public static final int NONE = -1;
+
+    // 指令布局表：各字段在数据域内的下标，按指令字索引，-1 表示不含该字段
+    private static final byte[] STATUS_INDEX = new byte[256];
+    private static final byte[] CHANNEL_INDEX = new byte[256];
+    private static final byte[] LOCK_INDEX = new byte[256];
+
+    static {
+        // 默认：数据域第1字节为状态，不含通道与锁状态
+        Arrays.fill(CHANNEL_INDEX, (byte) -1);
+        Arrays.fill(LOCK_INDEX, (byte) -1);
+
+        // 通道闪烁 / 通道持续打开 / 通道关闭：状态 + 通道
+        layout(0x81, 0, 1, -1);
+        layout(0x88, 0, 1, -1);
+        layout(0x89, 0, 1, -1);
+        // 开单个锁 / 查询单个门状态：状态 + 通道 + 锁状态
+        layout(0x82, 0, 1, 2);
+        layout(0x83, 0, 1, 2);
+        // 主动上传门状态变化：通道 + 锁状态（无状态字节）
+        layout(0x85, -1, 0, 1);
+        // 0x80/0x84/0x86/0x87 及未知指令使用默认布局
+    }
+
+    private static void layout(int command, int status, int channel, int lock) {
+        STATUS_INDEX[command] = (byte) status;
+        CHANNEL_INDEX[command] = (byte) channel;
+        LOCK_INDEX[command] = (byte) lock;
+    }
+
+    private final byte[] buffer;
+    private final int offset;
+    private final int length;
+    private final int boardAddress;
+    private final int commandByte;
+    private final int status;
+    private final int channelId;
+    private final int lockStatus;
+
+    // 切片视图按需拷贝出的独立帧数据
+    private byte[] rawData;
+
+    private ResponseFrame(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        this.boardAddress = buffer[offset + OFFSET_BOARD_ADDRESS] & 0xFF;
+        this.commandByte = buffer[offset + OFFSET_COMMAND] & 0xFF;
+        this.status = getDataByte(STATUS_INDEX[commandByte]);
+        this.channelId = getDataByte(CHANNEL_INDEX[commandByte]);
+        this.lockStatus = getDataByte(LOCK_INDEX[commandByte]);
+        if (offset == 0 && length == buffer.length) {
+            this.rawData = buffer;
+        }
+    }
+
+    /**
+     * 解码一帧完整的响应数据
+     * 验证起始符、帧长度与校验字节，验证通过后解析各字段
+     *
+     * @param frame 完整帧数据（解码后由 ResponseFrame 持有，调用方不应再修改）
+     * @return 解码后的响应帧，验证失败返回null
+     */
+    public static ResponseFrame decode(byte[] frame) {
+        if (frame == null) {
+            return null;
+        }
+        return wrap(frame, 0, frame.length);
+    }
+
+    /**
+     * 在字节数组的切片上创建响应帧视图（不拷贝）
+     * 验证起始符、帧长度与校验字节，验证通过后解析各字段
+     *
+     * @param buffer 底层数组
+     * @param offset 帧起始下标
+     * @param length 帧长度
+     * @return 响应帧视图，验证失败返回null
+     */
+    public static ResponseFrame wrap(byte[] buffer, int offset, int length) {
+        if (!isValidFrame(buffer, offset, length)) {
+            return null;
+        }
+        return new ResponseFrame(buffer, offset, length);
+    }
+
+    /**
+     * 由查询所有门状态 (0x84) 的响应派生单个通道的查询响应 (0x83)
+     * 用于把改写后的全部门状态查询结果按通道分发给原先的单通道查询
+     *
+     * @param allStatus 0x84 响应帧
+     * @param channelNo 通道号，从1开始
+     * @return 派生的 0x83 响应帧，非 0x84 帧或响应中不含该通道返回null
+     */
+    public static ResponseFrame deriveSingleLockStatus(ResponseFrame allStatus, int channelNo) {
+        if (allStatus == null) {
+            return null;
+        }
+        int lockStatus = allStatus.getChannelLockStatus(channelNo);
+        if (lockStatus == NONE) {
+            return null;
+        }
+
+        byte[] frame = new byte[MIN_FRAME_LENGTH + 3];
+        System.arraycopy(START_BYTES, 0, frame, 0, START_BYTES.length);
+        frame[OFFSET_LENGTH] = (byte) frame.length;
+        frame[OFFSET_BOARD_ADDRESS] = (byte) allStatus.boardAddress;
+        frame[OFFSET_COMMAND] = (byte) 0x83;
+        frame[OFFSET_DATA] = (byte) allStatus.status;
+        frame[OFFSET_DATA + 1] = (byte) channelNo;
+        frame[OFFSET_DATA + 2] = (byte) lockStatus;
+        byte checksum = 0;
+        for (int i = 0; i < frame.length - 1; i++) {
+            checksum ^= frame[i];
+        }
+        frame[frame.length - 1] = checksum;
+        return new ResponseFrame(frame, 0, frame.length);
+    }
+
+    /**
+     * 验证帧的起始符、帧长度与校验字节
+     *
+     * @param frame 帧数据
+     * @return 是否有效
+     */
+    public static boolean isValidFrame(byte[] frame) {
+        return frame != null && isValidFrame(frame, 0, frame.length);
+    }
+
+    /**
+     * 验证切片上的帧的起始符、帧长度与校验字节
+     *
+     * @param buffer 底层数组
+     * @param offset 帧起始下标
+     * @param length 帧长度
+     * @return 是否有效
+     */
+    public static boolean isValidFrame(byte[] buffer, int offset, int length) {
+        return length >= MIN_FRAME_LENGTH
+                && hasValidHeader(buffer, offset, length)
+                && hasValidChecksum(buffer, offset, length);
+    }
+
+    /**
+     * 验证切片的起始符与帧长度字段（不验证校验字节）
+     *
+     * @param buffer 底层数组
+     * @param offset 帧起始下标
+     * @param length 帧长度
+     * @return 是否有效
+     */
+    public static boolean hasValidHeader(byte[] buffer, int offset, int length) {
+        if (buffer == null || offset < 0 || length <= OFFSET_LENGTH || offset > buffer.length - length) {
+            return false;
+        }
+
+        for (int i = 0; i < START_BYTES.length; i++) {
+            if (buffer[offset + i] != START_BYTES[i]) {
+                return false;
+            }
+        }
+
+        return (buffer[offset + OFFSET_LENGTH] & 0xFF) == length;
+    }
+
+    /**
+     * 验证切片的校验字节（XOR校验，覆盖校验字节之前的全部字节）
+     *
+     * @param buffer 底层数组
+     * @param offset 帧起始下标
+     * @param length 帧长度
+     * @return 是否有效
+     */
+    public static boolean hasValidChecksum(byte[] buffer, int offset, int length) {
+        byte checksum = 0;
+        int last = offset + length - 1;
+        for (int i = offset; i < last; i++) {
+            checksum ^= buffer[i];
+        }
+        return checksum == buffer[last];
+    }
+
+    /**
+     * 获取原始帧数据
+     * 视图恰好覆盖整个底层数组时直接返回该数组（不拷贝），否则首次调用时拷贝一份
+     * 调用方不得修改返回的数组
+     *
+     * @return 原始帧数据
+     */
+    public byte[] getRawData() {
+        if (rawData == null) {
+            byte[] copy = new byte[length];
+            System.arraycopy(buffer, offset, copy, 0, length);
+            rawData = copy;
+        }
+        return rawData;
+    }
+
+    /**
+     * 获取底层数组（不拷贝，调用方不得修改）
+     * 帧数据位于 [getOffset(), getOffset() + getLength())
+     *
+     * @return 底层数组
+     */
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public int getBoardAddress() {
+        return boardAddress;
+    }
+
+    public int getCommandByte() {
+        return commandByte;
+    }
+
+    /**
+     * 获取执行状态
+     *
+     * @return 状态字节，0x85 等无状态字节的帧返回 NONE
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * 获取通道号
+     *
+     * @return 通道号，不含通道信息的帧返回 NONE
+     */
+    public int getChannelId() {
+        return channelId;
+    }
+
+    /**
+     * 获取锁状态
+     *
+     * @return 锁状态（0=打开，1=关闭，0xFF=错误），不含锁状态的帧返回 NONE
+     */
+    public int getLockStatus() {
+        return lockStatus;
+    }
+
+    public boolean isSuccess() {
+        return status == STATUS_SUCCESS;
+    }
+
+    /**
+     * 获取数据域字节
+     *
+     * @param index 数据域内的下标
+     * @return 无符号字节值，越界返回 NONE
+     */
+    public int getDataByte(int index) {
+        return index >= 0 && index < getDataLength() ? buffer[offset + OFFSET_DATA + index] & 0xFF : NONE;
+    }
+
+    /**
+     * 获取数据域长度（不含校验字节）
+     *
+     * @return 数据域长度
+     */
+    public int getDataLength() {
+        return length - OFFSET_DATA - 1;
+    }
+
+    /**
+     * 获取数据域第1字节在底层数组中的下标
+     *
+     * @return 数据域起始下标
+     */
+    public int getDataOffset() {
+        return offset + OFFSET_DATA;
+    }
+
+    /**
+     * 获取通道数量（仅 0x84 查询所有门状态响应）
+     *
+     * @return 通道数量，其它帧返回 NONE
+     */
+    public int getChannelCount() {
+        return commandByte == 0x84 ? getDataByte(1) : NONE;
+    }
+
+    /**
+     * 获取指定通道的锁状态（仅 0x84 查询所有门状态响应）
+     *
+     * @param channelNo 通道号，从1开始
+     * @return 锁状态，通道不存在或非 0x84 帧返回 NONE
+     */
+    public int getChannelLockStatus(int channelNo) {
+        int channelCount = getChannelCount();
+        if (channelNo < 1 || channelNo > channelCount) {
+            return NONE;
+        }
+        return getDataByte(1 + channelNo);
+    }
+
+    /**
+     * 判断是否为指定指令的响应
+     * 按 (板地址, 指令字, 通道) 关联：双方都带通道时要求通道一致，任一方不带通道时只比较板地址与指令字
+     *
+     * @param command 原始指令数据
+     * @return 是否匹配
+     */
+    public boolean matches(byte[] command) {
+        return command != null && command.length > OFFSET_COMMAND
+                && matches(command[OFFSET_BOARD_ADDRESS] & 0xFF, command[OFFSET_COMMAND] & 0xFF,
+                CommandFrame.channelIdOf(command));
+    }
+
+    /**
+     * 判断是否为指定指令帧的响应，关联规则同 matches(byte[])
+     *
+     * @param command 指令帧
+     * @return 是否匹配
+     */
+    public boolean matches(CommandFrame command) {
+        return command != null
+                && matches(command.getBoardAddress() & 0xFF, command.getCommandByte() & 0xFF, command.getChannelId());
+    }
+
+    private boolean matches(int commandAddress, int command, int commandChannel) {
+        if (commandAddress != boardAddress || command != commandByte) {
+            return false;
+        }
+        return commandChannel == NONE || channelId == NONE || commandChannel == channelId;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResponseFrame{cmd=0x%02X, addr=0x%02X, status=%d, channel=%d, lockStatus=%d, length=%d}",
+                commandByte, boardAddress, status, channelId, lockStatus, length);
+    }
+}
@@ -0,0 +1,231 @@
+package xyz.junerver.android.lockdemo.lockctl;
+
+/**
+ * 响应JSON流式编码器
+ * 将十种响应直接写入每线程复用的 StringBuilder，输出紧凑格式（无空白）的JSON，
+ * 字段顺序与转义规则与 Gson 序列化 LockCtlBoardResponseModels 的结果保持一致
+ *
+ * 相比 Gson：不反射、不创建响应模型对象、不使用 String.format 拼接消息
+ */
+final class ResponseJsonWriter {
+
+    // 超过该容量的缓冲区用完后丢弃，避免单次大响应长期占用内存
+    private static final int MAX_RETAINED_CAPACITY = 8 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(256);
+        }
+    };
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private ResponseJsonWriter() {
+    }
+
+    /**
+     * 基础响应：commandType + status + message
+     */
+    static String baseResponse(String commandType, int status, String message) {
+        StringBuilder sb = begin();
+        sb.append("{\"commandType\":");
+        writeString(sb, commandType);
+        sb.append(",\"status\":").append(status);
+        sb.append(",\"message\":");
+        writeString(sb, message);
+        sb.append('}');
+        return finish(sb);
+    }
+
+    /**
+     * 仅含操作结果的响应 (0x80, 0x86, 0x87)
+     * message = 操作名 + 成功/失败
+     */
+    static String operationResponse(String commandType, int status, String operation) {
+        StringBuilder sb = begin();
+        sb.append("{\"commandType\":\"").append(commandType);
+        sb.append("\",\"status\":").append(status);
+        sb.append(",\"message\":\"").append(operation).append(resultText(status));
+        sb.append("\"}");
+        return finish(sb);
+    }
+
+    /**
+     * 状态+通道响应 (0x81, 0x88, 0x89)
+     * message = 通道N + 操作名 + 成功/失败
+     */
+    static String channelResponse(String commandType, int status, int channelNo, String operation) {
+        StringBuilder sb = begin();
+        sb.append("{\"channelNo\":").append(channelNo);
+        sb.append(",\"commandType\":\"").append(commandType);
+        sb.append("\",\"status\":").append(status);
+        sb.append(",\"message\":\"通道").append(channelNo).append(operation).append(resultText(status));
+        sb.append("\"}");
+        return finish(sb);
+    }
+
+    /**
+     * 状态+通道+锁状态响应 (0x82, 0x83)
+     * message = 前缀 + 通道N + 操作名 + 成功/失败 + "，锁状态：" + 打开/关闭/错误
+     */
+    static String lockStatusResponse(String commandType, int status, int channelNo, int lockStatus,
+                                     String prefix, String operation) {
+        StringBuilder sb = begin();
+        sb.append("{\"channelStatus\":");
+        writeChannelStatus(sb, channelNo, lockStatus);
+        sb.append(",\"channelNo\":").append(channelNo);
+        sb.append(",\"commandType\":\"").append(commandType);
+        sb.append("\",\"status\":").append(status);
+        sb.append(",\"message\":\"").append(prefix).append("通道").append(channelNo)
+                .append(operation).append(resultText(status))
+                .append("，锁状态：").append(lockStateText(lockStatus));
+        sb.append("\"}");
+        return finish(sb);
+    }
+
+    /**
+     * 全部门锁状态响应 (0x84)
+     *
+     * @param data   各通道锁状态所在的数组
+     * @param offset 第1个通道锁状态的下标
+     * @param count  实际写出的通道数量
+     */
+    static String allLocksStatusResponse(int status, int channelCount, byte[] data, int offset, int count) {
+        StringBuilder sb = begin();
+        sb.append("{\"channelCount\":").append(channelCount);
+        sb.append(",\"channelStatus\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            writeChannelStatus(sb, i + 1, data[offset + i] & 0xFF);
+        }
+        sb.append("],\"commandType\":\"get_all_locks_status\"");
+        sb.append(",\"status\":").append(status);
+        sb.append(",\"message\":\"查询全部门锁状态\"}");
+        return finish(sb);
+    }
+
+    /**
+     * 状态上传响应 (0x85)
+     */
+    static String statusUploadResponse(int channelNo, int lockStatus) {
+        StringBuilder sb = begin();
+        sb.append("{\"commandType\":\"status_upload\"");
+        sb.append(",\"channelNo\":").append(channelNo);
+        sb.append(",\"channelStatus\":");
+        writeChannelStatus(sb, channelNo, lockStatus);
+        sb.append(",\"message\":\"通道").append(channelNo).append("状态变化：")
+                .append(channelStatusText(lockStatus));
+        sb.append("\"}");
+        return finish(sb);
+    }
+
+    private static void writeChannelStatus(StringBuilder sb, int channelNo, int lockStatus) {
+        sb.append("{\"channelNo\":").append(channelNo);
+        sb.append(",\"lockStatus\":").append(lockStatus);
+        sb.append(",\"isLocked\":").append(lockStatus == 0x01);
+        sb.append('}');
+    }
+
+    private static String resultText(int status) {
+        return status == 0x00 ? "成功" : "失败";
+    }
+
+    // 与 0x82/0x83 解析中的锁状态描述一致
+    private static String lockStateText(int lockStatus) {
+        return lockStatus == 0x00 ? "打开" : lockStatus == 0x01 ? "关闭" : "错误";
+    }
+
+    // 与 ChannelStatus.getLockStatusText() 一致
+    private static String channelStatusText(int lockStatus) {
+        switch (lockStatus) {
+            case 0x00:
+                return "打开";
+            case 0x01:
+                return "关闭";
+            case 0xFF:
+                return "失败";
+            default:
+                return "未知";
+        }
+    }
+
+    /**
+     * 写入JSON字符串，转义规则与 Gson 默认配置（含HTML安全转义）一致
+     */
+    private static void writeString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\b':
+                    sb.append("\\b");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\f':
+                    sb.append("\\f");
+                    break;
+                case '<':
+                case '>':
+                case '&':
+                case '=':
+                case '\'':
+                case '\u2028':
+                case '\u2029':
+                    writeUnicodeEscape(sb, c);
+                    break;
+                default:
+                    if (c < 0x20) {
+                        writeUnicodeEscape(sb, c);
+                    } else {
+                        sb.append(c);
+                    }
+                    break;
+            }
+        }
+        sb.append('"');
+    }
+
+    private static void writeUnicodeEscape(StringBuilder sb, char c) {
+        sb.append("\\u")
+                .append(HEX_DIGITS[(c >> 12) & 0xF])
+                .append(HEX_DIGITS[(c >> 8) & 0xF])
+                .append(HEX_DIGITS[(c >> 4) & 0xF])
+                .append(HEX_DIGITS[c & 0xF]);
+    }
+
+    private static StringBuilder begin() {
+        StringBuilder sb = BUFFER.get();
+        sb.setLength(0);
+        return sb;
+    }
+
+    private static String finish(StringBuilder sb) {
+        String json = sb.toString();
+        if (sb.capacity() > MAX_RETAINED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return json;
+    }
+}
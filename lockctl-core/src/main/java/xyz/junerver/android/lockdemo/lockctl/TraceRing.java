@@ -0,0 +1,219 @@
+package xyz.junerver.android.lockdemo.lockctl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 收发帧的二进制追踪环
+ * 固定数量的槽位在构造时一次分配，记录时只拷贝原始字节、写入时间戳，不格式化、不分配内存、不加锁；
+ * 写满后覆盖最旧的记录。只有调用 {@link #dump()} 时才转换为十六进制文本
+ * <p>
+ * 写入方通过原子序号认领槽位，再以 CAS 将槽位标记为写入中，写完后发布序号；
+ * 同一槽位上已有更新的记录或另一写入方尚未写完时（写入方被挂起、环被绕过一圈），放弃本条记录。
+ * 读取方复制槽位前后各检查一次序号（之后的检查带屏障），正在写入或已被覆盖的记录直接跳过
+ */
+public class TraceRing {
+
+    public static final int DIRECTION_TX = 0;
+    public static final int DIRECTION_RX = 1;
+
+    public static final int DEFAULT_CAPACITY = 256;
+    // 每条记录保留的最大字节数，超出部分截断（记录原始长度）
+    public static final int MAX_FRAME_BYTES = 48;
+
+    private static final long EMPTY = -2;
+    private static final long WRITING = -1;
+
+    private final int mask;
+    private final byte[] data;
+    private final long[] timestamps;
+    private final int[] directions;
+    private final int[] lengths;
+    private final AtomicLongArray sequences;
+    private final AtomicLong cursor = new AtomicLong();
+
+    public TraceRing() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity 槽位数，向上取整为 2 的幂
+     */
+    public TraceRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("容量必须大于0");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        mask = size - 1;
+        data = new byte[size * MAX_FRAME_BYTES];
+        timestamps = new long[size];
+        directions = new int[size];
+        lengths = new int[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, EMPTY);
+        }
+    }
+
+    /**
+     * 记录一帧
+     *
+     * @param direction {@link #DIRECTION_TX} 或 {@link #DIRECTION_RX}
+     * @param bytes     帧数据
+     * @param offset    起始下标
+     * @param length    字节数
+     */
+    public void record(int direction, byte[] bytes, int offset, int length) {
+        long sequence = cursor.getAndIncrement();
+        int slot = (int) (sequence & mask);
+        long previous = sequences.get(slot);
+        if (previous == WRITING || previous > sequence || !sequences.compareAndSet(slot, previous, WRITING)) {
+            return;
+        }
+        timestamps[slot] = System.nanoTime();
+        directions[slot] = direction;
+        lengths[slot] = length;
+        System.arraycopy(bytes, offset, data, slot * MAX_FRAME_BYTES, Math.min(length, MAX_FRAME_BYTES));
+        sequences.lazySet(slot, sequence);
+    }
+
+    public void record(int direction, byte[] bytes) {
+        record(direction, bytes, 0, bytes.length);
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return 累计记录的帧数（含已被覆盖或放弃的）
+     */
+    public long getRecordedCount() {
+        return cursor.get();
+    }
+
+    /**
+     * 复制当前保留的记录，按记录顺序从旧到新
+     *
+     * @return 记录列表
+     */
+    public List<Entry> snapshot() {
+        long end = cursor.get();
+        long start = Math.max(0, end - getCapacity());
+        List<Entry> entries = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            int slot = (int) (sequence & mask);
+            if (sequences.get(slot) != sequence) {
+                continue;
+            }
+            long timestamp = timestamps[slot];
+            int direction = directions[slot];
+            int length = lengths[slot];
+            byte[] bytes = new byte[Math.min(length, MAX_FRAME_BYTES)];
+            System.arraycopy(data, slot * MAX_FRAME_BYTES, bytes, 0, bytes.length);
+            if (!validate(slot, sequence)) {
+                continue;
+            }
+            entries.add(new Entry(sequence, timestamp, direction, length, bytes));
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * 复制槽位后再次检查序号
+     * 普通读可能被重排到随后的 volatile 读之后，因此用 CAS（写回原值）代替读取：
+     * 它兼具读屏障与写屏障，之前的数据读取不会越过这次检查。
+     * 效果等同于 VarHandle.loadFence() 加一次读取，但不依赖 Android API 33 才提供的 VarHandle
+     *
+     * @return 槽位仍是该序号的记录，复制的数据完整
+     */
+    private boolean validate(int slot, long sequence) {
+        return sequences.compareAndSet(slot, sequence, sequence);
+    }
+
+    /**
+     * 以十六进制文本输出当前保留的记录，每帧一行，时间为距最新一帧的毫秒数
+     *
+     * @return 文本
+     */
+    public String dump() {
+        List<Entry> entries = snapshot();
+        if (entries.isEmpty()) {
+            return "";
+        }
+        long newest = entries.get(entries.size() - 1).timestampNanos;
+        StringBuilder sb = new StringBuilder(entries.size() * (MAX_FRAME_BYTES * 3 + 24));
+        for (Entry entry : entries) {
+            entry.appendTo(sb, newest);
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 一条追踪记录
+     */
+    public static class Entry {
+        public final long sequence;
+        public final long timestampNanos;
+        public final int direction;
+        // 原始帧长度，可能大于 bytes.length
+        public final int length;
+        private final byte[] bytes;
+
+        Entry(long sequence, long timestampNanos, int direction, int length, byte[] bytes) {
+            this.sequence = sequence;
+            this.timestampNanos = timestampNanos;
+            this.direction = direction;
+            this.length = length;
+            this.bytes = bytes;
+        }
+
+        /**
+         * @return 记录的字节（超过 {@link #MAX_FRAME_BYTES} 的帧已截断）
+         */
+        public byte[] getBytes() {
+            return bytes.clone();
+        }
+
+        public boolean isTruncated() {
+            return length > bytes.length;
+        }
+
+        void appendTo(StringBuilder sb, long referenceNanos) {
+            long micros = (timestampNanos - referenceNanos) / 1000;
+            sb.append('#').append(sequence).append(' ');
+            if (micros < 0) {
+                sb.append('-');
+                micros = -micros;
+            }
+            sb.append(micros / 1000).append('.');
+            long fraction = micros % 1000;
+            if (fraction < 100) {
+                sb.append('0');
+            }
+            if (fraction < 10) {
+                sb.append('0');
+            }
+            sb.append(fraction).append("ms ");
+            sb.append(direction == DIRECTION_TX ? "TX " : "RX ");
+            Hex.appendHex(sb, bytes, 0, bytes.length);
+            if (isTruncated()) {
+                sb.append(" ... (").append(length).append(" bytes)");
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            appendTo(sb, timestampNanos);
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,1308 @@
+package xyz.junerver.android.lockdemo.lockctl.debounce;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import xyz.junerver.android.lockdemo.lockctl.CommandFrame;
+import xyz.junerver.android.lockdemo.lockctl.CommandResult;
+import xyz.junerver.android.lockdemo.lockctl.HashedWheelTimer;
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper;
+import xyz.junerver.android.lockdemo.lockctl.LockCtlLog;
+import xyz.junerver.android.lockdemo.lockctl.ResponseFrame;
+import xyz.junerver.android.lockdemo.lockctl.TraceRing;
+
+/**
+ * 指令防抖管理器
+ * 核心组件，负责管理指令队列、执行时序控制和超时处理
+ * 基于响应确认机制，确保指令按正确顺序执行
+ * <p>
+ * 默认同一时刻只有一条指令在途；可通过 setPipelineWindow 开启流水线模式，
+ * 允许多条响应可区分的指令（板地址、指令字、通道不同）同时在途，响应按 (板地址, 指令字, 通道) 关联
+ * <p>
+ * 状态查询可选两种优化（默认关闭）：
+ * 1. 查询合并：相同的查询 (0x83/0x84) 已在队列中或在途时，新请求挂到已有指令上，一次收发通知全部请求方
+ * 2. 查询改写：同一板地址排队的单通道查询 (0x83) 达到阈值时改写为一条查询所有门状态 (0x84)，
+ *    响应按通道派生为 0x83 响应分发给各个查询
+ * <p>
+ * 开锁可选合并（默认关闭）：同一板地址相邻排队的开单个锁 (0x82) 在合并窗口内合并为一条逐一开多锁 (0x87)，
+ * 0x87 完成时逐一通知各个开锁请求的监听器
+ * <p>
+ * 队列按优先级分类（用户开门 > 报警/继电器控制 > 状态轮询 > 灯光效果），按权重轮询出队：
+ * 开门不会被后台轮询拖慢，低优先级也按权重分得份额，不会饿死
+ * <p>
+ * 超时默认按 ResponseTimeModel 实测的各板、各指令响应延迟计算，快板用更紧的超时，慢板不再误报超时；
+ * 超时由 HashedWheelTimer 调度，指令完成时立即取消
+ * <p>
+ * 线程模型：提交指令、收到响应、超时、状态查询都作为事件交给 CommandEventLoop，
+ * 队列、在途指令与统计只在事件循环内读写，不加锁；循环空闲时提交线程就地入队并写出指令
+ * <p>
+ * 除监听器外也可通过 sendCommandAsync 获取 CompletableFuture，由匹配到的响应、超时或错误完成
+ */
+public class CommandDebounceManager {
+    private static final String TAG = "CommandDebounceManager";
+
+    private static final byte CMD_OPEN_SINGLE_LOCK = (byte) 0x82;
+    private static final byte CMD_SINGLE_LOCK_STATUS = (byte) 0x83;
+    private static final byte CMD_ALL_LOCKS_STATUS = (byte) 0x84;
+    private static final byte CMD_OPEN_MULTIPLE_SEQUENTIAL = (byte) 0x87;
+    private static final int MAX_MERGED_LOCKS = 24; // 一条 0x87 最多合并的开锁数
+
+    // 事件循环：指令提交、响应、超时均在此执行
+    private final CommandEventLoop eventLoop = new CommandEventLoop("CommandDebounce-Loop");
+
+    // 定时器：用于超时控制和开锁合并窗口，未指定时自建并在关闭时一同关闭
+    private final HashedWheelTimer timer;
+    private final boolean ownsTimer;
+
+    // 核心组件
+    private final CommandSender underlyingSender;
+    private final PriorityCommandQueue commandQueue = new PriorityCommandQueue();
+
+    // 当前执行状态（仅在事件循环内读写）
+    // currentExecutingCommand 为最早发出的在途指令，inFlightCommands 按发送顺序保存全部在途指令
+    private QueuedCommand currentExecutingCommand = null;
+    private final List<QueuedCommand> inFlightCommands = new ArrayList<>();
+    private volatile int pipelineWindow = 1;
+    // 按板地址分别计算流水线窗口
+    private volatile boolean perBoardPipeline = false;
+
+    // 查询合并与改写
+    private volatile boolean queryCoalescing = false;
+    private volatile int queryRewriteThreshold = 0;
+    // 开锁合并窗口（毫秒），0 为关闭
+    private volatile long openMergeWindowMs = 0;
+
+    // 实测超时
+    private final ResponseTimeModel responseTimeModel = new ResponseTimeModel();
+    private volatile boolean adaptiveTimeout = true;
+    private final AtomicBoolean isShutdown = new AtomicBoolean(false);
+
+    // 外部响应监听器（透明层支持）
+    private volatile OnResponseListener externalResponseListener = null;
+    // 接管前底层发送器上已有的响应监听器
+    private OnResponseListener originalResponseListener = null;
+
+    // 统计信息：计数器与各阶段延迟直方图，可在任意线程上无锁读取
+    private final CommandMetrics metrics = new CommandMetrics();
+    // 最近收发的原始帧，只在需要排查时输出
+    private final TraceRing traceRing = new TraceRing();
+
+    /**
+     * 构造函数
+     *
+     * @param underlyingSender 底层指令发送器
+     */
+    public CommandDebounceManager(CommandSender underlyingSender) {
+        this(underlyingSender, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param underlyingSender 底层指令发送器
+     * @param timer            共享定时器，为null时自建；共享定时器由调用方负责关闭
+     */
+    public CommandDebounceManager(CommandSender underlyingSender, HashedWheelTimer timer) {
+        if (underlyingSender == null) {
+            throw new IllegalArgumentException("底层发送器不能为null");
+        }
+
+        this.underlyingSender = underlyingSender;
+        this.ownsTimer = timer == null;
+        this.timer = timer != null ? timer : new HashedWheelTimer("CommandDebounce-Timeout");
+        setupResponseListener();
+
+        LockCtlLog.i(TAG, "指令防抖管理器已初始化");
+    }
+
+    /**
+     * 设置外部响应监听器
+     * 防抖管理器将作为透明层，在内部处理响应后转发给外部监听器
+     *
+     * @param externalResponseListener 外部响应监听器，可以为null
+     */
+    public void setOnResponseListener(OnResponseListener externalResponseListener) {
+        this.externalResponseListener = externalResponseListener;
+        LockCtlLog.i(TAG, "外部响应监听器" + (externalResponseListener != null ? "已设置" : "已清除"));
+    }
+
+    /**
+     * 设置流水线窗口（同时在途的最大指令数）
+     * 1 为默认的逐条执行；大于 1 时，响应可区分的指令（如不同板地址或不同通道的查询）可以不等待前一条响应直接发出，
+     * 关联键相同的指令仍按顺序逐条执行。需确认锁控板能在执行中接收新指令后再开启
+     *
+     * @param window 窗口大小，最小为 1
+     */
+    public void setPipelineWindow(int window) {
+        this.pipelineWindow = Math.max(1, window);
+        LockCtlLog.i(TAG, "流水线窗口: " + pipelineWindow);
+        post(this::dispatch);
+    }
+
+    public int getPipelineWindow() {
+        return pipelineWindow;
+    }
+
+    /**
+     * 设置是否按板地址分别计算流水线窗口
+     * 开启后，总线上的多块锁控板各自拥有一个窗口：某块板上耗时的指令（如逐一开多锁）在途时，
+     * 其它板的指令照常发出，不再排在其后；同一板地址、同一优先级的指令仍按入队顺序发出
+     *
+     * @param enabled 是否开启，默认关闭（所有板共用一个窗口）
+     */
+    public void setPerBoardPipeline(boolean enabled) {
+        this.perBoardPipeline = enabled;
+        LockCtlLog.i(TAG, "按板流水线" + (enabled ? "已开启" : "已关闭"));
+        post(this::dispatch);
+    }
+
+    public boolean isPerBoardPipeline() {
+        return perBoardPipeline;
+    }
+
+    /**
+     * 设置是否合并相同的状态查询
+     * 开启后，与队列中或在途的查询 (0x83/0x84) 完全相同的新查询不再单独发出，
+     * 而是在已有查询完成时一并通知
+     *
+     * @param enabled 是否开启
+     */
+    public void setQueryCoalescing(boolean enabled) {
+        this.queryCoalescing = enabled;
+        LockCtlLog.i(TAG, "查询合并" + (enabled ? "已开启" : "已关闭"));
+    }
+
+    public boolean isQueryCoalescing() {
+        return queryCoalescing;
+    }
+
+    /**
+     * 设置单通道查询改写阈值
+     * 同一板地址排队的单通道查询 (0x83) 达到阈值时，改写为一条查询所有门状态 (0x84)；
+     * 该 0x84 在队列中或在途期间，同一板地址的新单通道查询直接并入
+     *
+     * @param threshold 阈值，0 为关闭；小于 2 的正数按 2 处理
+     */
+    public void setQueryRewriteThreshold(int threshold) {
+        this.queryRewriteThreshold = threshold <= 0 ? 0 : Math.max(2, threshold);
+        LockCtlLog.i(TAG, "查询改写阈值: " + queryRewriteThreshold);
+    }
+
+    public int getQueryRewriteThreshold() {
+        return queryRewriteThreshold;
+    }
+
+    /**
+     * 设置开锁合并窗口
+     * 开启后，开单个锁 (0x82) 入队后在队列中等待至多一个窗口，期间同一板地址紧随其后的开锁请求
+     * 合并为一条逐一开多锁 (0x87)，省去逐条收发的帧开销与响应等待
+     *
+     * @param windowMs 窗口时长（毫秒），0 为关闭
+     */
+    public void setOpenMergeWindow(long windowMs) {
+        this.openMergeWindowMs = Math.max(0, windowMs);
+        LockCtlLog.i(TAG, "开锁合并窗口: " + openMergeWindowMs + "ms");
+    }
+
+    public long getOpenMergeWindow() {
+        return openMergeWindowMs;
+    }
+
+    /**
+     * 设置是否按实测响应延迟计算超时
+     * 关闭后使用 CommandExecutionStrategy 的静态超时
+     *
+     * @param enabled 是否开启，默认开启
+     */
+    public void setAdaptiveTimeout(boolean enabled) {
+        this.adaptiveTimeout = enabled;
+        LockCtlLog.i(TAG, "实测超时" + (enabled ? "已开启" : "已关闭"));
+    }
+
+    public boolean isAdaptiveTimeout() {
+        return adaptiveTimeout;
+    }
+
+    /**
+     * 获取响应时间模型（各板、各指令的实测延迟统计）
+     *
+     * @return 响应时间模型
+     */
+    public ResponseTimeModel getResponseTimeModel() {
+        return responseTimeModel;
+    }
+
+    /**
+     * 设置优先级权重
+     * 各优先级都有排队指令时，每轮该优先级可发出的指令数
+     *
+     * @param priority 优先级
+     * @param weight   权重，最小为 1
+     */
+    public void setPriorityWeight(CommandPriority priority, int weight) {
+        eventLoop.call(() -> {
+            commandQueue.setWeight(priority, weight);
+            return null;
+        });
+        LockCtlLog.i(TAG, "优先级权重: " + priority + "=" + Math.max(1, weight));
+    }
+
+    public int getPriorityWeight(CommandPriority priority) {
+        return eventLoop.call(() -> commandQueue.getWeight(priority));
+    }
+
+    /**
+     * 发送指令（异步执行）
+     *
+     * @param command  指令数据
+     * @param listener 执行监听器
+     */
+    public void sendCommand(byte[] command, OnCommandListener listener) {
+        if (isShutdown.get()) {
+            LockCtlLog.w(TAG, "管理器已关闭，拒绝接收新指令");
+            if (listener != null) {
+                listener.onError("管理器已关闭");
+            }
+            return;
+        }
+
+        if (command == null || command.length < 7) {
+            LockCtlLog.e(TAG, "指令数据格式错误");
+            if (listener != null) {
+                listener.onError("指令数据格式错误");
+            }
+            return;
+        }
+
+        // 拷贝一份，防止外部修改
+        sendCommand(CommandFrame.copyOf(command), listener);
+    }
+
+    /**
+     * 发送预编码的指令帧（异步执行）
+     * 帧不可变，入队与发送全程共享同一帧，不拷贝；按指令字确定排队优先级
+     *
+     * @param frame    指令帧
+     * @param listener 执行监听器
+     */
+    public void sendCommand(CommandFrame frame, OnCommandListener listener) {
+        sendCommand(frame, null, listener);
+    }
+
+    /**
+     * 按指定优先级发送预编码的指令帧（异步执行）
+     *
+     * @param frame    指令帧
+     * @param priority 排队优先级，null 时按指令字确定
+     * @param listener 执行监听器
+     */
+    public void sendCommand(CommandFrame frame, CommandPriority priority, OnCommandListener listener) {
+        if (isShutdown.get()) {
+            LockCtlLog.w(TAG, "管理器已关闭，拒绝接收新指令");
+            if (listener != null) {
+                listener.onError("管理器已关闭");
+            }
+            return;
+        }
+
+        if (frame == null) {
+            LockCtlLog.e(TAG, "指令数据格式错误");
+            if (listener != null) {
+                listener.onError("指令数据格式错误");
+            }
+            return;
+        }
+
+        CommandPriority queuePriority = priority != null ? priority : CommandPriority.of(frame.getCommandByte());
+        Runnable submission = () -> enqueue(frame, queuePriority, listener);
+        // 循环空闲时在当前线程就地入队并写出，否则交给循环线程
+        if (!eventLoop.tryExecuteInline(submission)) {
+            eventLoop.execute(submission);
+        }
+    }
+
+    /**
+     * 发送预编码的指令帧，返回执行结果的 Future
+     *
+     * @param frame 指令帧
+     * @return 执行结果，匹配到响应、超时或失败时完成（不会异常完成）
+     */
+    public CompletableFuture<CommandResult> sendCommandAsync(CommandFrame frame) {
+        return sendCommandAsync(frame, null);
+    }
+
+    /**
+     * 按指定优先级发送预编码的指令帧，返回执行结果的 Future
+     * <p>
+     * Future 在事件循环线程上完成，非 Async 的后续阶段也在事件循环线程上执行：
+     * 可以在其中继续提交指令，但不能阻塞等待其它指令的结果
+     * <p>
+     * 取消 Future（如协程取消）时，仍在队列中未发出的指令被撤回；已发出或已合并进其它指令的照常执行，结果丢弃
+     *
+     * @param frame    指令帧
+     * @param priority 排队优先级，null 时按指令字确定
+     * @return 执行结果，匹配到响应、超时或失败时完成（不会异常完成）
+     */
+    public CompletableFuture<CommandResult> sendCommandAsync(CommandFrame frame, CommandPriority priority) {
+        CompletableFuture<CommandResult> future = new CompletableFuture<>();
+        if (frame == null) {
+            future.complete(CommandResult.rejected(CommandResult.NONE, CommandResult.NONE, "指令数据格式错误"));
+            return future;
+        }
+        FutureCommandListener listener = new FutureCommandListener(frame, future);
+        sendCommand(frame, priority, listener);
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                post(() -> withdrawQueued(listener));
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 撤回仍在队列中、只属于该监听器的指令（在事件循环内调用）
+     * 挂有其它请求方的指令（合并、改写）不撤回
+     *
+     * @param listener 指令的监听器
+     */
+    private void withdrawQueued(OnCommandListener listener) {
+        for (LinkedList<QueuedCommand> queue : commandQueue.queues()) {
+            Iterator<QueuedCommand> iterator = queue.iterator();
+            while (iterator.hasNext()) {
+                QueuedCommand command = iterator.next();
+                if (command.getListener() == listener && command.getRequestCount() == 1) {
+                    iterator.remove();
+                    command.setCompleted(true);
+                    metrics.onCompleted(1);
+                    LockCtlLog.i(TAG, "指令已取消，从队列撤回: " + command.getDescription());
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 指令入队，在途指令未占满窗口时直接发出（在事件循环内调用）
+     *
+     * @param frame         指令帧
+     * @param queuePriority 排队优先级
+     * @param listener      执行监听器
+     */
+    private void enqueue(CommandFrame frame, CommandPriority queuePriority, OnCommandListener listener) {
+        if (isShutdown.get()) {
+            LockCtlLog.w(TAG, "管理器已关闭，拒绝接收新指令");
+            notifyListener(listener, false, "管理器已关闭");
+            return;
+        }
+
+        try {
+            metrics.onSubmitted();
+            if (mergeQuery(frame, listener)) {
+                metrics.onCoalesced(1);
+                return;
+            }
+
+            long mergeWindow = openMergeWindowMs;
+            if (mergeWindow > 0 && frame.getCommandByte() == CMD_OPEN_SINGLE_LOCK) {
+                if (mergeOpenLock(frame, queuePriority, listener)) {
+                    metrics.onCoalesced(1);
+                    return;
+                }
+            }
+
+            QueuedCommand queuedCommand = new QueuedCommand(frame, listener, false, queuePriority);
+            if (mergeWindow > 0 && frame.getCommandByte() == CMD_OPEN_SINGLE_LOCK) {
+                // 等待合并窗口结束后再发出
+                queuedCommand.setHoldUntil(System.currentTimeMillis() + mergeWindow);
+                scheduleWakeUp(mergeWindow);
+            }
+            commandQueue.offer(queuedCommand);
+            if (queryRewriteThreshold > 0 && frame.getCommandByte() == CMD_SINGLE_LOCK_STATUS) {
+                rewriteSingleLockQueries(frame.getBoardAddress(), queuePriority);
+            }
+
+            if (LockCtlLog.isLoggable(LockCtlLog.DEBUG)) {
+                LockCtlLog.d(TAG, "指令入队: %s, 优先级: %s, 队列大小: %d, 当前执行指令: %s, 在途: %d",
+                        queuedCommand.getDescription(), queuePriority, commandQueue.size(),
+                        currentExecutingCommand != null ? currentExecutingCommand.getDescription() : "无",
+                        inFlightCommands.size());
+            }
+
+            // 在途指令未占满窗口时直接发出
+            dispatch();
+
+        } catch (Exception e) {
+            LockCtlLog.e(TAG, "创建队列指令失败", e);
+            metrics.onError();
+            notifyListener(listener, false, "创建队列指令失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 将查询合并到队列中或在途的已有指令上（在事件循环内调用）
+     *
+     * @param frame    新查询
+     * @param listener 新查询的监听器
+     * @return 是否已合并
+     */
+    private boolean mergeQuery(CommandFrame frame, OnCommandListener listener) {
+        byte command = frame.getCommandByte();
+        if (command != CMD_SINGLE_LOCK_STATUS && command != CMD_ALL_LOCKS_STATUS) {
+            return false;
+        }
+
+        if (queryCoalescing) {
+            QueuedCommand same = findIdenticalQuery(frame);
+            if (same != null) {
+                same.attachListener(listener);
+                if (LockCtlLog.isLoggable(LockCtlLog.DEBUG)) {
+                    LockCtlLog.d(TAG, "合并相同查询: %s, 合并总数: %d", same.getDescription(), metrics.getCoalescedCount() + 1);
+                }
+                return true;
+            }
+        }
+
+        if (queryRewriteThreshold > 0 && command == CMD_SINGLE_LOCK_STATUS) {
+            QueuedCommand allStatus = findAllLocksStatus(frame.getBoardAddress());
+            if (allStatus != null) {
+                allStatus.foldQuery(new QueuedCommand(frame, listener));
+                LockCtlLog.d(TAG, "单通道查询并入全部门状态查询: 通道%d", frame.getChannelId());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private QueuedCommand findIdenticalQuery(CommandFrame frame) {
+        QueuedCommand found = findIdenticalQuery(inFlightCommands, frame);
+        for (LinkedList<QueuedCommand> queue : commandQueue.queues()) {
+            if (found != null) {
+                break;
+            }
+            found = findIdenticalQuery(queue, frame);
+        }
+        return found;
+    }
+
+    private static QueuedCommand findIdenticalQuery(List<QueuedCommand> commands, CommandFrame frame) {
+        for (QueuedCommand command : commands) {
+            if (command.getFrame().equals(frame)) {
+                return command;
+            }
+            for (QueuedCommand folded : command.getFoldedQueries()) {
+                if (folded.getFrame().equals(frame)) {
+                    return folded;
+                }
+            }
+        }
+        return null;
+    }
+
+    private QueuedCommand findAllLocksStatus(byte boardAddress) {
+        for (QueuedCommand command : inFlightCommands) {
+            if (command.getCommandByte() == CMD_ALL_LOCKS_STATUS && command.getBoardAddress() == boardAddress) {
+                return command;
+            }
+        }
+        for (LinkedList<QueuedCommand> queue : commandQueue.queues()) {
+            for (QueuedCommand command : queue) {
+                if (command.getCommandByte() == CMD_ALL_LOCKS_STATUS && command.getBoardAddress() == boardAddress) {
+                    return command;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 同一板地址、同一优先级排队的单通道查询达到阈值时，改写为一条全部门状态查询（在事件循环内调用）
+     * 改写后的指令占据第一条被改写查询在队列中的位置
+     *
+     * @param boardAddress 板地址
+     * @param priority     优先级
+     */
+    private void rewriteSingleLockQueries(byte boardAddress, CommandPriority priority) {
+        LinkedList<QueuedCommand> queue = commandQueue.queueOf(priority);
+        int count = 0;
+        for (QueuedCommand command : queue) {
+            if (command.getCommandByte() == CMD_SINGLE_LOCK_STATUS && command.getBoardAddress() == boardAddress) {
+                count++;
+            }
+        }
+        if (count < queryRewriteThreshold) {
+            return;
+        }
+
+        QueuedCommand allStatus = new QueuedCommand(
+                LockCtlBoardCmdHelper.getAllLocksStatusFrame(boardAddress), null, true, priority);
+        ListIterator<QueuedCommand> iterator = queue.listIterator();
+        boolean placed = false;
+        while (iterator.hasNext()) {
+            QueuedCommand command = iterator.next();
+            if (command.getCommandByte() != CMD_SINGLE_LOCK_STATUS || command.getBoardAddress() != boardAddress) {
+                continue;
+            }
+            allStatus.foldQuery(command);
+            if (placed) {
+                iterator.remove();
+            } else {
+                iterator.set(allStatus);
+                placed = true;
+            }
+        }
+        // 多条查询共用一次收发
+        metrics.onCoalesced(count - 1);
+        LockCtlLog.d(TAG, "改写 %d 条单通道查询为全部门状态查询, 板地址: 0x%02X", count, boardAddress & 0xFF);
+    }
+
+    /**
+     * 将开锁请求合并到同一优先级队尾仍在合并窗口内的同一板地址开锁指令上（在事件循环内调用）
+     * 队尾为 0x82 时二者合并为一条 0x87；队尾已是合并生成的 0x87 时追加通道，
+     * 通道已在其中时只追加监听器
+     *
+     * @param frame    开单个锁指令
+     * @param priority 优先级
+     * @param listener 开锁请求的监听器
+     * @return 是否已合并
+     */
+    private boolean mergeOpenLock(CommandFrame frame, CommandPriority priority, OnCommandListener listener) {
+        LinkedList<QueuedCommand> queue = commandQueue.queueOf(priority);
+        QueuedCommand tail = queue.peekLast();
+        if (tail == null || tail.getBoardAddress() != frame.getBoardAddress()
+                || !tail.isHeld(System.currentTimeMillis())) {
+            return false;
+        }
+
+        List<QueuedCommand> opens;
+        if (tail.getCommandByte() == CMD_OPEN_SINGLE_LOCK && !tail.isSynthetic()) {
+            opens = new ArrayList<>();
+            opens.add(tail);
+        } else if (tail.getCommandByte() == CMD_OPEN_MULTIPLE_SEQUENTIAL && tail.isSynthetic()) {
+            opens = new ArrayList<>(tail.getFoldedQueries());
+        } else {
+            return false;
+        }
+
+        int channelId = frame.getChannelId();
+        for (QueuedCommand open : opens) {
+            if (open.getFrame().getChannelId() == channelId) {
+                open.attachListener(listener);
+                LockCtlLog.d(TAG, "开锁请求并入合并窗口内的相同通道: 通道%d", channelId);
+                return true;
+            }
+        }
+        if (opens.size() >= MAX_MERGED_LOCKS) {
+            return false;
+        }
+        opens.add(new QueuedCommand(frame, listener, false, priority));
+
+        int[] lockIds = new int[opens.size()];
+        for (int i = 0; i < lockIds.length; i++) {
+            lockIds[i] = opens.get(i).getFrame().getChannelId();
+        }
+        QueuedCommand merged = new QueuedCommand(
+                LockCtlBoardCmdHelper.openMultipleSequentialFrame(frame.getBoardAddress(), lockIds), null, true, priority);
+        for (QueuedCommand open : opens) {
+            merged.foldQuery(open);
+        }
+        merged.setHoldUntil(tail.getHoldUntil());
+        queue.removeLast();
+        queue.addLast(merged);
+
+        LockCtlLog.d(TAG, "合并 %d 条开锁为逐一开多锁, 板地址: 0x%02X", lockIds.length, frame.getBoardAddress() & 0xFF);
+        return true;
+    }
+
+    /**
+     * 合并窗口结束后重新触发处理流程
+     *
+     * @param delayMs 延迟（毫秒）
+     */
+    private void scheduleWakeUp(long delayMs) {
+        timer.schedule(() -> post(this::dispatch), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 设置响应监听器
+     */
+    private void setupResponseListener() {
+        originalResponseListener = underlyingSender.getOnResponseListener();
+        underlyingSender.setOnResponseListener(new OnResponseListener() {
+            @Override
+            public void onResponseReceived(byte[] response) {
+                // 未经解码的原始帧（如 Mock 发送器直接投递）在此解码一次
+                ResponseFrame frame = ResponseFrame.decode(response);
+                if (frame == null) {
+                    if (response != null) {
+                        traceRing.record(TraceRing.DIRECTION_RX, response);
+                    }
+                    LockCtlLog.w(TAG, "收到无效响应帧，已丢弃");
+                    return;
+                }
+                onFrameReceived(frame);
+            }
+
+            @Override
+            public void onFrameReceived(ResponseFrame frame) {
+                // 追踪环在回调内拷贝帧字节；帧本身不拷贝直接交给事件循环，
+                // 依赖 FrameDecoder 为每帧分配独立数组、回调返回后不再改写（见 FrameDecoder.FrameListener）
+                traceRing.record(TraceRing.DIRECTION_RX, frame.getBuffer(), frame.getOffset(), frame.getLength());
+                post(() -> {
+                    // 先进行内部处理（防抖控制），无请求方的改写指令的响应已按通道派生转发，不再转发原帧
+                    if (handleResponse(frame)) {
+                        forwardFrame(frame);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(String error) {
+                post(() -> {
+                    // 先进行内部处理（防抖控制）
+                    handleError(error);
+
+                    if (originalResponseListener != null) {
+                        originalResponseListener.onError(error);
+                    }
+
+                    // 然后转发给外部监听器（透明层）
+                    if (externalResponseListener != null) {
+                        try {
+                            externalResponseListener.onError(error);
+                        } catch (Exception e) {
+                            LockCtlLog.e(TAG, "转发错误给外部监听器失败", e);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 提交事件到事件循环；管理器关闭后循环已停止，直接在当前线程执行（此时队列与在途指令均已清空）
+     *
+     * @param event 事件
+     */
+    private void post(Runnable event) {
+        if (eventLoop.isStopped()) {
+            event.run();
+        } else {
+            eventLoop.execute(event);
+        }
+    }
+
+    /**
+     * 将响应帧转发给原有监听器与外部监听器
+     *
+     * @param frame 响应帧
+     */
+    private void forwardFrame(ResponseFrame frame) {
+        if (originalResponseListener != null) {
+            originalResponseListener.onFrameReceived(frame);
+        }
+        // 然后转发给外部监听器（透明层）
+        if (externalResponseListener != null) {
+            try {
+                externalResponseListener.onFrameReceived(frame);
+            } catch (Exception e) {
+                LockCtlLog.e(TAG, "转发响应给外部监听器失败", e);
+            }
+        }
+    }
+
+    /**
+     * 处理下一个指令（在事件循环内调用）
+     * 在窗口允许的范围内，依次发出队列中可以发出的指令
+     */
+    private void dispatch() {
+        while (true) {
+            if (isShutdown.get()) {
+                LockCtlLog.d(TAG, "管理器已关闭，停止处理指令");
+                return;
+            }
+
+            QueuedCommand next = pollDispatchableCommand();
+            if (next == null) {
+                LockCtlLog.d(TAG, commandQueue.isEmpty() ? "指令队列为空，等待新指令" : "等待在途指令响应或开锁合并窗口结束");
+                return;
+            }
+            inFlightCommands.add(next);
+            if (currentExecutingCommand == null) {
+                currentExecutingCommand = next;
+            }
+
+            if (LockCtlLog.isLoggable(LockCtlLog.DEBUG)) {
+                LockCtlLog.d(TAG, "开始执行指令: %s, 当前总发送数: %d, 当前总完成数: %d",
+                        next.getDescription(), metrics.getSubmittedCount(), metrics.getCompletedCount());
+            }
+
+            try {
+                // 1. 发送指令
+                long sentNanos = System.nanoTime();
+                next.markSent(System.currentTimeMillis(), sentNanos);
+                metrics.record(CommandMetrics.Stage.QUEUE_WAIT, next.getBoardAddress(), next.getCommandByte(),
+                        sentNanos - next.getCreatedNanos());
+                traceRing.record(TraceRing.DIRECTION_TX, next.getFrame().getSharedBytes());
+                underlyingSender.sendFrame(next.getFrame());
+                metrics.record(CommandMetrics.Stage.WIRE, next.getBoardAddress(), next.getCommandByte(),
+                        System.nanoTime() - sentNanos);
+
+                // 2. 设置超时控制
+                scheduleTimeout(next);
+
+            } catch (Exception e) {
+                LockCtlLog.e(TAG, "发送指令失败", e);
+                metrics.onError();
+                completeCommand(next, false, "发送指令失败: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * 从队列中取出下一条可发出的指令（在事件循环内调用）
+     * 按优先级权重轮询各优先级队列；窗口已满时返回null；
+     * 与在途指令关联键相同的指令必须等待，同优先级中其后响应可区分的指令可以先行发出；
+     * 仍在开锁合并窗口内的指令暂不发出
+     *
+     * @return 可发出的指令，没有则返回null
+     */
+    private QueuedCommand pollDispatchableCommand() {
+        long now = System.currentTimeMillis();
+        if (perBoardPipeline) {
+            return pollPerBoardCommand(now);
+        }
+        if (inFlightCommands.size() >= pipelineWindow) {
+            return null;
+        }
+        if (inFlightCommands.isEmpty()) {
+            // 无在途指令：各优先级队列内严格按顺序发出
+            return commandQueue.poll(candidate -> !candidate.isHeld(now), true);
+        }
+        return commandQueue.poll(candidate -> !candidate.isHeld(now) && !conflictsWithInFlight(candidate), false);
+    }
+
+    /**
+     * 按板地址分别计算窗口时取出下一条可发出的指令（在事件循环内调用）
+     * 某板无在途指令时，该板各优先级队列内严格按顺序发出：排在前面的指令不能发出时（如仍在开锁合并窗口内），
+     * 同一板地址、同一优先级其后的指令也不越过它
+     *
+     * @param now 当前时间
+     * @return 可发出的指令，没有则返回null
+     */
+    private QueuedCommand pollPerBoardCommand(long now) {
+        // 板地址 << 8 | 优先级，已有排在前面的指令不能发出
+        Set<Integer> blocked = new HashSet<>();
+        return commandQueue.poll(candidate -> {
+            int board = candidate.getBoardAddress() & 0xFF;
+            int key = board << 8 | candidate.getPriority().ordinal();
+            if (blocked.contains(key)) {
+                return false;
+            }
+            int boardInFlight = countInFlight(board);
+            if (boardInFlight >= pipelineWindow) {
+                return false;
+            }
+            boolean dispatchable = !candidate.isHeld(now)
+                    && (boardInFlight == 0 || !conflictsWithInFlight(candidate));
+            if (!dispatchable && boardInFlight == 0) {
+                blocked.add(key);
+            }
+            return dispatchable;
+        }, false);
+    }
+
+    private int countInFlight(int boardAddress) {
+        int count = 0;
+        for (QueuedCommand inFlight : inFlightCommands) {
+            if ((inFlight.getBoardAddress() & 0xFF) == boardAddress) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean conflictsWithInFlight(QueuedCommand candidate) {
+        for (QueuedCommand inFlight : inFlightCommands) {
+            if (inFlight.getFrame().sameCorrelationKey(candidate.getFrame())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 设置超时控制
+     *
+     * @param command 当前执行的指令
+     */
+    private void scheduleTimeout(QueuedCommand command) {
+        long timeout = adaptiveTimeout
+                ? CommandExecutionStrategy.calculateTimeout(command.getFrame().getSharedBytes(), responseTimeModel)
+                : command.getTimeout();
+        if (LockCtlLog.isLoggable(LockCtlLog.DEBUG)) {
+            LockCtlLog.d(TAG, "设置超时: %s, 超时时间: %dms", command.getDescription(), timeout);
+        }
+
+        // 响应与超时都在事件循环内处理，设置超时前响应不会先到达
+        command.setTimeoutHandle(timer.schedule(() -> post(() -> handleTimeout(command, timeout)),
+                timeout, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * 处理超时（在事件循环内调用）
+     *
+     * @param command 超时的指令
+     * @param timeout 超时时间（毫秒）
+     */
+    private void handleTimeout(QueuedCommand command, long timeout) {
+        if (LockCtlLog.isLoggable(LockCtlLog.DEBUG)) {
+            LockCtlLog.d(TAG, "检查超时: %s, 当前指令=%s, 已完成=%s",
+                    command.getDescription(),
+                    currentExecutingCommand != null ? currentExecutingCommand.getDescription() : "无",
+                    command.isCompleted());
+        }
+
+        if (inFlightCommands.contains(command) && !command.isCompleted()) {
+            LockCtlLog.w(TAG, "指令执行超时: %s, 超时时间: %dms",
+                    command.getDescription(), timeout);
+            metrics.onTimeout();
+            command.setTimedOut(true);
+            responseTimeModel.recordTimeout(command.getBoardAddress(), command.getCommandByte());
+            completeCommand(command, false, "指令执行超时");
+        } else {
+            LockCtlLog.d(TAG, "超时检查通过，指令已完成或已更换");
+        }
+    }
+
+    /**
+     * 处理收到的响应
+     *
+     * @param frame 已解码的响应帧
+     * @return 是否需要将该响应转发给上层
+     */
+    private boolean handleResponse(ResponseFrame frame) {
+        if (frame.getCommandByte() == (CMD_ALL_LOCKS_STATUS & 0xFF) && frame.isSuccess()) {
+            responseTimeModel.recordChannelCount((byte) frame.getBoardAddress(), frame.getChannelCount());
+        }
+
+        QueuedCommand matched = null;
+        int inFlightCount = inFlightCommands.size();
+        // 按发送顺序查找第一条关联键匹配的在途指令
+        for (QueuedCommand inFlight : inFlightCommands) {
+            if (frame.matches(inFlight.getFrame())) {
+                matched = inFlight;
+                break;
+            }
+        }
+
+        if (LockCtlLog.isLoggable(LockCtlLog.DEBUG)) {
+            LockCtlLog.d(TAG, "收到响应，当前执行指令: %s, 在途: %d",
+                    currentExecutingCommand != null ? currentExecutingCommand.getDescription() : "无", inFlightCount);
+        }
+
+        if (inFlightCount == 0) {
+            LockCtlLog.w(TAG, "收到响应但当前无执行中的指令");
+            return true;
+        }
+
+        if (LockCtlLog.isLoggable(LockCtlLog.DEBUG)) {
+            LockCtlLog.d(TAG, "响应匹配检查: %s", matched != null ? "匹配" : "不匹配");
+        }
+
+        if (matched != null) {
+            boolean success = frame.isSuccess();
+            String message = ResponseMatcher.getResponseStatusDescription(frame);
+
+            if (LockCtlLog.isLoggable(LockCtlLog.DEBUG)) {
+                LockCtlLog.d(TAG, "指令执行完成: %s, 结果: %s, 通道: %d, 锁状态: %d",
+                        matched.getDescription(), message, frame.getChannelId(), frame.getLockStatus());
+            }
+
+            // 记录响应延迟
+            long sentAt = matched.getSentAt();
+            if (sentAt > 0) {
+                byte[] commandData = matched.getFrame().getSharedBytes();
+                int units = CommandExecutionStrategy.getWorkUnits(commandData,
+                        responseTimeModel.getChannelCount(matched.getBoardAddress()));
+                responseTimeModel.recordResponse(matched.getBoardAddress(), matched.getCommandByte(), units,
+                        System.currentTimeMillis() - sentAt);
+                metrics.record(CommandMetrics.Stage.RESPONSE, matched.getBoardAddress(), matched.getCommandByte(),
+                        System.nanoTime() - matched.getSentNanos());
+            }
+
+            completeCommand(matched, success, message, frame);
+            // 改写生成的 0x84 已按通道派生响应，无请求方时不再转发原帧；合并生成的 0x87 没有逐锁响应，原帧照常转发
+            return matched.hasRequester() || matched.getCommandByte() != CMD_ALL_LOCKS_STATUS;
+
+        } else {
+            LockCtlLog.w(TAG, "响应不匹配在途指令，可能是指令延迟或乱序");
+            return true;
+        }
+    }
+
+    /**
+     * 处理通信错误
+     *
+     * @param error 错误信息
+     */
+    private void handleError(String error) {
+        LockCtlLog.e(TAG, "通信错误: " + error);
+        metrics.onError();
+        // 错误无法归属到具体指令，按最早发出的在途指令处理
+        QueuedCommand current = currentExecutingCommand;
+        if (current != null) {
+            completeCommand(current, false, "通信错误: " + error);
+        }
+    }
+
+    /**
+     * 完成在途指令
+     *
+     * @param command 在途指令
+     * @param success 是否成功
+     * @param message 结果消息
+     */
+    private void completeCommand(QueuedCommand command, boolean success, String message) {
+        completeCommand(command, success, message, null);
+    }
+
+    /**
+     * 完成在途指令
+     *
+     * @param command 在途指令
+     * @param success 是否成功
+     * @param message 结果消息
+     * @param frame   响应帧，超时或错误时为null
+     */
+    private void completeCommand(QueuedCommand command, boolean success, String message, ResponseFrame frame) {
+        // 已由响应、超时或错误中的另一方完成
+        if (!inFlightCommands.remove(command)) {
+            return;
+        }
+        command.setCompleted(true);
+        command.cancelTimeout();
+        metrics.onCompleted(command.getRequestCount());
+        currentExecutingCommand = inFlightCommands.isEmpty() ? null : inFlightCommands.get(0);
+        // 移出在途列表后不会再有新的合并；监听器中可能再次提交指令，取快照后通知
+        List<OnCommandListener> attached = new ArrayList<>(command.getAttachedListeners());
+        List<QueuedCommand> folded = new ArrayList<>(command.getFoldedQueries());
+
+        if (LockCtlLog.isLoggable(LockCtlLog.DEBUG)) {
+            LockCtlLog.d(TAG, "指令完成: %s, 完成总数: %d, 监听器: %s, 合并: %d, 改写: %d",
+                    command.getDescription(), metrics.getCompletedCount(),
+                    command.getListener() != null ? "有" : "无", attached.size(), folded.size());
+        }
+
+        // 通知监听器
+        notifyListener(command.getListener(), success, message, frame);
+        for (OnCommandListener listener : attached) {
+            notifyListener(listener, success, message, frame);
+        }
+
+        // 被改写的单通道查询从全部门状态响应中派生各自通道的响应；被合并的开锁按 0x87 的结果逐一通知
+        for (QueuedCommand query : folded) {
+            completeFoldedCommand(command, query, success, message, frame);
+        }
+
+        // 继续处理下一个指令：作为新事件执行，排在监听器中提交的指令之后，发送连续失败时也不会递归
+        if (!isShutdown.get()) {
+            eventLoop.execute(this::dispatch);
+        }
+    }
+
+    /**
+     * 完成被改写或合并进其他指令的指令
+     *
+     * @param parent  实际发出的指令 (0x84/0x87)
+     * @param query   被改写的单通道查询或被合并的开锁
+     * @param success 实际发出的指令是否成功
+     * @param message 实际发出的指令的结果消息
+     * @param frame   实际发出的指令的响应帧，超时或错误时为null
+     */
+    private void completeFoldedCommand(QueuedCommand parent, QueuedCommand query,
+                                       boolean success, String message, ResponseFrame frame) {
+        query.setCompleted(true);
+        ResponseFrame derived = null;
+        // 改写的查询收到各自通道的派生响应，合并的开锁收到 0x87 的响应
+        ResponseFrame result = frame;
+        if (success && frame != null && parent.getCommandByte() == CMD_ALL_LOCKS_STATUS) {
+            derived = ResponseFrame.deriveSingleLockStatus(frame, query.getFrame().getChannelId());
+            result = derived;
+            if (derived == null) {
+                success = false;
+                message = "全部门状态响应中无通道" + query.getFrame().getChannelId();
+            }
+        }
+
+        notifyListener(query.getListener(), success, message, result);
+        for (OnCommandListener listener : query.getAttachedListeners()) {
+            notifyListener(listener, success, message, result);
+        }
+        if (derived != null) {
+            forwardFrame(derived);
+        }
+    }
+
+    private void notifyListener(OnCommandListener listener, boolean success, String message) {
+        notifyListener(listener, success, message, null);
+    }
+
+    private void notifyListener(OnCommandListener listener, boolean success, String message, ResponseFrame frame) {
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.onComplete(success, message, frame);
+        } catch (Exception e) {
+            LockCtlLog.e(TAG, "通知指令监听器失败", e);
+        }
+    }
+
+    /**
+     * 获取队列状态
+     *
+     * @return 队列状态信息
+     */
+    public QueueStatus getStatus() {
+        // 在事件循环内取快照，当前线程此前提交的指令均已计入
+        return eventLoop.call(() -> new QueueStatus(
+                commandQueue.size(),
+                currentExecutingCommand != null ? currentExecutingCommand.getCommandByte() : -1,
+                !inFlightCommands.isEmpty(),
+                inFlightCommands.size(),
+                metrics.getSubmittedCount(),
+                metrics.getCompletedCount(),
+                metrics.getTimeoutCount(),
+                metrics.getErrorCount(),
+                metrics.getCoalescedCount()
+        ));
+    }
+
+    /**
+     * 获取指令统计
+     * 计数器与延迟直方图可在任意线程上无锁读取，不经过事件循环，适合界面或导出器周期性轮询；
+     * 与 {@link #getStatus()} 不同，不保证当前线程刚提交的指令已经计入
+     *
+     * @return 指令统计
+     */
+    public CommandMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 获取收发追踪环
+     * 记录最近发出的指令帧与收到的响应帧（含无效帧），调用 {@link TraceRing#dump()} 输出十六进制文本
+     *
+     * @return 追踪环
+     */
+    public TraceRing getTraceRing() {
+        return traceRing;
+    }
+
+    /**
+     * 获取各优先级的排队统计
+     *
+     * @return 按优先级从高到低排列的统计信息
+     */
+    public List<PriorityStats> getPriorityStats() {
+        return eventLoop.call(commandQueue::getStats);
+    }
+
+    /**
+     * 获取定时器统计（待执行的超时数等）
+     *
+     * @return 定时器统计信息
+     */
+    public HashedWheelTimer.Stats getTimerStats() {
+        return timer.getStats();
+    }
+
+    /**
+     * 获取循环空闲时在提交线程上就地发出的指令提交数
+     *
+     * @return 就地执行的提交数
+     */
+    public long getInlineSubmissions() {
+        return eventLoop.getInlineExecutions();
+    }
+
+    /**
+     * 清空指令队列
+     */
+    public void clearQueue() {
+        clearQueue("指令队列已清空");
+    }
+
+    /**
+     * 清空指令队列，被清除的指令（含挂在其上的合并请求）以错误结束
+     *
+     * @param reason 通知给监听器的错误信息
+     */
+    private void clearQueue(String reason) {
+        eventLoop.call(() -> {
+            List<QueuedCommand> cleared = commandQueue.clear();
+
+            LockCtlLog.i(TAG, "清空指令队列，清除了 " + cleared.size() + " 个待执行指令");
+
+            // 通知所有被清除的指令监听器，异步接口的 Future 不会一直挂起
+            for (QueuedCommand command : cleared) {
+                command.setCompleted(true);
+                notifyListener(command.getListener(), false, reason);
+                for (OnCommandListener listener : command.getAttachedListeners()) {
+                    notifyListener(listener, false, reason);
+                }
+                for (QueuedCommand query : command.getFoldedQueries()) {
+                    completeFoldedCommand(command, query, false, reason, null);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 关闭管理器
+     */
+    public void shutdown() {
+        if (isShutdown.compareAndSet(false, true)) {
+            LockCtlLog.i(TAG, "正在关闭指令防抖管理器...");
+
+            // 清空队列
+            clearQueue("管理器已关闭");
+
+            // 在途指令以错误结束并取消其超时，共享定时器上不留下本管理器的任务
+            eventLoop.call(() -> {
+                for (QueuedCommand command : new ArrayList<>(inFlightCommands)) {
+                    completeCommand(command, false, "管理器已关闭");
+                }
+                return null;
+            });
+
+            // 停止事件循环
+            eventLoop.shutdown();
+            if (ownsTimer) {
+                timer.stop();
+            }
+
+            // 断开底层连接
+            if (underlyingSender != null) {
+                underlyingSender.disconnect();
+            }
+
+            LockCtlLog.i(TAG, "指令防抖管理器已关闭");
+        }
+    }
+
+    /**
+     * 异步接口的监听器：将结果转为 CommandResult 完成 Future
+     */
+    private static final class FutureCommandListener implements OnCommandListener {
+        private final CommandFrame request;
+        private final CompletableFuture<CommandResult> future;
+
+        FutureCommandListener(CommandFrame request, CompletableFuture<CommandResult> future) {
+            this.request = request;
+            this.future = future;
+        }
+
+        @Override
+        public void onSuccess() {
+            onComplete(true, null, null);
+        }
+
+        @Override
+        public void onError(String error) {
+            onComplete(false, error, null);
+        }
+
+        @Override
+        public void onComplete(boolean success, String message, ResponseFrame frame) {
+            future.complete(CommandResult.of(request, success, message, frame));
+        }
+    }
+
+    /**
+     * 队列状态信息类
+     */
+    public static class QueueStatus {
+        public final int queueSize;
+        public final int currentCommandByte;
+        public final boolean isExecuting;
+        public final int inFlightCount;
+        public final long totalCommandsSent;
+        public final long totalCommandsCompleted;
+        public final long totalTimeouts;
+        public final long totalErrors;
+        public final long totalCommandsCoalesced;
+
+        public QueueStatus(int queueSize, int currentCommandByte, boolean isExecuting,
+                           long totalCommandsSent, long totalCommandsCompleted,
+                           long totalTimeouts, long totalErrors) {
+            this(queueSize, currentCommandByte, isExecuting, isExecuting ? 1 : 0,
+                    totalCommandsSent, totalCommandsCompleted, totalTimeouts, totalErrors);
+        }
+
+        public QueueStatus(int queueSize, int currentCommandByte, boolean isExecuting, int inFlightCount,
+                           long totalCommandsSent, long totalCommandsCompleted,
+                           long totalTimeouts, long totalErrors) {
+            this(queueSize, currentCommandByte, isExecuting, inFlightCount,
+                    totalCommandsSent, totalCommandsCompleted, totalTimeouts, totalErrors, 0);
+        }
+
+        public QueueStatus(int queueSize, int currentCommandByte, boolean isExecuting, int inFlightCount,
+                           long totalCommandsSent, long totalCommandsCompleted,
+                           long totalTimeouts, long totalErrors, long totalCommandsCoalesced) {
+            this.queueSize = queueSize;
+            this.currentCommandByte = currentCommandByte;
+            this.isExecuting = isExecuting;
+            this.inFlightCount = inFlightCount;
+            this.totalCommandsSent = totalCommandsSent;
+            this.totalCommandsCompleted = totalCommandsCompleted;
+            this.totalTimeouts = totalTimeouts;
+            this.totalErrors = totalErrors;
+            this.totalCommandsCoalesced = totalCommandsCoalesced;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("QueueStatus{queue=%d, executing=0x%02X, isExecuting=%s, inFlight=%d, sent=%d, completed=%d, timeouts=%d, errors=%d, coalesced=%d}",
+                    queueSize, currentCommandByte, isExecuting, inFlightCount, totalCommandsSent, totalCommandsCompleted, totalTimeouts, totalErrors, totalCommandsCoalesced);
+        }
+    }
+
+    /**
+     * 优先级排队统计信息类
+     */
+    public static class PriorityStats {
+        public final CommandPriority priority;
+        public final int weight;
+        public final int queueSize;
+        public final long dispatchedCount;
+        public final long averageWaitMs;
+        public final long maxWaitMs;
+
+        public PriorityStats(CommandPriority priority, int weight, int queueSize,
+                             long dispatchedCount, long averageWaitMs, long maxWaitMs) {
+            this.priority = priority;
+            this.weight = weight;
+            this.queueSize = queueSize;
+            this.dispatchedCount = dispatchedCount;
+            this.averageWaitMs = averageWaitMs;
+            this.maxWaitMs = maxWaitMs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PriorityStats{%s, weight=%d, queue=%d, dispatched=%d, avgWait=%dms, maxWait=%dms}",
+                    priority, weight, queueSize, dispatchedCount, averageWaitMs, maxWaitMs);
+        }
+    }
+}
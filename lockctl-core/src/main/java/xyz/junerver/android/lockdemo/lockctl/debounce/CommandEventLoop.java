@@ -0,0 +1,222 @@
+package xyz.junerver.android.lockdemo.lockctl.debounce;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import xyz.junerver.android.lockdemo.lockctl.LockCtlLog;
+
+/**
+ * 指令事件循环
+ * CommandDebounceManager 的全部状态只在事件循环内读写：提交指令、收到响应、超时、查询状态都作为事件
+ * 放入无锁 MPSC 队列，由循环线程逐个执行，不再需要加锁
+ * <p>
+ * 同一时刻只有持有循环所有权的线程执行事件。循环空闲（无事件、无人持有所有权）时，
+ * 提交指令的线程可以直接取得所有权就地执行，省去线程切换，指令在调用线程上直接写出
+ */
+final class CommandEventLoop {
+    private static final String TAG = "CommandEventLoop";
+
+    private final MpscQueue<Runnable> events = new MpscQueue<>();
+    private final AtomicBoolean owned = new AtomicBoolean(false);
+    private final Thread loopThread;
+    private volatile Thread ownerThread;
+    private volatile boolean waiting = false;
+    private volatile boolean stopped = false;
+
+    // 统计信息（仅在持有所有权时写入）
+    private volatile long eventsProcessed = 0;
+    private volatile long inlineExecutions = 0;
+
+    CommandEventLoop(String name) {
+        loopThread = new Thread(this::run, name);
+        loopThread.setDaemon(false);  // 与原执行线程一致，确保测试环境正常工作
+        loopThread.start();
+    }
+
+    /**
+     * 提交事件，由循环线程执行（任意线程）
+     *
+     * @param event 事件
+     */
+    void execute(Runnable event) {
+        events.offer(event);
+        wakeUp();
+    }
+
+    /**
+     * 循环空闲时在调用线程上就地执行事件，否则不执行
+     * 只执行该事件本身，执行期间产生的新事件交回循环线程
+     *
+     * @param event 事件
+     * @return 是否已就地执行
+     */
+    boolean tryExecuteInline(Runnable event) {
+        if (stopped || !events.isEmpty() || !acquire()) {
+            return false;
+        }
+        try {
+            inlineExecutions++;
+            runEvent(event);
+        } finally {
+            release();
+        }
+        if (!events.isEmpty()) {
+            wakeUp();
+        }
+        return true;
+    }
+
+    /**
+     * 在事件循环内执行并等待结果
+     * 已在循环内（事件回调中）或循环已停止时直接执行
+     *
+     * @param callable 任务
+     * @return 任务结果
+     */
+    <T> T call(Callable<T> callable) {
+        if (inLoop() || stopped) {
+            try {
+                return callable.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        FutureTask<T> task = new FutureTask<>(callable);
+        execute(task);
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return task.get(50, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (TimeoutException e) {
+                    if (!loopThread.isAlive()) {
+                        // 循环已在入队前退出，直接执行（已执行过的任务不会重复执行）
+                        task.run();
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 当前线程是否持有循环所有权
+     *
+     * @return 是否在事件循环内
+     */
+    boolean inLoop() {
+        return ownerThread == Thread.currentThread();
+    }
+
+    /**
+     * 停止循环，队列中剩余的事件执行完后循环线程退出
+     */
+    void shutdown() {
+        stopped = true;
+        LockSupport.unpark(loopThread);
+        if (Thread.currentThread() != loopThread) {
+            try {
+                loopThread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    long getEventsProcessed() {
+        return eventsProcessed;
+    }
+
+    long getInlineExecutions() {
+        return inlineExecutions;
+    }
+
+    private void run() {
+        while (true) {
+            if (!events.isEmpty() && acquire()) {
+                try {
+                    drain();
+                } finally {
+                    release();
+                }
+                continue;
+            }
+            if (stopped) {
+                // 仍有事件未执行完（所有者正在执行或元素正在入队）时稍候再退出
+                if (events.isEmpty() && !owned.get()) {
+                    return;
+                }
+                Thread.yield();
+                continue;
+            }
+            waiting = true;
+            // 先声明等待再检查队列，与 execute 的先入队再检查等待标志配对，不会错过唤醒
+            if (events.isEmpty()) {
+                LockSupport.park(this);
+            } else if (owned.get()) {
+                // 就地执行的线程持有所有权，其释放后会唤醒循环
+                LockSupport.parkNanos(this, 100_000);
+            } else {
+                Thread.yield();
+            }
+            waiting = false;
+        }
+    }
+
+    private void drain() {
+        Runnable event;
+        while ((event = events.poll()) != null) {
+            runEvent(event);
+        }
+    }
+
+    private void runEvent(Runnable event) {
+        eventsProcessed++;
+        try {
+            event.run();
+        } catch (Throwable t) {
+            LockCtlLog.e(TAG, "事件执行异常", t);
+        }
+    }
+
+    private boolean acquire() {
+        if (!owned.compareAndSet(false, true)) {
+            return false;
+        }
+        ownerThread = Thread.currentThread();
+        return true;
+    }
+
+    private void release() {
+        ownerThread = null;
+        owned.set(false);
+    }
+
+    private void wakeUp() {
+        if (waiting && Thread.currentThread() != loopThread) {
+            LockSupport.unpark(loopThread);
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package xyz.junerver.android.lockdemo.lockctl.debounce;
 
-import android.util.Log;
+import xyz.junerver.android.lockdemo.lockctl.LockCtlLog;
 
 /**
  * 指令执行策略类
  * 定义不同指令的执行时间和超时计算规则
+ * 静态规则按指令类型的基础执行时间乘以安全系数；传入 ResponseTimeModel 时改用按板、按指令实测的延迟分布计算超时
  */
 public class CommandExecutionStrategy {
     private static final String TAG = "CommandExecutionStrategy";
@@ -16,6 +17,9 @@ public class CommandExecutionStrategy {
     private static final int CHANNEL_CONTROL_EXECUTION_TIME = 100; // 通道控制（闪烁、常开、关闭）
     private static final int SIMULTANEOUS_LOCKS_EXECUTION_TIME = 350; // 同时开多个锁
 
+    // 开全部锁 (0x86) 不带数据域，通道数未知时按此估算锁数量
+    private static final int DEFAULT_CHANNEL_COUNT = 24;
+
     // 安全系数，用于计算超时时间
     private static final int TIMEOUT_SAFETY_FACTOR = 2;
 
@@ -27,8 +31,7 @@ public class CommandExecutionStrategy {
      */
     public static long calculateTimeout(byte[] commandData) {
         if (commandData == null || commandData.length < 7) {
-            Log.w(TAG, "指令数据格式错误，使用默认超时时间");
-            System.out.println("[DEBUG] 指令数据格式错误，使用默认超时时间");
+            LockCtlLog.w(TAG, "指令数据格式错误，使用默认超时时间");
             return 1000; // 默认1秒超时
         }
 
@@ -38,14 +41,62 @@ public class CommandExecutionStrategy {
 
         long timeout = baseTime * TIMEOUT_SAFETY_FACTOR;
 
-        String debugMsg = String.format("[DEBUG] calculateTimeout: 指令字=0x%02X, 参数数量=%d, 基础时间=%dms, 超时时间=%dms",
-                commandByte & 0xFF, paramCount, baseTime, timeout);
-        System.out.println(debugMsg);
-        Log.d(TAG, debugMsg);
+        if (LockCtlLog.isLoggable(LockCtlLog.DEBUG)) {
+            LockCtlLog.d(TAG, "calculateTimeout: 指令字=0x%02X, 参数数量=%d, 基础时间=%dms, 超时时间=%dms",
+                    commandByte & 0xFF, paramCount, baseTime, timeout);
+        }
+
+        return timeout;
+    }
+
+    /**
+     * 根据实测延迟计算指令的超时时间
+     * 样本不足时不低于静态超时；开全部锁 (0x86) 的锁数量取该板已发现的通道数
+     *
+     * @param commandData 指令数据
+     * @param model       响应时间模型，为null时使用静态超时
+     * @return 超时时间（毫秒）
+     */
+    public static long calculateTimeout(byte[] commandData, ResponseTimeModel model) {
+        if (model == null || commandData == null || commandData.length < 7) {
+            return calculateTimeout(commandData);
+        }
+
+        byte boardAddress = commandData[5];
+        byte commandByte = commandData[6];
+        int units = getWorkUnits(commandData, model.getChannelCount(boardAddress));
+        long staticTimeout = (long) getBaseExecutionTime(commandByte, units) * TIMEOUT_SAFETY_FACTOR;
+        long timeout = model.timeoutFor(boardAddress, commandByte, units, staticTimeout);
 
+        if (LockCtlLog.isLoggable(LockCtlLog.DEBUG)) {
+            LockCtlLog.d(TAG, "calculateTimeout: 指令字=0x%02X, 板地址=0x%02X, 工作量=%d, 静态超时=%dms, 实测超时=%dms",
+                    commandByte & 0xFF, boardAddress & 0xFF, units, staticTimeout, timeout);
+        }
         return timeout;
     }
 
+    /**
+     * 获取指令的工作量：逐一开锁类指令为依次打开的锁数量，其余为1
+     * 响应延迟按单位工作量记录，便于不同锁数量的指令共用同一分布
+     *
+     * @param commandData  指令数据
+     * @param channelCount 板的通道数，未知时传-1
+     * @return 工作量
+     */
+    public static int getWorkUnits(byte[] commandData, int channelCount) {
+        if (commandData == null || commandData.length < 7) {
+            return 1;
+        }
+        switch (commandData[6]) {
+            case (byte) 0x86: // 开全部锁：依次打开全部通道
+                return channelCount > 0 ? channelCount : DEFAULT_CHANNEL_COUNT;
+            case (byte) 0x87: // 逐一开多锁：数据域第一个字节是锁数量
+                return commandData.length > 8 ? Math.max(1, commandData[7] & 0xFF) : 1;
+            default:
+                return 1;
+        }
+    }
+
     /**
      * 获取指令的基础执行时间
      *
@@ -79,7 +130,7 @@ public class CommandExecutionStrategy {
                 return CHANNEL_CONTROL_EXECUTION_TIME;
 
             default:
-                Log.w(TAG, "未知指令字: 0x" + String.format("%02X", commandByte & 0xFF) + "，使用默认执行时间");
+                LockCtlLog.w(TAG, "未知指令字: 0x%02X，使用默认执行时间", commandByte & 0xFF);
                 return 500; // 默认500ms
         }
     }
@@ -91,16 +142,20 @@ public class CommandExecutionStrategy {
      * @return 参数数量
      */
     private static int getParamCount(byte[] commandData) {
+        byte commandByte = commandData[6];
+
+        // 开全部锁不带数据域（第8字节是校验字节），按默认通道数估算
+        if (commandByte == (byte) 0x86) {
+            return DEFAULT_CHANNEL_COUNT;
+        }
+
         // 根据指令类型提取参数数量
         if (commandData.length < 8) {
             return 1; // 默认参数数量
         }
 
-        byte commandByte = commandData[6];
-
         switch (commandByte) {
             case (byte) 0x80: // 同时开多锁
-            case (byte) 0x86: // 开全部锁（效果类似逐一开锁）
             case (byte) 0x87: // 逐一开多锁 (实际使用)
                 // 数据域第一个字节是锁数量
                 return commandData[7] & 0xFF;
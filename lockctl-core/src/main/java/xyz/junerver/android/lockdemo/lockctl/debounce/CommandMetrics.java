@@ -0,0 +1,253 @@
+package xyz.junerver.android.lockdemo.lockctl.debounce;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 指令统计
+ * 计数器使用 LongAdder，延迟按阶段分别记入对数分桶直方图（见 {@link LatencyHistogram}），
+ * 每个阶段各有一个总直方图，并按指令字、板地址各分一份：
+ * <p>
+ * 1. 排队等待：入队到发出
+ * 2. 写入串口：底层发送器 sendFrame 的耗时
+ * 3. 响应延迟：发出到收到匹配的响应
+ * <p>
+ * 按指令字、板地址的直方图在第一次记录时创建，数量以 256 为上限，内存固定；
+ * 记录与读取都不加锁，可以在界面或导出器中以 10Hz 轮询快照而不影响发送路径
+ */
+public class CommandMetrics {
+
+    /**
+     * 延迟阶段
+     */
+    public enum Stage {
+        QUEUE_WAIT("排队等待"),
+        WIRE("写入串口"),
+        RESPONSE("响应延迟");
+
+        private final String description;
+
+        Stage(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private static final int STAGE_COUNT = Stage.values().length;
+    private static final int KEY_SPACE = 256;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LatencyHistogram[] totals = new LatencyHistogram[STAGE_COUNT];
+    // 下标 = 阶段 × 256 + 指令字 / 板地址
+    private final AtomicReferenceArray<LatencyHistogram> byCommand =
+            new AtomicReferenceArray<>(STAGE_COUNT * KEY_SPACE);
+    private final AtomicReferenceArray<LatencyHistogram> byBoard =
+            new AtomicReferenceArray<>(STAGE_COUNT * KEY_SPACE);
+
+    public CommandMetrics() {
+        for (int i = 0; i < STAGE_COUNT; i++) {
+            totals[i] = new LatencyHistogram();
+        }
+    }
+
+    void onSubmitted() {
+        submitted.increment();
+    }
+
+    void onCompleted(int requestCount) {
+        completed.add(requestCount);
+    }
+
+    void onTimeout() {
+        timeouts.increment();
+    }
+
+    void onError() {
+        errors.increment();
+    }
+
+    void onCoalesced(int count) {
+        coalesced.add(count);
+    }
+
+    /**
+     * 记录一次延迟
+     *
+     * @param stage        阶段
+     * @param boardAddress 板地址
+     * @param commandByte  指令字
+     * @param nanos        耗时（纳秒）
+     */
+    void record(Stage stage, byte boardAddress, byte commandByte, long nanos) {
+        long micros = nanos / 1000;
+        totals[stage.ordinal()].record(micros);
+        histogramOf(byCommand, stage, commandByte & 0xFF).record(micros);
+        histogramOf(byBoard, stage, boardAddress & 0xFF).record(micros);
+    }
+
+    private static LatencyHistogram histogramOf(AtomicReferenceArray<LatencyHistogram> table, Stage stage, int key) {
+        int index = stage.ordinal() * KEY_SPACE + key;
+        LatencyHistogram histogram = table.get(index);
+        if (histogram == null) {
+            table.compareAndSet(index, null, new LatencyHistogram());
+            histogram = table.get(index);
+        }
+        return histogram;
+    }
+
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * 获取某阶段全部指令的延迟快照
+     *
+     * @param stage 阶段
+     * @return 快照
+     */
+    public LatencyHistogram.Snapshot getHistogram(Stage stage) {
+        return totals[stage.ordinal()].snapshot();
+    }
+
+    /**
+     * 获取某阶段某指令字的延迟快照
+     *
+     * @param stage       阶段
+     * @param commandByte 指令字
+     * @return 快照，该指令字没有样本返回null
+     */
+    public LatencyHistogram.Snapshot getCommandHistogram(Stage stage, int commandByte) {
+        LatencyHistogram histogram = byCommand.get(stage.ordinal() * KEY_SPACE + (commandByte & 0xFF));
+        return histogram != null ? histogram.snapshot() : null;
+    }
+
+    /**
+     * 获取某阶段某板的延迟快照
+     *
+     * @param stage        阶段
+     * @param boardAddress 板地址
+     * @return 快照，该板没有样本返回null
+     */
+    public LatencyHistogram.Snapshot getBoardHistogram(Stage stage, int boardAddress) {
+        LatencyHistogram histogram = byBoard.get(stage.ordinal() * KEY_SPACE + (boardAddress & 0xFF));
+        return histogram != null ? histogram.snapshot() : null;
+    }
+
+    /**
+     * 获取全部统计的快照
+     *
+     * @return 快照
+     */
+    public Snapshot snapshot() {
+        Map<Stage, LatencyHistogram.Snapshot> stageTotals = new LinkedHashMap<>();
+        Map<Stage, Map<Integer, LatencyHistogram.Snapshot>> commands = new LinkedHashMap<>();
+        Map<Stage, Map<Integer, LatencyHistogram.Snapshot>> boards = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            stageTotals.put(stage, getHistogram(stage));
+            commands.put(stage, collect(byCommand, stage));
+            boards.put(stage, collect(byBoard, stage));
+        }
+        return new Snapshot(getSubmittedCount(), getCompletedCount(), getTimeoutCount(), getErrorCount(),
+                getCoalescedCount(), stageTotals, commands, boards);
+    }
+
+    private static Map<Integer, LatencyHistogram.Snapshot> collect(AtomicReferenceArray<LatencyHistogram> table,
+                                                                   Stage stage) {
+        Map<Integer, LatencyHistogram.Snapshot> result = new LinkedHashMap<>();
+        int base = stage.ordinal() * KEY_SPACE;
+        for (int key = 0; key < KEY_SPACE; key++) {
+            LatencyHistogram histogram = table.get(base + key);
+            if (histogram != null) {
+                result.put(key, histogram.snapshot());
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * 统计快照
+     */
+    public static class Snapshot {
+        public final long submittedCount;
+        public final long completedCount;
+        public final long timeoutCount;
+        public final long errorCount;
+        public final long coalescedCount;
+        private final Map<Stage, LatencyHistogram.Snapshot> totals;
+        private final Map<Stage, Map<Integer, LatencyHistogram.Snapshot>> byCommand;
+        private final Map<Stage, Map<Integer, LatencyHistogram.Snapshot>> byBoard;
+
+        Snapshot(long submittedCount, long completedCount, long timeoutCount, long errorCount, long coalescedCount,
+                 Map<Stage, LatencyHistogram.Snapshot> totals,
+                 Map<Stage, Map<Integer, LatencyHistogram.Snapshot>> byCommand,
+                 Map<Stage, Map<Integer, LatencyHistogram.Snapshot>> byBoard) {
+            this.submittedCount = submittedCount;
+            this.completedCount = completedCount;
+            this.timeoutCount = timeoutCount;
+            this.errorCount = errorCount;
+            this.coalescedCount = coalescedCount;
+            this.totals = totals;
+            this.byCommand = byCommand;
+            this.byBoard = byBoard;
+        }
+
+        public LatencyHistogram.Snapshot getHistogram(Stage stage) {
+            return totals.get(stage);
+        }
+
+        /**
+         * @return 指令字 → 延迟快照，只含有样本的指令字
+         */
+        public Map<Integer, LatencyHistogram.Snapshot> getCommandHistograms(Stage stage) {
+            return byCommand.get(stage);
+        }
+
+        /**
+         * @return 板地址 → 延迟快照，只含有样本的板
+         */
+        public Map<Integer, LatencyHistogram.Snapshot> getBoardHistograms(Stage stage) {
+            return byBoard.get(stage);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("CommandMetrics{submitted=%d, completed=%d, timeouts=%d, errors=%d, coalesced=%d}",
+                    submittedCount, completedCount, timeoutCount, errorCount, coalescedCount));
+            for (Stage stage : Stage.values()) {
+                sb.append('\n').append(stage.getDescription()).append(": ").append(totals.get(stage));
+                for (Map.Entry<Integer, LatencyHistogram.Snapshot> entry : byCommand.get(stage).entrySet()) {
+                    sb.append(String.format("\n  0x%02X: ", entry.getKey())).append(entry.getValue());
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
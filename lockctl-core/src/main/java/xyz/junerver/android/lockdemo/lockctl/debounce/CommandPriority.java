@@ -0,0 +1,69 @@
+package xyz.junerver.android.lockdemo.lockctl.debounce;
+
+/**
+ * 指令优先级
+ * 防抖队列按优先级分类排队，出队时按权重轮询各优先级：高优先级先发出，
+ * 同时低优先级按权重分得一定份额，不会被持续的高优先级负载饿死
+ */
+public enum CommandPriority {
+
+    /**
+     * 用户开门（开单个锁、同时开多锁、开全部锁、逐一开多锁）
+     */
+    OPEN(8),
+
+    /**
+     * 报警/继电器控制（通道持续打开、通道关闭）
+     */
+    CONTROL(4),
+
+    /**
+     * 状态轮询（查询单个门状态、查询所有门状态）
+     */
+    POLLING(2),
+
+    /**
+     * 灯光效果（通道闪烁）及未知指令
+     */
+    EFFECT(1);
+
+    private final int defaultWeight;
+
+    CommandPriority(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    /**
+     * 获取默认权重：所有优先级都有排队指令时，每轮各优先级可发出的指令数
+     *
+     * @return 默认权重
+     */
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    /**
+     * 根据指令字确定默认优先级
+     *
+     * @param commandByte 指令字
+     * @return 优先级
+     */
+    public static CommandPriority of(byte commandByte) {
+        switch (commandByte) {
+            case (byte) 0x80: // 同时开多锁
+            case (byte) 0x82: // 开单个锁
+            case (byte) 0x86: // 开全部锁
+            case (byte) 0x87: // 逐一开多锁
+                return OPEN;
+            case (byte) 0x88: // 通道持续打开
+            case (byte) 0x89: // 通道关闭
+                return CONTROL;
+            case (byte) 0x83: // 查询单个门状态
+            case (byte) 0x84: // 查询所有门状态
+                return POLLING;
+            case (byte) 0x81: // 通道闪烁
+            default:
+                return EFFECT;
+        }
+    }
+}
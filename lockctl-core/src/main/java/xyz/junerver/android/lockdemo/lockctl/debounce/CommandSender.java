@@ -1,5 +1,7 @@
 package xyz.junerver.android.lockdemo.lockctl.debounce;
 
+import xyz.junerver.android.lockdemo.lockctl.CommandFrame;
+
 /**
  * 指令发送接口
  * 抽象层，支持各种通信方式（串口、网络、蓝牙等）
@@ -13,6 +15,16 @@ public interface CommandSender {
      */
     void sendCommand(byte[] command);
 
+    /**
+     * 发送预编码的指令帧
+     * 默认拷贝一份后走 sendCommand，能够直接写出共享帧的实现应覆盖此方法以避免拷贝
+     *
+     * @param frame 指令帧
+     */
+    default void sendFrame(CommandFrame frame) {
+        sendCommand(frame.toByteArray());
+    }
+
     /**
      * 设置响应监听器
      *
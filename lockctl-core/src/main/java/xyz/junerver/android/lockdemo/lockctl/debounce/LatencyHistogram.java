@@ -0,0 +1,133 @@
+package xyz.junerver.android.lockdemo.lockctl.debounce;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 对数分桶的延迟直方图
+ * 以微秒为单位，每个 2 的幂区间再等分为 4 个子桶（相对误差不超过 25%），
+ * 桶数固定，记录时只做一次原子自增，不分配内存、不加锁；读取快照时复制桶数组，不阻塞记录方
+ * <p>
+ * 快照与记录并发时，各桶之间可能相差正在记录的几条样本，用于监控展示足够
+ */
+public class LatencyHistogram {
+
+    // 每个 2 的幂区间的子桶数 = 2^SUB_BUCKET_BITS
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // 可记录的最大值（微秒，约 19 小时），更大的值记入最后一个桶
+    static final long MAX_VALUE_US = (1L << 36) - 1;
+    // 桶数：[0, 4) 各占一个桶，之后每个 2 的幂区间 4 个桶
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (36 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong sumMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * 记录一个样本
+     *
+     * @param micros 耗时（微秒），负数按 0 记录
+     */
+    public void record(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_VALUE_US));
+        buckets.getAndIncrement(bucketIndex(value));
+        sumMicros.getAndAdd(value);
+        long max;
+        while (value > (max = maxMicros.get())) {
+            if (maxMicros.compareAndSet(max, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 获取快照
+     *
+     * @return 快照
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        return new Snapshot(counts, total, sumMicros.get(), maxMicros.get());
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * 桶所覆盖区间的上界（含）
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT + SUB_BUCKET_BITS;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * 直方图快照
+     */
+    public static class Snapshot {
+        private final long[] counts;
+        public final long count;
+        public final long sumMicros;
+        public final long maxMicros;
+
+        Snapshot(long[] counts, long count, long sumMicros, long maxMicros) {
+            this.counts = counts;
+            this.count = count;
+            this.sumMicros = sumMicros;
+            this.maxMicros = maxMicros;
+        }
+
+        /**
+         * 平均值（微秒）
+         */
+        public long getMeanMicros() {
+            return count > 0 ? sumMicros / count : 0;
+        }
+
+        /**
+         * 分位数（微秒），取所在桶的上界，不超过最大值
+         *
+         * @param quantile 分位，0 到 1 之间，如 0.99
+         * @return 分位数，无样本返回0
+         */
+        public long getPercentileMicros(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(Math.max(0, Math.min(1, quantile)) * count);
+            rank = Math.max(1, rank);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), maxMicros);
+                }
+            }
+            return maxMicros;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "n=%d, mean=%.1fms, p50=%.1fms, p99=%.1fms, max=%.1fms",
+                    count, getMeanMicros() / 1000.0, getPercentileMicros(0.5) / 1000.0,
+                    getPercentileMicros(0.99) / 1000.0, maxMicros / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package xyz.junerver.android.lockdemo.lockctl.debounce;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * 无锁多生产者单消费者队列
+ * 生产者只对队尾做一次原子交换，不加锁、不重试；消费者只移动队首，与生产者不竞争
+ * <p>
+ * 同一时刻只能有一个消费者：由 CommandEventLoop 的循环所有权保证
+ *
+ * @param <E> 元素类型
+ */
+final class MpscQueue<E> {
+
+    private static final class Node<E> {
+        // 字段更新器只能由类字面量 Node.class 创建，类型参数只能写原始类型
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+        E value;
+        volatile Node<E> next;
+
+        Node(E value) {
+            this.value = value;
+        }
+    }
+
+    // 生产者交换队尾
+    private final AtomicReference<Node<E>> tail;
+    // 消费者持有的哨兵节点，其 next 为队首元素
+    private volatile Node<E> head;
+
+    MpscQueue() {
+        Node<E> stub = new Node<>(null);
+        head = stub;
+        tail = new AtomicReference<>(stub);
+    }
+
+    /**
+     * 入队（任意线程）
+     *
+     * @param value 元素，不能为null
+     */
+    @SuppressWarnings("unchecked")
+    void offer(E value) {
+        Node<E> node = new Node<>(value);
+        Node<E> previous = tail.getAndSet(node);
+        // 交换队尾后再链接，链接前消费者暂时看不到该元素
+        Node.NEXT.lazySet(previous, node);
+    }
+
+    /**
+     * 出队（仅消费者）
+     *
+     * @return 队首元素，队列为空或队首尚未链接完成时返回null
+     */
+    E poll() {
+        Node<E> current = head;
+        Node<E> next = current.next;
+        if (next == null) {
+            return null;
+        }
+        E value = next.value;
+        next.value = null;
+        head = next;
+        return value;
+    }
+
+    /**
+     * 是否为空（任意线程），正在入队的元素视为非空
+     *
+     * @return 是否为空
+     */
+    boolean isEmpty() {
+        return head == tail.get();
+    }
+}
@@ -0,0 +1,39 @@
+package xyz.junerver.android.lockdemo.lockctl.debounce;
+
+import xyz.junerver.android.lockdemo.lockctl.ResponseFrame;
+
+/**
+ * 指令执行监听器
+ * 用于监听单个指令的执行结果
+ */
+public interface OnCommandListener {
+
+    /**
+     * 指令执行成功
+     */
+    void onSuccess();
+
+    /**
+     * 指令执行失败
+     *
+     * @param error 错误信息
+     */
+    void onError(String error);
+
+    /**
+     * 指令执行完成，携带匹配到的响应帧
+     * 防抖管理器通过此方法通知结果，默认按结果转交 onSuccess / onError；
+     * 需要响应内容的监听器（如异步接口）覆盖此方法
+     *
+     * @param success 是否成功
+     * @param message 结果消息
+     * @param frame   匹配到的响应帧（改写的查询为派生帧），超时或错误时为null
+     */
+    default void onComplete(boolean success, String message, ResponseFrame frame) {
+        if (success) {
+            onSuccess();
+        } else {
+            onError(message);
+        }
+    }
+}
\ No newline at end of file
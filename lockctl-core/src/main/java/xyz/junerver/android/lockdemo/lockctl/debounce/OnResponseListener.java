@@ -0,0 +1,35 @@
+package xyz.junerver.android.lockdemo.lockctl.debounce;
+
+import xyz.junerver.android.lockdemo.lockctl.ResponseFrame;
+
+/**
+ * 响应监听接口
+ * 用于接收指令执行的结果
+ */
+public interface OnResponseListener {
+
+    /**
+     * 收到响应数据
+     *
+     * @param response 响应数据
+     */
+    void onResponseReceived(byte[] response);
+
+    /**
+     * 收到已解码的响应帧
+     * 由负责分帧的发送器调用，帧在接收管道中只解码一次；
+     * 默认实现回退到 onResponseReceived(byte[])，兼容只处理原始字节的监听器
+     *
+     * @param frame 已解码的响应帧
+     */
+    default void onFrameReceived(ResponseFrame frame) {
+        onResponseReceived(frame.getRawData());
+    }
+
+    /**
+     * 发生错误
+     *
+     * @param error 错误信息
+     */
+    void onError(String error);
+}
\ No newline at end of file
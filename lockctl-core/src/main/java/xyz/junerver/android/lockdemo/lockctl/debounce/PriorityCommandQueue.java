@@ -0,0 +1,171 @@
+package xyz.junerver.android.lockdemo.lockctl.debounce;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * 按优先级分类的指令队列
+ * 每个优先级一个 FIFO 子队列；出队时按优先级从高到低查找仍有配额的子队列，
+ * 所有有指令的子队列配额用完后按权重重新分配，保证低优先级按权重分得份额
+ * <p>
+ * 非线程安全，只在 CommandDebounceManager 的事件循环内访问
+ */
+class PriorityCommandQueue {
+
+    private static final CommandPriority[] PRIORITIES = CommandPriority.values();
+
+    private final List<LinkedList<QueuedCommand>> queues = new ArrayList<>(PRIORITIES.length);
+    private final int[] weights = new int[PRIORITIES.length];
+    private final int[] credits = new int[PRIORITIES.length];
+
+    // 排队等待统计
+    private final long[] dispatchedCount = new long[PRIORITIES.length];
+    private final long[] totalWaitMs = new long[PRIORITIES.length];
+    private final long[] maxWaitMs = new long[PRIORITIES.length];
+
+    PriorityCommandQueue() {
+        for (CommandPriority priority : PRIORITIES) {
+            queues.add(new LinkedList<>());
+            weights[priority.ordinal()] = priority.getDefaultWeight();
+            credits[priority.ordinal()] = priority.getDefaultWeight();
+        }
+    }
+
+    void setWeight(CommandPriority priority, int weight) {
+        weights[priority.ordinal()] = Math.max(1, weight);
+        credits[priority.ordinal()] = Math.min(credits[priority.ordinal()], weights[priority.ordinal()]);
+    }
+
+    int getWeight(CommandPriority priority) {
+        return weights[priority.ordinal()];
+    }
+
+    void offer(QueuedCommand command) {
+        queues.get(command.getPriority().ordinal()).addLast(command);
+    }
+
+    /**
+     * 获取指定优先级的子队列，用于合并、改写等就地修改
+     *
+     * @param priority 优先级
+     * @return 子队列
+     */
+    LinkedList<QueuedCommand> queueOf(CommandPriority priority) {
+        return queues.get(priority.ordinal());
+    }
+
+    /**
+     * 按优先级从高到低返回全部子队列
+     *
+     * @return 子队列列表
+     */
+    List<LinkedList<QueuedCommand>> queues() {
+        return queues;
+    }
+
+    int size() {
+        int size = 0;
+        for (LinkedList<QueuedCommand> queue : queues) {
+            size += queue.size();
+        }
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    int size(CommandPriority priority) {
+        return queues.get(priority.ordinal()).size();
+    }
+
+    /**
+     * 清空全部子队列
+     *
+     * @return 清除的指令，按优先级从高到低
+     */
+    List<QueuedCommand> clear() {
+        List<QueuedCommand> cleared = new ArrayList<>(size());
+        for (LinkedList<QueuedCommand> queue : queues) {
+            cleared.addAll(queue);
+            queue.clear();
+        }
+        return cleared;
+    }
+
+    /**
+     * 按权重轮询取出下一条可发出的指令
+     *
+     * @param dispatchable 出队条件
+     * @param headOnly     是否只考察各子队列的队首（保持子队列内严格 FIFO）
+     * @return 可发出的指令，没有则返回null
+     */
+    QueuedCommand poll(Predicate<QueuedCommand> dispatchable, boolean headOnly) {
+        QueuedCommand command = pollWithCredit(dispatchable, headOnly);
+        if (command == null) {
+            // 有配额的子队列都没有可发出的指令，重新分配配额后再找一次
+            System.arraycopy(weights, 0, credits, 0, weights.length);
+            command = pollWithCredit(dispatchable, headOnly);
+        }
+        if (command != null) {
+            recordWait(command);
+        }
+        return command;
+    }
+
+    private QueuedCommand pollWithCredit(Predicate<QueuedCommand> dispatchable, boolean headOnly) {
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            if (credits[i] <= 0) {
+                continue;
+            }
+            QueuedCommand command = removeFirst(queues.get(i), dispatchable, headOnly);
+            if (command != null) {
+                credits[i]--;
+                return command;
+            }
+        }
+        return null;
+    }
+
+    private static QueuedCommand removeFirst(LinkedList<QueuedCommand> queue, Predicate<QueuedCommand> dispatchable, boolean headOnly) {
+        if (headOnly) {
+            QueuedCommand head = queue.peekFirst();
+            return head != null && dispatchable.test(head) ? queue.pollFirst() : null;
+        }
+        Iterator<QueuedCommand> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            QueuedCommand candidate = iterator.next();
+            if (dispatchable.test(candidate)) {
+                iterator.remove();
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private void recordWait(QueuedCommand command) {
+        int index = command.getPriority().ordinal();
+        long waitMs = Math.max(0, System.currentTimeMillis() - command.getTimestamp());
+        dispatchedCount[index]++;
+        totalWaitMs[index] += waitMs;
+        maxWaitMs[index] = Math.max(maxWaitMs[index], waitMs);
+    }
+
+    /**
+     * 获取各优先级的排队统计
+     *
+     * @return 按优先级从高到低排列的统计信息
+     */
+    List<CommandDebounceManager.PriorityStats> getStats() {
+        List<CommandDebounceManager.PriorityStats> stats = new ArrayList<>(PRIORITIES.length);
+        for (CommandPriority priority : PRIORITIES) {
+            int i = priority.ordinal();
+            stats.add(new CommandDebounceManager.PriorityStats(priority, weights[i], queues.get(i).size(),
+                    dispatchedCount[i], dispatchedCount[i] > 0 ? totalWaitMs[i] / dispatchedCount[i] : 0, maxWaitMs[i]));
+        }
+        return stats;
+    }
+}
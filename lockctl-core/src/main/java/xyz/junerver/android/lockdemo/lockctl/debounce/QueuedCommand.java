@@ -0,0 +1,380 @@
+package xyz.junerver.android.lockdemo.lockctl.debounce;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import xyz.junerver.android.lockdemo.lockctl.CommandFrame;
+import xyz.junerver.android.lockdemo.lockctl.HashedWheelTimer;
+import xyz.junerver.android.lockdemo.lockctl.LockCtlLog;
+
+/**
+ * 队列中的指令项
+ * 封装指令数据、执行状态和监听器
+ * 指令数据以不可变的 CommandFrame 持有，预编码帧可直接共享，发送时不再拷贝
+ */
+public class QueuedCommand {
+    private static final String TAG = "QueuedCommand";
+
+    private final CommandFrame frame;
+    private final byte commandByte;  // 指令字，用于匹配响应
+    private final byte boardAddress; // 板地址，用于匹配响应
+    private final long timeout;      // 超时时间（毫秒）
+    private final OnCommandListener listener;
+    private final CommandPriority priority; // 排队优先级
+    private final long timestamp;    // 创建时间戳
+    private final long createdNanos; // 创建时的 System.nanoTime()，用于统计排队等待
+    private volatile long sentAt = 0; // 发出时间戳，用于测量响应延迟
+    private volatile long sentNanos = 0; // 发出时的 System.nanoTime()，用于统计响应延迟
+    private volatile boolean completed = false; // 是否已完成
+    private volatile boolean timedOut = false;  // 是否已超时
+    private volatile HashedWheelTimer.Timeout timeoutHandle; // 超时任务句柄，完成时取消
+
+    // 查询合并：以下字段只在 CommandDebounceManager 的事件循环线程内读写，无需加锁，不得从调用方线程访问
+    private final boolean synthetic;                 // 是否为改写生成的指令（无原始请求方）
+    private List<OnCommandListener> attachedListeners; // 合并到本指令的相同查询的监听器
+    private List<QueuedCommand> foldedQueries;       // 改写进本指令的查询 (0x84 ← 0x83) 或合并进本指令的开锁 (0x87 ← 0x82)
+    private volatile long holdUntil = 0;             // 开锁合并窗口截止时间，此前不发出
+
+    /**
+     * 构造函数
+     *
+     * @param commandData 指令数据
+     * @param listener    指令执行监听器
+     */
+    public QueuedCommand(byte[] commandData, OnCommandListener listener) {
+        this(CommandFrame.copyOf(commandData), listener); // 拷贝一份，防止外部修改
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param frame    指令帧（不可变，直接共享）
+     * @param listener 指令执行监听器
+     */
+    public QueuedCommand(CommandFrame frame, OnCommandListener listener) {
+        this(frame, listener, false);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param frame     指令帧（不可变，直接共享）
+     * @param listener  指令执行监听器
+     * @param synthetic 是否为改写生成的指令
+     */
+    QueuedCommand(CommandFrame frame, OnCommandListener listener, boolean synthetic) {
+        this(frame, listener, synthetic, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param frame     指令帧（不可变，直接共享）
+     * @param listener  指令执行监听器
+     * @param synthetic 是否为改写生成的指令
+     * @param priority  排队优先级，null 时按指令字确定
+     */
+    QueuedCommand(CommandFrame frame, OnCommandListener listener, boolean synthetic, CommandPriority priority) {
+        if (frame == null) {
+            throw new IllegalArgumentException("指令数据格式错误");
+        }
+
+        this.frame = frame;
+        this.commandByte = frame.getCommandByte();
+        this.boardAddress = frame.getBoardAddress();
+        this.timeout = CommandExecutionStrategy.calculateTimeout(frame.getSharedBytes());
+        this.listener = listener;
+        this.synthetic = synthetic;
+        this.priority = priority != null ? priority : CommandPriority.of(commandByte);
+        this.timestamp = System.currentTimeMillis();
+        this.createdNanos = System.nanoTime();
+
+        if (LockCtlLog.isLoggable(LockCtlLog.DEBUG)) {
+            LockCtlLog.d(TAG, "创建队列指令: 指令字=0x%02X, 板地址=0x%02X, 超时=%dms",
+                    commandByte & 0xFF, boardAddress & 0xFF, timeout);
+        }
+    }
+
+    /**
+     * 获取指令数据
+     *
+     * @return 指令数据的副本
+     */
+    public byte[] getCommandData() {
+        return frame.toByteArray();
+    }
+
+    /**
+     * 获取指令帧
+     *
+     * @return 指令帧（不可变，无需拷贝）
+     */
+    public CommandFrame getFrame() {
+        return frame;
+    }
+
+    /**
+     * 获取指令字
+     *
+     * @return 指令字
+     */
+    public byte getCommandByte() {
+        return commandByte;
+    }
+
+    /**
+     * 获取板地址
+     *
+     * @return 板地址
+     */
+    public byte getBoardAddress() {
+        return boardAddress;
+    }
+
+    /**
+     * 获取超时时间
+     *
+     * @return 超时时间（毫秒）
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * 获取监听器
+     *
+     * @return 监听器
+     */
+    public OnCommandListener getListener() {
+        return listener;
+    }
+
+    /**
+     * 是否为改写生成的指令
+     * 改写生成的指令没有原始请求方，其响应不转发给上层，而是按通道派生给被改写的查询
+     *
+     * @return 是否为改写生成
+     */
+    public boolean isSynthetic() {
+        return synthetic;
+    }
+
+    /**
+     * 是否有请求方直接请求了本指令
+     * 改写生成的指令在合并了相同查询后也视为有请求方，其响应需要转发给上层
+     *
+     * @return 是否有请求方
+     */
+    boolean hasRequester() {
+        return !synthetic || !getAttachedListeners().isEmpty();
+    }
+
+    /**
+     * 合并一个相同查询的监听器，指令完成时一并通知
+     *
+     * @param listener 监听器，可以为null（仅计数）
+     */
+    void attachListener(OnCommandListener listener) {
+        if (attachedListeners == null) {
+            attachedListeners = new ArrayList<>(2);
+        }
+        attachedListeners.add(listener);
+    }
+
+    List<OnCommandListener> getAttachedListeners() {
+        return attachedListeners != null ? attachedListeners : Collections.emptyList();
+    }
+
+    /**
+     * 将一条指令改写或合并进本指令
+     *
+     * @param query 被改写的查询或被合并的开锁指令
+     */
+    void foldQuery(QueuedCommand query) {
+        if (foldedQueries == null) {
+            foldedQueries = new ArrayList<>();
+        }
+        foldedQueries.add(query);
+    }
+
+    List<QueuedCommand> getFoldedQueries() {
+        return foldedQueries != null ? foldedQueries : Collections.emptyList();
+    }
+
+    /**
+     * 设置开锁合并窗口截止时间，截止前指令留在队列中等待合并
+     *
+     * @param holdUntil 截止时间戳（毫秒）
+     */
+    void setHoldUntil(long holdUntil) {
+        this.holdUntil = holdUntil;
+    }
+
+    long getHoldUntil() {
+        return holdUntil;
+    }
+
+    /**
+     * 检查是否仍在开锁合并窗口内
+     *
+     * @param now 当前时间戳（毫秒）
+     * @return 是否仍需等待
+     */
+    boolean isHeld(long now) {
+        return now < holdUntil;
+    }
+
+    /**
+     * 获取本指令代表的请求数（自身、合并的相同查询与改写进来的查询）
+     *
+     * @return 请求数
+     */
+    int getRequestCount() {
+        int count = (synthetic ? 0 : 1) + getAttachedListeners().size();
+        for (QueuedCommand query : getFoldedQueries()) {
+            count += query.getRequestCount();
+        }
+        return count;
+    }
+
+    /**
+     * 获取排队优先级
+     *
+     * @return 优先级
+     */
+    public CommandPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * 获取创建时间戳
+     *
+     * @return 时间戳
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * 记录发出时间
+     *
+     * @param sentAt    发出时间戳（毫秒）
+     * @param sentNanos 发出时的 System.nanoTime()
+     */
+    void markSent(long sentAt, long sentNanos) {
+        this.sentAt = sentAt;
+        this.sentNanos = sentNanos;
+    }
+
+    long getCreatedNanos() {
+        return createdNanos;
+    }
+
+    long getSentNanos() {
+        return sentNanos;
+    }
+
+    /**
+     * 获取发出时间戳
+     *
+     * @return 发出时间戳，未发出返回0
+     */
+    public long getSentAt() {
+        return sentAt;
+    }
+
+    /**
+     * 设置超时任务句柄
+     *
+     * @param timeoutHandle 超时任务句柄
+     */
+    void setTimeoutHandle(HashedWheelTimer.Timeout timeoutHandle) {
+        this.timeoutHandle = timeoutHandle;
+    }
+
+    /**
+     * 取消超时任务
+     */
+    void cancelTimeout() {
+        HashedWheelTimer.Timeout handle = timeoutHandle;
+        if (handle != null) {
+            handle.cancel();
+        }
+    }
+
+    /**
+     * 检查是否已完成
+     *
+     * @return 是否已完成
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * 标记为已完成
+     */
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+        if (LockCtlLog.isLoggable(LockCtlLog.DEBUG)) {
+            LockCtlLog.d(TAG, "指令完成状态更新: 指令字=0x%02X, 完成=%s",
+                    commandByte & 0xFF, completed);
+        }
+    }
+
+    /**
+     * 检查是否已超时
+     *
+     * @return 是否已超时
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * 标记为已超时
+     */
+    public void setTimedOut(boolean timedOut) {
+        this.timedOut = timedOut;
+        if (timedOut) {
+            LockCtlLog.w(TAG, "指令超时: 指令字=0x%02X", commandByte & 0xFF);
+        }
+    }
+
+    /**
+     * 检查是否已经超时（基于时间计算）
+     *
+     * @return 是否已超时
+     */
+    public boolean isExpired() {
+        long elapsedTime = System.currentTimeMillis() - timestamp;
+        return elapsedTime > timeout;
+    }
+
+    /**
+     * 获取剩余超时时间
+     *
+     * @return 剩余超时时间（毫秒），如果已超时则返回0
+     */
+    public long getRemainingTimeout() {
+        long elapsedTime = System.currentTimeMillis() - timestamp;
+        long remaining = timeout - elapsedTime;
+        return Math.max(0, remaining);
+    }
+
+    /**
+     * 获取指令描述
+     *
+     * @return 指令描述
+     */
+    public String getDescription() {
+        return CommandExecutionStrategy.getCommandDescription(commandByte);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("QueuedCommand{cmd=0x%02X, addr=0x%02X, priority=%s, timeout=%dms, completed=%s, timedOut=%s, desc='%s'}",
+                commandByte & 0xFF, boardAddress & 0xFF, priority, timeout, completed, timedOut, getDescription());
+    }
+}
\ No newline at end of file
@@ -1,6 +1,8 @@
 package xyz.junerver.android.lockdemo.lockctl.debounce;
 
-import android.util.Log;
+import xyz.junerver.android.lockdemo.lockctl.CommandFrame;
+import xyz.junerver.android.lockdemo.lockctl.LockCtlLog;
+import xyz.junerver.android.lockdemo.lockctl.ResponseFrame;
 
 /**
  * 响应匹配器
@@ -10,7 +12,6 @@ public class ResponseMatcher {
     private static final String TAG = "ResponseMatcher";
 
     // 协议常量
-    private static final byte[] START_BYTES = {0x57, 0x4B, 0x4C, 0x59}; // 起始符: "W K L Y"
     private static final byte STATUS_SUCCESS = 0x00;          // 执行成功
     private static final byte STATUS_FAILED = (byte) 0xFF;    // 执行失败
 
@@ -23,18 +24,18 @@ public class ResponseMatcher {
      */
     public static boolean isResponseForCommand(byte[] response, byte[] command) {
         if (response == null || command == null) {
-            Log.w(TAG, "响应或指令为null");
+            LockCtlLog.w(TAG, "响应或指令为null");
             return false;
         }
 
         if (response.length < 7 || command.length < 7) {
-            Log.w(TAG, "响应或指令长度不足");
+            LockCtlLog.w(TAG, "响应或指令长度不足");
             return false;
         }
 
         // 验证响应的基本格式
         if (!isValidResponseFormat(response)) {
-            Log.w(TAG, "响应格式无效");
+            LockCtlLog.w(TAG, "响应格式无效");
             return false;
         }
 
@@ -43,11 +44,19 @@ public class ResponseMatcher {
         byte responseAddr = response[5];
         byte commandAddr = command[5];
 
-        boolean isMatch = responseCmd == commandCmd && responseAddr == commandAddr;
+        // 按 (板地址, 指令字, 通道) 关联，双方都带通道时要求通道一致
+        int responseChannel = getChannelId(response);
+        int commandChannel = CommandFrame.channelIdOf(command);
 
-        Log.i(TAG, String.format("响应匹配检查: 指令字=0x%02X->0x%02X, 板地址=0x%02X->0x%02X, 匹配=%s",
-                commandCmd & 0xFF, responseCmd & 0xFF,
-                commandAddr & 0xFF, responseAddr & 0xFF, isMatch));
+        boolean isMatch = responseCmd == commandCmd && responseAddr == commandAddr
+                && (responseChannel == -1 || commandChannel == -1 || responseChannel == commandChannel);
+
+        if (LockCtlLog.isLoggable(LockCtlLog.DEBUG)) {
+            LockCtlLog.d(TAG, "响应匹配检查: 指令字=0x%02X->0x%02X, 板地址=0x%02X->0x%02X, 通道=%d->%d, 匹配=%s",
+                    commandCmd & 0xFF, responseCmd & 0xFF,
+                    commandAddr & 0xFF, responseAddr & 0xFF,
+                    commandChannel, responseChannel, isMatch);
+        }
 
         return isMatch;
     }
@@ -60,15 +69,17 @@ public class ResponseMatcher {
      */
     public static boolean isSuccessResponse(byte[] response) {
         if (response == null || response.length < 8) {
-            Log.w(TAG, "响应数据长度不足，无法判断执行状态");
+            LockCtlLog.w(TAG, "响应数据长度不足，无法判断执行状态");
             return false;
         }
 
-        byte status = response[7];
-        boolean isSuccess = status == STATUS_SUCCESS;
+        ResponseFrame frame = ResponseFrame.wrap(response, 0, response.length);
+        boolean isSuccess = frame != null && frame.isSuccess();
 
-        Log.d(TAG, String.format("响应状态检查: 状态字节=0x%02X, 执行%s",
-                status & 0xFF, isSuccess ? "成功" : "失败"));
+        if (LockCtlLog.isLoggable(LockCtlLog.DEBUG)) {
+            LockCtlLog.d(TAG, "响应状态检查: 状态字节=0x%02X, 执行%s",
+                    response[7] & 0xFF, isSuccess ? "成功" : "失败");
+        }
 
         return isSuccess;
     }
@@ -84,19 +95,10 @@ public class ResponseMatcher {
             return false;
         }
 
-        // 检查起始符
-        if (response.length < START_BYTES.length ||
-                !java.util.Arrays.equals(
-                        java.util.Arrays.copyOfRange(response, 0, START_BYTES.length),
-                        START_BYTES)) {
-            Log.w(TAG, "响应起始符不匹配");
-            return false;
-        }
-
-        // 检查帧长度
-        int frameLength = response[4] & 0xFF;
-        if (frameLength != response.length) {
-            Log.w(TAG, String.format("响应帧长度不匹配: 期望=%d, 实际=%d", frameLength, response.length));
+        // 检查起始符与帧长度（原地比较，不拷贝）
+        if (!ResponseFrame.hasValidHeader(response, 0, response.length)) {
+            LockCtlLog.w(TAG, "响应起始符或帧长度不匹配: 帧长度字段=%d, 实际=%d",
+                    response[4] & 0xFF, response.length);
             return false;
         }
 
@@ -114,7 +116,23 @@ public class ResponseMatcher {
             return "响应数据无效";
         }
 
-        byte status = response[7];
+        return describeStatus(response[7]);
+    }
+
+    /**
+     * 从已解码的响应帧中提取状态信息
+     *
+     * @param frame 响应帧
+     * @return 状态描述
+     */
+    public static String getResponseStatusDescription(ResponseFrame frame) {
+        if (frame == null || frame.getStatus() == ResponseFrame.NONE) {
+            return "响应数据无效";
+        }
+        return describeStatus((byte) frame.getStatus());
+    }
+
+    private static String describeStatus(byte status) {
         switch (status) {
             case STATUS_SUCCESS:
                 return "执行成功";
@@ -127,52 +145,29 @@ public class ResponseMatcher {
 
     /**
      * 从响应中提取通道信息（如果有的话）
+     * 通道位置由 ResponseFrame 的指令布局表决定
      *
      * @param response 响应数据
      * @return 通道ID，如果响应中没有通道信息则返回-1
      */
     public static int getChannelId(byte[] response) {
-        if (response == null || response.length < 9) {
-            return -1;
-        }
-
-        byte commandByte = response[6];
-
-        // 根据指令类型判断是否包含通道信息
-        switch (commandByte) {
-            case (byte) 0x81: // 通道闪烁
-            case (byte) 0x82: // 开单个锁
-            case (byte) 0x83: // 查询单个门状态
-            case (byte) 0x88: // 通道常开
-            case (byte) 0x89: // 通道关闭
-                return response[8] & 0xFF;
-
-            default:
-                return -1;
-        }
+        ResponseFrame frame = wrap(response);
+        return frame != null ? frame.getChannelId() : -1;
     }
 
     /**
      * 从响应中提取锁状态信息（如果有的话）
+     * 锁状态位置由 ResponseFrame 的指令布局表决定
      *
      * @param response 响应数据
      * @return 锁状态，如果响应中没有锁状态则返回-1
      */
     public static int getLockStatus(byte[] response) {
-        if (response == null || response.length < 10) {
-            return -1;
-        }
-
-        byte commandByte = response[6];
-
-        // 根据指令类型判断是否包含锁状态
-        switch (commandByte) {
-            case (byte) 0x82: // 开单个锁
-            case (byte) 0x83: // 查询单个门状态
-                return response[9] & 0xFF;
+        ResponseFrame frame = wrap(response);
+        return frame != null ? frame.getLockStatus() : -1;
+    }
 
-            default:
-                return -1;
-        }
+    private static ResponseFrame wrap(byte[] response) {
+        return response != null ? ResponseFrame.wrap(response, 0, response.length) : null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,209 @@
+package xyz.junerver.android.lockdemo.lockctl.debounce;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 响应时间模型
+ * 按 (板地址, 指令字) 在线学习响应延迟分布，为 CommandExecutionStrategy 提供实测超时：
+ * <p>
+ * 1. 平滑均值与平均偏差按 EWMA 更新（与 TCP 重传超时的估算方式相同）
+ * 2. 高分位数取最近若干次样本的 P95
+ * 3. 超时后按指数退避放宽该指令的超时，收到成功响应后复位
+ * <p>
+ * 逐一开锁类指令按单锁耗时记录，计算超时时再乘以锁数量；同时记录各板由 0x84 响应得到的通道数，
+ * 供开全部锁 (0x86) 估算锁数量
+ */
+public class ResponseTimeModel {
+
+    // 样本数不足时以静态超时为下限
+    static final int MIN_SAMPLES = 8;
+    // 高分位数的样本窗口
+    private static final int WINDOW_SIZE = 32;
+    private static final double PERCENTILE = 0.95;
+
+    // EWMA 系数（RFC 6298）
+    private static final double ALPHA = 1.0 / 8;
+    private static final double BETA = 1.0 / 4;
+    private static final int DEVIATION_FACTOR = 4;
+    // 高分位数余量
+    private static final double PERCENTILE_MARGIN = 1.25;
+    // 调度与串口收发的固定余量（毫秒）
+    private static final long FIXED_SLACK_MS = 20;
+    // 超时上下限（毫秒）
+    private static final long MIN_TIMEOUT_MS = 50;
+    private static final long MAX_TIMEOUT_MS = 30_000;
+    private static final int MAX_BACKOFF = 4;
+
+    private final ConcurrentHashMap<Integer, LatencyStats> statsMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Integer> channelCounts = new ConcurrentHashMap<>();
+
+    private static int key(byte boardAddress, byte commandByte) {
+        return ((boardAddress & 0xFF) << 8) | (commandByte & 0xFF);
+    }
+
+    private LatencyStats statsOf(byte boardAddress, byte commandByte) {
+        return statsMap.computeIfAbsent(key(boardAddress, commandByte), k -> new LatencyStats());
+    }
+
+    /**
+     * 记录一次成功响应的延迟
+     *
+     * @param boardAddress 板地址
+     * @param commandByte  指令字
+     * @param units        指令包含的工作量（逐一开锁类为锁数量，其余为1）
+     * @param latencyMs    发出到收到响应的耗时（毫秒）
+     */
+    public void recordResponse(byte boardAddress, byte commandByte, int units, long latencyMs) {
+        statsOf(boardAddress, commandByte).record((double) latencyMs / Math.max(1, units));
+    }
+
+    /**
+     * 记录一次超时，该指令后续的超时按指数退避放宽
+     *
+     * @param boardAddress 板地址
+     * @param commandByte  指令字
+     */
+    public void recordTimeout(byte boardAddress, byte commandByte) {
+        statsOf(boardAddress, commandByte).backOff();
+    }
+
+    /**
+     * 记录板的通道数（来自查询所有门状态响应）
+     *
+     * @param boardAddress 板地址
+     * @param channelCount 通道数
+     */
+    public void recordChannelCount(byte boardAddress, int channelCount) {
+        if (channelCount > 0) {
+            channelCounts.put(boardAddress & 0xFF, channelCount);
+        }
+    }
+
+    /**
+     * 获取板的通道数
+     *
+     * @param boardAddress 板地址
+     * @return 已发现的通道数，未知返回-1
+     */
+    public int getChannelCount(byte boardAddress) {
+        Integer count = channelCounts.get(boardAddress & 0xFF);
+        return count != null ? count : -1;
+    }
+
+    /**
+     * 根据实测延迟计算超时
+     *
+     * @param boardAddress  板地址
+     * @param commandByte   指令字
+     * @param units         指令包含的工作量
+     * @param staticTimeout 静态超时，样本不足时作为下限
+     * @return 超时时间（毫秒）
+     */
+    public long timeoutFor(byte boardAddress, byte commandByte, int units, long staticTimeout) {
+        LatencyStats stats = statsMap.get(key(boardAddress, commandByte));
+        if (stats == null) {
+            return staticTimeout;
+        }
+        return stats.timeout(Math.max(1, units), staticTimeout);
+    }
+
+    /**
+     * 获取统计快照
+     *
+     * @param boardAddress 板地址
+     * @param commandByte  指令字
+     * @return 统计快照，没有样本返回null
+     */
+    public Snapshot getSnapshot(byte boardAddress, byte commandByte) {
+        LatencyStats stats = statsMap.get(key(boardAddress, commandByte));
+        return stats != null ? stats.snapshot() : null;
+    }
+
+    /**
+     * 清空全部统计
+     */
+    public void reset() {
+        statsMap.clear();
+        channelCounts.clear();
+    }
+
+    /**
+     * 单个 (板地址, 指令字) 的延迟统计
+     */
+    private static final class LatencyStats {
+        private double smoothed;
+        private double deviation;
+        private double maxObserved;
+        private long samples;
+        private final double[] window = new double[WINDOW_SIZE];
+        private int backoff;
+
+        synchronized void record(double latency) {
+            if (samples == 0) {
+                smoothed = latency;
+                deviation = latency / 2;
+            } else {
+                deviation = (1 - BETA) * deviation + BETA * Math.abs(smoothed - latency);
+                smoothed = (1 - ALPHA) * smoothed + ALPHA * latency;
+            }
+            window[(int) (samples % WINDOW_SIZE)] = latency;
+            maxObserved = Math.max(maxObserved, latency);
+            samples++;
+            backoff = 0;
+        }
+
+        synchronized void backOff() {
+            backoff = Math.min(MAX_BACKOFF, backoff + 1);
+        }
+
+        synchronized long timeout(int units, long staticTimeout) {
+            long timeout;
+            if (samples < MIN_SAMPLES) {
+                // 样本不足：静态超时与已观测到的最大延迟取大
+                timeout = Math.max(staticTimeout, (long) (maxObserved * PERCENTILE_MARGIN * units) + FIXED_SLACK_MS);
+            } else {
+                double perUnit = Math.max(smoothed + DEVIATION_FACTOR * deviation, percentile() * PERCENTILE_MARGIN);
+                timeout = (long) (perUnit * units) + FIXED_SLACK_MS;
+            }
+            timeout <<= backoff;
+            return Math.max(MIN_TIMEOUT_MS, Math.min(MAX_TIMEOUT_MS, timeout));
+        }
+
+        private double percentile() {
+            int count = (int) Math.min(samples, WINDOW_SIZE);
+            double[] sorted = Arrays.copyOf(window, count);
+            Arrays.sort(sorted);
+            return sorted[Math.min(count - 1, (int) Math.ceil(PERCENTILE * count) - 1)];
+        }
+
+        synchronized Snapshot snapshot() {
+            return new Snapshot(samples, smoothed, deviation, samples > 0 ? percentile() : 0, backoff);
+        }
+    }
+
+    /**
+     * 延迟统计快照（逐一开锁类指令为单锁耗时）
+     */
+    public static class Snapshot {
+        public final long samples;
+        public final double smoothedMs;
+        public final double deviationMs;
+        public final double p95Ms;
+        public final int backoff;
+
+        public Snapshot(long samples, double smoothedMs, double deviationMs, double p95Ms, int backoff) {
+            this.samples = samples;
+            this.smoothedMs = smoothedMs;
+            this.deviationMs = deviationMs;
+            this.p95Ms = p95Ms;
+            this.backoff = backoff;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Snapshot{samples=%d, smoothed=%.1fms, deviation=%.1fms, p95=%.1fms, backoff=%d}",
+                    samples, smoothedMs, deviationMs, p95Ms, backoff);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package xyz.junerver.android.lockdemo
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
+import xyz.junerver.android.lockdemo.lockctl.debounce.QueuedCommand
+import java.nio.ByteBuffer
+
+/**
+ * 预编码指令帧测试
+ * 1. 验证缓存帧与通用 buildCommand 的编码结果逐字节一致
+ * 2. 验证缓存帧被共享、字节数组形式返回副本
+ * 与逐次构造的性能对比见 benchmark 模块的 CommandEncodingBenchmark
+ */
+class CommandFrameTest {
+
+  private fun legacy(board: Int, command: Int, vararg data: Int): ByteArray =
+    LockCtlBoardCmdHelper.buildCommand(board.toByte(), command.toByte(), ByteArray(data.size) { data[it].toByte() })
+
+  @Test
+  fun testCachedFramesMatchBuildCommand() {
+    for (board in listOf(0x00, 0x01, 0x1F, 0xFF)) {
+      val address = board.toByte()
+      for (channel in 0..24) {
+        assertArrayEquals(legacy(board, 0x81, channel), LockCtlBoardCmdHelper.flashChannelFrame(address, channel)!!.toByteArray())
+        assertArrayEquals(legacy(board, 0x82, channel), LockCtlBoardCmdHelper.openSingleLockFrame(address, channel)!!.toByteArray())
+        assertArrayEquals(legacy(board, 0x83, channel), LockCtlBoardCmdHelper.getSingleLockStatusFrame(address, channel)!!.toByteArray())
+        assertArrayEquals(legacy(board, 0x88, channel), LockCtlBoardCmdHelper.channelKeepOpenFrame(address, channel).toByteArray())
+        assertArrayEquals(legacy(board, 0x89, channel), LockCtlBoardCmdHelper.closeChannelFrame(address, channel).toByteArray())
+      }
+      assertArrayEquals(legacy(board, 0x84), LockCtlBoardCmdHelper.getAllLocksStatusFrame(address).toByteArray())
+      assertArrayEquals(legacy(board, 0x86), LockCtlBoardCmdHelper.openAllLocksFrame(address).toByteArray())
+      assertArrayEquals(legacy(board, 0x80, 2, 1, 2), LockCtlBoardCmdHelper.openMultipleLocksFrame(address, 1, 2)!!.toByteArray())
+      assertArrayEquals(
+        legacy(board, 0x87, 4, 1, 3, 5, 24),
+        LockCtlBoardCmdHelper.openMultipleSequentialFrame(address, 1, 3, 5, 24)!!.toByteArray()
+      )
+    }
+    println("✅ 缓存帧与 buildCommand 编码结果一致")
+  }
+
+  @Test
+  fun testRangeHandling() {
+    assertNull("超出范围的通道应返回null", LockCtlBoardCmdHelper.openSingleLockFrame(0x00, 25))
+    assertNull("超出范围的通道应返回null", LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, -1))
+    assertNull("空锁列表应返回null", LockCtlBoardCmdHelper.openMultipleSequentialFrame(0x00))
+
+    // 0x88/0x89 不做范围校验，超出缓存范围时按原样编码
+    assertArrayEquals(legacy(0, 0x88, 30), LockCtlBoardCmdHelper.channelKeepOpenFrame(0x00, 30).toByteArray())
+    assertArrayEquals(legacy(0, 0x89, 30), LockCtlBoardCmdHelper.closeChannelFrame(0x00, 30).toByteArray())
+  }
+
+  @Test
+  fun testFramesAreShared() {
+    val a = LockCtlBoardCmdHelper.openSingleLockFrame(0x00, 3)
+    val b = LockCtlBoardCmdHelper.openSingleLockFrame(0x00, 3)
+    assertSame("同一指令应返回同一预编码帧", a, b)
+
+    // 字节数组形式返回副本，修改不影响缓存
+    val bytes = LockCtlBoardCmdHelper.buildOpenSingleLockCommand(0x00, 3)!!
+    bytes[7] = 9
+    assertArrayEquals(legacy(0, 0x82, 3), LockCtlBoardCmdHelper.buildOpenSingleLockCommand(0x00, 3))
+
+    // 队列指令直接持有预编码帧
+    val queued = QueuedCommand(a!!, null)
+    assertSame("队列指令应共享预编码帧", a, queued.frame)
+    assertNotSame("getCommandData 仍返回副本", queued.frame.sharedBytes, queued.commandData)
+  }
+
+  @Test
+  fun testWriteTo() {
+    val frame = LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x01, 5)!!
+    val buffer = ByteBuffer.allocate(64)
+    frame.writeTo(buffer)
+    frame.writeTo(buffer)
+    assertEquals(frame.length() * 2, buffer.position())
+
+    val written = ByteArray(frame.length())
+    buffer.flip()
+    buffer.get(written)
+    assertTrue("写出内容应与帧一致", frame.contentEquals(written))
+  }
+}
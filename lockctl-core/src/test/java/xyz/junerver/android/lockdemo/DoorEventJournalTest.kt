@@ -0,0 +1,112 @@
+package xyz.junerver.android.lockdemo
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import xyz.junerver.android.lockdemo.lockctl.DoorEventJournal
+import xyz.junerver.android.lockdemo.lockctl.LockStateShadow
+import java.io.File
+import java.io.RandomAccessFile
+
+/**
+ * DoorEventJournal 测试类
+ * 测试追加与回放、换段与旧段删除、崩溃后尾部恢复，以及回放恢复锁状态影子
+ */
+class DoorEventJournalTest {
+
+  @get:Rule
+  val folder = TemporaryFolder()
+
+  private fun replayAll(journal: DoorEventJournal): List<LongArray> {
+    val events = mutableListOf<LongArray>()
+    journal.replay { timestampMs, boardAddress, channelId, lockStatus ->
+      events.add(longArrayOf(timestampMs, boardAddress.toLong(), channelId.toLong(), lockStatus.toLong()))
+    }
+    return events
+  }
+
+  @Test
+  fun testAppendAndReplayAcrossSegments() {
+    val dir = folder.newFolder("journal")
+    val journal = DoorEventJournal(dir, 100, 3)
+    for (i in 0 until 250) {
+      journal.append(1000L + i, i % 4, i % 12 + 1, i % 2)
+    }
+
+    val events = replayAll(journal)
+    println("段数: ${journal.segmentCount}, 回放: ${events.size}")
+    assertEquals(3, journal.segmentCount)
+    assertEquals(250, events.size)
+    events.forEachIndexed { i, event ->
+      assertEquals(1000L + i, event[0])
+      assertEquals((i % 12 + 1).toLong(), event[2])
+    }
+    journal.close()
+    assertFalse("关闭后不再追加", journal.append(0, 0, 1, 0))
+
+    // 重新打开后接着写
+    val reopened = DoorEventJournal(dir, 100, 3)
+    reopened.append(5000, 1, 1, 1)
+    assertEquals(251, replayAll(reopened).size)
+    reopened.close()
+  }
+
+  @Test
+  fun testOldSegmentsDeleted() {
+    val dir = folder.newFolder("journal")
+    val journal = DoorEventJournal(dir, 10, 2)
+    for (i in 0 until 35) {
+      journal.append(i.toLong(), 0, 1, i % 2)
+    }
+
+    val events = replayAll(journal)
+    println("保留段数: ${journal.segmentCount}, 回放: ${events.size}")
+    assertEquals(2, journal.segmentCount)
+    assertEquals(2, dir.listFiles()!!.size)
+    // 只保留最后两段：20..34
+    assertEquals(15, events.size)
+    assertEquals(20L, events.first()[0])
+    journal.close()
+  }
+
+  @Test
+  fun testRecoverTornTail() {
+    val dir = folder.newFolder("journal")
+    val journal = DoorEventJournal(dir, 100, 4)
+    for (i in 0 until 20) {
+      journal.append(i.toLong(), 0, 1, i % 2)
+    }
+    // 不关闭，模拟进程崩溃时最后一条记录只写了一半
+    val segment = dir.listFiles()!!.single()
+    RandomAccessFile(segment, "rw").use { it.seek(19L * DoorEventJournal.RECORD_SIZE + 3); it.write(0x7F) }
+
+    val recovered = DoorEventJournal(dir, 100, 4)
+    assertEquals("损坏的尾部记录应被丢弃", 19, replayAll(recovered).size)
+    recovered.append(100, 0, 2, 1)
+    val events = replayAll(recovered)
+    assertEquals(20, events.size)
+    assertEquals("新记录写在损坏记录的位置", 100L, events.last()[0])
+    recovered.close()
+  }
+
+  @Test
+  fun testRebuildLockStateShadow() {
+    val journal = DoorEventJournal(File(folder.root, "journal"))
+    val now = System.currentTimeMillis()
+    journal.append(now - 3000, 0x01, 3, 0x00)
+    journal.append(now - 2000, 0x01, 3, 0x01)
+    journal.append(now - 1000, 0x02, 5, 0x00)
+
+    val shadow = LockStateShadow()
+    assertEquals(3L, journal.rebuild(shadow))
+    assertEquals("后发生的事件覆盖先发生的", 0x01, shadow.getLockStatus(0x01, 3, 60_000))
+    assertEquals(0x00, shadow.getLockStatus(0x02, 5, 60_000))
+    println("恢复后通道状态年龄: ${shadow.getAgeMs(0x01, 3)}ms")
+    assertEquals("恢复的状态保留事件发生时的年龄", LockStateShadow.STATUS_CLOSED,
+      shadow.getLockStatus(0x01, 3, 2500))
+    assertEquals(-1, shadow.getLockStatus(0x01, 3, 1500))
+    journal.close()
+  }
+}
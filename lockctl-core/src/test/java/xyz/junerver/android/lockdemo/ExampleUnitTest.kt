@@ -192,9 +192,9 @@ class ExampleUnitTest {
     // 验证JSON包含必要字段
     assertTrue(
       "JSON应包含commandType字段",
-      jsonResult.contains("\"commandType\": \"open_multiple_locks\"")
+      jsonResult.contains("\"commandType\":\"open_multiple_locks\"")
     )
-    assertTrue("JSON应包含status字段", jsonResult.contains("\"status\": 0"))
+    assertTrue("JSON应包含status字段", jsonResult.contains("\"status\":0"))
     assertTrue("JSON应包含成功消息", jsonResult.contains("成功"))
   }
 
@@ -210,10 +210,10 @@ class ExampleUnitTest {
     // 验证JSON包含必要字段
     assertTrue(
       "JSON应包含commandType字段",
-      jsonResult.contains("\"commandType\": \"flash_channel\"")
+      jsonResult.contains("\"commandType\":\"flash_channel\"")
     )
-    assertTrue("JSON应包含status字段", jsonResult.contains("\"status\": 0"))
-    assertTrue("JSON应包含channelNo字段", jsonResult.contains("\"channelNo\": 1"))
+    assertTrue("JSON应包含status字段", jsonResult.contains("\"status\":0"))
+    assertTrue("JSON应包含channelNo字段", jsonResult.contains("\"channelNo\":1"))
   }
 
   /**
@@ -228,14 +228,14 @@ class ExampleUnitTest {
     // 验证JSON包含必要字段
     assertTrue(
       "JSON应包含commandType字段",
-      jsonResult.contains("\"commandType\": \"open_single_lock\"")
+      jsonResult.contains("\"commandType\":\"open_single_lock\"")
     )
-    assertTrue("JSON应包含status字段", jsonResult.contains("\"status\": 0"))
-    assertTrue("JSON应包含channelNo字段", jsonResult.contains("\"channelNo\": 1"))
+    assertTrue("JSON应包含status字段", jsonResult.contains("\"status\":0"))
+    assertTrue("JSON应包含channelNo字段", jsonResult.contains("\"channelNo\":1"))
     assertTrue("JSON应包含channelStatus字段", jsonResult.contains("\"channelStatus\""))
     assertTrue(
       "JSON应包含isLocked字段",
-      jsonResult.contains("\"isLocked\": false")
+      jsonResult.contains("\"isLocked\":false")
     ) // 0x00表示打开，所以isLocked为false
   }
 
@@ -251,10 +251,10 @@ class ExampleUnitTest {
     // 验证JSON包含必要字段
     assertTrue(
       "JSON应包含commandType字段",
-      jsonResult.contains("\"commandType\": \"get_single_lock_status\"")
+      jsonResult.contains("\"commandType\":\"get_single_lock_status\"")
     )
-    assertTrue("JSON应包含status字段", jsonResult.contains("\"status\": 0"))
-    assertTrue("JSON应包含channelNo字段", jsonResult.contains("\"channelNo\": 1"))
+    assertTrue("JSON应包含status字段", jsonResult.contains("\"status\":0"))
+    assertTrue("JSON应包含channelNo字段", jsonResult.contains("\"channelNo\":1"))
     assertTrue("JSON应包含channelStatus字段", jsonResult.contains("\"channelStatus\""))
   }
 
@@ -271,11 +271,11 @@ class ExampleUnitTest {
     // 验证JSON包含必要字段
     assertTrue(
       "JSON应包含commandType字段",
-      jsonResult.contains("\"commandType\": \"get_all_locks_status\"")
+      jsonResult.contains("\"commandType\":\"get_all_locks_status\"")
     )
-    assertTrue("JSON应包含status字段", jsonResult.contains("\"status\": 0"))
-    assertTrue("JSON应包含channelCount字段", jsonResult.contains("\"channelCount\": 4"))
-    assertTrue("JSON应包含channelStatus数组", jsonResult.contains("\"channelStatus\": ["))
+    assertTrue("JSON应包含status字段", jsonResult.contains("\"status\":0"))
+    assertTrue("JSON应包含channelCount字段", jsonResult.contains("\"channelCount\":4"))
+    assertTrue("JSON应包含channelStatus数组", jsonResult.contains("\"channelStatus\":["))
   }
 
   /**
@@ -290,13 +290,13 @@ class ExampleUnitTest {
     // 验证JSON包含必要字段
     assertTrue(
       "JSON应包含commandType字段",
-      jsonResult.contains("\"commandType\": \"status_upload\"")
+      jsonResult.contains("\"commandType\":\"status_upload\"")
     )
-    assertTrue("JSON应包含channelNo字段", jsonResult.contains("\"channelNo\": 1"))
+    assertTrue("JSON应包含channelNo字段", jsonResult.contains("\"channelNo\":1"))
     assertTrue("JSON应包含channelStatus字段", jsonResult.contains("\"channelStatus\""))
     assertTrue(
       "JSON应包含isLocked字段",
-      jsonResult.contains("\"isLocked\": true")
+      jsonResult.contains("\"isLocked\":true")
     ) // 0x01表示关闭，所以isLocked为true
   }
 
@@ -312,9 +312,9 @@ class ExampleUnitTest {
     // 验证JSON包含必要字段
     assertTrue(
       "JSON应包含commandType字段",
-      jsonResult.contains("\"commandType\": \"open_all_locks\"")
+      jsonResult.contains("\"commandType\":\"open_all_locks\"")
     )
-    assertTrue("JSON应包含status字段", jsonResult.contains("\"status\": 0"))
+    assertTrue("JSON应包含status字段", jsonResult.contains("\"status\":0"))
   }
 
   /**
@@ -329,9 +329,9 @@ class ExampleUnitTest {
     // 验证JSON包含必要字段
     assertTrue(
       "JSON应包含commandType字段",
-      jsonResult.contains("\"commandType\": \"open_multiple_sequential\"")
+      jsonResult.contains("\"commandType\":\"open_multiple_sequential\"")
     )
-    assertTrue("JSON应包含status字段", jsonResult.contains("\"status\": 0"))
+    assertTrue("JSON应包含status字段", jsonResult.contains("\"status\":0"))
   }
 
   /**
@@ -348,10 +348,10 @@ class ExampleUnitTest {
     // 验证JSON包含必要字段
     assertTrue(
       "JSON应包含commandType字段",
-      jsonResult.contains("\"commandType\": \"channel_keep_open\"")
+      jsonResult.contains("\"commandType\":\"channel_keep_open\"")
     )
-    assertTrue("JSON应包含status字段", jsonResult.contains("\"status\": 0"))
-    assertTrue("JSON应包含channelNo字段", jsonResult.contains("\"channelNo\": 1"))
+    assertTrue("JSON应包含status字段", jsonResult.contains("\"status\":0"))
+    assertTrue("JSON应包含channelNo字段", jsonResult.contains("\"channelNo\":1"))
     assertTrue("JSON应包含成功消息", jsonResult.contains("成功"))
   }
 
@@ -367,10 +367,10 @@ class ExampleUnitTest {
     println("通道关闭JSON响应: $jsonResult")
     assertTrue(
       "JSON应包含commandType字段",
-      jsonResult.contains("\"commandType\": \"close_channel\"")
+      jsonResult.contains("\"commandType\":\"close_channel\"")
     )
-    assertTrue("JSON应包含status字段", jsonResult.contains("\"status\": 0"))
-    assertTrue("JSON应包含channelNo字段", jsonResult.contains("\"channelNo\": 1"))
+    assertTrue("JSON应包含status字段", jsonResult.contains("\"status\":0"))
+    assertTrue("JSON应包含channelNo字段", jsonResult.contains("\"channelNo\":1"))
     assertTrue("JSON应包含成功消息", jsonResult.contains("成功"))
   }
 
@@ -385,8 +385,8 @@ class ExampleUnitTest {
     println("无效响应JSON解析结果: $jsonResult")
 
     // 验证错误响应格式
-    assertTrue("错误响应应包含error命令类型", jsonResult.contains("\"commandType\": \"error\""))
-    assertTrue("错误响应应包含错误状态", jsonResult.contains("\"status\": -1"))
+    assertTrue("错误响应应包含error命令类型", jsonResult.contains("\"commandType\":\"error\""))
+    assertTrue("错误响应应包含错误状态", jsonResult.contains("\"status\":-1"))
     assertTrue("错误响应应包含错误消息", jsonResult.contains("响应数据格式错误"))
   }
 
@@ -0,0 +1,130 @@
+package xyz.junerver.android.lockdemo
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import xyz.junerver.android.lockdemo.lockctl.FrameDecoder
+
+/**
+ * FrameDecoder 测试类
+ * 测试环形缓冲区帧解码器对分包、粘包、噪声数据与缓冲区回绕的处理
+ */
+class FrameDecoderTest {
+
+  private val frames = mutableListOf<ByteArray>()
+  private val decoder = FrameDecoder { frames.add(it) }
+
+  /**
+   * 创建状态上传帧 (0x85)
+   */
+  private fun statusUploadFrame(channel: Int, state: Int): ByteArray {
+    val frame = byteArrayOf(0x57, 0x4B, 0x4C, 0x59, 0x0A, 0x00, 0x85.toByte(), channel.toByte(), state.toByte(), 0)
+    var checksum = 0
+    for (i in 0 until frame.size - 1) {
+      checksum = checksum xor frame[i].toInt()
+    }
+    frame[frame.size - 1] = checksum.toByte()
+    return frame
+  }
+
+  @Test
+  fun testSingleFrame() {
+    val frame = statusUploadFrame(1, 0)
+    val count = decoder.feed(frame)
+
+    assertEquals("应提取出1帧", 1, count)
+    assertArrayEquals("帧数据应一致", frame, frames[0])
+    assertEquals("缓冲区应为空", 0, decoder.size())
+  }
+
+  @Test
+  fun testSplitFrame() {
+    val frame = statusUploadFrame(2, 1)
+
+    // 逐字节投递，模拟串口分包
+    for (i in 0 until frame.size - 1) {
+      assertEquals("帧未完整时不应交付", 0, decoder.feed(frame, i, 1))
+    }
+    assertEquals(1, decoder.feed(frame, frame.size - 1, 1))
+
+    assertArrayEquals("分包重组后帧数据应一致", frame, frames[0])
+    assertEquals(0, decoder.size())
+  }
+
+  @Test
+  fun testStickyFramesWithNoise() {
+    // 噪声 + 3帧粘包 + 下一帧的前半部分
+    val noise = byteArrayOf(0x00, 0x11, 0x57, 0x4B, 0x22)
+    val burst = noise + statusUploadFrame(1, 0) + statusUploadFrame(2, 1) + statusUploadFrame(3, 0)
+    val next = statusUploadFrame(4, 1)
+
+    val count = decoder.feed(burst + next.copyOfRange(0, 6))
+
+    assertEquals("应提取出3帧", 3, count)
+    assertEquals(3, frames.size)
+    assertEquals("第3帧通道号应为3", 3, frames[2][7].toInt())
+    assertEquals("剩余半帧应留在缓冲区", 6, decoder.size())
+
+    decoder.feed(next.copyOfRange(6, next.size))
+    assertArrayEquals("跨批次的帧应完整交付", next, frames[3])
+  }
+
+  @Test
+  fun testInvalidLengthResync() {
+    // 帧长度字段非法的起始符应被跳过
+    val bad = byteArrayOf(0x57, 0x4B, 0x4C, 0x59, 0x02)
+    val frame = statusUploadFrame(5, 0)
+
+    decoder.feed(bad + frame)
+
+    assertEquals("应只提取出有效帧", 1, frames.size)
+    assertArrayEquals(frame, frames[0])
+  }
+
+  @Test
+  fun testNoiseKeepsPartialHeader() {
+    val noise = ByteArray(200) { 0x33 }
+    decoder.feed(noise + byteArrayOf(0x57, 0x4B, 0x4C))
+
+    assertEquals("无起始符时只保留末尾可能的起始符片段", 3, decoder.size())
+
+    val frame = statusUploadFrame(6, 1)
+    decoder.feed(frame.copyOfRange(3, frame.size))
+    assertArrayEquals("跨批次的起始符应被识别", frame, frames[0])
+  }
+
+  @Test
+  fun testRingBufferWrapAround() {
+    // 持续投递大量帧，使读写位置多次回绕
+    val frame = statusUploadFrame(7, 0)
+    val batch = ByteArray(frame.size * 3 + 4)
+    for (i in 0 until 3) {
+      System.arraycopy(frame, 0, batch, i * frame.size, frame.size)
+    }
+    System.arraycopy(frame, 0, batch, frame.size * 3, 4)
+
+    val startTime = System.nanoTime()
+    for (round in 0 until 1000) {
+      decoder.feed(batch)
+      decoder.feed(frame, 4, frame.size - 4)
+    }
+    val elapsed = (System.nanoTime() - startTime) / 1_000_000.0
+
+    println("回绕测试: 交付帧数=${frames.size}, 耗时=${"%.2f".format(elapsed)}ms")
+    assertEquals("每轮应交付4帧", 4000, frames.size)
+    frames.forEach { assertArrayEquals(frame, it) }
+    assertEquals(0, decoder.size())
+  }
+
+  @Test
+  fun testOversizedInputWithoutFrames() {
+    // 超过容量的无效数据不应导致异常，缓冲区保持有界
+    decoder.feed(ByteArray(FrameDecoder.DEFAULT_CAPACITY * 3) { 0x57 })
+    assertEquals(0, frames.size)
+    assertEquals(true, decoder.size() < decoder.capacity())
+
+    val frame = statusUploadFrame(8, 1)
+    decoder.feed(frame)
+    assertArrayEquals("溢出后应能继续解码", frame, frames[0])
+  }
+}
@@ -0,0 +1,147 @@
+package xyz.junerver.android.lockdemo
+
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import xyz.junerver.android.lockdemo.lockctl.HashedWheelTimer
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandDebounceManager
+import xyz.junerver.android.lockdemo.lockctl.debounce.OnCommandListener
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * HashedWheelTimer 测试类
+ * 测试到期精度、超过一圈的延时、取消，以及防抖管理器完成指令时取消超时
+ */
+class HashedWheelTimerTest {
+
+  private val timer = HashedWheelTimer("TestTimer")
+
+  @After
+  fun tearDown() {
+    timer.stop()
+  }
+
+  @Test
+  fun testExpiresAfterDelay() {
+    val delays = longArrayOf(0, 50, 200, 600)
+    val latch = CountDownLatch(delays.size)
+    val elapsed = LongArray(delays.size)
+    delays.forEachIndexed { i, delay ->
+      val start = System.nanoTime()
+      timer.schedule({
+        elapsed[i] = (System.nanoTime() - start) / 1_000_000
+        latch.countDown()
+      }, delay, TimeUnit.MILLISECONDS)
+    }
+
+    assertTrue("任务应在1秒内全部到期", latch.await(1, TimeUnit.SECONDS))
+    delays.forEachIndexed { i, delay ->
+      println("延时 ${delay}ms, 实际 ${elapsed[i]}ms")
+      assertTrue("不应提前到期", elapsed[i] >= delay)
+    }
+    assertEquals(0L, timer.pendingCount)
+    assertEquals(4L, timer.stats.totalExpired)
+  }
+
+  @Test
+  fun testMultipleRounds() {
+    // 刻度 1ms、16 个槽位，一圈 16ms
+    val smallTimer = HashedWheelTimer("SmallTimer", 1, 16)
+    try {
+      val latch = CountDownLatch(1)
+      val start = System.nanoTime()
+      var elapsed = 0L
+      smallTimer.schedule({
+        elapsed = (System.nanoTime() - start) / 1_000_000
+        latch.countDown()
+      }, 100, TimeUnit.MILLISECONDS)
+
+      assertTrue(latch.await(1, TimeUnit.SECONDS))
+      println("跨6圈的任务实际延时: ${elapsed}ms")
+      assertTrue("剩余圈数未归零前不应到期", elapsed >= 100)
+    } finally {
+      smallTimer.stop()
+    }
+  }
+
+  @Test
+  fun testCancel() {
+    val fired = AtomicInteger()
+    val timeouts = (1..10_000).map { timer.schedule({ fired.incrementAndGet() }, 100, TimeUnit.MILLISECONDS) }
+    assertEquals(10_000L, timer.pendingCount)
+
+    val start = System.nanoTime()
+    timeouts.forEach { assertTrue(it.cancel()) }
+    println("取消1万个任务耗时: ${(System.nanoTime() - start) / 1_000_000}ms")
+
+    assertEquals("取消后立即不再计入待执行", 0L, timer.pendingCount)
+    assertFalse("重复取消应返回false", timeouts[0].cancel())
+
+    Thread.sleep(300)
+    assertEquals("已取消的任务不应执行", 0, fired.get())
+    println(timer.stats)
+    assertEquals(10_000L, timer.stats.totalCancelled)
+  }
+
+  @Test
+  fun testStopDropsPending() {
+    timer.schedule({ }, 10, TimeUnit.SECONDS)
+    timer.schedule({ }, 10, TimeUnit.SECONDS)
+    assertEquals(2L, timer.stop())
+    assertTrue(timer.isStopped)
+    assertEquals(0L, timer.pendingCount)
+  }
+
+  @Test
+  fun testCancelRacingStop() {
+    val timeouts = (0 until 10_000).map { timer.schedule({ }, 10, TimeUnit.SECONDS) }
+    val start = CountDownLatch(1)
+    val cancelled = AtomicInteger()
+    val canceller = Thread {
+      start.await()
+      timeouts.forEach { if (it.cancel()) cancelled.incrementAndGet() }
+    }
+    canceller.start()
+    start.countDown()
+    val dropped = timer.stop()
+    canceller.join()
+
+    assertEquals("每个任务只被取消或丢弃一次", 10_000L, dropped + cancelled.get())
+    assertEquals("待执行数不应为负", 0L, timer.pendingCount)
+    timeouts.forEach { assertFalse("已取消或已丢弃的任务不能再取消", it.cancel()) }
+    assertEquals(0L, timer.pendingCount)
+  }
+
+  @Test
+  fun testDebounceManagerCancelsTimeouts() {
+    val mockSender = MockCommandSender()
+    val debounceManager = CommandDebounceManager(mockSender, timer)
+    try {
+      val count = 20
+      val latch = CountDownLatch(count)
+      val listener = object : OnCommandListener {
+        override fun onSuccess() = latch.countDown()
+        override fun onError(error: String?) = latch.countDown()
+      }
+      for (i in 0 until count) {
+        debounceManager.sendCommand(LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, i % 12 + 1), listener)
+      }
+
+      assertTrue("指令应在10秒内完成", latch.await(10, TimeUnit.SECONDS))
+      val stats = debounceManager.timerStats
+      println("定时器统计: $stats")
+      assertEquals("完成的指令不应留下待执行的超时", 0L, stats.pendingCount)
+      assertEquals("每条指令的超时都应被取消", count.toLong(), stats.totalCancelled)
+      assertEquals(0L, stats.totalExpired)
+    } finally {
+      debounceManager.shutdown()
+      mockSender.shutdown()
+    }
+    assertFalse("共享定时器不随管理器关闭", timer.isStopped)
+  }
+}
@@ -0,0 +1,88 @@
+package xyz.junerver.android.lockdemo
+
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
+import xyz.junerver.android.lockdemo.lockctl.LockCtlLog
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandDebounceManager
+import xyz.junerver.android.lockdemo.lockctl.debounce.OnCommandListener
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * LockCtlLog 测试类
+ * 测试日志级别过滤、输出端替换，以及核心模块在普通 JVM 上不依赖 Android 即可运行
+ */
+class LockCtlLogTest {
+
+  private val records: MutableList<String> = Collections.synchronizedList(mutableListOf())
+  private val sink = LockCtlLog.Sink { level, tag, message, tr ->
+    records.add("$level/$tag: $message${if (tr != null) " ($tr)" else ""}")
+  }
+
+  @After
+  fun tearDown() {
+    LockCtlLog.setSink(LockCtlLog.NONE)
+    LockCtlLog.setLevel(LockCtlLog.DEBUG)
+  }
+
+  @Test
+  fun testLevelFilter() {
+    LockCtlLog.setSink(sink)
+    LockCtlLog.setLevel(LockCtlLog.WARN)
+    LockCtlLog.d("Test", "debug")
+    LockCtlLog.i("Test", "info")
+    LockCtlLog.w("Test", "warn")
+    LockCtlLog.e("Test", "error", IllegalStateException("boom"))
+    println(records)
+
+    assertEquals(listOf("5/Test: warn", "6/Test: error (java.lang.IllegalStateException: boom)"), records)
+    assertFalse(LockCtlLog.isLoggable(LockCtlLog.INFO))
+    assertTrue(LockCtlLog.isLoggable(LockCtlLog.ERROR))
+
+    LockCtlLog.setLevel(LockCtlLog.OFF)
+    LockCtlLog.e("Test", "off")
+    assertEquals(2, records.size)
+  }
+
+  @Test
+  fun testNoSinkInstalled() {
+    LockCtlLog.setSink(null)
+    assertFalse("未安装输出端时不输出", LockCtlLog.isLoggable(LockCtlLog.ERROR))
+    LockCtlLog.setSink { _, _, _, _ -> throw RuntimeException("sink failure") }
+    // 输出端的异常不影响调用方
+    LockCtlLog.e("Test", "ignored")
+  }
+
+  @Test
+  fun testEngineRunsOnPlainJvm() {
+    LockCtlLog.setSink(sink)
+    LockCtlLog.setLevel(LockCtlLog.DEBUG)
+    val mockSender = MockCommandSender()
+    val manager = CommandDebounceManager(mockSender)
+    try {
+      val latch = CountDownLatch(1)
+      manager.sendCommand(LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, 1), object : OnCommandListener {
+        override fun onSuccess() {
+          latch.countDown()
+        }
+
+        override fun onError(error: String?) {
+          println("❌ 指令失败: $error")
+          latch.countDown()
+        }
+      })
+      assertTrue("指令应在5秒内完成", latch.await(5, TimeUnit.SECONDS))
+      assertEquals(1L, manager.status.totalCommandsCompleted)
+      println("引擎输出日志 ${records.size} 条")
+      assertTrue("调试级别下引擎日志经由输出端", records.any { it.contains("CommandDebounceManager") })
+    } finally {
+      manager.shutdown()
+      mockSender.shutdown()
+    }
+  }
+}
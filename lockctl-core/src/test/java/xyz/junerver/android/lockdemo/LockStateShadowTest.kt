@@ -0,0 +1,85 @@
+package xyz.junerver.android.lockdemo
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import xyz.junerver.android.lockdemo.lockctl.CommandResult
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
+import xyz.junerver.android.lockdemo.lockctl.LockStateShadow
+import xyz.junerver.android.lockdemo.lockctl.ResponseFrame
+
+/**
+ * 锁状态影子测试
+ * 1. 0x82/0x83/0x84 成功响应与 0x85 上传更新影子，失败响应不更新
+ * 2. 超过最大陈旧时间的状态视为未知
+ * 3. 开锁类响应作废对应板或通道的状态
+ */
+class LockStateShadowTest {
+
+  private val none = ResponseFrame.NONE
+
+  private fun responseFrame(board: Int, command: Int, vararg data: Int): ResponseFrame {
+    val bytes = LockCtlBoardCmdHelper.buildCommand(board.toByte(), command.toByte(), ByteArray(data.size) { data[it].toByte() })
+    return ResponseFrame.decode(bytes)!!
+  }
+
+  @Test
+  fun testUpdatedFromResponses() {
+    val shadow = LockStateShadow()
+    assertEquals("初始状态未知", none, shadow.getLockStatus(0x00, 1, Long.MAX_VALUE))
+
+    shadow.update(responseFrame(0x00, 0x84, 0x00, 4, 0x01, 0x01, 0x00, 0x01))
+    shadow.update(responseFrame(0x00, 0x83, 0x00, 2, 0x00))
+    shadow.update(responseFrame(0x00, 0x85, 4, 0x00))
+    // 失败的响应与错误状态不更新
+    shadow.update(responseFrame(0x00, 0x83, 0xFF, 1, 0x00))
+    shadow.update(responseFrame(0x00, 0x82, 0x00, 3, 0xFF))
+
+    val states = shadow.getAllLockStatus(0x00, 4, 1000)
+    println("影子状态: ${states?.toList()}")
+    assertArrayEquals(intArrayOf(0x01, 0x00, 0x00, 0x00), states)
+    assertNull("通道5未知，整板读取不命中", shadow.getAllLockStatus(0x00, 5, 1000))
+    assertEquals("其它板不受影响", none, shadow.getLockStatus(0x01, 1, 1000))
+    assertTrue(shadow.getAgeMs(0x00, 1) in 0..1000)
+    assertEquals(-1L, shadow.getAgeMs(0x00, 5))
+  }
+
+  @Test
+  fun testStaleStateIsUnknown() {
+    val shadow = LockStateShadow()
+    shadow.update(responseFrame(0x02, 0x83, 0x00, 7, 0x01))
+    assertEquals(0x01, shadow.getLockStatus(0x02, 7, 1000))
+
+    Thread.sleep(60)
+    assertEquals("超过最大陈旧时间应视为未知", none, shadow.getLockStatus(0x02, 7, 20))
+    assertEquals(0x01, shadow.getLockStatus(0x02, 7, 1000))
+  }
+
+  @Test
+  fun testOpenResponsesInvalidate() {
+    val shadow = LockStateShadow()
+    shadow.update(responseFrame(0x00, 0x84, 0x00, 3, 0x01, 0x01, 0x01))
+
+    // 关闭通道响应只作废该通道
+    shadow.update(responseFrame(0x00, 0x89, 0x00, 2))
+    assertEquals(none, shadow.getLockStatus(0x00, 2, 1000))
+    assertEquals(0x01, shadow.getLockStatus(0x00, 1, 1000))
+
+    // 逐一开多锁的响应不含锁状态，作废整板
+    shadow.update(responseFrame(0x00, 0x87, 0x00))
+    assertEquals(none, shadow.getLockStatus(0x00, 1, 1000))
+    assertEquals(none, shadow.getLockStatus(0x00, 3, 1000))
+  }
+
+  @Test
+  fun testCachedResult() {
+    val result = CommandResult.cached(0x01, 0x84, CommandResult.NONE, CommandResult.NONE, intArrayOf(0x01, 0x00))
+    println("影子结果: $result")
+    assertTrue(result.isSuccess)
+    assertTrue(result.isCached)
+    assertEquals(2, result.channelCount)
+    assertEquals(0x00, result.getChannelLockStatus(2))
+  }
+}
@@ -0,0 +1,64 @@
+package xyz.junerver.android.lockdemo
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
+import xyz.junerver.android.lockdemo.lockctl.ResponseFrame
+
+/**
+ * ResponseFrame 测试类
+ * 验证解码后的字段读取与切片视图；单次解码与改造前双重分帧的性能对比见 :benchmark 模块的 ReceivePipelineBenchmark
+ */
+class ResponseFrameTest {
+
+  private fun createFrame(command: Int, vararg data: Int): ByteArray =
+    ResponseFrames.response(0x00, command, *data)
+
+  @Test
+  fun testDecodedFrameFields() {
+    val frame = ResponseFrame.decode(createFrame(0x85, 3, 1))
+    assertNotNull("有效帧应解码成功", frame)
+    assertEquals(0x85, frame!!.commandByte)
+    assertEquals(3, frame.channelId)
+    assertEquals(1, frame.lockStatus)
+    assertEquals(ResponseFrame.NONE, frame.status)
+
+    val bad = createFrame(0x83, 0x00, 1, 1)
+    bad[bad.size - 1] = (bad[bad.size - 1] + 1).toByte()
+    assertNull("校验错误的帧应解码失败", ResponseFrame.decode(bad))
+  }
+
+  @Test
+  fun testWrapSlice() {
+    // 两帧首尾相接放在同一数组中，第二帧前有1字节噪声
+    val first = createFrame(0x83, 0x00, 2, 1)
+    val second = createFrame(0x84, 0x00, 3, 0, 1, 0)
+    val buffer = ByteArray(first.size + 1 + second.size)
+    System.arraycopy(first, 0, buffer, 0, first.size)
+    buffer[first.size] = 0x7F
+    System.arraycopy(second, 0, buffer, first.size + 1, second.size)
+
+    val a = ResponseFrame.wrap(buffer, 0, first.size)
+    assertNotNull("第一帧切片应解码成功", a)
+    assertEquals(0x83, a!!.commandByte)
+    assertEquals(2, a.channelId)
+    assertEquals(1, a.lockStatus)
+    assertTrue("切片视图应共享底层数组", a.buffer === buffer)
+
+    val b = ResponseFrame.wrap(buffer, first.size + 1, second.size)
+    assertNotNull("第二帧切片应解码成功", b)
+    assertEquals(3, b!!.channelCount)
+    assertEquals(1, b.getChannelLockStatus(2))
+    assertTrue("按需拷贝的原始数据应与原帧一致", second.contentEquals(b.rawData))
+    assertEquals(
+      LockCtlBoardCmdHelper.parseResponseToJson(second),
+      LockCtlBoardCmdHelper.parseResponseToJson(b)
+    )
+
+    assertNull("跨越噪声字节的切片应解码失败", ResponseFrame.wrap(buffer, first.size, second.size))
+    assertNull("越界切片应解码失败", ResponseFrame.wrap(buffer, buffer.size - 4, second.size))
+  }
+}
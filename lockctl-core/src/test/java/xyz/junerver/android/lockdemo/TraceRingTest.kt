@@ -0,0 +1,160 @@
+package xyz.junerver.android.lockdemo
+
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import xyz.junerver.android.lockdemo.lockctl.Hex
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
+import xyz.junerver.android.lockdemo.lockctl.LockCtlLog
+import xyz.junerver.android.lockdemo.lockctl.TraceRing
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandDebounceManager
+import xyz.junerver.android.lockdemo.lockctl.debounce.OnCommandListener
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * TraceRing 测试类
+ * 测试追踪环的覆盖、截断与并发写入，防抖管理器记录收发帧，
+ * 以及十六进制工具与按级别跳过格式化的日志
+ */
+class TraceRingTest {
+
+  @After
+  fun tearDown() {
+    LockCtlLog.setSink(LockCtlLog.NONE)
+    LockCtlLog.setLevel(LockCtlLog.DEBUG)
+  }
+
+  @Test
+  fun testHex() {
+    val frame = LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, 1).toByteArray()
+    assertEquals("57 4B 4C 59 09 00 83 01 82", Hex.toHex(frame))
+    assertEquals("4C 59", Hex.toHex(frame, 2, 2))
+    assertEquals("", Hex.toHex(ByteArray(0)))
+    assertEquals("null", Hex.toHex(null))
+    assertEquals("0A", Hex.toHex(0x0A.toByte()))
+    assertEquals("FF", Hex.toHex(0xFF.toByte()))
+    assertEquals(Hex.toHex(frame), LockCtlBoardCmdHelper.bytesToHex(frame))
+  }
+
+  @Test
+  fun testOverwriteAndTruncate() {
+    val ring = TraceRing(6)
+    assertEquals("容量向上取整为2的幂", 8, ring.capacity)
+    assertEquals("", ring.dump())
+
+    for (i in 0 until 20) {
+      ring.record(if (i % 2 == 0) TraceRing.DIRECTION_TX else TraceRing.DIRECTION_RX, byteArrayOf(i.toByte(), 0x55))
+    }
+    val entries = ring.snapshot()
+    assertEquals(20L, ring.recordedCount)
+    assertEquals("只保留最近 8 条", 8, entries.size)
+    assertEquals(12L, entries.first().sequence)
+    assertArrayEquals(byteArrayOf(19, 0x55), entries.last().bytes)
+
+    val long = ByteArray(TraceRing.MAX_FRAME_BYTES + 10) { it.toByte() }
+    ring.record(TraceRing.DIRECTION_RX, long)
+    val last = ring.snapshot().last()
+    assertTrue(last.isTruncated)
+    assertEquals(long.size, last.length)
+    assertEquals(TraceRing.MAX_FRAME_BYTES, last.bytes.size)
+
+    val dump = ring.dump()
+    println(dump)
+    assertEquals(8, dump.lines().filter { it.isNotEmpty() }.size)
+    assertTrue(dump.contains("TX 10 55"))
+    assertTrue(dump.contains("(${long.size} bytes)"))
+  }
+
+  @Test
+  fun testConcurrentWriters() {
+    val ring = TraceRing(64)
+    val executor = Executors.newFixedThreadPool(4)
+    val perThread = 50_000
+    for (t in 0 until 4) {
+      executor.execute {
+        val frame = ByteArray(9) { t.toByte() }
+        repeat(perThread) { ring.record(t % 2, frame) }
+      }
+    }
+    // 写入过程中反复读取，复制出的记录不应混有其他写入方的字节
+    var snapshots = 0
+    while (!executor.awaitTermination(1, TimeUnit.MILLISECONDS)) {
+      for (entry in ring.snapshot()) {
+        val bytes = entry.bytes
+        assertTrue("记录不应被撕裂", bytes.all { it == bytes[0] })
+      }
+      snapshots++
+      if (snapshots == 1) {
+        executor.shutdown()
+      }
+    }
+    println("并发写入期间读取 $snapshots 次")
+    assertEquals(4L * perThread, ring.recordedCount)
+    assertTrue(ring.snapshot().size in 1..64)
+  }
+
+  @Test
+  fun testManagerRecordsTraffic() {
+    val mockSender = MockCommandSender()
+    mockSender.setDefaultResponseDelay(5)
+    val manager = CommandDebounceManager(mockSender)
+    try {
+      val latch = CountDownLatch(3)
+      for (channel in 1..3) {
+        manager.sendCommand(LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, channel), object : OnCommandListener {
+          override fun onSuccess() {
+            latch.countDown()
+          }
+
+          override fun onError(error: String?) {
+            println("❌ 指令失败: $error")
+            latch.countDown()
+          }
+        })
+      }
+      assertTrue("指令应在5秒内完成", latch.await(5, TimeUnit.SECONDS))
+
+      val entries = manager.traceRing.snapshot()
+      println(manager.traceRing.dump())
+      assertEquals(6, entries.size)
+      assertEquals(3, entries.count { it.direction == TraceRing.DIRECTION_TX })
+      assertEquals(3, entries.count { it.direction == TraceRing.DIRECTION_RX })
+      assertEquals("57 4B 4C 59 09 00 83 01 82", Hex.toHex(entries.first().bytes))
+    } finally {
+      manager.shutdown()
+      mockSender.shutdown()
+    }
+  }
+
+  @Test
+  fun testFormattingSkippedBelowLevel() {
+    val formatted = AtomicInteger()
+    val argument = object {
+      override fun toString(): String {
+        formatted.incrementAndGet()
+        return "arg"
+      }
+    }
+    val messages = mutableListOf<String>()
+    LockCtlLog.setSink { _, _, message, _ -> messages.add(message) }
+
+    LockCtlLog.setLevel(LockCtlLog.INFO)
+    LockCtlLog.d("Test", "参数: %s", argument)
+    assertEquals("级别不够时不格式化", 0, formatted.get())
+    assertTrue(messages.isEmpty())
+
+    LockCtlLog.i("Test", "参数: %s, 0x%02X", argument, 0xAB)
+    assertEquals(1, formatted.get())
+    assertEquals(listOf("参数: arg, 0xAB"), messages)
+
+    // 未安装输出端时同样跳过
+    LockCtlLog.setSink(null)
+    LockCtlLog.e("Test", "参数: %s", argument)
+    assertEquals(1, formatted.get())
+  }
+}
@@ -0,0 +1,141 @@
+package xyz.junerver.android.lockdemo.debounce
+
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import xyz.junerver.android.lockdemo.MockCommandSender
+import xyz.junerver.android.lockdemo.lockctl.CommandResult
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandDebounceManager
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+
+/**
+ * 异步接口测试
+ * 1. 批量发出的查询全部由匹配到的响应完成，结果携带通道与锁状态
+ * 2. 查询改写后各查询的结果来自派生响应
+ * 3. 超时、清空队列、关闭后提交均以失败结果完成，Future 不会挂起
+ * 4. 后续阶段中继续提交指令
+ */
+class AsyncCommandTest {
+
+  private var mockSender: MockCommandSender? = null
+  private var debounceManager: CommandDebounceManager? = null
+
+  @After
+  fun tearDown() {
+    debounceManager?.shutdown()
+    mockSender?.shutdown()
+    mockSender = null
+    debounceManager = null
+  }
+
+  @Test
+  fun testFanOutQueries() {
+    mockSender = MockCommandSender()
+    mockSender!!.setDefaultResponseDelay(1)
+    debounceManager = CommandDebounceManager(mockSender!!)
+    debounceManager!!.setPipelineWindow(4)
+
+    val futures = (0 until 120).map { i ->
+      val channel = i % 12 + 1
+      channel to debounceManager!!.sendCommandAsync(LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, channel))
+    }
+    CompletableFuture.allOf(*futures.map { it.second }.toTypedArray()).get(20, TimeUnit.SECONDS)
+
+    futures.forEach { (channel, future) ->
+      val result = future.get()
+      assertTrue("查询应成功: $result", result.isSuccess)
+      assertTrue(result.hasResponse())
+      assertEquals(0x83, result.commandByte)
+      assertEquals("结果应来自对应通道的响应", channel, result.channelId)
+      assertTrue("应携带锁状态", result.lockStatus == 0x00 || result.lockStatus == 0x01)
+    }
+    println("批量查询完成: ${futures.first().second.get()}, 状态: ${debounceManager!!.status}")
+  }
+
+  @Test
+  fun testRewrittenQueriesResolvedFromDerivedFrames() {
+    mockSender = MockCommandSender()
+    debounceManager = CommandDebounceManager(mockSender!!)
+    debounceManager!!.setQueryRewriteThreshold(3)
+
+    // 先占住发送窗口，后续单通道查询达到阈值后被改写，由 0x84 的响应按通道派生
+    val first = debounceManager!!.sendCommandAsync(LockCtlBoardCmdHelper.getAllLocksStatusFrame(0x00))
+    val queries = (1..6).map { debounceManager!!.sendCommandAsync(LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, it)) }
+
+    val all = first.get(5, TimeUnit.SECONDS)
+    println("全部门状态: $all")
+    assertTrue(all.isSuccess)
+    assertEquals(12, all.channelCount)
+
+    queries.forEachIndexed { i, future ->
+      val result = future.get(5, TimeUnit.SECONDS)
+      println("改写的查询 ${i + 1}: $result")
+      assertTrue(result.isSuccess)
+      assertEquals(0x83, result.commandByte)
+      assertEquals(i + 1, result.channelId)
+      assertTrue(result.lockStatus == 0x00 || result.lockStatus == 0x01)
+    }
+  }
+
+  @Test
+  fun testTimeoutCompletesWithFailure() {
+    mockSender = MockCommandSender()
+    // 响应晚于 0x83 的超时 (200ms) 到达
+    mockSender!!.setDefaultResponseDelay(1000)
+    debounceManager = CommandDebounceManager(mockSender!!)
+
+    val result = debounceManager!!.sendCommandAsync(LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, 1))
+      .get(5, TimeUnit.SECONDS)
+    println("超时结果: $result")
+    assertFalse(result.isSuccess)
+    assertFalse(result.hasResponse())
+    assertTrue(result.message.contains("超时"))
+    assertEquals(1, result.channelId)
+    assertEquals(CommandResult.NONE, result.lockStatus)
+  }
+
+  @Test
+  fun testClearQueueAndShutdownComplete() {
+    mockSender = MockCommandSender()
+    mockSender!!.setDefaultResponseDelay(300)
+    debounceManager = CommandDebounceManager(mockSender!!)
+
+    val futures = (1..5).map { debounceManager!!.sendCommandAsync(LockCtlBoardCmdHelper.openSingleLockFrame(0x00, it)) }
+    debounceManager!!.clearQueue()
+
+    // 第一条已在途，正常完成；其余排队的以失败结束
+    assertTrue(futures[0].get(5, TimeUnit.SECONDS).isSuccess)
+    futures.drop(1).forEach { future ->
+      assertTrue("清空队列后 Future 应立即完成", future.isDone)
+      assertFalse(future.get().isSuccess)
+    }
+
+    debounceManager!!.shutdown()
+    val rejected = debounceManager!!.sendCommandAsync(LockCtlBoardCmdHelper.openSingleLockFrame(0x00, 1))
+    assertTrue(rejected.isDone)
+    assertTrue(rejected.get().message.contains("关闭"))
+  }
+
+  @Test
+  fun testComposeInNextStage() {
+    mockSender = MockCommandSender()
+    debounceManager = CommandDebounceManager(mockSender!!)
+
+    // 开锁完成后在后续阶段（事件循环线程上）查询同一通道
+    val result = debounceManager!!.sendCommandAsync(LockCtlBoardCmdHelper.openSingleLockFrame(0x00, 3))
+      .thenCompose { opened ->
+        assertTrue(opened.isSuccess)
+        debounceManager!!.sendCommandAsync(LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, opened.channelId))
+      }
+      .get(5, TimeUnit.SECONDS)
+
+    println("组合结果: $result")
+    assertTrue(result.isSuccess)
+    assertEquals(3, result.channelId)
+    assertEquals(2L, debounceManager!!.status.totalCommandsCompleted)
+  }
+}
@@ -3,16 +3,14 @@ package xyz.junerver.android.lockdemo.debounce
 import org.junit.Assert.assertEquals
 import org.junit.Assert.assertTrue
 import org.junit.Test
-import org.junit.runner.RunWith
-import org.robolectric.RobolectricTestRunner
 import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
 import xyz.junerver.android.lockdemo.lockctl.debounce.CommandExecutionStrategy
+import xyz.junerver.android.lockdemo.lockctl.debounce.ResponseTimeModel
 
 /**
  * CommandExecutionStrategy 测试类
  * 测试指令执行策略的超时计算、指令描述等功能
  */
-@RunWith(RobolectricTestRunner::class)
 class CommandExecutionStrategyTest {
 
   @Test
@@ -269,4 +267,25 @@ class CommandExecutionStrategyTest {
 
     println("✅ 测试通过\n")
   }
+
+  @Test
+  fun testCalculateTimeout_OpenAllLocks() {
+    println("=== 测试开全部锁指令超时计算 ===")
+
+    // 0x86 不带数据域，第8字节是校验字节，不能当作锁数量
+    val command = LockCtlBoardCmdHelper.buildOpenAllLocksCommand(0x00.toByte())
+    println("指令长度: ${command.size}, 第8字节(校验): ${command[7].toInt() and 0xFF}")
+
+    val timeout = CommandExecutionStrategy.calculateTimeout(command)
+    println("计算超时时间: ${timeout}ms")
+    assertEquals("未知通道数时按24路估算", 350L * 24 * 2, timeout)
+
+    // 已发现通道数时按实际通道数估算
+    val model = ResponseTimeModel()
+    model.recordChannelCount(0x00.toByte(), 12)
+    assertEquals(12, CommandExecutionStrategy.getWorkUnits(command, model.getChannelCount(0x00.toByte())))
+    assertEquals("12路板按12个锁估算", 350L * 12 * 2, CommandExecutionStrategy.calculateTimeout(command, model))
+
+    println("✅ 测试通过\n")
+  }
 }
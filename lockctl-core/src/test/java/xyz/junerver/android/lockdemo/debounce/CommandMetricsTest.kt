@@ -0,0 +1,151 @@
+package xyz.junerver.android.lockdemo.debounce
+
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import xyz.junerver.android.lockdemo.CountingCommandListener
+import xyz.junerver.android.lockdemo.MockCommandSender
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandDebounceManager
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandMetrics
+import xyz.junerver.android.lockdemo.lockctl.debounce.LatencyHistogram
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * 指令统计测试
+ * 1. 对数分桶直方图的分位数误差不超过桶宽
+ * 2. 防抖管理器按阶段、指令字、板地址记录延迟，计数器与 QueueStatus 一致
+ * 3. 发送过程中以高频率轮询快照不影响指令执行
+ */
+class CommandMetricsTest {
+
+  private var mockSender: MockCommandSender? = null
+  private var debounceManager: CommandDebounceManager? = null
+
+  @After
+  fun tearDown() {
+    debounceManager?.shutdown()
+    mockSender?.shutdown()
+    mockSender = null
+    debounceManager = null
+  }
+
+  @Test
+  fun testHistogramPercentiles() {
+    val histogram = LatencyHistogram()
+    assertEquals(0L, histogram.snapshot().getPercentileMicros(0.99))
+
+    // 1..10000 微秒均匀分布
+    for (value in 1L..10_000L) {
+      histogram.record(value)
+    }
+    val snapshot = histogram.snapshot()
+    println("直方图: $snapshot")
+    assertEquals(10_000L, snapshot.count)
+    assertEquals(10_000L, snapshot.maxMicros)
+    assertEquals(5000L, snapshot.meanMicros)
+    for (quantile in doubleArrayOf(0.5, 0.9, 0.99)) {
+      val exact = (quantile * 10_000).toLong()
+      val reported = snapshot.getPercentileMicros(quantile)
+      assertTrue("P${quantile * 100} 应不低于真实值: $reported", reported >= exact)
+      assertTrue("P${quantile * 100} 误差应在 25% 以内: $reported", reported <= exact * 5 / 4)
+    }
+    assertEquals("最大分位为最大值", 10_000L, snapshot.getPercentileMicros(1.0))
+
+    // 负数与超大值不越界
+    histogram.record(-5)
+    histogram.record(Long.MAX_VALUE)
+    assertEquals(10_002L, histogram.snapshot().count)
+  }
+
+  @Test
+  fun testManagerRecordsStages() {
+    mockSender = MockCommandSender()
+    debounceManager = CommandDebounceManager(mockSender!!)
+
+    val latch = CountDownLatch(6)
+    for (channel in 1..4) {
+      debounceManager!!.sendCommand(LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, channel), CountingCommandListener(latch))
+    }
+    for (channel in 1..2) {
+      debounceManager!!.sendCommand(LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x01, channel), CountingCommandListener(latch))
+    }
+    assertTrue("指令应在5秒内完成", latch.await(5, TimeUnit.SECONDS))
+
+    val status = debounceManager!!.status
+    val snapshot = debounceManager!!.metrics.snapshot()
+    println(snapshot)
+    assertEquals(status.totalCommandsSent, snapshot.submittedCount)
+    assertEquals(status.totalCommandsCompleted, snapshot.completedCount)
+    assertEquals(6L, snapshot.completedCount)
+
+    val response = snapshot.getHistogram(CommandMetrics.Stage.RESPONSE)
+    assertEquals(6L, response.count)
+    // 模拟的查询延迟为 80~120ms
+    assertTrue("响应延迟中位数: ${response.getPercentileMicros(0.5)}µs",
+      response.getPercentileMicros(0.5) in 60_000L..200_000L)
+
+    val byCommand = snapshot.getCommandHistograms(CommandMetrics.Stage.RESPONSE)
+    assertEquals(setOf(0x83), byCommand.keys)
+    val byBoard = snapshot.getBoardHistograms(CommandMetrics.Stage.RESPONSE)
+    assertEquals(4L, byBoard[0x00]!!.count)
+    assertEquals(2L, byBoard[0x01]!!.count)
+
+    // 逐条执行：后发的指令排队等待前面的响应
+    val queueWait = snapshot.getHistogram(CommandMetrics.Stage.QUEUE_WAIT)
+    assertEquals(6L, queueWait.count)
+    assertTrue("最长排队等待应超过一次响应: ${queueWait.maxMicros}µs", queueWait.maxMicros > 200_000)
+    assertEquals(6L, snapshot.getHistogram(CommandMetrics.Stage.WIRE).count)
+
+    assertNotNull(debounceManager!!.metrics.getCommandHistogram(CommandMetrics.Stage.WIRE, 0x83))
+    assertNull(debounceManager!!.metrics.getCommandHistogram(CommandMetrics.Stage.WIRE, 0x82))
+  }
+
+  @Test
+  fun testPollingSnapshotsDuringLoad() {
+    mockSender = MockCommandSender()
+    mockSender!!.setDefaultResponseDelay(5)
+    debounceManager = CommandDebounceManager(mockSender!!)
+    debounceManager!!.setPipelineWindow(4)
+    val metrics = debounceManager!!.metrics
+
+    // 轮询线程不停地取快照，远高于 10Hz
+    val running = AtomicBoolean(true)
+    val polls = AtomicLong()
+    val pollNanos = AtomicLong()
+    val poller = Thread {
+      while (running.get()) {
+        val start = System.nanoTime()
+        metrics.snapshot()
+        pollNanos.addAndGet(System.nanoTime() - start)
+        polls.incrementAndGet()
+        Thread.sleep(1)
+      }
+    }
+    poller.start()
+
+    val count = 40
+    val latch = CountDownLatch(count)
+    for (i in 0 until count) {
+      debounceManager!!.sendCommand(
+        LockCtlBoardCmdHelper.getSingleLockStatusFrame((i % 4).toByte(), i % 12 + 1), CountingCommandListener(latch)
+      )
+    }
+    assertTrue("指令应在20秒内完成", latch.await(20, TimeUnit.SECONDS))
+    running.set(false)
+    poller.join()
+
+    val snapshot = metrics.snapshot()
+    println("轮询 ${polls.get()} 次, 每次快照平均 ${pollNanos.get() / maxOf(1L, polls.get()) / 1000}µs")
+    println(snapshot)
+    assertEquals(count.toLong(), snapshot.completedCount)
+    assertEquals(count.toLong(), snapshot.getHistogram(CommandMetrics.Stage.RESPONSE).count)
+    assertEquals(4, snapshot.getBoardHistograms(CommandMetrics.Stage.RESPONSE).size)
+  }
+}
@@ -6,8 +6,6 @@ import org.junit.Assert.assertFalse
 import org.junit.Assert.assertNull
 import org.junit.Assert.assertTrue
 import org.junit.Test
-import org.junit.runner.RunWith
-import org.robolectric.RobolectricTestRunner
 import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
 import xyz.junerver.android.lockdemo.MockCommandSender
 import xyz.junerver.android.lockdemo.lockctl.debounce.CommandDebounceManager
@@ -17,7 +15,6 @@ import java.util.concurrent.TimeUnit
 import kotlin.test.assertNotNull
 
 
-@RunWith(RobolectricTestRunner::class)
 class DebounceManangerTest {
 
   private var mockSender: MockCommandSender? = null
@@ -0,0 +1,117 @@
+package xyz.junerver.android.lockdemo.debounce
+
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import xyz.junerver.android.lockdemo.MockCommandSender
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandDebounceManager
+import xyz.junerver.android.lockdemo.lockctl.debounce.OnCommandListener
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * 事件循环测试
+ * 1. 循环空闲时，指令在提交线程上直接写出
+ * 2. 多线程并发提交，统计不丢失
+ * 3. 监听器中再次提交指令、查询状态不会死锁
+ */
+class EventLoopTest {
+
+  private var mockSender: MockCommandSender? = null
+  private var debounceManager: CommandDebounceManager? = null
+
+  @After
+  fun tearDown() {
+    debounceManager?.shutdown()
+    mockSender?.shutdown()
+    mockSender = null
+    debounceManager = null
+  }
+
+  @Test
+  fun testIdleSubmissionWrittenInline() {
+    mockSender = MockCommandSender()
+    debounceManager = CommandDebounceManager(mockSender!!)
+
+    val latch = CountDownLatch(1)
+    debounceManager!!.sendCommand(LockCtlBoardCmdHelper.openSingleLockFrame(0x00, 1), object : OnCommandListener {
+      override fun onSuccess() = latch.countDown()
+      override fun onError(error: String?) = latch.countDown()
+    })
+
+    // sendCommand 返回时指令已写出，没有线程切换
+    assertEquals("空闲时应在提交线程上直接写出", 1, mockSender!!.getSentCommands().size)
+    assertEquals(1L, debounceManager!!.inlineSubmissions)
+    assertTrue(latch.await(5, TimeUnit.SECONDS))
+  }
+
+  @Test
+  fun testConcurrentSubmissionsNotLost() {
+    mockSender = MockCommandSender()
+    mockSender!!.setDefaultResponseDelay(1)
+    debounceManager = CommandDebounceManager(mockSender!!)
+
+    val threads = 4
+    val perThread = 100
+    val latch = CountDownLatch(threads * perThread)
+    val successCount = AtomicInteger()
+    val listener = object : OnCommandListener {
+      override fun onSuccess() {
+        successCount.incrementAndGet()
+        latch.countDown()
+      }
+
+      override fun onError(error: String?) {
+        println("❌ 指令失败: $error")
+        latch.countDown()
+      }
+    }
+
+    val workers = (0 until threads).map { t ->
+      Thread {
+        for (i in 0 until perThread) {
+          debounceManager!!.sendCommand(LockCtlBoardCmdHelper.openSingleLockFrame(t.toByte(), i % 12 + 1), listener)
+        }
+      }
+    }
+    workers.forEach { it.start() }
+    workers.forEach { it.join() }
+
+    // 提交线程都已返回，状态快照应已计入全部提交
+    assertEquals((threads * perThread).toLong(), debounceManager!!.status.totalCommandsSent)
+
+    assertTrue("指令应在30秒内完成", latch.await(30, TimeUnit.SECONDS))
+    val status = debounceManager!!.status
+    println("并发提交后状态: $status, 就地执行: ${debounceManager!!.inlineSubmissions}")
+    assertEquals(threads * perThread, successCount.get())
+    assertEquals(status.totalCommandsSent, status.totalCommandsCompleted)
+    assertEquals(0, status.queueSize)
+  }
+
+  @Test
+  fun testReentrantListener() {
+    mockSender = MockCommandSender()
+    debounceManager = CommandDebounceManager(mockSender!!)
+
+    val latch = CountDownLatch(2)
+    debounceManager!!.sendCommand(LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, 1), object : OnCommandListener {
+      override fun onSuccess() {
+        // 在事件循环内查询状态与提交指令
+        println("回调内状态: ${debounceManager!!.status}")
+        debounceManager!!.sendCommand(LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, 2), object : OnCommandListener {
+          override fun onSuccess() = latch.countDown()
+          override fun onError(error: String?) = latch.countDown()
+        })
+        latch.countDown()
+      }
+
+      override fun onError(error: String?) = latch.countDown()
+    })
+
+    assertTrue("回调内提交的指令应正常完成", latch.await(5, TimeUnit.SECONDS))
+    assertEquals(2L, debounceManager!!.status.totalCommandsCompleted)
+  }
+}
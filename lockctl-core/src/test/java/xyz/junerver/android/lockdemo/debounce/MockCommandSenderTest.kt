@@ -7,8 +7,6 @@ import org.junit.Assert.assertNotNull
 import org.junit.Assert.assertNotSame
 import org.junit.Assert.assertTrue
 import org.junit.Test
-import org.junit.runner.RunWith
-import org.robolectric.RobolectricTestRunner
 import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
 import xyz.junerver.android.lockdemo.MockCommandSender
 import xyz.junerver.android.lockdemo.lockctl.debounce.OnResponseListener
@@ -20,7 +18,6 @@ import java.util.concurrent.TimeUnit
  * MockCommandSender 测试类
  * 测试 Mock 发送器的连接管理、异步响应、错误模拟、记录功能等
  */
-@RunWith(RobolectricTestRunner::class)
 class MockCommandSenderTest {
 
   private var mockSender: MockCommandSender? = null
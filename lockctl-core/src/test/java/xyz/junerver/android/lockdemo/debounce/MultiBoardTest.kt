@@ -0,0 +1,124 @@
+package xyz.junerver.android.lockdemo.debounce
+
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import xyz.junerver.android.lockdemo.MockCommandSender
+import xyz.junerver.android.lockdemo.lockctl.BoardRegistry
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandDebounceManager
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+
+/**
+ * 多板寻址测试
+ * 1. 注册表按板地址记录通道数，默认只有板地址 0x00
+ * 2. 按板流水线开启后，一块板上耗时的逐一开多锁不再阻塞其它板的指令
+ * 3. 同一块板上的指令仍按入队顺序逐条发出
+ */
+class MultiBoardTest {
+
+  private var mockSender: MockCommandSender? = null
+  private var debounceManager: CommandDebounceManager? = null
+
+  @After
+  fun tearDown() {
+    debounceManager?.shutdown()
+    mockSender?.shutdown()
+    mockSender = null
+    debounceManager = null
+  }
+
+  @Test
+  fun testBoardRegistry() {
+    val registry = BoardRegistry()
+    assertTrue(registry.isRegistered(BoardRegistry.DEFAULT_BOARD_ADDRESS))
+    assertEquals(12, registry.getChannelCount(BoardRegistry.DEFAULT_BOARD_ADDRESS))
+
+    registry.register(2, 24)
+    registry.register(1, 8)
+    println("注册表: $registry")
+    assertEquals(listOf(0, 1, 2), registry.boardAddresses.toList())
+    assertTrue(registry.isValidChannel(2, 24))
+    assertFalse(registry.isValidChannel(1, 9))
+    assertFalse("未注册的板地址上没有有效通道", registry.isValidChannel(3, 1))
+
+    assertTrue(registry.unregister(1))
+    assertFalse(registry.isRegistered(1))
+    assertEquals(0, registry.getChannelCount(1))
+  }
+
+  @Test(expected = IllegalArgumentException::class)
+  fun testRegisterOutOfRange() {
+    BoardRegistry().register(BoardRegistry.MAX_BOARD_ADDRESS + 1, 12)
+  }
+
+  /**
+   * 板1上发一条逐一开多锁，随后向板2发4条查询；响应暂扣时检查哪些指令已发到线路上
+   *
+   * @return 暂扣响应期间已发给板2的指令数
+   */
+  private fun board2SentWhileBoard1Busy(perBoard: Boolean): Int {
+    mockSender = MockCommandSender()
+    mockSender!!.setHoldResponses(true)
+    debounceManager = CommandDebounceManager(mockSender!!)
+    debounceManager!!.setPerBoardPipeline(perBoard)
+
+    val slow = debounceManager!!.sendCommandAsync(LockCtlBoardCmdHelper.openMultipleSequentialFrame(0x01, 1, 2, 3))
+    val queries = (1..4).map {
+      debounceManager!!.sendCommandAsync(LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x02, it))
+    }
+
+    // 状态在事件循环内取快照，此前提交的指令均已分派
+    val inFlight = debounceManager!!.status.inFlightCount
+    val board2Sent = mockSender!!.getSentCommands().count { it[5].toInt() == 0x02 }
+    assertEquals("板1的逐一开多锁应在途", 1, mockSender!!.getSentCommands().count { it[5].toInt() == 0x01 })
+    assertEquals(if (perBoard) 2 else 1, inFlight)
+    mockSender!!.releaseHeldResponses()
+
+    CompletableFuture.allOf(*queries.toTypedArray()).get(10, TimeUnit.SECONDS)
+    assertTrue(slow.get(10, TimeUnit.SECONDS).isSuccess)
+    queries.forEachIndexed { i, future ->
+      val result = future.get()
+      assertTrue(result.isSuccess)
+      assertEquals(0x02, result.boardAddress)
+      assertEquals(i + 1, result.channelId)
+    }
+
+    // 板2的查询按入队顺序发出
+    val board2Channels = mockSender!!.getSentCommands().filter { it[5].toInt() == 0x02 }.map { it[7].toInt() }
+    assertEquals(listOf(1, 2, 3, 4), board2Channels)
+
+    debounceManager!!.shutdown()
+    mockSender!!.shutdown()
+    return board2Sent
+  }
+
+  @Test
+  fun testSlowBoardDoesNotStallOtherBoards() {
+    assertEquals("共用窗口时板2应排在逐一开多锁之后", 0, board2SentWhileBoard1Busy(false))
+    assertEquals("按板窗口时板2不应等待板1", 1, board2SentWhileBoard1Busy(true))
+  }
+
+  @Test
+  fun testPerBoardWindowKeepsBoardSerial() {
+    mockSender = MockCommandSender()
+    mockSender!!.setHoldResponses(true)
+    debounceManager = CommandDebounceManager(mockSender!!)
+    debounceManager!!.setPerBoardPipeline(true)
+
+    val futures = (0x00..0x02).flatMap { board ->
+      (1..3).map { debounceManager!!.sendCommandAsync(LockCtlBoardCmdHelper.getSingleLockStatusFrame(board.toByte(), it)) }
+    }
+
+    val status = debounceManager!!.status
+    println("按板窗口状态: $status")
+    assertEquals("每块板同一时刻只应有1条在途指令", 3, status.inFlightCount)
+    mockSender!!.releaseHeldResponses()
+
+    CompletableFuture.allOf(*futures.toTypedArray()).get(10, TimeUnit.SECONDS)
+    assertTrue(futures.all { it.get().isSuccess })
+  }
+}
@@ -0,0 +1,131 @@
+package xyz.junerver.android.lockdemo.debounce
+
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import xyz.junerver.android.lockdemo.CountingCommandListener
+import xyz.junerver.android.lockdemo.DebounceFixture
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * 开锁合并测试
+ * 1. 默认关闭，每次开锁单独收发
+ * 2. 合并窗口内同一板地址的连续开锁合并为一条 0x87，每个开锁请求都收到回调
+ * 3. 不同板地址、超出窗口的开锁不合并
+ */
+class OpenMergeTest {
+
+  private var fixture: DebounceFixture? = null
+  private val debounceManager get() = fixture!!.manager
+
+  @After
+  fun tearDown() {
+    fixture?.shutdown()
+    fixture = null
+  }
+
+  private fun setUp(mergeWindowMs: Long) {
+    fixture = DebounceFixture()
+    debounceManager.setOpenMergeWindow(mergeWindowMs)
+  }
+
+  private fun framesOf(command: Int) = fixture!!.framesOf(command)
+
+  @Test
+  fun testDefaultIsOff() {
+    setUp(0)
+    assertEquals(0L, debounceManager.openMergeWindow)
+
+    val latch = CountDownLatch(3)
+    val successCount = AtomicInteger()
+    for (channel in 1..3) {
+      debounceManager.sendCommand(LockCtlBoardCmdHelper.openSingleLockFrame(0x00, channel), CountingCommandListener(latch, successCount))
+    }
+    assertTrue(latch.await(5, TimeUnit.SECONDS))
+    Thread.sleep(50)
+
+    assertEquals("关闭时每次开锁都应单独收发", 3, framesOf(0x82).size)
+    assertEquals(0, framesOf(0x87).size)
+  }
+
+  @Test
+  fun testAdjacentOpensMerged() {
+    setUp(150)
+
+    val latch = CountDownLatch(6)
+    val successCount = AtomicInteger()
+    // 操作员快速点击5个门，其中通道3点了两次
+    for (channel in listOf(1, 2, 3, 3, 4, 5)) {
+      debounceManager.sendCommand(LockCtlBoardCmdHelper.openSingleLockFrame(0x00, channel), CountingCommandListener(latch, successCount))
+      Thread.sleep(10)
+    }
+
+    assertTrue("开锁应在10秒内完成", latch.await(10, TimeUnit.SECONDS))
+    Thread.sleep(50)
+    val status = debounceManager.status
+    println("合并后状态: $status")
+
+    assertEquals("每个开锁请求都应收到成功回调", 6, successCount.get())
+    assertEquals("应合并为一条逐一开多锁", 1, framesOf(0x87).size)
+    assertEquals("不应再有单独的开锁收发", 0, framesOf(0x82).size)
+    assertEquals(5L, status.totalCommandsCoalesced)
+    assertEquals(status.totalCommandsSent, status.totalCommandsCompleted)
+  }
+
+  @Test
+  fun testOtherBoardAndLateOpensNotMerged() {
+    setUp(100)
+
+    val latch = CountDownLatch(4)
+    val successCount = AtomicInteger()
+    debounceManager.sendCommand(LockCtlBoardCmdHelper.openSingleLockFrame(0x00, 1), CountingCommandListener(latch, successCount))
+    debounceManager.sendCommand(LockCtlBoardCmdHelper.openSingleLockFrame(0x00, 2), CountingCommandListener(latch, successCount))
+    // 不同板地址：不与前面的开锁合并
+    debounceManager.sendCommand(LockCtlBoardCmdHelper.openSingleLockFrame(0x01, 3), CountingCommandListener(latch, successCount))
+    // 超出合并窗口：单独收发
+    Thread.sleep(300)
+    debounceManager.sendCommand(LockCtlBoardCmdHelper.openSingleLockFrame(0x01, 4), CountingCommandListener(latch, successCount))
+
+    assertTrue("开锁应在10秒内完成", latch.await(10, TimeUnit.SECONDS))
+    Thread.sleep(50)
+
+    assertEquals(4, successCount.get())
+    assertEquals("板0的两次开锁应合并", 1, framesOf(0x87).size)
+    assertEquals("板1的两次开锁应单独收发", 2, framesOf(0x82).size)
+  }
+
+  /**
+   * 连续点击8个门
+   *
+   * @return 实际发给锁控板的指令数
+   */
+  private fun runTapBurst(mergeWindowMs: Long): Int {
+    setUp(mergeWindowMs)
+
+    val latch = CountDownLatch(8)
+    val successCount = AtomicInteger()
+    for (channel in 1..8) {
+      debounceManager.sendCommand(LockCtlBoardCmdHelper.openSingleLockFrame(0x00, channel), CountingCommandListener(latch, successCount))
+    }
+
+    assertTrue("开锁应在15秒内完成", latch.await(15, TimeUnit.SECONDS))
+    assertEquals(8, successCount.get())
+    val sent = fixture!!.sender.sentCommands.size
+
+    tearDown()
+    return sent
+  }
+
+  @Test
+  fun testTapBurstFramesOnWire() {
+    val serial = runTapBurst(0)
+    val merged = runTapBurst(100)
+
+    assertEquals("逐条收发时每次开锁都应发出", 8, serial)
+    assertTrue("合并后发出的指令应少于逐条收发", merged < serial)
+  }
+}
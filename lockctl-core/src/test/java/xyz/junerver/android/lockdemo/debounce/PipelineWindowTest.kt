@@ -0,0 +1,134 @@
+package xyz.junerver.android.lockdemo.debounce
+
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import xyz.junerver.android.lockdemo.CountingCommandListener
+import xyz.junerver.android.lockdemo.MockCommandSender
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandDebounceManager
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * 流水线执行测试
+ * 1. 默认窗口为1，保持逐条执行
+ * 2. 关联键 (板地址, 指令字, 通道) 相同的指令不会同时在途
+ * 3. 混合开锁/查询负载的在途指令数随窗口增大而增加，且不超过窗口
+ */
+class PipelineWindowTest {
+
+  private var mockSender: MockCommandSender? = null
+  private var debounceManager: CommandDebounceManager? = null
+
+  @After
+  fun tearDown() {
+    debounceManager?.shutdown()
+    mockSender?.shutdown()
+    mockSender = null
+    debounceManager = null
+  }
+
+  @Test
+  fun testDefaultWindowIsSerial() {
+    mockSender = MockCommandSender()
+    mockSender!!.setHoldResponses(true)
+    debounceManager = CommandDebounceManager(mockSender!!)
+    assertEquals("默认窗口应为1", 1, debounceManager!!.pipelineWindow)
+
+    val latch = CountDownLatch(3)
+    val successCount = AtomicInteger()
+    for (channel in 1..3) {
+      debounceManager!!.sendCommand(
+        LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, channel), CountingCommandListener(latch, successCount)
+      )
+    }
+
+    val status = debounceManager!!.status
+    println("默认窗口状态: $status")
+    assertEquals("默认模式同一时刻只应有1条在途指令", 1, status.inFlightCount)
+
+    mockSender!!.releaseHeldResponses()
+    assertTrue("指令应在5秒内完成", latch.await(5, TimeUnit.SECONDS))
+    assertEquals(3, successCount.get())
+  }
+
+  @Test
+  fun testSameCorrelationKeyIsSerialized() {
+    mockSender = MockCommandSender()
+    mockSender!!.setHoldResponses(true)
+    debounceManager = CommandDebounceManager(mockSender!!)
+    debounceManager!!.setPipelineWindow(4)
+
+    val latch = CountDownLatch(6)
+    val successCount = AtomicInteger()
+    // 同一通道的3条查询：关联键相同，必须逐条执行
+    repeat(3) {
+      debounceManager!!.sendCommand(
+        LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, 1), CountingCommandListener(latch, successCount)
+      )
+    }
+    // 不同通道的3条查询：可以与上面的查询同时在途
+    for (channel in 2..4) {
+      debounceManager!!.sendCommand(
+        LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, channel), CountingCommandListener(latch, successCount)
+      )
+    }
+
+    val status = debounceManager!!.status
+    println("窗口4状态: $status")
+    assertEquals("窗口内应有4条关联键互不相同的在途指令", 4, status.inFlightCount)
+    assertEquals("同一通道的另2条查询应留在队列中", 2, status.queueSize)
+
+    mockSender!!.releaseHeldResponses()
+    assertTrue("指令应在5秒内完成", latch.await(5, TimeUnit.SECONDS))
+    assertEquals("全部指令应按通道关联到各自的响应", 6, successCount.get())
+  }
+
+  /**
+   * 混合负载：3次开锁与分布在4块板上的12次查询，响应暂扣时读取在途指令数
+   *
+   * @return 暂扣响应时的在途指令数
+   */
+  private fun runMixedWorkload(window: Int): Int {
+    mockSender = MockCommandSender()
+    mockSender!!.setHoldResponses(true)
+    debounceManager = CommandDebounceManager(mockSender!!)
+    debounceManager!!.setPipelineWindow(window)
+
+    val latch = CountDownLatch(15)
+    val successCount = AtomicInteger()
+    for (channel in 1..3) {
+      debounceManager!!.sendCommand(
+        LockCtlBoardCmdHelper.openSingleLockFrame(0x00, channel), CountingCommandListener(latch, successCount)
+      )
+    }
+    for (i in 1..12) {
+      debounceManager!!.sendCommand(
+        LockCtlBoardCmdHelper.getSingleLockStatusFrame((i % 4).toByte(), 1), CountingCommandListener(latch, successCount)
+      )
+    }
+
+    // 状态在事件循环内取快照，此前提交的指令均已分派
+    val inFlight = debounceManager!!.status.inFlightCount
+    mockSender!!.releaseHeldResponses()
+
+    assertTrue("窗口 $window: 指令应在15秒内完成", latch.await(15, TimeUnit.SECONDS))
+
+    tearDown()
+    return inFlight
+  }
+
+  @Test
+  fun testInFlightGrowsWithWindow() {
+    val results = listOf(1, 2, 4, 8).associateWith { runMixedWorkload(it) }
+    println("流水线窗口与在途指令数: $results")
+
+    results.forEach { (window, inFlight) ->
+      assertTrue("窗口 $window: 在途指令不应超过窗口", inFlight <= window)
+      assertTrue("窗口 $window: 有足够的不同关联键时应填满窗口", inFlight >= minOf(window, 4))
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package xyz.junerver.android.lockdemo.debounce
+
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import xyz.junerver.android.lockdemo.MockCommandSender
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandDebounceManager
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandPriority
+import xyz.junerver.android.lockdemo.lockctl.debounce.OnCommandListener
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * 优先级队列测试
+ * 1. 默认按指令字分类
+ * 2. 后台轮询负载下，开门指令插队到轮询之前
+ * 3. 低优先级按权重分得份额，不会饿死
+ * 4. 与单一 FIFO 对比开门指令在线路上的发出顺序
+ */
+class PriorityQueueTest {
+
+  private var mockSender: MockCommandSender? = null
+  private var debounceManager: CommandDebounceManager? = null
+
+  @After
+  fun tearDown() {
+    debounceManager?.shutdown()
+    mockSender?.shutdown()
+    mockSender = null
+    debounceManager = null
+  }
+
+  private fun recorder(name: String, order: MutableList<String>, latch: CountDownLatch) = object : OnCommandListener {
+    override fun onSuccess() {
+      order.add(name)
+      latch.countDown()
+    }
+
+    override fun onError(error: String?) {
+      println("❌ $name 失败: $error")
+      order.add("$name-error")
+      latch.countDown()
+    }
+  }
+
+  @Test
+  fun testDefaultClassification() {
+    assertEquals(CommandPriority.OPEN, CommandPriority.of(0x82.toByte()))
+    assertEquals(CommandPriority.OPEN, CommandPriority.of(0x87.toByte()))
+    assertEquals(CommandPriority.CONTROL, CommandPriority.of(0x88.toByte()))
+    assertEquals(CommandPriority.POLLING, CommandPriority.of(0x84.toByte()))
+    assertEquals(CommandPriority.EFFECT, CommandPriority.of(0x81.toByte()))
+  }
+
+  @Test
+  fun testOpenOvertakesPolling() {
+    mockSender = MockCommandSender()
+    debounceManager = CommandDebounceManager(mockSender!!)
+
+    val order: MutableList<String> = Collections.synchronizedList(mutableListOf())
+    val latch = CountDownLatch(7)
+    for (i in 1..6) {
+      debounceManager!!.sendCommand(LockCtlBoardCmdHelper.getAllLocksStatusFrame(0x00), recorder("poll$i", order, latch))
+    }
+    debounceManager!!.sendCommand(LockCtlBoardCmdHelper.openSingleLockFrame(0x00, 1), recorder("open", order, latch))
+
+    assertTrue("指令应在10秒内完成", latch.await(10, TimeUnit.SECONDS))
+    println("完成顺序: $order")
+    // 第1条轮询可能已经发出，开门最迟排在第2位
+    assertTrue("开门应插队到排队的轮询之前", order.indexOf("open") <= 1)
+  }
+
+  @Test
+  fun testLowerPriorityNotStarved() {
+    mockSender = MockCommandSender()
+    debounceManager = CommandDebounceManager(mockSender!!)
+
+    val order: MutableList<String> = Collections.synchronizedList(mutableListOf())
+    val latch = CountDownLatch(12)
+    for (i in 1..10) {
+      debounceManager!!.sendCommand(LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, i), recorder("poll$i", order, latch))
+    }
+    for (i in 1..2) {
+      debounceManager!!.sendCommand(LockCtlBoardCmdHelper.flashChannelFrame(0x00, i), recorder("flash$i", order, latch))
+    }
+
+    assertTrue("指令应在10秒内完成", latch.await(10, TimeUnit.SECONDS))
+    println("完成顺序: $order")
+    // 轮询权重2、灯光权重1：每发出2条轮询就轮到1条灯光
+    assertTrue("灯光指令不应等到全部轮询结束", order.indexOf("flash1") <= 3)
+    assertTrue("灯光指令不应等到全部轮询结束", order.indexOf("flash2") <= 6)
+
+    val stats = debounceManager!!.priorityStats
+    stats.forEach { println(it) }
+    assertEquals(10L, stats[CommandPriority.POLLING.ordinal].dispatchedCount)
+    assertEquals(2L, stats[CommandPriority.EFFECT.ordinal].dispatchedCount)
+  }
+
+  @Test
+  fun testExplicitPriority() {
+    mockSender = MockCommandSender()
+    debounceManager = CommandDebounceManager(mockSender!!)
+
+    val order: MutableList<String> = Collections.synchronizedList(mutableListOf())
+    val latch = CountDownLatch(4)
+    for (i in 1..3) {
+      debounceManager!!.sendCommand(LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, i), recorder("poll$i", order, latch))
+    }
+    // 用户主动刷新的查询按开门优先级排队
+    debounceManager!!.sendCommand(
+      LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, 9), CommandPriority.OPEN, recorder("refresh", order, latch)
+    )
+
+    assertTrue("指令应在5秒内完成", latch.await(5, TimeUnit.SECONDS))
+    println("完成顺序: $order")
+    assertTrue("指定优先级的查询应插队", order.indexOf("refresh") <= 1)
+  }
+
+  /**
+   * 后台积压4块板的40条轮询，随后用户连开5个门
+   *
+   * @return 各开门指令在线路上的发出序号
+   */
+  private fun openPositionsUnderPolling(forcePriority: CommandPriority?): List<Int> {
+    mockSender = MockCommandSender()
+    // 暂扣第1条轮询的响应，保证全部指令入队时只有它在途
+    mockSender!!.setHoldResponses(true)
+    debounceManager = CommandDebounceManager(mockSender!!)
+
+    val latch = CountDownLatch(45)
+    val done = object : OnCommandListener {
+      override fun onSuccess() = latch.countDown()
+      override fun onError(error: String?) = latch.countDown()
+    }
+    for (i in 0 until 40) {
+      debounceManager!!.sendCommand(LockCtlBoardCmdHelper.getAllLocksStatusFrame((i % 4).toByte()), forcePriority, done)
+    }
+    for (channel in 1..5) {
+      debounceManager!!.sendCommand(LockCtlBoardCmdHelper.openSingleLockFrame(0x00, channel), forcePriority, done)
+    }
+    mockSender!!.releaseHeldResponses()
+
+    assertTrue("指令应在30秒内完成", latch.await(30, TimeUnit.SECONDS))
+    debounceManager!!.priorityStats.forEach { println(it) }
+    val positions = mockSender!!.getSentCommands().withIndex()
+      .filter { it.value[6] == 0x82.toByte() }
+      .map { it.index }
+    tearDown()
+    return positions
+  }
+
+  @Test
+  fun testOpenPositionUnderPolling() {
+    // 全部按轮询优先级排队，等同于单一 FIFO
+    val fifo = openPositionsUnderPolling(CommandPriority.POLLING)
+    val prioritized = openPositionsUnderPolling(null)
+    println("开门指令的发出序号: 单一FIFO $fifo, 优先级队列 $prioritized")
+
+    assertEquals("单一FIFO下开门排在全部轮询之后", (40..44).toList(), fifo)
+    assertEquals(5, prioritized.size)
+    // 开门权重8：已在途的轮询之后连续发出，最多被1条轮询隔开
+    assertTrue("优先级队列下开门应插队到积压的轮询之前", prioritized.max() <= 6)
+  }
+}
@@ -0,0 +1,162 @@
+package xyz.junerver.android.lockdemo.debounce
+
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import xyz.junerver.android.lockdemo.CountingCommandListener
+import xyz.junerver.android.lockdemo.DebounceFixture
+import xyz.junerver.android.lockdemo.ResponseFrames
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
+import xyz.junerver.android.lockdemo.lockctl.ResponseFrame
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * 状态查询合并与改写测试
+ * 1. 相同查询只收发一次，全部请求方都收到回调
+ * 2. 同一板地址的多条单通道查询改写为一条全部门状态查询，结果按通道派生回上层
+ * 3. 与逐条收发对比实际发出的指令数
+ */
+class QueryCoalescingTest {
+
+  private var fixture: DebounceFixture? = null
+  private val debounceManager get() = fixture!!.manager
+
+  @After
+  fun tearDown() {
+    fixture?.shutdown()
+    fixture = null
+  }
+
+  private fun setUp(coalescing: Boolean, rewriteThreshold: Int) {
+    fixture = DebounceFixture()
+    debounceManager.setQueryCoalescing(coalescing)
+    debounceManager.setQueryRewriteThreshold(rewriteThreshold)
+  }
+
+  private fun framesOf(command: Int) = fixture!!.framesOf(command)
+
+  @Test
+  fun testDefaultIsOff() {
+    setUp(false, 0)
+    assertEquals(false, debounceManager.isQueryCoalescing)
+    assertEquals(0, debounceManager.queryRewriteThreshold)
+
+    val latch = CountDownLatch(3)
+    val successCount = AtomicInteger()
+    repeat(3) {
+      debounceManager.sendCommand(LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, 1), CountingCommandListener(latch, successCount))
+    }
+    assertTrue(latch.await(5, TimeUnit.SECONDS))
+    Thread.sleep(50)
+
+    assertEquals("关闭时每条查询都应单独收发", 3, framesOf(0x83).size)
+    assertEquals(0L, debounceManager.status.totalCommandsCoalesced)
+  }
+
+  @Test
+  fun testIdenticalQueriesCoalesced() {
+    setUp(true, 0)
+
+    val latch = CountDownLatch(8)
+    val successCount = AtomicInteger()
+    repeat(5) {
+      debounceManager.sendCommand(LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, 2), CountingCommandListener(latch, successCount))
+    }
+    repeat(3) {
+      debounceManager.sendCommand(LockCtlBoardCmdHelper.getAllLocksStatusFrame(0x00), CountingCommandListener(latch, successCount))
+    }
+
+    assertTrue("查询应在5秒内完成", latch.await(5, TimeUnit.SECONDS))
+    Thread.sleep(50)
+    val status = debounceManager.status
+    println("合并后状态: $status")
+
+    assertEquals("全部请求方都应收到成功回调", 8, successCount.get())
+    assertEquals("相同的单通道查询只应收发一次", 1, framesOf(0x83).size)
+    assertEquals("相同的全部门状态查询只应收发一次", 1, framesOf(0x84).size)
+    assertEquals(6L, status.totalCommandsCoalesced)
+    assertEquals("完成数应按请求方计数", status.totalCommandsSent, status.totalCommandsCompleted)
+  }
+
+  @Test
+  fun testSingleLockQueriesRewritten() {
+    setUp(false, 3)
+
+    val latch = CountDownLatch(12)
+    val successCount = AtomicInteger()
+    for (channel in 1..12) {
+      debounceManager.sendCommand(LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, channel), CountingCommandListener(latch, successCount))
+    }
+
+    assertTrue("查询应在5秒内完成", latch.await(5, TimeUnit.SECONDS))
+    Thread.sleep(50)
+    val status = debounceManager.status
+    println("改写后状态: $status")
+
+    assertEquals(12, successCount.get())
+    // 排队的单通道查询改写为一条 0x84（第1条可能已直接发出），0x84 的响应不转发给上层
+    assertEquals("上层不应收到改写生成的全部门状态响应", 0, framesOf(0x84).size)
+    val channels = framesOf(0x83).map { it.channelId }.sorted()
+    assertEquals("每个通道都应收到一条单通道响应", (1..12).toList(), channels)
+    assertTrue("12条查询最多只应收发2次", status.totalCommandsSent - status.totalCommandsCoalesced <= 2)
+  }
+
+  @Test
+  fun testDeriveSingleLockStatus() {
+    val allStatus = ResponseFrame.decode(ResponseFrames.response(0x01, 0x84, 0x00, 0x03, 0x01, 0x00, 0x01))
+    assertNotNull(allStatus)
+
+    val derived = ResponseFrame.deriveSingleLockStatus(allStatus, 2)
+    assertNotNull("响应中包含的通道应派生成功", derived)
+    assertEquals(0x83, derived!!.commandByte)
+    assertEquals(0x01, derived.boardAddress)
+    assertEquals(2, derived.channelId)
+    assertEquals(0x00, derived.lockStatus)
+    assertTrue("派生的响应应为有效帧", ResponseFrame.isValidFrame(derived.rawData))
+
+    assertNull("响应中不含的通道应派生失败", ResponseFrame.deriveSingleLockStatus(allStatus, 4))
+  }
+
+  /**
+   * 3个界面各轮询一遍12个通道，另有后台任务查询全部门状态
+   *
+   * @return 实际发给锁控板的指令数
+   */
+  private fun runPollingBurst(coalescing: Boolean, rewriteThreshold: Int): Int {
+    setUp(coalescing, rewriteThreshold)
+
+    val latch = CountDownLatch(40)
+    val successCount = AtomicInteger()
+    repeat(3) {
+      for (channel in 1..12) {
+        debounceManager.sendCommand(LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, channel), CountingCommandListener(latch, successCount))
+      }
+    }
+    repeat(4) {
+      debounceManager.sendCommand(LockCtlBoardCmdHelper.getAllLocksStatusFrame(0x00), CountingCommandListener(latch, successCount))
+    }
+
+    assertTrue("查询应在15秒内完成", latch.await(15, TimeUnit.SECONDS))
+    assertEquals(40, successCount.get())
+    val sent = fixture!!.sender.sentCommands.size
+
+    tearDown()
+    return sent
+  }
+
+  @Test
+  fun testPollingBurstFramesOnWire() {
+    val serial = runPollingBurst(false, 0)
+    val coalesced = runPollingBurst(true, 0)
+    val rewritten = runPollingBurst(true, 3)
+
+    assertEquals("逐条收发时每条查询都应发出", 40, serial)
+    assertTrue("合并后发出的指令应少于逐条收发", coalesced < serial)
+    assertTrue("合并+改写发出的指令应少于仅合并", rewritten < coalesced)
+  }
+}
@@ -9,8 +9,6 @@ import org.junit.Assert.assertNotSame
 import org.junit.Assert.assertSame
 import org.junit.Assert.assertTrue
 import org.junit.Test
-import org.junit.runner.RunWith
-import org.robolectric.RobolectricTestRunner
 import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
 import xyz.junerver.android.lockdemo.lockctl.debounce.OnCommandListener
 import xyz.junerver.android.lockdemo.lockctl.debounce.QueuedCommand
@@ -19,7 +17,6 @@ import xyz.junerver.android.lockdemo.lockctl.debounce.QueuedCommand
  * QueuedCommand 测试类
  * 测试队列指令的创建、状态管理、时间计算等功能
  */
-@RunWith(RobolectricTestRunner::class)
 class QueuedCommandTest {
 
   @Test
@@ -59,7 +56,7 @@ class QueuedCommandTest {
     }
 
     // 应该抛出 IllegalArgumentException
-    QueuedCommand(null, listener)
+    QueuedCommand(null as ByteArray?, listener)
   }
 
   @Test(expected = IllegalArgumentException::class)
@@ -4,8 +4,6 @@ import org.junit.Assert.assertEquals
 import org.junit.Assert.assertFalse
 import org.junit.Assert.assertTrue
 import org.junit.Test
-import org.junit.runner.RunWith
-import org.robolectric.RobolectricTestRunner
 import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
 import xyz.junerver.android.lockdemo.lockctl.debounce.ResponseMatcher
 
@@ -13,7 +11,6 @@ import xyz.junerver.android.lockdemo.lockctl.debounce.ResponseMatcher
  * ResponseMatcher 测试类
  * 测试响应匹配器的格式验证、指令匹配、状态解析等功能
  */
-@RunWith(RobolectricTestRunner::class)
 class ResponseMatcherTest {
 
   /**
@@ -0,0 +1,146 @@
+package xyz.junerver.android.lockdemo.debounce
+
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import xyz.junerver.android.lockdemo.MockCommandSender
+import xyz.junerver.android.lockdemo.lockctl.LockCtlBoardCmdHelper
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandDebounceManager
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandExecutionStrategy
+import xyz.junerver.android.lockdemo.lockctl.debounce.OnCommandListener
+import xyz.junerver.android.lockdemo.lockctl.debounce.ResponseTimeModel
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * 实测超时测试
+ * 1. 样本不足时不低于静态超时
+ * 2. 快板收紧超时、慢板放宽超时
+ * 3. 超时后指数退避，成功后复位
+ * 4. 慢板上静态超时与实测超时的对比
+ */
+class ResponseTimeModelTest {
+
+  private var mockSender: MockCommandSender? = null
+  private var debounceManager: CommandDebounceManager? = null
+
+  private val board: Byte = 0x00
+  private val query: Byte = 0x83.toByte()
+  private val queryCommand = LockCtlBoardCmdHelper.buildGetSingleLockStatusCommand(0x00.toByte(), 1)!!
+
+  @After
+  fun tearDown() {
+    debounceManager?.shutdown()
+    mockSender?.shutdown()
+    mockSender = null
+    debounceManager = null
+  }
+
+  @Test
+  fun testColdStartUsesStaticTimeout() {
+    val model = ResponseTimeModel()
+    assertEquals("无样本时使用静态超时", 200L, CommandExecutionStrategy.calculateTimeout(queryCommand, model))
+
+    // 样本不足时，快速响应不会收紧超时
+    repeat(3) { model.recordResponse(board, query, 1, 20) }
+    assertEquals(200L, CommandExecutionStrategy.calculateTimeout(queryCommand, model))
+
+    // 样本不足时，慢速响应会放宽超时
+    model.recordResponse(board, query, 1, 300)
+    assertTrue("已观测到的慢响应应放宽超时", CommandExecutionStrategy.calculateTimeout(queryCommand, model) > 300)
+  }
+
+  @Test
+  fun testFastAndSlowBoards() {
+    val model = ResponseTimeModel()
+    val slowBoard: Byte = 0x01
+    repeat(32) { i ->
+      model.recordResponse(board, query, 1, 40L + i % 5)
+      model.recordResponse(slowBoard, query, 1, 280L + i % 20)
+    }
+    val slowCommand = LockCtlBoardCmdHelper.buildGetSingleLockStatusCommand(slowBoard, 1)!!
+
+    val fast = CommandExecutionStrategy.calculateTimeout(queryCommand, model)
+    val slow = CommandExecutionStrategy.calculateTimeout(slowCommand, model)
+    println("快板: ${model.getSnapshot(board, query)}, 超时 ${fast}ms")
+    println("慢板: ${model.getSnapshot(slowBoard, query)}, 超时 ${slow}ms")
+
+    assertTrue("快板超时应收紧到静态超时以下", fast < 200)
+    assertTrue("快板超时应覆盖其高分位延迟", fast > 44)
+    assertTrue("慢板超时应放宽到其高分位延迟以上", slow > 299)
+  }
+
+  @Test
+  fun testPerLockNormalization() {
+    val model = ResponseTimeModel()
+    // 逐一开3把锁，每把约300ms
+    repeat(10) { model.recordResponse(board, 0x87.toByte(), 3, 900) }
+    val snapshot = model.getSnapshot(board, 0x87.toByte())
+    assertNotNull(snapshot)
+    assertEquals("按单锁耗时记录", 300.0, snapshot!!.smoothedMs, 1.0)
+
+    val fiveLocks = LockCtlBoardCmdHelper.buildOpenMultipleSequentialCommand(board, 1, 2, 3, 4, 5)!!
+    val timeout = CommandExecutionStrategy.calculateTimeout(fiveLocks, model)
+    println("5把锁超时: ${timeout}ms")
+    assertTrue("超时应按锁数量放大", timeout >= 1500)
+  }
+
+  @Test
+  fun testBackoffAndReset() {
+    val model = ResponseTimeModel()
+    repeat(10) { model.recordResponse(board, query, 1, 50) }
+    val base = CommandExecutionStrategy.calculateTimeout(queryCommand, model)
+
+    model.recordTimeout(board, query)
+    assertEquals("超时后退避一次", base * 2, CommandExecutionStrategy.calculateTimeout(queryCommand, model))
+    model.recordTimeout(board, query)
+    assertEquals("超时后退避两次", base * 4, CommandExecutionStrategy.calculateTimeout(queryCommand, model))
+
+    model.recordResponse(board, query, 1, 50)
+    assertEquals("成功响应后复位", base, CommandExecutionStrategy.calculateTimeout(queryCommand, model))
+  }
+
+  private fun runSlowBoard(adaptive: Boolean): Int {
+    mockSender = MockCommandSender()
+    // 该板查询响应约260ms，超过静态超时200ms
+    mockSender!!.setDefaultResponseDelay(260)
+    debounceManager = CommandDebounceManager(mockSender!!)
+    debounceManager!!.setAdaptiveTimeout(adaptive)
+
+    val count = 20
+    val latch = CountDownLatch(count)
+    val timeouts = AtomicInteger()
+    for (i in 0 until count) {
+      debounceManager!!.sendCommand(
+        LockCtlBoardCmdHelper.getSingleLockStatusFrame(0x00, i % 12 + 1),
+        object : OnCommandListener {
+          override fun onSuccess() = latch.countDown()
+
+          override fun onError(error: String?) {
+            timeouts.incrementAndGet()
+            latch.countDown()
+          }
+        })
+    }
+
+    assertTrue("指令应在30秒内完成", latch.await(30, TimeUnit.SECONDS))
+    println("实测超时=$adaptive: ${debounceManager!!.responseTimeModel.getSnapshot(0x00, 0x83.toByte())}")
+    tearDown()
+    return timeouts.get()
+  }
+
+  @Test
+  fun benchmarkSlowBoardFalseTimeouts() {
+    val staticTimeouts = runSlowBoard(false)
+    val adaptiveTimeouts = runSlowBoard(true)
+
+    println("========== 慢板误报超时对比 ==========")
+    println("静态超时: $staticTimeouts / 20")
+    println("实测超时: $adaptiveTimeouts / 20")
+
+    assertTrue("实测超时应大幅减少误报", adaptiveTimeouts * 4 < staticTimeouts)
+  }
+}
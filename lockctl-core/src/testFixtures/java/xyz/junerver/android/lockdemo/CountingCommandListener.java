@@ -0,0 +1,42 @@
+package xyz.junerver.android.lockdemo;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import xyz.junerver.android.lockdemo.lockctl.debounce.OnCommandListener;
+
+/**
+ * 计数的指令回调
+ * 每次回调（成功或失败）对 latch 减一，成功时累加 successCount
+ */
+public class CountingCommandListener implements OnCommandListener {
+    private final CountDownLatch latch;
+    private final AtomicInteger successCount;
+
+    public CountingCommandListener(CountDownLatch latch) {
+        this(latch, null);
+    }
+
+    /**
+     * @param latch        每次回调减一
+     * @param successCount 成功次数，可为null
+     */
+    public CountingCommandListener(CountDownLatch latch, AtomicInteger successCount) {
+        this.latch = latch;
+        this.successCount = successCount;
+    }
+
+    @Override
+    public void onSuccess() {
+        if (successCount != null) {
+            successCount.incrementAndGet();
+        }
+        latch.countDown();
+    }
+
+    @Override
+    public void onError(String error) {
+        System.out.println("❌ 指令失败: " + error);
+        latch.countDown();
+    }
+}
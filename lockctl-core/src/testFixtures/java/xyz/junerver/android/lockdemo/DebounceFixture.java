@@ -0,0 +1,80 @@
+package xyz.junerver.android.lockdemo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import xyz.junerver.android.lockdemo.lockctl.ResponseFrame;
+import xyz.junerver.android.lockdemo.lockctl.debounce.CommandDebounceManager;
+import xyz.junerver.android.lockdemo.lockctl.debounce.OnResponseListener;
+
+/**
+ * 防抖管理器测试夹具
+ * 以 MockCommandSender 为下层创建 CommandDebounceManager，并记录转发给上层的响应帧
+ */
+public class DebounceFixture {
+    public final MockCommandSender sender;
+    public final CommandDebounceManager manager;
+
+    // 上层收到的响应帧
+    private final List<ResponseFrame> upstreamFrames = new ArrayList<>();
+
+    public DebounceFixture() {
+        sender = new MockCommandSender();
+        manager = new CommandDebounceManager(sender);
+        manager.setOnResponseListener(new OnResponseListener() {
+            @Override
+            public void onResponseReceived(byte[] response) {
+            }
+
+            @Override
+            public void onFrameReceived(ResponseFrame frame) {
+                synchronized (upstreamFrames) {
+                    upstreamFrames.add(frame);
+                }
+            }
+
+            @Override
+            public void onError(String error) {
+            }
+        });
+    }
+
+    /**
+     * 获取上层收到的指定指令字的响应帧
+     *
+     * @param command 指令字
+     * @return 响应帧列表的副本
+     */
+    public List<ResponseFrame> framesOf(int command) {
+        List<ResponseFrame> result = new ArrayList<>();
+        synchronized (upstreamFrames) {
+            for (ResponseFrame frame : upstreamFrames) {
+                if (frame.getCommandByte() == command) {
+                    result.add(frame);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取下层实际发出的指定指令字的指令数
+     *
+     * @param command 指令字
+     * @return 指令数
+     */
+    public int sentCountOf(int command) {
+        int count = 0;
+        for (byte[] sent : sender.getSentCommands()) {
+            if (sent.length > 6 && (sent[6] & 0xFF) == command) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void shutdown() {
+        manager.shutdown();
+        sender.shutdown();
+    }
+}
@@ -1,7 +1,5 @@
 package xyz.junerver.android.lockdemo;
 
-import android.util.Log;
-
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Executors;
@@ -9,6 +7,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import xyz.junerver.android.lockdemo.lockctl.LockCtlLog;
 import xyz.junerver.android.lockdemo.lockctl.debounce.CommandExecutionStrategy;
 import xyz.junerver.android.lockdemo.lockctl.debounce.CommandSender;
 import xyz.junerver.android.lockdemo.lockctl.debounce.OnResponseListener;
@@ -26,12 +25,14 @@ public class MockCommandSender implements CommandSender {
     private boolean useCustomDelay = false;  // 是否使用自定义延迟（用于测试）
     private boolean simulateErrors = false;  // 是否模拟错误
     private double errorRate = 0.0;          // 错误率（0.0-1.0）
+    private boolean holdResponses = false;   // 是否暂扣响应，直到 releaseHeldResponses
 
     // 状态管理
     private OnResponseListener responseListener;
     private final AtomicBoolean isConnected = new AtomicBoolean(false);
     private final List<byte[]> sentCommands = new ArrayList<>();
     private final List<CommandRecord> commandHistory = new ArrayList<>();
+    private final List<byte[]> heldCommands = new ArrayList<>();
 
     // 线程池：用于模拟延迟响应
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, r -> {
@@ -73,7 +74,7 @@ public class MockCommandSender implements CommandSender {
         if (autoConnect) {
             connect();
         }
-        Log.d(TAG, "MockCommandSender已创建，自动连接: " + autoConnect);
+        LockCtlLog.d(TAG, "MockCommandSender已创建，自动连接: " + autoConnect);
     }
 
     /**
@@ -81,13 +82,13 @@ public class MockCommandSender implements CommandSender {
      */
     public void connect() {
         isConnected.set(true);
-        Log.d(TAG, "MockCommandSender已连接");
+        LockCtlLog.d(TAG, "MockCommandSender已连接");
     }
 
     @Override
     public void sendCommand(byte[] command) {
         if (!isConnected.get()) {
-            Log.w(TAG, "未连接，拒绝发送指令");
+            LockCtlLog.w(TAG, "未连接，拒绝发送指令");
             if (responseListener != null) {
                 responseListener.onError("未连接");
             }
@@ -95,7 +96,7 @@ public class MockCommandSender implements CommandSender {
         }
 
         if (command == null) {
-            Log.w(TAG, "指令为null");
+            LockCtlLog.w(TAG, "指令为null");
             return;
         }
 
@@ -104,9 +105,16 @@ public class MockCommandSender implements CommandSender {
             sentCommands.add(command.clone());
         }
 
-        Log.d(TAG, String.format("发送指令: %s, 长度: %d",
+        LockCtlLog.d(TAG, "发送指令: %s, 长度: %d",
                 CommandExecutionStrategy.getCommandDescription(command.length > 6 ? command[6] : 0),
-                command.length));
+                command.length);
+
+        synchronized (heldCommands) {
+            if (holdResponses) {
+                heldCommands.add(command.clone());
+                return;
+            }
+        }
 
         // 模拟发送延迟和响应
         simulateResponse(command);
@@ -198,12 +206,15 @@ public class MockCommandSender implements CommandSender {
                 for (int i = 0; i < channelCount; i++) {
                     channels[i] = (byte) (Math.random() > 0.3 ? 0x01 : 0x00); // 70%概率关闭
                 }
-                byte[] allStatusData = new byte[1 + channelCount];
-                allStatusData[0] = channelCount;
-                System.arraycopy(channels, 0, allStatusData, 1, channelCount);
+                // 数据域：状态 + 通道数 + 各通道锁状态
+                byte[] allStatusData = new byte[2 + channelCount];
+                allStatusData[0] = 0x00;
+                allStatusData[1] = channelCount;
+                System.arraycopy(channels, 0, allStatusData, 2, channelCount);
                 return createResponse(boardAddress, commandByte, allStatusData);
 
             case (byte) 0x86: // 逐一开多锁
+            case (byte) 0x87: // 逐一开多锁 (实际使用)
                 return createResponse(boardAddress, commandByte, new byte[]{0x00});
 
             case (byte) 0x88: // 通道常开
@@ -310,7 +321,7 @@ public class MockCommandSender implements CommandSender {
     @Override
     public void disconnect() {
         isConnected.set(false);
-        Log.d(TAG, "MockCommandSender已断开连接");
+        LockCtlLog.d(TAG, "MockCommandSender已断开连接");
     }
 
     /**
@@ -324,7 +335,7 @@ public class MockCommandSender implements CommandSender {
                 if (!sentCommands.isEmpty()) {
                     command = sentCommands.get(sentCommands.size() - 1);
                 } else {
-                    Log.w(TAG, "没有可模拟响应的指令");
+                    LockCtlLog.w(TAG, "没有可模拟响应的指令");
                     return;
                 }
             }
@@ -343,25 +354,25 @@ public class MockCommandSender implements CommandSender {
             commandHistory.add(new CommandRecord(finalCommand, System.currentTimeMillis(), response, responseDelay));
         }
 
-        Log.d(TAG, String.format("计划在 %dms 后发送响应", responseDelay));
+        LockCtlLog.d(TAG, "计划在 %dms 后发送响应", responseDelay);
 
         // 使用调度器异步发送响应
         scheduler.schedule(() -> {
-            Log.i(TAG, String.format("发送响应: 延迟=%dms, 指令字=0x%02X, 监听器=%s",
+            LockCtlLog.i(TAG, "发送响应: 延迟=%dms, 指令字=0x%02X, 监听器=%s",
                     responseDelay, finalCommand.length > 6 ? finalCommand[6] & 0xFF : 0,
-                    responseListener != null ? "有" : "无"));
+                    responseListener != null ? "有" : "无");
 
             if (shouldSimulateError()) {
-                Log.w(TAG, "模拟错误响应");
+                LockCtlLog.w(TAG, "模拟错误响应");
                 if (responseListener != null) {
                     responseListener.onError("模拟的通信错误");
                 }
             } else {
-                Log.i(TAG, "发送成功响应");
+                LockCtlLog.i(TAG, "发送成功响应");
                 if (responseListener != null) {
                     responseListener.onResponseReceived(response);
                 } else {
-                    Log.w(TAG, "响应监听器为null，无法发送响应");
+                    LockCtlLog.w(TAG, "响应监听器为null，无法发送响应");
                 }
             }
         }, responseDelay, TimeUnit.MILLISECONDS);
@@ -412,7 +423,7 @@ public class MockCommandSender implements CommandSender {
         synchronized (commandHistory) {
             commandHistory.clear();
         }
-        Log.d(TAG, "已清空所有记录");
+        LockCtlLog.d(TAG, "已清空所有记录");
     }
 
     /**
@@ -431,6 +442,35 @@ public class MockCommandSender implements CommandSender {
         this.defaultResponseDelay = 100;
     }
 
+    /**
+     * 暂扣响应：之后发出的指令只记录，不响应，用于在确定的时刻检查在途指令
+     *
+     * @param hold 是否暂扣
+     */
+    public void setHoldResponses(boolean hold) {
+        synchronized (heldCommands) {
+            this.holdResponses = hold;
+        }
+    }
+
+    /**
+     * 停止暂扣，并按发出顺序响应已暂扣的指令
+     *
+     * @return 释放的指令数
+     */
+    public int releaseHeldResponses() {
+        List<byte[]> held;
+        synchronized (heldCommands) {
+            holdResponses = false;
+            held = new ArrayList<>(heldCommands);
+            heldCommands.clear();
+        }
+        for (byte[] command : held) {
+            simulateResponse(command);
+        }
+        return held.size();
+    }
+
     public void setSimulateErrors(boolean simulateErrors) {
         this.simulateErrors = simulateErrors;
     }
@@ -453,6 +493,6 @@ public class MockCommandSender implements CommandSender {
             Thread.currentThread().interrupt();
             scheduler.shutdownNow();
         }
-        Log.d(TAG, "MockCommandSender已关闭");
+        LockCtlLog.d(TAG, "MockCommandSender已关闭");
     }
 }
\ No newline at end of file
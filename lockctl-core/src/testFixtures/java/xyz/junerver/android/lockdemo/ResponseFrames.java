@@ -0,0 +1,38 @@
+package xyz.junerver.android.lockdemo;
+
+/**
+ * 构造测试与基准使用的锁控板响应帧
+ */
+public final class ResponseFrames {
+
+    private ResponseFrames() {
+    }
+
+    /**
+     * 构造响应帧：起始符 "WKLY" + 帧长度 + 板地址 + 指令字 + 数据域 + 异或校验
+     *
+     * @param boardAddress 板地址
+     * @param command      指令字
+     * @param data         数据域
+     * @return 完整的响应帧
+     */
+    public static byte[] response(int boardAddress, int command, int... data) {
+        byte[] frame = new byte[8 + data.length];
+        frame[0] = 0x57;
+        frame[1] = 0x4B;
+        frame[2] = 0x4C;
+        frame[3] = 0x59;
+        frame[4] = (byte) frame.length;
+        frame[5] = (byte) boardAddress;
+        frame[6] = (byte) command;
+        for (int i = 0; i < data.length; i++) {
+            frame[7 + i] = (byte) data[i];
+        }
+        byte checksum = 0;
+        for (int i = 0; i < frame.length - 1; i++) {
+            checksum ^= frame[i];
+        }
+        frame[frame.length - 1] = checksum;
+        return frame;
+    }
+}
@@ -22,4 +22,6 @@ dependencyResolutionManagement {
 
 rootProject.name = "LockDemo"
 include(":app")
+include(":lockctl-core")
+include(":benchmark")
  
\ No newline at end of file